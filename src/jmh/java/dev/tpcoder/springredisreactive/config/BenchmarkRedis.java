@@ -0,0 +1,51 @@
+package dev.tpcoder.springredisreactive.config;
+
+import dev.tpcoder.springredisreactive.serializer.CompressionStats;
+import dev.tpcoder.springredisreactive.serializer.TypeRegistry;
+import dev.tpcoder.springredisreactive.service.InMemoryReactiveRedisOperations;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.ReactiveRedisOperations;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+public final class BenchmarkRedis {
+
+    private BenchmarkRedis() {
+    }
+
+    // In-memory operations using the value serializer of the application, built from the default properties
+    public static ReactiveRedisOperations<String, Object> inMemory() {
+        return InMemoryReactiveRedisOperations.create(serializationContext());
+    }
+
+    // Key and value serialization of the application, built from the default properties
+    public static RedisSerializationContext<String, Object> serializationContext() {
+        RedisConfig config = new RedisConfig();
+        return RedisSerializationContext
+                .<String, Object>newSerializationContext(new StringRedisSerializer())
+                .value(config.redisValueSerializer(config.typeRegistry(), new SerializationProperties(),
+                        new CompressionProperties(), new CompressionStats(), new RedisMetricsProperties(),
+                        noMeterRegistry()))
+                .build();
+    }
+
+    // Value serializer of the application writing with the given codec, other properties at their defaults
+    public static RedisSerializer<Object> valueSerializer(SerializationProperties.Codec codec) {
+        RedisConfig config = new RedisConfig();
+        SerializationProperties serialization = new SerializationProperties();
+        serialization.setCodec(codec);
+        return config.redisValueSerializer(config.typeRegistry(), serialization, new CompressionProperties(),
+                new CompressionStats(), new RedisMetricsProperties(), noMeterRegistry());
+    }
+
+    public static TypeRegistry typeRegistry() {
+        return new RedisConfig().typeRegistry();
+    }
+
+    static ObjectProvider<MeterRegistry> noMeterRegistry() {
+        return new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class);
+    }
+}
@@ -0,0 +1,95 @@
+package dev.tpcoder.springredisreactive.config;
+
+import dev.tpcoder.springredisreactive.model.Item;
+import dev.tpcoder.springredisreactive.model.User;
+import dev.tpcoder.springredisreactive.serializer.CompressionStats;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Encode/decode cost of User and Item through the serialization context built by {@link RedisConfig},
+ * compared with the former untyped JSON serializer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"legacy-json", "json", "smile", "smile-deflate"})
+    private String format;
+
+    // Length of the user name fields, large values are the ones compression is meant for
+    @Param({"16", "4096"})
+    private int fieldLength;
+
+    private RedisSerializationContext.SerializationPair<Object> pair;
+    private User user;
+    private Item item;
+    private ByteBuffer userBytes;
+    private ByteBuffer itemBytes;
+
+    @Setup
+    public void setUp() {
+        user = new User();
+        user.setId("user1").setFirstName("f".repeat(fieldLength)).setLastName("l".repeat(fieldLength));
+        item = new Item();
+        item.setId("item1").setName("bottle").setAmount(42L);
+        pair = context().getValueSerializationPair();
+        userBytes = pair.write(user);
+        itemBytes = pair.write(item);
+    }
+
+    @Benchmark
+    public ByteBuffer writeUser() {
+        return pair.write(user);
+    }
+
+    @Benchmark
+    public Object readUser() {
+        return pair.read(userBytes.duplicate());
+    }
+
+    @Benchmark
+    public ByteBuffer writeItem() {
+        return pair.write(item);
+    }
+
+    @Benchmark
+    public Object readItem() {
+        return pair.read(itemBytes.duplicate());
+    }
+
+    private RedisSerializationContext<String, Object> context() {
+        RedisConfig config = new RedisConfig();
+        RedisSerializer<Object> serializer;
+        if ("legacy-json".equals(format)) {
+            serializer = new Jackson2JsonRedisSerializer<>(Object.class);
+        } else {
+            SerializationProperties serialization = new SerializationProperties();
+            serialization.setCodec("json".equals(format) ? SerializationProperties.Codec.JSON : SerializationProperties.Codec.SMILE);
+            CompressionProperties compression = new CompressionProperties();
+            compression.setEnabled("smile-deflate".equals(format));
+            serializer = config.redisValueSerializer(config.typeRegistry(), serialization, compression,
+                    new CompressionStats(), new RedisMetricsProperties(), BenchmarkRedis.noMeterRegistry());
+        }
+        return config.redisOperations(new LettuceConnectionFactory(), serializer).getSerializationContext();
+    }
+}
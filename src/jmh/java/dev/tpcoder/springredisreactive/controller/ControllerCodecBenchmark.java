@@ -0,0 +1,118 @@
+package dev.tpcoder.springredisreactive.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.tpcoder.springredisreactive.model.Item;
+import dev.tpcoder.springredisreactive.model.User;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+
+/**
+ * WebFlux JSON encode/decode cost per controller endpoint, i.e. what every request pays on top of Redis.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControllerCodecBenchmark {
+
+    private static final ResolvableType USER = ResolvableType.forClass(User.class);
+    private static final ResolvableType ITEM = ResolvableType.forClass(Item.class);
+    private static final ResolvableType OBJECT = ResolvableType.forClass(Object.class);
+    private static final ResolvableType USER_MAP = ResolvableType.forClassWithGenerics(Map.class, String.class, User.class);
+
+    private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+    private Jackson2JsonEncoder encoder;
+    private Jackson2JsonDecoder decoder;
+    private User user;
+    private Map<String, Object> pageOfUsers;
+    private byte[] userJson;
+    private byte[] itemJson;
+    private byte[] pageOfUsersJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        encoder = new Jackson2JsonEncoder(objectMapper);
+        decoder = new Jackson2JsonDecoder(objectMapper);
+        user = new User();
+        user.setId("user1").setFirstName("firstName").setLastName("lastName");
+        Item item = new Item();
+        item.setAmount(10L);
+        pageOfUsers = new LinkedHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            pageOfUsers.put("user" + i, i % 10 == 0 ? null : user);
+        }
+        userJson = objectMapper.writeValueAsBytes(user);
+        itemJson = objectMapper.writeValueAsBytes(item);
+        pageOfUsersJson = objectMapper.writeValueAsBytes(pageOfUsers);
+    }
+
+    // GET /users/{userId}
+    @Benchmark
+    public int readUser() {
+        return encode(user);
+    }
+
+    // POST /users/{userId}
+    @Benchmark
+    public Object saveUser() {
+        return decode(userJson, USER);
+    }
+
+    // GET /users?ids=...
+    @Benchmark
+    public int readUsers() {
+        return encode(pageOfUsers);
+    }
+
+    // POST /users/_bulk
+    @Benchmark
+    public Object saveUsers() {
+        return decode(pageOfUsersJson, USER_MAP);
+    }
+
+    // GET /items/{itemId}
+    @Benchmark
+    public int readItem() {
+        return encode(10L);
+    }
+
+    // POST and PUT /items/{itemId}
+    @Benchmark
+    public Object updateItem() {
+        return decode(itemJson, ITEM);
+    }
+
+    private int encode(Object value) {
+        DataBuffer buffer = encoder.encodeValue(value, bufferFactory, OBJECT, MediaType.APPLICATION_JSON,
+                Collections.emptyMap());
+        int size = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return size;
+    }
+
+    private Object decode(byte[] json, ResolvableType type) {
+        return decoder.decode(bufferFactory.wrap(json), type, MediaType.APPLICATION_JSON, Collections.emptyMap());
+    }
+}
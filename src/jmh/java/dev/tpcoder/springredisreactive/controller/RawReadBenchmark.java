@@ -0,0 +1,93 @@
+package dev.tpcoder.springredisreactive.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.tpcoder.springredisreactive.config.BenchmarkRedis;
+import dev.tpcoder.springredisreactive.config.RawReadProperties;
+import dev.tpcoder.springredisreactive.config.SerializationProperties;
+import dev.tpcoder.springredisreactive.model.User;
+import dev.tpcoder.springredisreactive.service.RawValues;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+
+/**
+ * GET /users/{userId} from stored bytes to response bytes: decoding the value and encoding it again with
+ * the WebFlux JSON encoder, against passing the stored JSON through with {@link RawValues}. Run with
+ * {@code -prof gc} to compare the allocation per read as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RawReadBenchmark {
+
+    private static final ResolvableType OBJECT = ResolvableType.forClass(Object.class);
+
+    // With smile the raw path cannot pass the value through and decodes it, this shows what that costs
+    @Param({"json", "smile"})
+    private String codec;
+
+    // Length of the user name fields
+    @Param({"16", "1024"})
+    private int fieldLength;
+
+    private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+    private RedisSerializer<Object> serializer;
+    private Jackson2JsonEncoder encoder;
+    private RawValues rawValues;
+    private ByteBuffer stored;
+
+    @Setup
+    public void setUp() {
+        serializer = BenchmarkRedis.valueSerializer(
+                "json".equals(codec) ? SerializationProperties.Codec.JSON : SerializationProperties.Codec.SMILE);
+        encoder = new Jackson2JsonEncoder(new ObjectMapper());
+        RawReadProperties properties = new RawReadProperties();
+        properties.setEnabled(true);
+        rawValues = new RawValues(serializer, BenchmarkRedis.typeRegistry(), properties);
+        User user = new User();
+        user.setId("user1").setFirstName("f".repeat(fieldLength)).setLastName("l".repeat(fieldLength));
+        stored = ByteBuffer.wrap(serializer.serialize(user));
+    }
+
+    @Benchmark
+    public int decodeAndEncode() {
+        byte[] bytes = new byte[stored.remaining()];
+        stored.duplicate().get(bytes);
+        return encode(serializer.deserialize(bytes));
+    }
+
+    @Benchmark
+    public int passthrough() {
+        Object body = rawValues.toBody(stored.duplicate());
+        return body instanceof DataBuffer ? ((DataBuffer) body).readableByteCount() : encode(body);
+    }
+
+    private int encode(Object value) {
+        DataBuffer buffer = encoder.encodeValue(value, bufferFactory, OBJECT, MediaType.APPLICATION_JSON,
+                Collections.emptyMap());
+        int size = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return size;
+    }
+}
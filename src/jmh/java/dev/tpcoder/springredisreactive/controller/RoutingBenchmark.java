@@ -0,0 +1,134 @@
+package dev.tpcoder.springredisreactive.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.tpcoder.springredisreactive.config.BenchmarkRedis;
+import dev.tpcoder.springredisreactive.config.RawReadProperties;
+import dev.tpcoder.springredisreactive.config.RedisServiceProperties;
+import dev.tpcoder.springredisreactive.config.SerializationProperties;
+import dev.tpcoder.springredisreactive.model.User;
+import dev.tpcoder.springredisreactive.service.BenchmarkUserStores;
+import dev.tpcoder.springredisreactive.service.RawValues;
+import dev.tpcoder.springredisreactive.service.RedisService;
+import dev.tpcoder.springredisreactive.service.RedisServiceImpl;
+import dev.tpcoder.springredisreactive.service.UserStore;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.web.reactive.config.EnableWebFlux;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+
+/**
+ * One request through the whole WebFlux stack, from the request to the encoded response, with the annotated
+ * controllers against the router functions of {@code app.web.functional-routes}. Redis is the in-memory
+ * stand-in, so the difference is handler mapping, argument resolution and body decoding. Run with
+ * {@code -prof gc} to compare the allocation per request as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutingBenchmark {
+
+    private static final String USER_JSON = "{\"id\":\"user1\",\"firstName\":\"firstName\",\"lastName\":\"lastName\"}";
+
+    @Param({"annotated", "functional"})
+    private String routing;
+
+    private AnnotationConfigApplicationContext context;
+    private HttpHandler httpHandler;
+
+    @Setup
+    public void setUp() {
+        // Without a logging config WebFlux logs every request at debug
+        LoggingSystem.get(getClass().getClassLoader()).setLogLevel(LoggingSystem.ROOT_LOGGER_NAME, LogLevel.WARN);
+        RedisService redisService = new RedisServiceImpl(BenchmarkRedis.inMemory(), new RedisServiceProperties(),
+                new ObjectMapper());
+        RawValues rawValues = new RawValues(BenchmarkRedis.valueSerializer(SerializationProperties.Codec.SMILE),
+                BenchmarkRedis.typeRegistry(), new RawReadProperties());
+        UserStore userStore = BenchmarkUserStores.valueUserStore(redisService, rawValues);
+        userStore.save("user1", new User().setId("user1").setFirstName("firstName").setLastName("lastName")).block();
+        redisService.put("item1", 5L).block();
+
+        // Both contexts have the controllers, like the application, the functional one puts its routes in front
+        context = new AnnotationConfigApplicationContext();
+        context.register(WebConfig.class);
+        context.registerBean(UserController.class, () -> new UserController(userStore));
+        context.registerBean(ItemController.class,
+                () -> new ItemController(redisService, null, null, null, rawValues, null));
+        if ("functional".equals(routing)) {
+            ServerCodecConfigurer codecs = ServerCodecConfigurer.create();
+            context.registerBean("functionalRoutes", RouterFunction.class, () -> new UserHandler(userStore,
+                    codecs.getReaders()).routes().and(new ItemHandler(redisService, rawValues, codecs.getReaders()).routes()));
+        }
+        context.refresh();
+        httpHandler = WebHttpHandlerBuilder.applicationContext(context).build();
+        // A route that is not served would measure a fast 404
+        for (HttpStatus status : new HttpStatus[]{readUser(), saveUser(), readItem(), saveItemAmount()}) {
+            if (!status.is2xxSuccessful()) {
+                throw new IllegalStateException("Unexpected status " + status);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public HttpStatus readUser() {
+        return handle(MockServerHttpRequest.get("/users/user1").accept(MediaType.APPLICATION_JSON).build());
+    }
+
+    @Benchmark
+    public HttpStatus saveUser() {
+        return handle(MockServerHttpRequest.post("/users/user1").contentType(MediaType.APPLICATION_JSON).body(USER_JSON));
+    }
+
+    @Benchmark
+    public HttpStatus readItem() {
+        return handle(MockServerHttpRequest.get("/items/item1").accept(MediaType.APPLICATION_JSON).build());
+    }
+
+    @Benchmark
+    public HttpStatus saveItemAmount() {
+        return handle(MockServerHttpRequest.post("/items/item1").contentType(MediaType.APPLICATION_JSON)
+                .body("{\"amount\":5}"));
+    }
+
+    private HttpStatus handle(MockServerHttpRequest request) {
+        MockServerHttpResponse response = new MockServerHttpResponse();
+        httpHandler.handle(request, response).block();
+        // Not set when the handler kept the default
+        return response.getStatusCode() != null ? response.getStatusCode() : HttpStatus.OK;
+    }
+
+    @Configuration
+    @EnableWebFlux
+    static class WebConfig {
+    }
+}
@@ -0,0 +1,14 @@
+package dev.tpcoder.springredisreactive.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public final class BenchmarkUserStores {
+
+    private BenchmarkUserStores() {
+    }
+
+    // The default user store of the application on top of the given service
+    public static UserStore valueUserStore(RedisService redisService, RawValues rawValues) {
+        return new ValueUserStore(redisService, new UserFields(new ObjectMapper()), rawValues);
+    }
+}
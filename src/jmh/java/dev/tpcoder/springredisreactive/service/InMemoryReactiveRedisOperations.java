@@ -0,0 +1,150 @@
+package dev.tpcoder.springredisreactive.service;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+import org.reactivestreams.Publisher;
+import org.springframework.data.redis.core.ReactiveRedisOperations;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-memory stand-in for {@link ReactiveRedisOperations} covering the commands {@link RedisServiceImpl} uses.
+ * Values go through the real serialization context and are kept as bytes, so codec cost stays in the
+ * measurement while the network does not. KEYS and SCAN walk the whole map like the server would.
+ */
+public final class InMemoryReactiveRedisOperations {
+
+    private final ConcurrentMap<String, byte[]> store = new ConcurrentHashMap<>();
+    private final RedisSerializationContext<String, Object> context;
+
+    private InMemoryReactiveRedisOperations(RedisSerializationContext<String, Object> context) {
+        this.context = context;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static ReactiveRedisOperations<String, Object> create(RedisSerializationContext<String, Object> context) {
+        InMemoryReactiveRedisOperations redis = new InMemoryReactiveRedisOperations(context);
+        ReactiveValueOperations<String, Object> valueOperations = (ReactiveValueOperations<String, Object>) Proxy
+                .newProxyInstance(InMemoryReactiveRedisOperations.class.getClassLoader(),
+                        new Class<?>[]{ReactiveValueOperations.class},
+                        (proxy, method, args) -> redis.valueCommand(method, args));
+        return (ReactiveRedisOperations<String, Object>) Proxy
+                .newProxyInstance(InMemoryReactiveRedisOperations.class.getClassLoader(),
+                        new Class<?>[]{ReactiveRedisOperations.class},
+                        (proxy, method, args) -> "opsForValue".equals(method.getName())
+                                ? valueOperations
+                                : redis.keyCommand(method, args));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object keyCommand(Method method, Object[] args) {
+        switch (method.getName()) {
+            case "keys":
+                return matching((String) args[0]);
+            case "scan":
+                return matching(args == null ? null : ((ScanOptions) args[0]).getPattern());
+            case "delete":
+                if (args[0] instanceof Publisher) {
+                    return Flux.from((Publisher<String>) args[0]).filter(k -> store.remove(k) != null).count();
+                }
+                long removed = 0;
+                for (Object key : (Object[]) args[0]) {
+                    removed += store.remove((String) key) != null ? 1 : 0;
+                }
+                return Mono.just(removed);
+            case "hasKey":
+            case "expire":
+            case "expireAt":
+            case "persist":
+                return Mono.just(store.containsKey((String) args[0]));
+            case "getExpire":
+                return Mono.just(Duration.ZERO);
+            case "getSerializationContext":
+                return context;
+            default:
+                throw new UnsupportedOperationException(method.toString());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object valueCommand(Method method, Object[] args) {
+        switch (method.getName()) {
+            case "set":
+                store.put((String) args[0], write(args[1]));
+                return Mono.just(Boolean.TRUE);
+            case "get":
+                return Mono.justOrEmpty(store.get((String) args[0])).map(this::read);
+            case "getAndSet":
+                return Mono.justOrEmpty(store.put((String) args[0], write(args[1]))).map(this::read);
+            case "multiGet":
+                List<Object> values = new ArrayList<>();
+                for (String key : (Collection<String>) args[0]) {
+                    byte[] bytes = store.get(key);
+                    values.add(bytes == null ? null : read(bytes));
+                }
+                return Mono.just(values);
+            case "multiSet":
+                ((Map<String, Object>) args[0]).forEach((key, value) -> store.put(key, write(value)));
+                return Mono.just(Boolean.TRUE);
+            case "increment":
+                return Mono.just(add((String) args[0], args.length > 1 ? (Long) args[1] : 1L));
+            case "decrement":
+                return Mono.just(add((String) args[0], args.length > 1 ? -(Long) args[1] : -1L));
+            case "size":
+                return Mono.just((long) store.getOrDefault((String) args[0], new byte[0]).length);
+            default:
+                throw new UnsupportedOperationException(method.toString());
+        }
+    }
+
+    private Flux<String> matching(String glob) {
+        Pattern pattern = Pattern.compile(globToRegex(glob == null ? "*" : glob));
+        return Flux.fromIterable(store.keySet()).filter(key -> pattern.matcher(key).matches());
+    }
+
+    private long add(String key, long delta) {
+        byte[] bytes = store.compute(key, (k, old) -> {
+            long current = old == null ? 0L : Long.parseLong(new String(old, StandardCharsets.US_ASCII));
+            return String.valueOf(current + delta).getBytes(StandardCharsets.US_ASCII);
+        });
+        return Long.parseLong(new String(bytes, StandardCharsets.US_ASCII));
+    }
+
+    private byte[] write(Object value) {
+        ByteBuffer buffer = context.getValueSerializationPair().write(value);
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private Object read(byte[] bytes) {
+        return context.getValueSerializationPair().read(ByteBuffer.wrap(bytes));
+    }
+
+    private static String globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return regex.toString();
+    }
+}
@@ -0,0 +1,74 @@
+package dev.tpcoder.springredisreactive.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.tpcoder.springredisreactive.config.BenchmarkRedis;
+import dev.tpcoder.springredisreactive.config.RedisServiceProperties;
+import dev.tpcoder.springredisreactive.model.User;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.core.ReactiveRedisOperations;
+import reactor.core.publisher.Mono;
+
+/**
+ * Point lookup latency as the keyspace grows: the former KEYS-then-GET lookup against a direct GET.
+ * Sample time mode reports the p99 next to the mean.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class KeyspaceLookupBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int keyspaceSize;
+
+    private ReactiveRedisOperations<String, Object> operations;
+    private RedisService redisService;
+
+    @Setup
+    public void setUp() {
+        operations = BenchmarkRedis.inMemory();
+        redisService = new RedisServiceImpl(operations, new RedisServiceProperties(), new ObjectMapper());
+        User user = new User();
+        user.setFirstName("firstName").setLastName("lastName");
+        Map<String, Object> batch = new HashMap<>();
+        for (int i = 0; i < keyspaceSize; i++) {
+            batch.put("user" + i, user);
+            if (batch.size() == 10_000) {
+                operations.opsForValue().multiSet(batch).block();
+                batch.clear();
+            }
+        }
+        operations.opsForValue().multiSet(batch).block();
+    }
+
+    @Benchmark
+    public Object keysThenGet() {
+        String key = randomKey();
+        return Mono.from(operations.keys(key).flatMap(operations.opsForValue()::get)).block();
+    }
+
+    @Benchmark
+    public Object directGet() {
+        return redisService.get(randomKey()).block();
+    }
+
+    private String randomKey() {
+        return "user" + ThreadLocalRandom.current().nextInt(keyspaceSize);
+    }
+}
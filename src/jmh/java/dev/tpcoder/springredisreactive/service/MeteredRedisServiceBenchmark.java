@@ -0,0 +1,61 @@
+package dev.tpcoder.springredisreactive.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.tpcoder.springredisreactive.config.BenchmarkRedis;
+import dev.tpcoder.springredisreactive.config.RedisServiceProperties;
+import dev.tpcoder.springredisreactive.model.User;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Overhead of {@link MeteredRedisService} on top of the plain call chain, with the Prometheus registry
+ * the application exports to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeteredRedisServiceBenchmark {
+
+    @Param({"plain", "metered"})
+    private String mode;
+
+    private RedisService redisService;
+
+    @Setup
+    public void setUp() {
+        redisService = new RedisServiceImpl(BenchmarkRedis.inMemory(), new RedisServiceProperties(), new ObjectMapper());
+        if ("metered".equals(mode)) {
+            redisService = new MeteredRedisService(redisService, new PrometheusMeterRegistry(PrometheusConfig.DEFAULT),
+                    new KeyNamespaces(Set.of()), true);
+        }
+        User user = new User();
+        user.setId("user1").setFirstName("firstName").setLastName("lastName");
+        redisService.put("user1", user).block();
+    }
+
+    @Benchmark
+    public Object get() {
+        return redisService.get("user1").block();
+    }
+
+    @Benchmark
+    public Object getMissing() {
+        return redisService.get("missing").block();
+    }
+}
@@ -0,0 +1,105 @@
+package dev.tpcoder.springredisreactive.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.tpcoder.springredisreactive.config.BenchmarkRedis;
+import dev.tpcoder.springredisreactive.config.RedisServiceProperties;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.codec.ByteArrayCodec;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+/**
+ * A batch of {@value #BATCH_SIZE} commands through the shared connection, which flushes every command, against
+ * the {@link PipelinedBatchExecutor}, which flushes once. Needs a running Redis at {@code redisUrl}; the
+ * benchmark writes keys under {@code bench:}. Scores are per command.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(PipeliningBenchmark.BATCH_SIZE)
+public class PipeliningBenchmark {
+
+    static final int BATCH_SIZE = 100;
+
+    @Param("redis://localhost:6379")
+    public String redisUrl;
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisClient pipelineClient;
+    private RedisService sharedConnection;
+    private PipelinedBatchExecutor pipelined;
+    private RedisBatch reads;
+    private RedisBatch writes;
+
+    @Setup
+    public void setUp() {
+        RedisSerializationContext<String, Object> serializationContext = BenchmarkRedis.serializationContext();
+        connectionFactory = new LettuceConnectionFactory(LettuceConnectionFactory.createRedisConfiguration(redisUrl));
+        connectionFactory.afterPropertiesSet();
+        sharedConnection = new RedisServiceImpl(new ReactiveRedisTemplate<>(connectionFactory, serializationContext),
+                new RedisServiceProperties(), new ObjectMapper());
+        pipelineClient = RedisClient.create();
+        pipelined = new PipelinedBatchExecutor(
+                () -> pipelineClient.connectAsync(ByteArrayCodec.INSTANCE, RedisURI.create(redisUrl)),
+                serializationContext, 1000);
+
+        reads = new RedisBatch();
+        writes = new RedisBatch();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            reads.get("bench:" + i);
+            writes.set("bench:" + i, (long) i, Duration.ofMinutes(5));
+        }
+        List<Object> written = sharedConnection.executeBatch(writes).block();
+        if (written == null || written.size() != BATCH_SIZE) {
+            throw new IllegalStateException("Could not write the benchmark keys to " + redisUrl);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pipelined.close();
+        pipelineClient.shutdown();
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    public List<Object> readsSharedConnection() {
+        return sharedConnection.executeBatch(reads).block();
+    }
+
+    @Benchmark
+    public List<Object> readsPipelined() {
+        return pipelined.execute(reads).block();
+    }
+
+    @Benchmark
+    public List<Object> writesSharedConnection() {
+        return sharedConnection.executeBatch(writes).block();
+    }
+
+    @Benchmark
+    public List<Object> writesPipelined() {
+        return pipelined.execute(writes).block();
+    }
+}
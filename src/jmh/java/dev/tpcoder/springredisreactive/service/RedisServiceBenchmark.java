@@ -0,0 +1,73 @@
+package dev.tpcoder.springredisreactive.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.tpcoder.springredisreactive.config.BenchmarkRedis;
+import dev.tpcoder.springredisreactive.config.RedisServiceProperties;
+import dev.tpcoder.springredisreactive.model.User;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of the {@link RedisService} call chain itself, Redis replaced by {@link InMemoryReactiveRedisOperations}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisServiceBenchmark {
+
+    private RedisService redisService;
+    private User user;
+    private List<String> pageOfIds;
+
+    @Setup
+    public void setUp() {
+        redisService = new RedisServiceImpl(BenchmarkRedis.inMemory(), new RedisServiceProperties(), new ObjectMapper());
+        user = new User();
+        user.setId("user1").setFirstName("firstName").setLastName("lastName");
+        pageOfIds = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            redisService.put("user" + i, user).block();
+            pageOfIds.add("user" + i);
+        }
+        redisService.put("item1", 0L).block();
+    }
+
+    @Benchmark
+    public Object get() {
+        return redisService.get("user1").block();
+    }
+
+    @Benchmark
+    public User getTyped() {
+        return redisService.get("user1", User.class).block();
+    }
+
+    @Benchmark
+    public Boolean put() {
+        return redisService.put("user1", user).block();
+    }
+
+    @Benchmark
+    public List<Object> multiGet100() {
+        return redisService.multiGet(pageOfIds).block();
+    }
+
+    @Benchmark
+    public Long increment() {
+        return redisService.increment("item1", 1L).block();
+    }
+}
@@ -0,0 +1,118 @@
+package dev.tpcoder.springredisreactive.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latencies of the measured requests per {@link Operation}, in microseconds from the time each request was
+ * scheduled to be sent. Requests that fail or come back with a non-2xx status are recorded as well and counted
+ * as errors; requests that were never sent because too many were in flight are only counted. Throughput counts
+ * the successful responses over the time from the start of the measurement to the last response, so a server
+ * that falls behind shows a lower rate than the one offered.
+ */
+final class LatencyReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Map<Operation, Recorded> recorded = new EnumMap<>(Operation.class);
+    private final Histogram sendLag = new ConcurrentHistogram(3);
+    private final AtomicLong lastCompletion = new AtomicLong();
+    private volatile long measureFrom;
+
+    LatencyReport(Operation[] operations) {
+        for (Operation operation : operations) {
+            recorded.put(operation, new Recorded());
+        }
+    }
+
+    // Scheduled send time of the first measured request
+    void begin(long nanoTime) {
+        measureFrom = nanoTime;
+    }
+
+    void record(Operation operation, long latencyNanos, boolean success) {
+        Recorded r = recorded.get(operation);
+        r.latencies.recordValue(Math.max(1, latencyNanos / 1000));
+        if (!success) {
+            r.errors.increment();
+        }
+        lastCompletion.accumulateAndGet(System.nanoTime(), Math::max);
+    }
+
+    void reject(Operation operation) {
+        recorded.get(operation).rejected.increment();
+    }
+
+    // How late a request went out against its schedule, large values mean the generator could not keep up
+    void recordSendLag(long lagNanos) {
+        sendLag.recordValue(Math.max(0, lagNanos / 1000));
+    }
+
+    /**
+     * Prints the summary table to {@code out} and writes it to {@code report.txt} in {@code directory}, next to
+     * one {@code .hgrm} percentile distribution per operation that HdrHistogram's plotter can read.
+     */
+    void write(Path directory, List<String> settings, Duration duration, PrintStream out) throws IOException {
+        Files.createDirectories(directory);
+        double measuredSeconds = Math.max(duration.toNanos(), lastCompletion.get() - measureFrom) / 1e9;
+        Histogram all = new Histogram(3);
+        StringBuilder report = new StringBuilder();
+        settings.forEach(line -> report.append(line).append('\n'));
+        report.append('\n').append(String.format(Locale.ROOT, "%-12s %10s %8s %9s %12s %10s %10s %10s %10s%n",
+                "operation", "count", "errors", "rejected", "ok/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        long errors = 0;
+        long rejected = 0;
+        for (Map.Entry<Operation, Recorded> entry : recorded.entrySet()) {
+            Recorded r = entry.getValue();
+            Histogram latencies = r.latencies.copy();
+            all.add(latencies);
+            errors += r.errors.sum();
+            rejected += r.rejected.sum();
+            report.append(row(entry.getKey().getLabel(), latencies, r.errors.sum(), r.rejected.sum(), measuredSeconds));
+            writeDistribution(directory.resolve(entry.getKey().getLabel() + ".hgrm"), latencies);
+        }
+        report.append(row("all", all, errors, rejected, measuredSeconds));
+        writeDistribution(directory.resolve("all.hgrm"), all);
+        Histogram lag = sendLag.copy();
+        report.append('\n').append(String.format(Locale.ROOT, "measured: %.1f s until the last response%n",
+                measuredSeconds));
+        report.append(String.format(Locale.ROOT, "send lag: p99 %.3f ms, max %.3f ms%n",
+                lag.getValueAtPercentile(99) / MICROS_PER_MILLI, lag.getMaxValue() / MICROS_PER_MILLI));
+        Files.writeString(directory.resolve("report.txt"), report, StandardCharsets.UTF_8);
+        out.print(report);
+    }
+
+    private static String row(String label, Histogram latencies, long errors, long rejected, double seconds) {
+        return String.format(Locale.ROOT, "%-12s %10d %8d %9d %12.1f %10.3f %10.3f %10.3f %10.3f%n",
+                label, latencies.getTotalCount(), errors, rejected, (latencies.getTotalCount() - errors) / seconds,
+                latencies.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                latencies.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                latencies.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                latencies.getMaxValue() / MICROS_PER_MILLI);
+    }
+
+    private static void writeDistribution(Path file, Histogram latencies) throws IOException {
+        try (PrintStream stream = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8)) {
+            latencies.outputPercentileDistribution(stream, MICROS_PER_MILLI);
+        }
+    }
+
+    private static final class Recorded {
+
+        private final Histogram latencies = new ConcurrentHistogram(3);
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+    }
+}
@@ -0,0 +1,74 @@
+package dev.tpcoder.springredisreactive.loadtest;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Request mixes, as percentages of the arrivals per {@link Operation}. Reads and writes are split evenly
+ * between users and items.
+ */
+enum LoadProfile {
+
+    READ_HEAVY(45, 5, 45, 5),
+    MIXED(25, 25, 25, 25),
+    WRITE_HEAVY(5, 45, 5, 45),
+    USERS_ONLY(90, 10, 0, 0),
+    ITEMS_ONLY(0, 0, 90, 10);
+
+    private final Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+    private final Operation[] operations;
+    private final int[] cumulative;
+
+    LoadProfile(int userReads, int userWrites, int itemReads, int itemWrites) {
+        weights.put(Operation.USER_READ, userReads);
+        weights.put(Operation.USER_WRITE, userWrites);
+        weights.put(Operation.ITEM_READ, itemReads);
+        weights.put(Operation.ITEM_WRITE, itemWrites);
+        operations = weights.entrySet().stream()
+                .filter(e -> e.getValue() > 0)
+                .map(Map.Entry::getKey)
+                .toArray(Operation[]::new);
+        cumulative = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulative[i] = total;
+        }
+    }
+
+    // Accepts the names in any case and with dashes, as in profile=read-heavy
+    static LoadProfile parse(String name) {
+        try {
+            return valueOf(name.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown profile " + name + ", expected one of "
+                    + Arrays.toString(values()).toLowerCase(Locale.ROOT).replace('_', '-'));
+        }
+    }
+
+    String getLabel() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    Map<Operation, Integer> getWeights() {
+        return weights;
+    }
+
+    // Operations that can be drawn, in the order of the report
+    Operation[] getOperations() {
+        return operations.clone();
+    }
+
+    Operation next(SplittableRandom random) {
+        int draw = random.nextInt(cumulative[cumulative.length - 1]);
+        for (int i = 0; i < cumulative.length; i++) {
+            if (draw < cumulative[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+}
@@ -0,0 +1,153 @@
+package dev.tpcoder.springredisreactive.loadtest;
+
+import dev.tpcoder.springredisreactive.SpringRedisReactiveApplication;
+import dev.tpcoder.springredisreactive.model.Item;
+import dev.tpcoder.springredisreactive.model.User;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * End-to-end load test of the user and item endpoints. Without a {@code url} it starts a {@link RespServer} and
+ * the application on a random port in this JVM, seeds {@code keys} users and items and drives the application
+ * with an {@link OpenModelLoadGenerator}; with a {@code url} it seeds and drives an application that is already
+ * running. Settings are {@code name=value} arguments, arguments starting with {@code --} go to the in-process
+ * application, e.g. {@code --app.redis.raw-reads.enabled=true}.
+ */
+public final class LoadTest {
+
+    private static final int SEED_CHUNK = 1000;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("url", "");
+        settings.put("profile", "read-heavy");
+        settings.put("rate", "1000");
+        settings.put("warmup", "10s");
+        settings.put("duration", "30s");
+        settings.put("keys", "10000");
+        settings.put("connections", "256");
+        settings.put("max-in-flight", "10000");
+        settings.put("timeout", "5s");
+        settings.put("seed", "42");
+        settings.put("report", "target/loadtest");
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                applicationArgs.add(arg);
+            } else if (!arg.isBlank()) {
+                int separator = arg.indexOf('=');
+                if (separator < 0 || !settings.containsKey(arg.substring(0, separator))) {
+                    throw new IllegalArgumentException("Unknown setting " + arg + ", expected name=value with a name in "
+                            + settings.keySet());
+                }
+                settings.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        LoadProfile profile = LoadProfile.parse(settings.get("profile"));
+        int rate = Integer.parseInt(settings.get("rate"));
+        if (rate < 1 || rate > 1_000_000) {
+            throw new IllegalArgumentException("rate must be between 1 and 1000000 requests per second, got " + rate);
+        }
+        Duration warmup = DurationStyle.detectAndParse(settings.get("warmup"));
+        Duration duration = DurationStyle.detectAndParse(settings.get("duration"));
+        int keys = Integer.parseInt(settings.get("keys"));
+
+        RespServer redis = null;
+        ConfigurableApplicationContext application = null;
+        String url = settings.get("url");
+        if (url.isBlank()) {
+            redis = RespServer.start();
+            // As arguments, default properties would lose against application.properties
+            Map<String, String> overrides = new LinkedHashMap<>();
+            overrides.put("server.port", "0");
+            overrides.put("spring.redis.url", redis.getUrl());
+            overrides.put("spring.main.banner-mode", "off");
+            overrides.put("logging.level.root", "warn");
+            List<String> arguments = new ArrayList<>(applicationArgs);
+            overrides.forEach((name, value) -> {
+                if (applicationArgs.stream().noneMatch(arg -> arg.startsWith("--" + name + "="))) {
+                    arguments.add("--" + name + "=" + value);
+                }
+            });
+            application = new SpringApplicationBuilder(SpringRedisReactiveApplication.class)
+                    .run(arguments.toArray(new String[0]));
+            url = "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+        }
+        ConnectionProvider connections = ConnectionProvider.builder("loadtest")
+                .maxConnections(Integer.parseInt(settings.get("connections")))
+                // Waiting for a connection is part of the latency, the generator bounds what is in flight
+                .pendingAcquireMaxCount(-1)
+                .build();
+        try {
+            WebClient client = WebClient.builder()
+                    .baseUrl(url)
+                    .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+                    .build();
+            seed(client, keys);
+
+            LatencyReport report = new LatencyReport(profile.getOperations());
+            new OpenModelLoadGenerator(client, profile, rate, keys, Integer.parseInt(settings.get("max-in-flight")),
+                    DurationStyle.detectAndParse(settings.get("timeout")), Long.parseLong(settings.get("seed")))
+                    .run(warmup, duration, report);
+
+            List<String> header = new ArrayList<>();
+            header.add("started: " + Instant.now().minus(warmup.plus(duration)));
+            header.add("target: " + (redis != null ? url + " (in-process, RESP stand-in)" : url));
+            settings.forEach((name, value) -> {
+                if (!"url".equals(name)) {
+                    header.add(name + ": " + value);
+                }
+            });
+            header.add("mix: " + profile.getWeights().entrySet().stream()
+                    .filter(e -> e.getValue() > 0)
+                    .map(e -> e.getKey().getLabel() + " " + e.getValue() + "%")
+                    .collect(Collectors.joining(", ")));
+            if (!applicationArgs.isEmpty()) {
+                header.add("application: " + String.join(" ", applicationArgs));
+            }
+            report.write(Path.of(settings.get("report")), header, duration, System.out);
+        } finally {
+            connections.dispose();
+            if (application != null) {
+                application.close();
+            }
+            if (redis != null) {
+                redis.close();
+            }
+        }
+    }
+
+    // Writes every user and item once so reads find a value, in chunks through the bulk endpoints
+    private static void seed(WebClient client, int keys) {
+        Flux.range(0, (keys + SEED_CHUNK - 1) / SEED_CHUNK)
+                .concatMap(chunk -> {
+                    int from = chunk * SEED_CHUNK;
+                    int to = Math.min(keys, from + SEED_CHUNK);
+                    Map<String, User> users = IntStream.range(from, to).mapToObj(Integer::toString)
+                            .collect(Collectors.toMap(id -> id, Operation::user));
+                    Map<String, Item> items = IntStream.range(from, to).mapToObj(Integer::toString)
+                            .collect(Collectors.toMap(id -> id, id -> new Item().setAmount(1L)));
+                    return client.post().uri("/users/_bulk").bodyValue(users).retrieve().toBodilessEntity()
+                            .then(client.post().uri("/items/_bulk").bodyValue(items).retrieve().toBodilessEntity());
+                })
+                .blockLast(Duration.ofMinutes(5));
+    }
+}
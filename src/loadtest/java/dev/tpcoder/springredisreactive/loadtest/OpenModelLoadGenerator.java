@@ -0,0 +1,90 @@
+package dev.tpcoder.springredisreactive.loadtest;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Sends requests at a fixed arrival rate whatever the responses do. The send times are laid out up front, one
+ * every {@code 1 / rate} seconds, and each latency is taken from the scheduled time rather than from when the
+ * request actually went out. A stalled server or a generator that fell behind therefore shows up as latency
+ * instead of as fewer requests, which is what a closed loop of clients waiting on each other would hide.
+ */
+final class OpenModelLoadGenerator {
+
+    private final WebClient client;
+    private final LoadProfile profile;
+    private final int rate;
+    private final int keys;
+    private final int maxInFlight;
+    private final Duration requestTimeout;
+    private final SplittableRandom random;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    OpenModelLoadGenerator(WebClient client, LoadProfile profile, int rate, int keys, int maxInFlight,
+                           Duration requestTimeout, long seed) {
+        this.client = client;
+        this.profile = profile;
+        this.rate = rate;
+        this.keys = keys;
+        this.maxInFlight = maxInFlight;
+        this.requestTimeout = requestTimeout;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Runs the warmup and then the measured phase on the calling thread, and waits for the requests still in
+     * flight. Only requests scheduled after the warmup are recorded in {@code report}.
+     */
+    void run(Duration warmup, Duration duration, LatencyReport report) {
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        report.begin(measureFrom);
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * interval;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean measured = scheduled >= measureFrom;
+            Operation operation = profile.next(random);
+            String id = Integer.toString(random.nextInt(keys));
+            if (measured) {
+                report.recordSendLag(System.nanoTime() - scheduled);
+            }
+            if (inFlight.get() >= maxInFlight) {
+                if (measured) {
+                    report.reject(operation);
+                }
+                continue;
+            }
+            inFlight.incrementAndGet();
+            operation.send(client, id)
+                    .timeout(requestTimeout)
+                    .subscribe(
+                            status -> complete(report, operation, scheduled, measured, status >= 200 && status < 300),
+                            e -> complete(report, operation, scheduled, measured, false));
+        }
+        // Every request ends within the timeout, so this only waits for the stragglers
+        long deadline = System.nanoTime() + requestTimeout.toNanos() + TimeUnit.SECONDS.toNanos(1);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    private void complete(LatencyReport report, Operation operation, long scheduled, boolean measured,
+                          boolean success) {
+        if (measured) {
+            report.record(operation, System.nanoTime() - scheduled, success);
+        }
+        inFlight.decrementAndGet();
+    }
+}
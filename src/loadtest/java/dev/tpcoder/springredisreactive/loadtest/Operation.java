@@ -0,0 +1,53 @@
+package dev.tpcoder.springredisreactive.loadtest;
+
+import dev.tpcoder.springredisreactive.model.Item;
+import dev.tpcoder.springredisreactive.model.User;
+import java.util.function.BiFunction;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Requests the load test sends, one per controller endpoint it measures. Each resolves to the status code once
+ * the response body has been read, so the latency covers the whole exchange.
+ */
+enum Operation {
+
+    USER_READ("user-read", (client, id) -> client.get().uri("/users/{userId}", id)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchangeToMono(Operation::status)),
+    USER_WRITE("user-write", (client, id) -> client.post().uri("/users/{userId}", id)
+            .bodyValue(user(id))
+            .exchangeToMono(Operation::status)),
+    ITEM_READ("item-read", (client, id) -> client.get().uri("/items/{itemId}", id)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchangeToMono(Operation::status)),
+    ITEM_WRITE("item-write", (client, id) -> client.post().uri("/items/{itemId}", id)
+            .bodyValue(new Item().setAmount((long) id.hashCode() & 0xffff))
+            .exchangeToMono(Operation::status));
+
+    private final String label;
+    private final BiFunction<WebClient, String, Mono<Integer>> request;
+
+    Operation(String label, BiFunction<WebClient, String, Mono<Integer>> request) {
+        this.label = label;
+        this.request = request;
+    }
+
+    String getLabel() {
+        return label;
+    }
+
+    Mono<Integer> send(WebClient client, String id) {
+        return request.apply(client, id);
+    }
+
+    static User user(String id) {
+        return new User().setId(id).setFirstName("first-" + id).setLastName("last-" + id);
+    }
+
+    private static Mono<Integer> status(ClientResponse response) {
+        return response.releaseBody().thenReturn(response.rawStatusCode());
+    }
+}
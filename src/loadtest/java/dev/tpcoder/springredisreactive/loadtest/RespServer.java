@@ -0,0 +1,572 @@
+package dev.tpcoder.springredisreactive.loadtest;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-process Redis stand-in speaking RESP2 over a loopback socket, so the application runs its real Lettuce
+ * client, serializers and decorators against it. It covers the string, key and hash commands the services use;
+ * scripting and pub/sub answer with an error, so features built on them need a real server. Commands run one
+ * at a time under a single lock like they would on Redis, and replies to pipelined commands are flushed
+ * together once the client has nothing more buffered.
+ */
+final class RespServer implements AutoCloseable {
+
+    private static final byte[] OK = "+OK\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NIL = "$-1\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final Map<String, Entry> store = new HashMap<>();
+    private final Set<Socket> clients = ConcurrentHashMap.newKeySet();
+    private final ServerSocket serverSocket;
+    private long expiredKeys;
+
+    private RespServer(ServerSocket serverSocket) {
+        this.serverSocket = serverSocket;
+    }
+
+    // Listens on an ephemeral loopback port
+    static RespServer start() throws IOException {
+        ServerSocket serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        RespServer server = new RespServer(serverSocket);
+        Thread acceptor = new Thread(server::accept, "resp-server-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return server;
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    String getUrl() {
+        return "redis://" + serverSocket.getInetAddress().getHostAddress() + ":" + getPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket client : clients) {
+            client.close();
+        }
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                clients.add(socket);
+                Thread connection = new Thread(() -> serve(socket), "resp-server-" + socket.getPort());
+                connection.setDaemon(true);
+                connection.start();
+            } catch (IOException e) {
+                // Closed
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            InputStream in = new BufferedInputStream(socket.getInputStream(), 64 * 1024);
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024);
+            while (true) {
+                List<byte[]> command = readCommand(in);
+                String name = new String(command.get(0), StandardCharsets.US_ASCII).toUpperCase(Locale.ROOT);
+                if ("QUIT".equals(name)) {
+                    out.write(OK);
+                    out.flush();
+                    return;
+                }
+                Object reply;
+                synchronized (store) {
+                    reply = execute(name, command);
+                }
+                writeReply(out, reply);
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+        } catch (EOFException | SocketException e) {
+            // Client went away
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            clients.remove(socket);
+        }
+    }
+
+    private Object execute(String name, List<byte[]> args) {
+        try {
+            switch (name) {
+                case "PING":
+                    return args.size() > 1 ? args.get(1) : new Status("PONG");
+                case "AUTH":
+                case "SELECT":
+                case "CLIENT":
+                case "READONLY":
+                    return new Status("OK");
+                case "INFO":
+                    return ("# Server\r\nredis_version:6.2.0\r\nredis_mode:standalone\r\n"
+                            + "# Stats\r\nexpired_keys:" + expiredKeys + "\r\nevicted_keys:0\r\n")
+                            .getBytes(StandardCharsets.US_ASCII);
+                case "DBSIZE":
+                    return (long) live().size();
+                case "FLUSHDB":
+                case "FLUSHALL":
+                    store.clear();
+                    return new Status("OK");
+                case "GET":
+                    return string(key(args, 1));
+                case "SET":
+                    return set(args);
+                case "GETSET": {
+                    byte[] previous = string(key(args, 1));
+                    store.put(key(args, 1), new Entry(args.get(2)));
+                    return previous;
+                }
+                case "MGET": {
+                    List<Object> values = new ArrayList<>(args.size() - 1);
+                    for (int i = 1; i < args.size(); i++) {
+                        Entry entry = entry(key(args, i));
+                        values.add(entry != null && entry.value instanceof byte[] ? entry.value : null);
+                    }
+                    return values;
+                }
+                case "MSET":
+                    for (int i = 1; i + 1 < args.size(); i += 2) {
+                        store.put(key(args, i), new Entry(args.get(i + 1)));
+                    }
+                    return new Status("OK");
+                case "STRLEN": {
+                    byte[] value = string(key(args, 1));
+                    return value == null ? 0L : (long) value.length;
+                }
+                case "INCR":
+                    return increment(key(args, 1), 1);
+                case "INCRBY":
+                    return increment(key(args, 1), number(args, 2));
+                case "DECR":
+                    return increment(key(args, 1), -1);
+                case "DECRBY":
+                    return increment(key(args, 1), -number(args, 2));
+                case "DEL":
+                case "UNLINK": {
+                    long removed = 0;
+                    for (int i = 1; i < args.size(); i++) {
+                        removed += entry(key(args, i)) != null && store.remove(key(args, i)) != null ? 1 : 0;
+                    }
+                    return removed;
+                }
+                case "EXISTS": {
+                    long found = 0;
+                    for (int i = 1; i < args.size(); i++) {
+                        found += entry(key(args, i)) != null ? 1 : 0;
+                    }
+                    return found;
+                }
+                case "TYPE": {
+                    Entry entry = entry(key(args, 1));
+                    return new Status(entry == null ? "none" : entry.value instanceof byte[] ? "string" : "hash");
+                }
+                case "EXPIRE":
+                    return expireAt(key(args, 1), System.currentTimeMillis() + number(args, 2) * 1000);
+                case "PEXPIRE":
+                    return expireAt(key(args, 1), System.currentTimeMillis() + number(args, 2));
+                case "EXPIREAT":
+                    return expireAt(key(args, 1), number(args, 2) * 1000);
+                case "PEXPIREAT":
+                    return expireAt(key(args, 1), number(args, 2));
+                case "TTL": {
+                    long ttl = pttl(key(args, 1));
+                    return ttl < 0 ? ttl : (ttl + 500) / 1000;
+                }
+                case "PTTL":
+                    return pttl(key(args, 1));
+                case "PERSIST": {
+                    Entry entry = entry(key(args, 1));
+                    if (entry == null || entry.expiresAt == 0) {
+                        return 0L;
+                    }
+                    entry.expiresAt = 0;
+                    return 1L;
+                }
+                case "KEYS":
+                    return matching(args.size() > 1 ? key(args, 1) : "*");
+                case "SCAN":
+                    return scan(args);
+                case "HSET":
+                case "HMSET": {
+                    Map<String, byte[]> hash = hash(key(args, 1), true);
+                    long added = 0;
+                    for (int i = 2; i + 1 < args.size(); i += 2) {
+                        added += hash.put(key(args, i), args.get(i + 1)) == null ? 1 : 0;
+                    }
+                    return "HMSET".equals(name) ? new Status("OK") : added;
+                }
+                case "HGET": {
+                    Map<String, byte[]> hash = hash(key(args, 1), false);
+                    return hash == null ? null : hash.get(key(args, 2));
+                }
+                case "HMGET": {
+                    Map<String, byte[]> hash = hash(key(args, 1), false);
+                    List<Object> values = new ArrayList<>(args.size() - 2);
+                    for (int i = 2; i < args.size(); i++) {
+                        values.add(hash == null ? null : hash.get(key(args, i)));
+                    }
+                    return values;
+                }
+                case "HGETALL": {
+                    Map<String, byte[]> hash = hash(key(args, 1), false);
+                    List<Object> values = new ArrayList<>();
+                    if (hash != null) {
+                        hash.forEach((field, value) -> {
+                            values.add(field.getBytes(StandardCharsets.ISO_8859_1));
+                            values.add(value);
+                        });
+                    }
+                    return values;
+                }
+                case "HDEL": {
+                    Map<String, byte[]> hash = hash(key(args, 1), false);
+                    long removed = 0;
+                    for (int i = 2; hash != null && i < args.size(); i++) {
+                        removed += hash.remove(key(args, i)) != null ? 1 : 0;
+                    }
+                    if (hash != null && hash.isEmpty()) {
+                        store.remove(key(args, 1));
+                    }
+                    return removed;
+                }
+                case "HLEN": {
+                    Map<String, byte[]> hash = hash(key(args, 1), false);
+                    return hash == null ? 0L : (long) hash.size();
+                }
+                default:
+                    return new ErrorReply("ERR unknown command '" + name + "', the load test stand-in does not support it");
+            }
+        } catch (WrongTypeException e) {
+            return new ErrorReply("WRONGTYPE Operation against a key holding the wrong kind of value");
+        } catch (NumberFormatException e) {
+            return new ErrorReply("ERR value is not an integer or out of range");
+        } catch (IndexOutOfBoundsException e) {
+            return new ErrorReply("ERR wrong number of arguments for '" + name.toLowerCase(Locale.ROOT) + "' command");
+        }
+    }
+
+    // SET key value [EX seconds | PX milliseconds | KEEPTTL] [NX | XX] [GET]
+    private Object set(List<byte[]> args) {
+        String key = key(args, 1);
+        long expiresAt = 0;
+        boolean keepTtl = false;
+        boolean nx = false;
+        boolean xx = false;
+        boolean get = false;
+        for (int i = 3; i < args.size(); i++) {
+            String option = key(args, i).toUpperCase(Locale.ROOT);
+            switch (option) {
+                case "EX":
+                    expiresAt = System.currentTimeMillis() + number(args, ++i) * 1000;
+                    break;
+                case "PX":
+                    expiresAt = System.currentTimeMillis() + number(args, ++i);
+                    break;
+                case "KEEPTTL":
+                    keepTtl = true;
+                    break;
+                case "NX":
+                    nx = true;
+                    break;
+                case "XX":
+                    xx = true;
+                    break;
+                case "GET":
+                    get = true;
+                    break;
+                default:
+                    return new ErrorReply("ERR syntax error");
+            }
+        }
+        Entry current = entry(key);
+        byte[] previous = get ? string(key) : null;
+        if ((nx && current != null) || (xx && current == null)) {
+            return get ? previous : null;
+        }
+        Entry entry = new Entry(args.get(2));
+        entry.expiresAt = keepTtl && current != null ? current.expiresAt : expiresAt;
+        store.put(key, entry);
+        return get ? previous : new Status("OK");
+    }
+
+    private long increment(String key, long delta) {
+        byte[] current = string(key);
+        long value = (current == null ? 0 : Long.parseLong(new String(current, StandardCharsets.US_ASCII))) + delta;
+        Entry entry = new Entry(Long.toString(value).getBytes(StandardCharsets.US_ASCII));
+        Entry previous = store.get(key);
+        entry.expiresAt = previous == null ? 0 : previous.expiresAt;
+        store.put(key, entry);
+        return value;
+    }
+
+    private long expireAt(String key, long expiresAt) {
+        Entry entry = entry(key);
+        if (entry == null) {
+            return 0L;
+        }
+        entry.expiresAt = expiresAt;
+        entry(key);
+        return 1L;
+    }
+
+    private long pttl(String key) {
+        Entry entry = entry(key);
+        if (entry == null) {
+            return -2L;
+        }
+        return entry.expiresAt == 0 ? -1L : Math.max(0, entry.expiresAt - System.currentTimeMillis());
+    }
+
+    // Returns every match in one page with cursor 0, which is a complete iteration as far as the client can tell
+    private Object scan(List<byte[]> args) {
+        String pattern = "*";
+        for (int i = 2; i + 1 < args.size(); i += 2) {
+            if ("MATCH".equalsIgnoreCase(key(args, i))) {
+                pattern = key(args, i + 1);
+            }
+        }
+        List<Object> reply = new ArrayList<>(2);
+        reply.add("0".getBytes(StandardCharsets.US_ASCII));
+        reply.add(matching(pattern));
+        return reply;
+    }
+
+    private List<Object> matching(String glob) {
+        Pattern pattern = Pattern.compile(toRegex(glob), Pattern.DOTALL);
+        List<Object> keys = new ArrayList<>();
+        for (String key : live()) {
+            if (pattern.matcher(key).matches()) {
+                keys.add(key.getBytes(StandardCharsets.ISO_8859_1));
+            }
+        }
+        return keys;
+    }
+
+    // Drops expired entries and returns the remaining keys
+    private Set<String> live() {
+        long now = System.currentTimeMillis();
+        Iterator<Entry> entries = store.values().iterator();
+        while (entries.hasNext()) {
+            if (entries.next().isExpired(now)) {
+                entries.remove();
+                expiredKeys++;
+            }
+        }
+        return store.keySet();
+    }
+
+    private Entry entry(String key) {
+        Entry entry = store.get(key);
+        if (entry != null && entry.isExpired(System.currentTimeMillis())) {
+            store.remove(key);
+            expiredKeys++;
+            return null;
+        }
+        return entry;
+    }
+
+    private byte[] string(String key) {
+        Entry entry = entry(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!(entry.value instanceof byte[])) {
+            throw new WrongTypeException();
+        }
+        return (byte[]) entry.value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, byte[]> hash(String key, boolean create) {
+        Entry entry = entry(key);
+        if (entry == null) {
+            if (!create) {
+                return null;
+            }
+            entry = new Entry(new HashMap<String, byte[]>());
+            store.put(key, entry);
+        }
+        if (!(entry.value instanceof Map)) {
+            throw new WrongTypeException();
+        }
+        return (Map<String, byte[]>) entry.value;
+    }
+
+    // Keys and fields are binary, ISO-8859-1 maps every byte to one char and back
+    private static String key(List<byte[]> args, int index) {
+        return new String(args.get(index), StandardCharsets.ISO_8859_1);
+    }
+
+    private static long number(List<byte[]> args, int index) {
+        return Long.parseLong(new String(args.get(index), StandardCharsets.US_ASCII));
+    }
+
+    private static String toRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            switch (c) {
+                case '*':
+                    regex.append(".*");
+                    break;
+                case '?':
+                    regex.append('.');
+                    break;
+                case '[': {
+                    int end = glob.indexOf(']', i + 1);
+                    if (end < 0) {
+                        regex.append("\\[");
+                        break;
+                    }
+                    String set = glob.substring(i + 1, end).replace("\\", "\\\\").replace("[", "\\[");
+                    regex.append('[').append(set).append(']');
+                    i = end;
+                    break;
+                }
+                case '\\':
+                    if (i + 1 < glob.length()) {
+                        regex.append(Pattern.quote(String.valueOf(glob.charAt(++i))));
+                    }
+                    break;
+                default:
+                    regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return regex.toString();
+    }
+
+    private static List<byte[]> readCommand(InputStream in) throws IOException {
+        int type = in.read();
+        if (type < 0) {
+            throw new EOFException();
+        }
+        if (type != '*') {
+            // Inline command, as sent by hand over telnet
+            String line = (char) type + readLine(in);
+            List<byte[]> args = new ArrayList<>();
+            for (String part : line.trim().split("\\s+")) {
+                args.add(part.getBytes(StandardCharsets.ISO_8859_1));
+            }
+            return args;
+        }
+        int count = Integer.parseInt(readLine(in));
+        List<byte[]> args = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (in.read() != '$') {
+                throw new IOException("Expected a bulk string");
+            }
+            int length = Integer.parseInt(readLine(in));
+            byte[] arg = in.readNBytes(length);
+            if (arg.length < length || in.read() != '\r' || in.read() != '\n') {
+                throw new EOFException();
+            }
+            args.add(arg);
+        }
+        return args;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\r') {
+            if (c < 0) {
+                throw new EOFException();
+            }
+            line.append((char) c);
+        }
+        in.read();
+        return line.toString();
+    }
+
+    private static void writeReply(OutputStream out, Object reply) throws IOException {
+        if (reply == null) {
+            out.write(NIL);
+        } else if (reply instanceof Status) {
+            if ("OK".equals(((Status) reply).text)) {
+                out.write(OK);
+            } else {
+                out.write(('+' + ((Status) reply).text + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            }
+        } else if (reply instanceof ErrorReply) {
+            out.write(('-' + ((ErrorReply) reply).text + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        } else if (reply instanceof Long) {
+            out.write((":" + reply + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        } else if (reply instanceof byte[]) {
+            byte[] bytes = (byte[]) reply;
+            out.write(("$" + bytes.length + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.write(bytes);
+            out.write('\r');
+            out.write('\n');
+        } else {
+            List<?> items = (List<?>) reply;
+            out.write(("*" + items.size() + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            for (Object item : items) {
+                writeReply(out, item);
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final Object value;
+        // Epoch millis, 0 when the key does not expire
+        private long expiresAt;
+
+        private Entry(Object value) {
+            this.value = value;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt != 0 && expiresAt <= now;
+        }
+    }
+
+    private static final class Status {
+
+        private final String text;
+
+        private Status(String text) {
+            this.text = text;
+        }
+    }
+
+    private static final class ErrorReply {
+
+        private final String text;
+
+        private ErrorReply(String text) {
+            this.text = text;
+        }
+    }
+
+    private static final class WrongTypeException extends RuntimeException {
+    }
+}
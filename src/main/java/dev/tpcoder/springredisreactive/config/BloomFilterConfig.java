@@ -0,0 +1,67 @@
+package dev.tpcoder.springredisreactive.config;
+
+import dev.tpcoder.springredisreactive.service.BloomFilters;
+import dev.tpcoder.springredisreactive.service.RedisServiceImpl;
+import dev.tpcoder.springredisreactive.service.ShardedRedisService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.redis.bloom", name = "enabled", havingValue = "true")
+public class BloomFilterConfig {
+
+    // Rebuilds scan the nodes directly, all shards when sharding is on
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    BloomFilters bloomFilters(RedisServiceImpl redisServiceImpl, ObjectProvider<ShardedRedisService> shardedRedisService,
+                              ReactiveRedisConnectionFactory connectionFactory, BloomFilterProperties properties,
+                              ObjectProvider<MeterRegistry> meterRegistry) {
+        // Otherwise a key another instance just wrote would be answered as definitely absent
+        if (!properties.getShared().isEnabled() && !properties.isSingleInstance()) {
+            throw new IllegalStateException("Bloom filters need app.redis.bloom.shared.enabled, "
+                    + "or app.redis.bloom.single-instance when only this instance writes to Redis");
+        }
+        ShardedRedisService sharded = shardedRedisService.getIfAvailable();
+        BloomFilters filters = new BloomFilters(sharded != null ? sharded : redisServiceImpl, connectionFactory,
+                properties);
+        // Registered here rather than through a MeterBinder, the filters depend on the value serializer,
+        // which depends on the registry
+        meterRegistry.ifAvailable(registry -> monitor(filters, registry));
+        return filters;
+    }
+
+    private static void monitor(BloomFilters filters, MeterRegistry registry) {
+        filters.getNamespaces().forEach(namespace -> {
+            Gauge.builder("redis.bloom.memory", namespace, BloomFilters.Namespace::getMemoryBytes)
+                    .description("Memory held by the Bloom filter bits, both filters while a rebuild runs")
+                    .baseUnit(BaseUnits.BYTES)
+                    .tag("namespace", namespace.getName())
+                    .register(registry);
+            Gauge.builder("redis.bloom.keys", namespace, BloomFilters.Namespace::getApproximateKeys)
+                    .description("Keys in the Bloom filter, estimated from the bits set")
+                    .tag("namespace", namespace.getName())
+                    .register(registry);
+            FunctionCounter.builder("redis.bloom.lookups", namespace, BloomFilters.Namespace::getSkipped)
+                    .description("Reads answered by the Bloom filter")
+                    .tags("namespace", namespace.getName(), "result", "absent")
+                    .register(registry);
+            FunctionCounter.builder("redis.bloom.lookups", namespace, BloomFilters.Namespace::getPassed)
+                    .tags("namespace", namespace.getName(), "result", "maybe")
+                    .register(registry);
+            FunctionCounter.builder("redis.bloom.false.positives", namespace, BloomFilters.Namespace::getFalsePositives)
+                    .description("Reads the Bloom filter let through that found nothing")
+                    .tag("namespace", namespace.getName())
+                    .register(registry);
+            FunctionCounter.builder("redis.bloom.shared.dropped", namespace, BloomFilters.Namespace::getDropped)
+                    .description("Added keys not sent to the shared bitmap because too many were waiting")
+                    .tag("namespace", namespace.getName())
+                    .register(registry);
+        });
+    }
+}
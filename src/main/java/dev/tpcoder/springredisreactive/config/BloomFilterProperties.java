@@ -0,0 +1,57 @@
+package dev.tpcoder.springredisreactive.config;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.redis.bloom")
+public class BloomFilterProperties {
+
+    // Reads of keys the filter has never seen return nothing without asking Redis
+    private boolean enabled = false;
+
+    // A key written by another instance reads as absent until the next rebuild unless shared is enabled,
+    // so the filter only starts without sharing when this declares the only instance writing to Redis
+    private boolean singleInstance = false;
+
+    // Namespaces (the part of the key before the first ':') with a filter, none covers keys without a ':'
+    private Set<String> namespaces = new LinkedHashSet<>(Set.of("none"));
+
+    // Keys per namespace the filter is sized for, beyond that the false positive rate goes up
+    private long expectedKeys = 1_000_000;
+
+    // Share of absent keys still sent to Redis
+    private double falsePositiveRate = 0.01;
+
+    // Filters are rebuilt from a SCAN so deleted and expired keys drop out, zero builds them at startup only
+    private Duration rebuildInterval = Duration.ofHours(1);
+
+    // COUNT hint of the rebuild SCAN
+    private long scanCount = 1000;
+
+    private final Shared shared = new Shared();
+
+    @Data
+    public static class Shared {
+
+        // Without sharing, keys written by other instances read as absent until the next rebuild. With it, the
+        // keys each instance adds are also set in Redis bitmaps that all instances merge in on an interval,
+        // which leaves them absent elsewhere for up to two sync intervals
+        private boolean enabled = false;
+
+        // Prefix of the bitmap keys, one key per namespace and window
+        private String keyPrefix = "bloom:";
+
+        // How often added keys are sent and the bitmaps of the other instances are merged in
+        private Duration syncInterval = Duration.ofSeconds(5);
+
+        // Bitmaps start over every window and expire after two, must be longer than a rebuild scan takes
+        private Duration window = Duration.ofMinutes(15);
+
+        // Added keys waiting to be sent, beyond that they are only seen by other instances after their rebuild
+        private int maxPendingKeys = 100_000;
+    }
+}
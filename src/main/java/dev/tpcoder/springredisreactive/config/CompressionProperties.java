@@ -0,0 +1,24 @@
+package dev.tpcoder.springredisreactive.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.redis.compression")
+public class CompressionProperties {
+
+    // Only decides whether new values are compressed, compressed values are read back either way
+    private boolean enabled = false;
+
+    // Serialized values smaller than this are stored as they are
+    private int minSize = 1024;
+
+    // Deflate level, speed matters more than ratio on the request path
+    private int level = Deflater.BEST_SPEED;
+
+    // Per stored type thresholds keyed by simple class name, e.g. type-min-size.User=256
+    private Map<String, Integer> typeMinSize = new HashMap<>();
+}
@@ -0,0 +1,25 @@
+package dev.tpcoder.springredisreactive.config;
+
+import dev.tpcoder.springredisreactive.service.WriteConsistency;
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.redis.counter-coalescing")
+public class CounterCoalescingProperties {
+
+    private boolean enabled = false;
+
+    // Buffered deltas are written at least this often
+    private Duration flushInterval = Duration.ofMillis(100);
+
+    // A flush is started early once this many increments are buffered
+    private long maxPendingWrites = 10_000;
+
+    // Used when the caller does not ask for a consistency
+    private WriteConsistency defaultConsistency = WriteConsistency.READ_YOUR_WRITE;
+
+    // How long shutdown waits for the last flush
+    private Duration shutdownTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,37 @@
+package dev.tpcoder.springredisreactive.config;
+
+import dev.tpcoder.springredisreactive.controller.ItemHandler;
+import dev.tpcoder.springredisreactive.controller.UserHandler;
+import dev.tpcoder.springredisreactive.service.RawValues;
+import dev.tpcoder.springredisreactive.service.RedisService;
+import dev.tpcoder.springredisreactive.service.UserStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * Router functions for the busiest user and item routes. Router functions are mapped before annotated handlers,
+ * so matching requests skip the controllers; anything the routes do not match falls through to them.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.web.functional-routes", name = "enabled", havingValue = "true")
+public class FunctionalRoutesConfig {
+
+    @Bean
+    UserHandler userHandler(UserStore userStore, ServerCodecConfigurer codecs) {
+        return new UserHandler(userStore, codecs.getReaders());
+    }
+
+    @Bean
+    ItemHandler itemHandler(RedisService redisService, RawValues rawValues, ServerCodecConfigurer codecs) {
+        return new ItemHandler(redisService, rawValues, codecs.getReaders());
+    }
+
+    @Bean
+    RouterFunction<ServerResponse> functionalRoutes(UserHandler userHandler, ItemHandler itemHandler) {
+        return userHandler.routes().and(itemHandler.routes());
+    }
+}
@@ -0,0 +1,13 @@
+package dev.tpcoder.springredisreactive.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.web.functional-routes")
+public class FunctionalRoutesProperties {
+
+    // Serve single user and item reads, saves and deletes with router functions instead of the annotated
+    // controllers, other routes stay with the controllers
+    private boolean enabled = false;
+}
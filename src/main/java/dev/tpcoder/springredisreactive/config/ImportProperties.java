@@ -0,0 +1,15 @@
+package dev.tpcoder.springredisreactive.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.import")
+public class ImportProperties {
+
+    // Records written per batch, each batch is one progress line in the response
+    private int batchSize = 500;
+
+    // Batches written at the same time, the upload is only read as fast as they complete
+    private int concurrency = 4;
+}
@@ -0,0 +1,49 @@
+package dev.tpcoder.springredisreactive.config;
+
+import dev.tpcoder.springredisreactive.serializer.CompressionStats;
+import dev.tpcoder.springredisreactive.service.ItemWatcher;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.TimeUnit;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    MeterBinder itemWatchMetrics(ItemWatcher watcher) {
+        return registry -> {
+            Gauge.builder("items.watch.streams", watcher, ItemWatcher::getWatchers)
+                    .description("Open item watch streams")
+                    .register(registry);
+            FunctionCounter.builder("items.watch.dropped", watcher, ItemWatcher::getDropped)
+                    .description("Changes dropped or streams closed because a client read too slowly")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    MeterBinder compressionMetrics(CompressionStats stats) {
+        return registry -> {
+            FunctionCounter.builder("redis.compression.values", stats, CompressionStats::getCompressedCount)
+                    .tag("result", "compressed")
+                    .register(registry);
+            FunctionCounter.builder("redis.compression.values", stats, CompressionStats::getSkippedCount)
+                    .tag("result", "skipped")
+                    .register(registry);
+            FunctionCounter.builder("redis.compression.time", stats, s -> s.getCompressNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+                    .baseUnit("seconds")
+                    .tag("direction", "compress")
+                    .register(registry);
+            FunctionCounter.builder("redis.compression.time", stats, s -> s.getDecompressNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+                    .baseUnit("seconds")
+                    .tag("direction", "decompress")
+                    .register(registry);
+            Gauge.builder("redis.compression.ratio", stats, CompressionStats::getRatio)
+                    .description("Compressed size over original size of compressed values")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package dev.tpcoder.springredisreactive.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.tpcoder.springredisreactive.service.NearCacheInvalidator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.redis.near-cache", name = "enabled", havingValue = "true")
+public class NearCacheConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    NearCacheInvalidator nearCacheInvalidator(NearCacheProperties properties,
+                                              ReactiveStringRedisTemplate redisTemplate,
+                                              ObjectProvider<MeterRegistry> meterRegistry) {
+        Cache<String, Object> cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, "redis.near-cache"));
+        return new NearCacheInvalidator(cache, redisTemplate, properties.getChannel());
+    }
+}
@@ -0,0 +1,21 @@
+package dev.tpcoder.springredisreactive.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.redis.near-cache")
+public class NearCacheProperties {
+
+    private boolean enabled = false;
+
+    // Upper bound of entries kept in memory per instance
+    private long maximumSize = 10_000;
+
+    // Entries are dropped after this long even without an invalidation message
+    private Duration ttl = Duration.ofSeconds(30);
+
+    // Pub/sub channel shared by every instance for invalidation messages
+    private String channel = "near-cache:invalidate";
+}
@@ -0,0 +1,15 @@
+package dev.tpcoder.springredisreactive.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.redis.pipelining")
+public class PipeliningProperties {
+
+    // Batches go to a dedicated connection with auto flush off and are written in one flush
+    private boolean enabled = false;
+
+    // Large batches are flushed every this many commands so the write buffer stays bounded
+    private int maxCommands = 1000;
+}
@@ -0,0 +1,18 @@
+package dev.tpcoder.springredisreactive.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.items.ranking")
+public class RankingProperties {
+
+    // Item writes also keep a sorted set of items by amount up to date
+    private boolean enabled = false;
+
+    // Sorted set holding every item id scored by its amount
+    private String key = "ranking:items";
+
+    // Largest page a top or range query may ask for
+    private int maxResults = 1000;
+}
@@ -0,0 +1,13 @@
+package dev.tpcoder.springredisreactive.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.redis.raw-reads")
+public class RawReadProperties {
+
+    // Single user and item reads send stored JSON to the client without decoding and encoding it again.
+    // Only pays off with app.redis.serialization.codec=json, other values are still decoded
+    private boolean enabled = false;
+}
@@ -0,0 +1,20 @@
+package dev.tpcoder.springredisreactive.config;
+
+import dev.tpcoder.springredisreactive.service.InMemoryValueLoader;
+import dev.tpcoder.springredisreactive.service.ValueLoader;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.redis.read-through", name = "enabled", havingValue = "true")
+public class ReadThroughConfig {
+
+    // Replaced by declaring a ValueLoader bean for the real system of record
+    @Bean
+    @ConditionalOnMissingBean(ValueLoader.class)
+    ValueLoader valueLoader() {
+        return new InMemoryValueLoader();
+    }
+}
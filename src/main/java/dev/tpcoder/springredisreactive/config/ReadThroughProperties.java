@@ -0,0 +1,27 @@
+package dev.tpcoder.springredisreactive.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.redis.read-through")
+public class ReadThroughProperties {
+
+    private boolean enabled = false;
+
+    // How long a loaded value counts as fresh
+    private Duration ttl = Duration.ofMinutes(5);
+
+    // Fresh values this close to the end of their ttl are reloaded in the background
+    private Duration refreshAhead = Duration.ofMinutes(1);
+
+    // Expired values are still served for this long while they are reloaded in the background
+    private Duration staleWindow = Duration.ofMinutes(1);
+
+    // Loader calls running at the same time, further misses wait for a free slot
+    private int maxConcurrentLoads = 16;
+
+    // Misses waiting for a free slot, beyond that they fail instead of piling up
+    private int maxPendingLoads = 1000;
+}
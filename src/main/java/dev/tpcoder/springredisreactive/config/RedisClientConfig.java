@@ -0,0 +1,70 @@
+package dev.tpcoder.springredisreactive.config;
+
+import dev.tpcoder.springredisreactive.service.PipelinedBatchExecutor;
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
+import java.time.Duration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisOperations;
+
+/**
+ * Lettuce client setup. The {@link ClientResources} replace the ones Spring Boot would create so the
+ * thread pools can be sized, the pipelined batch executor opens its own connection from the same client.
+ */
+@Configuration
+public class RedisClientConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    ClientResources redisClientResources(RedisClientProperties properties) {
+        DefaultClientResources.Builder builder = DefaultClientResources.builder();
+        if (properties.getIoThreads() > 0) {
+            builder.ioThreadPoolSize(properties.getIoThreads());
+        }
+        if (properties.getComputationThreads() > 0) {
+            builder.computationThreadPoolSize(properties.getComputationThreads());
+        }
+        return builder.build();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "app.redis.pipelining", name = "enabled", havingValue = "true")
+    PipelinedBatchExecutor pipelinedBatchExecutor(LettuceConnectionFactory connectionFactory,
+                                                  ReactiveRedisOperations<String, Object> redisOperations,
+                                                  PipeliningProperties properties) {
+        AbstractRedisClient client = connectionFactory.getRequiredNativeClient();
+        if (!(client instanceof RedisClient)) {
+            throw new IllegalStateException("Pipelining needs a standalone Redis client, got " + client.getClass().getName());
+        }
+        RedisClient redisClient = (RedisClient) client;
+        RedisURI uri = redisUri(connectionFactory);
+        return new PipelinedBatchExecutor(() -> redisClient.connectAsync(ByteArrayCodec.INSTANCE, uri),
+                redisOperations.getSerializationContext(), properties.getMaxCommands());
+    }
+
+    // Same server and credentials as the shared connection
+    private static RedisURI redisUri(LettuceConnectionFactory connectionFactory) {
+        RedisStandaloneConfiguration standalone = connectionFactory.getStandaloneConfiguration();
+        RedisURI.Builder builder = RedisURI.builder()
+                .withHost(standalone.getHostName())
+                .withPort(standalone.getPort())
+                .withDatabase(standalone.getDatabase())
+                .withSsl(connectionFactory.isUseSsl())
+                .withTimeout(Duration.ofMillis(connectionFactory.getTimeout()));
+        standalone.getPassword().toOptional().ifPresent(password -> {
+            if (standalone.getUsername() != null) {
+                builder.withAuthentication(standalone.getUsername(), password);
+            } else {
+                builder.withPassword(password);
+            }
+        });
+        return builder.build();
+    }
+}
@@ -0,0 +1,15 @@
+package dev.tpcoder.springredisreactive.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.redis.client")
+public class RedisClientProperties {
+
+    // Netty event loop threads doing the socket I/O, 0 keeps the Lettuce default of one per core
+    private int ioThreads = 0;
+
+    // Threads completing commands and running client events, 0 keeps the Lettuce default of one per core
+    private int computationThreads = 0;
+}
@@ -1,25 +1,85 @@
 package dev.tpcoder.springredisreactive.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.tpcoder.springredisreactive.model.Item;
+import dev.tpcoder.springredisreactive.model.User;
+import dev.tpcoder.springredisreactive.serializer.CompressingValueSerializer;
+import dev.tpcoder.springredisreactive.serializer.CompressionStats;
+import dev.tpcoder.springredisreactive.serializer.DeflateCompressionCodec;
+import dev.tpcoder.springredisreactive.serializer.JacksonValueCodec;
+import dev.tpcoder.springredisreactive.serializer.MeteredValueSerializer;
+import dev.tpcoder.springredisreactive.serializer.TypeRegistry;
+import dev.tpcoder.springredisreactive.serializer.ValueCodec;
+import dev.tpcoder.springredisreactive.serializer.VersionedValueSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.core.ReactiveRedisOperations;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
-import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
 public class RedisConfig {
 
     @Bean
-    ReactiveRedisOperations<String, Object> redisOperations(ReactiveRedisConnectionFactory factory) {
-        Jackson2JsonRedisSerializer<Object> serializer = new Jackson2JsonRedisSerializer<>(Object.class);
+    TypeRegistry typeRegistry() {
+        // Ids are stored with every value, append new types and never renumber
+        return new TypeRegistry()
+                .register(1, User.class)
+                .register(2, Item.class);
+    }
+
+    @Bean
+    CompressionStats compressionStats() {
+        return new CompressionStats();
+    }
+
+    @Bean
+    RedisSerializer<Object> redisValueSerializer(TypeRegistry typeRegistry, SerializationProperties properties,
+                                                 CompressionProperties compression, CompressionStats compressionStats,
+                                                 RedisMetricsProperties metrics,
+                                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        ValueCodec smile = JacksonValueCodec.smile();
+        ValueCodec json = JacksonValueCodec.json();
+        ValueCodec writeCodec = properties.getCodec() == SerializationProperties.Codec.SMILE ? smile : json;
+        RedisSerializer<Object> serializer
+                = new VersionedValueSerializer(typeRegistry, writeCodec, List.of(smile, json), new ObjectMapper());
+        // Always in place so compressed values stay readable after compression is switched off
+        serializer = compress(serializer, typeRegistry, compression, compressionStats);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (metrics.isEnabled() && registry != null) {
+            serializer = new MeteredValueSerializer(serializer, registry, typeRegistry);
+        }
+        return serializer;
+    }
 
+    private static RedisSerializer<Object> compress(RedisSerializer<Object> serializer, TypeRegistry typeRegistry,
+                                                    CompressionProperties compression, CompressionStats compressionStats) {
+        Map<Class<?>, Integer> typeMinSize = new HashMap<>();
+        compression.getTypeMinSize().forEach((name, size) -> typeRegistry.types().stream()
+                .filter(type -> type.getSimpleName().equalsIgnoreCase(name))
+                .findFirst()
+                .ifPresentOrElse(type -> typeMinSize.put(type, size), () -> {
+                    throw new IllegalStateException("No registered type named " + name);
+                }));
+        return new CompressingValueSerializer(serializer, new DeflateCompressionCodec(compression.getLevel()),
+                compression.isEnabled(), compression.getMinSize(), typeMinSize, compressionStats);
+    }
+
+    @Bean
+    ReactiveRedisOperations<String, Object> redisOperations(ReactiveRedisConnectionFactory factory,
+                                                            RedisSerializer<Object> redisValueSerializer) {
         RedisSerializationContext.RedisSerializationContextBuilder<String, Object> builder
                 = RedisSerializationContext.newSerializationContext(new StringRedisSerializer());
 
-        RedisSerializationContext<String, Object> context = builder.value(serializer).build();
+        RedisSerializationContext<String, Object> context = builder.value(redisValueSerializer).build();
 
         return new ReactiveRedisTemplate<>(factory, context);
     }
@@ -0,0 +1,19 @@
+package dev.tpcoder.springredisreactive.config;
+
+import java.util.HashSet;
+import java.util.Set;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.redis.metrics")
+public class RedisMetricsProperties {
+
+    private boolean enabled = true;
+
+    // Publish histogram buckets so percentiles can be aggregated across instances
+    private boolean percentileHistogram = true;
+
+    // Key prefixes (the part before the first ':') allowed as a tag, anything else is tagged "other"
+    private Set<String> namespaces = new HashSet<>();
+}
@@ -0,0 +1,146 @@
+package dev.tpcoder.springredisreactive.config;
+
+import dev.tpcoder.springredisreactive.service.BloomFilterRedisService;
+import dev.tpcoder.springredisreactive.service.BloomFilters;
+import dev.tpcoder.springredisreactive.service.ExpiringRedisService;
+import dev.tpcoder.springredisreactive.service.ItemRanking;
+import dev.tpcoder.springredisreactive.service.KeyNamespaces;
+import dev.tpcoder.springredisreactive.service.MeteredRedisService;
+import dev.tpcoder.springredisreactive.service.NearCacheInvalidator;
+import dev.tpcoder.springredisreactive.service.NearCacheRedisService;
+import dev.tpcoder.springredisreactive.service.PipelinedBatchExecutor;
+import dev.tpcoder.springredisreactive.service.PipelinedRedisService;
+import dev.tpcoder.springredisreactive.service.RankedItemsRedisService;
+import dev.tpcoder.springredisreactive.service.ReadThroughRedisService;
+import dev.tpcoder.springredisreactive.service.RedisService;
+import dev.tpcoder.springredisreactive.service.RedisServiceImpl;
+import dev.tpcoder.springredisreactive.service.ReplicaRoutingRedisService;
+import dev.tpcoder.springredisreactive.service.ResilientRedisService;
+import dev.tpcoder.springredisreactive.service.ShardedRedisService;
+import dev.tpcoder.springredisreactive.service.SingleFlightRedisService;
+import dev.tpcoder.springredisreactive.service.SlidingExpiration;
+import dev.tpcoder.springredisreactive.service.TtlPolicy;
+import dev.tpcoder.springredisreactive.service.ValueLoader;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Assembles the {@link RedisService} used by the controllers, the optional decorators are wrapped
+ * around {@link RedisServiceImpl} depending on what is enabled.
+ */
+@Configuration
+public class RedisServiceConfig {
+
+    @Bean
+    @Primary
+    RedisService redisService(RedisServiceImpl redisServiceImpl,
+                              ObjectProvider<ShardedRedisService> shardedRedisService,
+                              ObjectProvider<PipelinedBatchExecutor> pipelinedBatchExecutor,
+                              ObjectProvider<ReplicaConfig.ReplicaReads> replicaReads,
+                              ObjectProvider<ItemRanking> itemRanking,
+                              ObjectProvider<TtlPolicy> ttlPolicy,
+                              ObjectProvider<SlidingExpiration> slidingExpiration,
+                              ObjectProvider<BloomFilters> bloomFilters,
+                              RedisServiceProperties serviceProperties,
+                              UserStorageProperties userStorage,
+                              WatchProperties watch,
+                              ObjectProvider<ValueLoader> valueLoader,
+                              ResilienceProperties resilience,
+                              ReadThroughProperties readThrough,
+                              ObjectProvider<NearCacheInvalidator> nearCacheInvalidator,
+                              SingleFlightProperties singleFlight,
+                              RedisMetricsProperties metrics,
+                              ObjectProvider<MeterRegistry> meterRegistry) {
+        RedisService service = redisServiceImpl;
+        ShardedRedisService sharded = shardedRedisService.getIfAvailable();
+        PipelinedBatchExecutor executor = pipelinedBatchExecutor.getIfAvailable();
+        ReplicaConfig.ReplicaReads replicas = replicaReads.getIfAvailable();
+        ItemRanking ranking = itemRanking.getIfAvailable();
+        if (sharded != null) {
+            if (replicas != null) {
+                throw new IllegalStateException("Replica reads cannot be combined with sharding");
+            }
+            // The ranking scripts touch the counter and the sorted set, both must be on one node
+            if (ranking != null) {
+                throw new IllegalStateException("Item ranking cannot be combined with sharding");
+            }
+            // User hashes are written to the spring.redis.url node, the ring would look for them elsewhere
+            if (userStorage.getStorage() == UserStorageProperties.Storage.HASH) {
+                throw new IllegalStateException("Hash user storage cannot be combined with sharding");
+            }
+            // The watcher listens and reads on the spring.redis.url node, it would never see changes on the ring
+            if (watch.isEnabled()) {
+                throw new IllegalStateException("Item watch streams cannot be combined with sharding");
+            }
+            // The pipelined executor talks to a single node, so it is not used in front of the shards
+            service = sharded;
+        } else {
+            if (executor != null) {
+                service = new PipelinedRedisService(service, executor);
+            }
+            // Outside the pipeline, so batches and timed bulk writes sent through the executor are ranked too
+            if (ranking != null) {
+                service = new RankedItemsRedisService(service, ranking);
+            }
+        }
+        // Hedges of reads the routing sent to the replicas go here, a different node than the first read
+        RedisService primary = service;
+        ReplicaRoutingRedisService routing = null;
+        if (replicas != null) {
+            routing = new ReplicaRoutingRedisService(service, replicas.service, replicas.recentWrites);
+            service = routing;
+        }
+        // Right around the Redis calls, so cache hits further out are neither timed nor rejected
+        if (resilience.isEnabled()) {
+            boolean hedge = resilience.getHedge().isEnabled();
+            if (hedge && replicas == null) {
+                throw new IllegalStateException("Hedged reads need app.redis.replicas to be configured");
+            }
+            service = new ResilientRedisService(service, hedge ? primary : null,
+                    hedge ? routing::isPinned : null, resilience, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+        }
+        // Outside replica routing, so reads served by replicas slide the TTL as well
+        TtlPolicy policy = ttlPolicy.getIfAvailable();
+        if (policy != null) {
+            SlidingExpiration sliding = slidingExpiration.getIfAvailable();
+            // Read-through tells fresh from stale by the remaining TTL, sliding it on reads would hide that
+            if (sliding != null && readThrough.isEnabled()) {
+                throw new IllegalStateException("Sliding expiration cannot be combined with read-through");
+            }
+            if (sliding != null) {
+                sliding.bind(service);
+            }
+            service = new ExpiringRedisService(service, policy, sliding,
+                    meterRegistry.getIfAvailable(SimpleMeterRegistry::new),
+                    new KeyNamespaces(metrics.getNamespaces()), metrics.isPercentileHistogram());
+        }
+        // Inside read-through, so keys it loads for reads the filter answered are added when written back
+        BloomFilters filters = bloomFilters.getIfAvailable();
+        if (filters != null) {
+            service = new BloomFilterRedisService(service, filters, serviceProperties.getBatchSize());
+        }
+        if (readThrough.isEnabled()) {
+            service = new ReadThroughRedisService(service, valueLoader.getObject(), readThrough.getTtl(),
+                    readThrough.getRefreshAhead(), readThrough.getStaleWindow(),
+                    readThrough.getMaxConcurrentLoads(), readThrough.getMaxPendingLoads());
+        }
+        if (singleFlight.isEnabled()) {
+            service = new SingleFlightRedisService(service);
+        }
+        NearCacheInvalidator invalidator = nearCacheInvalidator.getIfAvailable();
+        if (invalidator != null) {
+            service = new NearCacheRedisService(service, invalidator);
+        }
+        // Outermost, so the timers show what callers see including cache hits
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (metrics.isEnabled() && registry != null) {
+            service = new MeteredRedisService(service, registry, new KeyNamespaces(metrics.getNamespaces()),
+                    metrics.isPercentileHistogram());
+        }
+        return service;
+    }
+}
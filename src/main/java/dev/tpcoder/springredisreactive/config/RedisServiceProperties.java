@@ -0,0 +1,30 @@
+package dev.tpcoder.springredisreactive.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.redis")
+public class RedisServiceProperties {
+
+    // COUNT hint sent with every SCAN call
+    private long scanCount = 500;
+
+    // Largest number of keys sent in one MGET/MSET, bigger batches are split
+    private int batchSize = 100;
+
+    // Checked when bound so startup fails: a zero batch size never finishes splitting, SCAN rejects COUNT 0
+    public void setScanCount(long scanCount) {
+        if (scanCount < 1) {
+            throw new IllegalArgumentException("Scan count must be positive: " + scanCount);
+        }
+        this.scanCount = scanCount;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+}
@@ -0,0 +1,83 @@
+package dev.tpcoder.springredisreactive.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.tpcoder.springredisreactive.service.RedisService;
+import dev.tpcoder.springredisreactive.service.RedisServiceImpl;
+import io.lettuce.core.ReadFrom;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.resource.ClientResources;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.RedisStaticMasterReplicaConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+
+/**
+ * Replica reads. A static primary/replica connection with the configured Lettuce {@link ReadFrom} serves
+ * the read commands, Lettuce picks the replica and falls back to the primary when the read preference
+ * allows it. Writes keep using the default connection to the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.redis.replicas", name = "enabled", havingValue = "true")
+public class ReplicaConfig {
+
+    @Bean(destroyMethod = "destroy")
+    ReplicaReads replicaReads(ReplicaProperties properties, LettuceConnectionFactory primaryConnectionFactory,
+                              ClientResources clientResources, ReactiveRedisOperations<String, Object> redisOperations,
+                              RedisServiceProperties serviceProperties, ObjectMapper objectMapper) {
+        if (properties.getNodes().isEmpty()) {
+            throw new IllegalStateException("app.redis.replicas.nodes must list at least one Redis URL");
+        }
+        RedisStandaloneConfiguration primary = primaryConnectionFactory.getStandaloneConfiguration();
+        RedisStaticMasterReplicaConfiguration topology
+                = new RedisStaticMasterReplicaConfiguration(primary.getHostName(), primary.getPort());
+        properties.getNodes().forEach(url -> {
+            RedisURI replica = RedisURI.create(url);
+            topology.node(replica.getHost(), replica.getPort());
+        });
+        topology.setDatabase(primary.getDatabase());
+        topology.setUsername(primary.getUsername());
+        topology.setPassword(primary.getPassword());
+
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder clientConfiguration = LettuceClientConfiguration.builder()
+                .clientResources(clientResources)
+                .readFrom(ReadFrom.valueOf(properties.getReadFrom()));
+        if (primaryConnectionFactory.isUseSsl()) {
+            clientConfiguration.useSsl();
+        }
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(topology, clientConfiguration.build());
+        factory.afterPropertiesSet();
+        RedisService service = new RedisServiceImpl(new ReactiveRedisTemplate<>(factory,
+                redisOperations.getSerializationContext()), serviceProperties, objectMapper);
+        Cache<String, Boolean> recentWrites = properties.getReadYourWritesWindow().isZero() ? null : Caffeine.newBuilder()
+                .expireAfterWrite(properties.getReadYourWritesWindow())
+                .maximumSize(properties.getReadYourWritesMaxKeys())
+                .build();
+        return new ReplicaReads(factory, service, recentWrites);
+    }
+
+    static final class ReplicaReads implements DisposableBean {
+
+        private final LettuceConnectionFactory factory;
+        final RedisService service;
+        final Cache<String, Boolean> recentWrites;
+
+        private ReplicaReads(LettuceConnectionFactory factory, RedisService service, Cache<String, Boolean> recentWrites) {
+            this.factory = factory;
+            this.service = service;
+            this.recentWrites = recentWrites;
+        }
+
+        @Override
+        public void destroy() {
+            factory.destroy();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package dev.tpcoder.springredisreactive.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.redis.replicas")
+public class ReplicaProperties {
+
+    // Read commands go to the replicas, writes always go to the primary at spring.redis.url
+    private boolean enabled = false;
+
+    // Redis URLs of the replicas of the primary
+    private List<String> nodes = new ArrayList<>();
+
+    // Lettuce ReadFrom name: replicaPreferred, replica, anyReplica, nearest or any
+    private String readFrom = "replicaPreferred";
+
+    // Keys written by this instance are read from the primary for this long, zero turns it off
+    private Duration readYourWritesWindow = Duration.ofSeconds(1);
+
+    // Upper bound of recently written keys remembered for the window
+    private long readYourWritesMaxKeys = 100_000;
+}
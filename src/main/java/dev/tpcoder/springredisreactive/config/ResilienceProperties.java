@@ -0,0 +1,96 @@
+package dev.tpcoder.springredisreactive.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.redis.resilience")
+public class ResilienceProperties {
+
+    private boolean enabled = false;
+
+    private final Timeouts timeouts = new Timeouts();
+
+    private final Hedge hedge = new Hedge();
+
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    private final Fallback fallback = new Fallback();
+
+    // Upper bound per call by operation type, zero leaves that type without a timeout
+    @Data
+    public static class Timeouts {
+
+        // GET, MGET, EXISTS, STRLEN and PTTL
+        private Duration read = Duration.ofMillis(250);
+
+        // SET, GETSET, DEL, expiry changes, counters and batches
+        private Duration write = Duration.ofMillis(500);
+
+        // The stock Lua scripts
+        private Duration script = Duration.ofMillis(500);
+
+        // Longest wait for the next key or entry of a SCAN, not for the whole scan
+        private Duration scan = Duration.ofSeconds(2);
+    }
+
+    @Data
+    public static class Hedge {
+
+        // A GET sent to the replicas and still running after the delay is sent to the primary as well, the first
+        // answer wins. Needs app.redis.replicas; keys read from the primary anyway are not hedged
+        private boolean enabled = false;
+
+        // The delay is this percentile of recent GET latencies
+        private double percentile = 95;
+
+        // Bounds of the delay, the upper one is also used until enough GETs were seen
+        private Duration minDelay = Duration.ofMillis(2);
+        private Duration maxDelay = Duration.ofMillis(100);
+
+        // Hedges waiting for an answer at the same time, further slow GETs are not hedged
+        private int maxInFlight = 64;
+    }
+
+    @Data
+    public static class CircuitBreaker {
+
+        // Opens when too many of the recent calls failed with a timeout or a connection error
+        private boolean enabled = true;
+
+        // Percentage of failed calls in the window that opens the circuit
+        private int failureRateThreshold = 50;
+
+        // Number of most recent calls the failure rate is taken over
+        private int slidingWindowSize = 100;
+
+        // Calls needed in the window before the failure rate counts
+        private int minimumCalls = 20;
+
+        // How long calls are rejected before trial calls are let through
+        private Duration openDuration = Duration.ofSeconds(10);
+
+        // Trial calls that all have to succeed to close the circuit again
+        private int halfOpenCalls = 5;
+    }
+
+    @Data
+    public static class Fallback {
+
+        // fail_fast rejects calls while the circuit is open, local serves single key reads from the last
+        // values this instance read or wrote, also when a read times out
+        private Mode mode = Mode.FAIL_FAST;
+
+        // Keys remembered for the local fallback
+        private long maxSize = 10_000;
+
+        // Values older than this are not served from the local fallback
+        private Duration maxStaleness = Duration.ofMinutes(5);
+    }
+
+    public enum Mode {
+        FAIL_FAST,
+        LOCAL
+    }
+}
@@ -0,0 +1,17 @@
+package dev.tpcoder.springredisreactive.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.redis.serialization")
+public class SerializationProperties {
+
+    // Codec used for new values, values written with any other known codec stay readable
+    private Codec codec = Codec.SMILE;
+
+    public enum Codec {
+        SMILE,
+        JSON
+    }
+}
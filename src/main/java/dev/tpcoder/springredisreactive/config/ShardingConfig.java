@@ -0,0 +1,70 @@
+package dev.tpcoder.springredisreactive.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.tpcoder.springredisreactive.service.ConsistentHashRing;
+import dev.tpcoder.springredisreactive.service.RedisService;
+import dev.tpcoder.springredisreactive.service.RedisServiceImpl;
+import dev.tpcoder.springredisreactive.service.ShardedRedisService;
+import io.lettuce.core.resource.ClientResources;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+
+/**
+ * Sharded mode, one connection factory per node sharing the client resources and the value serializer of
+ * the default connection. Pub/sub, the hash user store and pipelined batches keep using spring.redis.url.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.redis.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean(destroyMethod = "destroy")
+    ShardConnections shardConnections(ShardingProperties properties, ClientResources clientResources) {
+        if (properties.getNodes().isEmpty()) {
+            throw new IllegalStateException("app.redis.sharding.nodes must list at least one Redis URL");
+        }
+        LettuceClientConfiguration clientConfiguration = LettuceClientConfiguration.builder()
+                .clientResources(clientResources)
+                .build();
+        Map<String, LettuceConnectionFactory> factories = new LinkedHashMap<>();
+        for (String url : properties.getNodes()) {
+            LettuceConnectionFactory factory = new LettuceConnectionFactory(
+                    LettuceConnectionFactory.createRedisConfiguration(url), clientConfiguration);
+            factory.afterPropertiesSet();
+            factories.put(url, factory);
+        }
+        return new ShardConnections(factories);
+    }
+
+    @Bean
+    ShardedRedisService shardedRedisService(ShardConnections connections, ShardingProperties properties,
+                                            ReactiveRedisOperations<String, Object> redisOperations,
+                                            RedisServiceProperties serviceProperties, ObjectMapper objectMapper) {
+        Map<String, RedisService> nodes = new LinkedHashMap<>();
+        connections.factories.forEach((url, factory) -> nodes.put(url, new RedisServiceImpl(
+                new ReactiveRedisTemplate<>(factory, redisOperations.getSerializationContext()),
+                serviceProperties, objectMapper)));
+        return new ShardedRedisService(new ConsistentHashRing<>(nodes, properties.getVirtualNodes()));
+    }
+
+    static final class ShardConnections implements DisposableBean {
+
+        private final Map<String, LettuceConnectionFactory> factories;
+
+        private ShardConnections(Map<String, LettuceConnectionFactory> factories) {
+            this.factories = factories;
+        }
+
+        @Override
+        public void destroy() {
+            factories.values().forEach(LettuceConnectionFactory::destroy);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package dev.tpcoder.springredisreactive.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.redis.sharding")
+public class ShardingProperties {
+
+    // Keys are spread over the nodes instead of going to spring.redis.url
+    private boolean enabled = false;
+
+    // Redis URLs of the nodes, the URL is the node name on the hash ring so keep it stable
+    private List<String> nodes = new ArrayList<>();
+
+    // Positions of every node on the ring, more gives a more even spread
+    private int virtualNodes = 160;
+}
@@ -0,0 +1,12 @@
+package dev.tpcoder.springredisreactive.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.redis.single-flight")
+public class SingleFlightProperties {
+
+    // Concurrent reads of one key share a single GET, callers then receive the same value instance
+    private boolean enabled = false;
+}
@@ -0,0 +1,50 @@
+package dev.tpcoder.springredisreactive.config;
+
+import dev.tpcoder.springredisreactive.service.ExpirationStats;
+import dev.tpcoder.springredisreactive.service.SlidingExpiration;
+import dev.tpcoder.springredisreactive.service.TtlPolicy;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.redis.ttl", name = "enabled", havingValue = "true")
+public class TtlConfig {
+
+    @Bean
+    TtlPolicy ttlPolicy(TtlProperties properties) {
+        return new TtlPolicy(properties.getDefaultTtl(), properties.getNamespaces(), properties.getJitter());
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "app.redis.ttl.sliding", name = "enabled", havingValue = "true")
+    SlidingExpiration slidingExpiration(TtlPolicy ttlPolicy, TtlProperties properties,
+                                        ObjectProvider<MeterRegistry> meterRegistry) {
+        TtlProperties.Sliding sliding = properties.getSliding();
+        return new SlidingExpiration(ttlPolicy, sliding.getFlushInterval(), sliding.getMaxPendingKeys(),
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    ExpirationStats expirationStats(ReactiveRedisConnectionFactory connectionFactory, TtlProperties properties) {
+        return new ExpirationStats(connectionFactory, properties.getStatsInterval());
+    }
+
+    @Bean
+    MeterBinder expirationMetrics(ExpirationStats stats) {
+        return registry -> {
+            FunctionCounter.builder("redis.keys.expired", stats, ExpirationStats::getExpiredKeys)
+                    .description("Keys the server removed because their TTL ran out")
+                    .register(registry);
+            FunctionCounter.builder("redis.keys.evicted", stats, ExpirationStats::getEvictedKeys)
+                    .description("Keys the server removed to stay under maxmemory")
+                    .register(registry);
+        };
+    }
+}
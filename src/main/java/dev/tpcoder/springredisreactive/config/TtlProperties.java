@@ -0,0 +1,41 @@
+package dev.tpcoder.springredisreactive.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.redis.ttl")
+public class TtlProperties {
+
+    private boolean enabled = false;
+
+    // TTL of keys whose namespace has no policy of its own, keys without a ':' included. Unset means no TTL
+    private Duration defaultTtl;
+
+    // TTL per namespace (the part of the key before the first ':'), 0 keeps a namespace without TTL
+    private Map<String, Duration> namespaces = new HashMap<>();
+
+    // Up to this fraction of the TTL is added at random, so keys written together do not expire together
+    private double jitter = 0.1;
+
+    // How often the expired and evicted key counts are read from INFO stats
+    private Duration statsInterval = Duration.ofSeconds(15);
+
+    private final Sliding sliding = new Sliding();
+
+    @Data
+    public static class Sliding {
+
+        // Reads push the expiry of the key out by its TTL again
+        private boolean enabled = false;
+
+        // Keys read in between are refreshed together, each key once per flush however often it was read
+        private Duration flushInterval = Duration.ofSeconds(1);
+
+        // Reads beyond this many distinct keys waiting for a flush do not refresh the TTL
+        private int maxPendingKeys = 100_000;
+    }
+}
@@ -0,0 +1,19 @@
+package dev.tpcoder.springredisreactive.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.user")
+public class UserStorageProperties {
+
+    // value keeps each user as one serialized value, hash keeps one hash field per property.
+    // Hash storage talks to Redis directly and skips metrics, resilience, the near cache and TTLs,
+    // sharding is refused at startup
+    private Storage storage = Storage.VALUE;
+
+    public enum Storage {
+        VALUE,
+        HASH
+    }
+}
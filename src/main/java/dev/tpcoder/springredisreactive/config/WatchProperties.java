@@ -0,0 +1,41 @@
+package dev.tpcoder.springredisreactive.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Item watch streams. They are fed by keyspace notifications, which the Redis server only sends once
+ * enabled there, e.g. {@code CONFIG SET notify-keyspace-events K$gx} (string commands, DEL/EXPIRE and
+ * expiry events). Only the spring.redis.url node is watched, so they cannot be combined with sharding.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.items.watch")
+public class WatchProperties {
+
+    private boolean enabled = false;
+
+    // Changes kept per client that reads slower than they arrive
+    private int bufferSize = 256;
+
+    // What happens to a client whose buffer is full
+    private SlowConsumerPolicy slowConsumer = SlowConsumerPolicy.DROP_OLDEST;
+
+    // Items one multi-id stream may watch
+    private int maxIds = 100;
+
+    // Comment events sent on idle streams so proxies keep the connection open
+    private Duration heartbeat = Duration.ofSeconds(15);
+
+    // Changed values read from Redis at the same time
+    private int fetchConcurrency = 64;
+
+    public enum SlowConsumerPolicy {
+        // Older changes are dropped, the client still gets the latest amount
+        DROP_OLDEST,
+        // New changes are dropped until the client catches up
+        DROP_LATEST,
+        // The stream is completed, the client reconnects and starts from the current amounts
+        DISCONNECT
+    }
+}
@@ -0,0 +1,20 @@
+package dev.tpcoder.springredisreactive.controller;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+final class BulkResponses {
+
+    private BulkResponses() {
+    }
+
+    // Pairs every requested id with its value, missing keys stay in the map with an explicit null
+    static Map<String, Object> byId(List<String> ids, List<?> values) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            result.put(ids.get(i), values.get(i));
+        }
+        return result;
+    }
+}
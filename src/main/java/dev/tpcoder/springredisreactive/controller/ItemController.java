@@ -1,9 +1,29 @@
 package dev.tpcoder.springredisreactive.controller;
 
+import dev.tpcoder.springredisreactive.model.ImportProgress;
 import dev.tpcoder.springredisreactive.model.Item;
+import dev.tpcoder.springredisreactive.model.ItemChange;
+import dev.tpcoder.springredisreactive.model.ItemRank;
+import dev.tpcoder.springredisreactive.model.StockResult;
+import dev.tpcoder.springredisreactive.service.CounterCoalescer;
+import dev.tpcoder.springredisreactive.service.ItemRanking;
+import dev.tpcoder.springredisreactive.service.ItemImportService;
+import dev.tpcoder.springredisreactive.service.ItemWatcher;
+import dev.tpcoder.springredisreactive.service.RawValues;
 import dev.tpcoder.springredisreactive.service.RedisService;
+import dev.tpcoder.springredisreactive.service.StockScripts;
+import dev.tpcoder.springredisreactive.service.WriteConsistency;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.util.ObjectUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,8 +32,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @RestController
@@ -21,10 +44,69 @@ import reactor.core.publisher.Mono;
 @RequiredArgsConstructor
 public class ItemController {
     private final RedisService redisService;
+    private final CounterCoalescer counterCoalescer;
+    private final ItemImportService itemImportService;
+    private final ObjectProvider<ItemRanking> itemRanking;
+    private final RawValues rawValues;
+    private final ItemWatcher itemWatcher;
 
-    @GetMapping("/{itemId}")
-    public Mono<Object> readItem(@PathVariable String itemId) {
-        return Mono.from(redisService.get(itemId));
+    // The entity body is encoded by its runtime type, so stored JSON passed through as a buffer is written as is
+    @GetMapping(value = "/{itemId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Object>> readItem(@PathVariable String itemId) {
+        Mono<Object> value = rawValues.isEnabled()
+                ? redisService.getRaw(itemId).map(rawValues::toBody)
+                : redisService.get(itemId);
+        // Nothing found stays an empty 200
+        return value.map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.ok().build());
+    }
+
+    @GetMapping(params = "ids")
+    public Mono<Map<String, Object>> readItems(@RequestParam List<String> ids) {
+        return redisService.multiGet(ids)
+                .map(values -> BulkResponses.byId(ids, values));
+    }
+
+    @GetMapping(value = "/_export", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<Item> exportItems(@RequestParam(defaultValue = "*") String match) {
+        // Item amounts are stored as plain counters, users and items share the keyspace
+        return redisService.scanEntries(match)
+                .filter(entry -> entry.getValue() instanceof Number
+                        && !entry.getKey().startsWith(StockScripts.RESERVATION_PREFIX))
+                .map(entry -> new Item()
+                        .setId(entry.getKey())
+                        .setAmount(((Number) entry.getValue()).longValue()));
+    }
+
+    @GetMapping("/_top")
+    public Flux<ItemRank> topItems(@RequestParam(defaultValue = "10") int n) {
+        return Mono.fromSupplier(this::ranking)
+                .flatMapMany(ranking -> ranking.top(pageSize(n, ranking)));
+    }
+
+    @GetMapping("/_ranking")
+    public Flux<ItemRank> rankedItems(@RequestParam(defaultValue = "0") long min,
+                                      @RequestParam(defaultValue = "" + Long.MAX_VALUE) long max,
+                                      @RequestParam(defaultValue = "0") long offset,
+                                      @RequestParam(defaultValue = "100") int count) {
+        return Mono.fromSupplier(this::ranking)
+                .flatMapMany(ranking -> ranking.range(min, max, offset, pageSize(count, ranking)));
+    }
+
+    @GetMapping("/{itemId}/_rank")
+    public Mono<ItemRank> itemRank(@PathVariable String itemId) {
+        return Mono.fromSupplier(this::ranking)
+                .flatMap(ranking -> ranking.rank(itemId));
+    }
+
+    @GetMapping(value = "/{itemId}/_watch", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ItemChange>> watchItem(@PathVariable String itemId) {
+        return watch(Set.of(itemId));
+    }
+
+    @GetMapping(value = "/_watch", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ItemChange>> watchItems(@RequestParam List<String> ids) {
+        return watch(new LinkedHashSet<>(ids));
     }
 
     @PostMapping("/{itemId}")
@@ -36,16 +118,108 @@ public class ItemController {
         return redisService.put(itemId, body.getAmount());
     }
 
+    @PostMapping("/_bulk")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Boolean> saveItemAmounts(@RequestBody Map<String, Item> body) {
+        Map<String, Object> amounts = new LinkedHashMap<>();
+        body.forEach((itemId, item) -> amounts.put(itemId,
+                ObjectUtils.isEmpty(item.getAmount()) ? 0L : item.getAmount()));
+        return redisService.multiSet(amounts);
+    }
+
+    @PostMapping(value = "/_import", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ImportProgress> importItems(@RequestBody Flux<String> lines) {
+        // Read as raw lines so one malformed record is reported instead of failing the whole upload
+        return itemImportService.importItems(lines);
+    }
+
     @PutMapping("/{itemId}")
-    public Mono<Long> updateItem(@PathVariable String itemId, @RequestBody Item body) {
+    public Mono<ResponseEntity<Long>> updateItem(@PathVariable String itemId, @RequestBody Item body,
+                                                 @RequestParam(required = false) WriteConsistency consistency) {
         if (ObjectUtils.isEmpty(body.getAmount())) {
             body.setAmount(0L);
         }
-        return redisService.increment(itemId, body.getAmount().intValue());
+        // An eventual write has no value yet, it is only accepted
+        return counterCoalescer.increment(itemId, body.getAmount(), consistency)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.accepted().build());
+    }
+
+    @PostMapping("/{itemId}/_decrement")
+    public Mono<ResponseEntity<StockResult>> decrementItem(@PathVariable String itemId, @RequestParam long amount,
+                                                           @RequestParam(defaultValue = "0") long floor) {
+        return Mono.defer(() -> redisService.decrementWithFloor(itemId, positive(amount), floor))
+                .map(result -> stockResponse(result, HttpStatus.CONFLICT));
+    }
+
+    @PostMapping("/{itemId}/_increment")
+    public Mono<ResponseEntity<StockResult>> incrementItem(@PathVariable String itemId, @RequestParam long amount,
+                                                           @RequestParam long cap) {
+        return Mono.defer(() -> redisService.incrementWithCap(itemId, positive(amount), cap))
+                .map(result -> stockResponse(result, HttpStatus.CONFLICT));
+    }
+
+    @PostMapping("/{itemId}/reservations/{reservationId}")
+    public Mono<ResponseEntity<StockResult>> reserveItem(@PathVariable String itemId, @PathVariable String reservationId,
+                                                         @RequestParam long quantity) {
+        // Reserving again with the same id is accepted without taking more stock. The stock stays held
+        // until the reservation is released, an abandoned reservation is not given back on its own
+        return Mono.defer(() -> redisService.reserve(itemId, reservationId, positive(quantity)))
+                .map(result -> stockResponse(result, HttpStatus.CONFLICT));
+    }
+
+    @DeleteMapping("/{itemId}/reservations/{reservationId}")
+    public Mono<ResponseEntity<StockResult>> releaseItem(@PathVariable String itemId, @PathVariable String reservationId) {
+        return redisService.release(itemId, reservationId)
+                .map(result -> stockResponse(result, HttpStatus.NOT_FOUND));
     }
 
     @DeleteMapping("/{itemId}")
     public Mono<Void> deleteItem(@PathVariable String itemId) {
         return redisService.delete(itemId).then();
     }
+
+    // A rejected operation still returns the current amount so the caller does not need another read
+    private static ResponseEntity<StockResult> stockResponse(StockResult result, HttpStatus rejected) {
+        return ResponseEntity.status(result.isApplied() ? HttpStatus.OK : rejected).body(result);
+    }
+
+    private static long positive(long amount) {
+        if (amount <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Amount must be positive: " + amount);
+        }
+        return amount;
+    }
+
+    private ItemRanking ranking() {
+        ItemRanking ranking = itemRanking.getIfAvailable();
+        if (ranking == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Item ranking is not enabled");
+        }
+        return ranking;
+    }
+
+    private static int pageSize(int requested, ItemRanking ranking) {
+        if (requested < 1 || requested > ranking.maxResults()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Page size must be between 1 and " + ranking.maxResults() + ": " + requested);
+        }
+        return requested;
+    }
+
+    private Flux<ServerSentEvent<ItemChange>> watch(Set<String> ids) {
+        if (!itemWatcher.isEnabled()) {
+            return Flux.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Item watch is not enabled"));
+        }
+        if (ids.isEmpty() || ids.size() > itemWatcher.getMaxIds()) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Between 1 and " + itemWatcher.getMaxIds() + " ids can be watched: " + ids.size()));
+        }
+        Flux<ServerSentEvent<ItemChange>> heartbeats = Flux.interval(itemWatcher.getHeartbeat())
+                .onBackpressureDrop()
+                .map(tick -> ServerSentEvent.<ItemChange>builder().comment("heartbeat").build());
+        return itemWatcher.watch(ids)
+                .map(change -> ServerSentEvent.builder(change).event("change").build())
+                .mergeWith(heartbeats);
+    }
 }
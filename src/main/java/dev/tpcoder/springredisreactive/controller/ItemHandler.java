@@ -0,0 +1,56 @@
+package dev.tpcoder.springredisreactive.controller;
+
+import dev.tpcoder.springredisreactive.model.Item;
+import dev.tpcoder.springredisreactive.service.RawValues;
+import dev.tpcoder.springredisreactive.service.RedisService;
+import java.util.List;
+import org.springframework.http.codec.HttpMessageReader;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Functional version of the single item read, save and delete routes of {@link ItemController}, same paths and
+ * responses. Stock, ranking, watch and bulk routes are still served by the controller.
+ */
+public class ItemHandler {
+
+    private final RedisService redisService;
+    private final RawValues rawValues;
+    private final JsonBodyReader<Item> itemReader;
+
+    public ItemHandler(RedisService redisService, RawValues rawValues, List<HttpMessageReader<?>> readers) {
+        this.redisService = redisService;
+        this.rawValues = rawValues;
+        this.itemReader = new JsonBodyReader<>(Item.class, readers);
+    }
+
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .GET("/items/{itemId}", Routes.SINGLE_ID.and(Routes.ACCEPTS_JSON), this::readItem)
+                .POST("/items/{itemId}", Routes.SINGLE_ID, this::saveItemAmount)
+                .DELETE("/items/{itemId}", Routes.SINGLE_ID, this::deleteItem)
+                .build();
+    }
+
+    Mono<ServerResponse> readItem(ServerRequest request) {
+        String itemId = request.pathVariable("itemId");
+        if (rawValues.isEnabled()) {
+            return Routes.json(redisService.getRaw(itemId).map(rawValues::toBody));
+        }
+        return Routes.json(redisService.get(itemId));
+    }
+
+    Mono<ServerResponse> saveItemAmount(ServerRequest request) {
+        String itemId = request.pathVariable("itemId");
+        return Routes.created(itemReader.read(request)
+                .flatMap(item -> redisService.put(itemId, item.getAmount() == null ? 0L : item.getAmount())));
+    }
+
+    Mono<ServerResponse> deleteItem(ServerRequest request) {
+        return redisService.delete(request.pathVariable("itemId"))
+                .then(ServerResponse.ok().build());
+    }
+}
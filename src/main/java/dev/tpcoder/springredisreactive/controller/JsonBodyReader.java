@@ -0,0 +1,44 @@
+package dev.tpcoder.springredisreactive.controller;
+
+import java.util.Collections;
+import java.util.List;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageReader;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads JSON request bodies of one type with the reader picked once up front, where {@code bodyToMono} and
+ * {@code @RequestBody} look through all readers on every request. Other content types go through
+ * {@code bodyToMono} so they are rejected the usual way.
+ */
+final class JsonBodyReader<T> {
+
+    private final Class<T> type;
+    private final ResolvableType resolvableType;
+    private final HttpMessageReader<T> reader;
+
+    @SuppressWarnings("unchecked")
+    JsonBodyReader(Class<T> type, List<HttpMessageReader<?>> readers) {
+        this.type = type;
+        this.resolvableType = ResolvableType.forClass(type);
+        this.reader = (HttpMessageReader<T>) readers.stream()
+                .filter(r -> r.canRead(resolvableType, MediaType.APPLICATION_JSON))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No JSON reader for " + type.getName()));
+    }
+
+    Mono<T> read(ServerRequest request) {
+        MediaType contentType = request.headers().contentType().orElse(null);
+        if (contentType == null || !MediaType.APPLICATION_JSON.isCompatibleWith(contentType)) {
+            return request.bodyToMono(type);
+        }
+        return reader.readMono(resolvableType, resolvableType, request.exchange().getRequest(),
+                        request.exchange().getResponse(), Collections.emptyMap())
+                .onErrorMap(DecodingException.class, e -> new ServerWebInputException("Failed to read HTTP message", null, e))
+                .switchIfEmpty(Mono.error(() -> new ServerWebInputException("No request body")));
+    }
+}
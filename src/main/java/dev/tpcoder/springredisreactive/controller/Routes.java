@@ -0,0 +1,42 @@
+package dev.tpcoder.springredisreactive.controller;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.RequestPredicate;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Predicates and responses shared by the functional handlers, matching what the annotated controllers send.
+ */
+final class Routes {
+
+    // Ids starting with an underscore are actions like _bulk or _export, left to the annotated controllers
+    static final RequestPredicate SINGLE_ID = request -> !request.path().contains("/_");
+
+    static final RequestPredicate ACCEPTS_JSON = RequestPredicates.accept(MediaType.APPLICATION_JSON);
+
+    private Routes() {
+    }
+
+    // Stored JSON passed through as a buffer is written as is, anything else is encoded; nothing found is an empty 200
+    static Mono<ServerResponse> json(Mono<Object> body) {
+        return body
+                .flatMap(value -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(value instanceof DataBuffer
+                                ? BodyInserters.fromDataBuffers(Mono.just((DataBuffer) value))
+                                : BodyInserters.fromValue(value)))
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.ok().build()));
+    }
+
+    static Mono<ServerResponse> created(Mono<Boolean> result) {
+        return result.flatMap(saved -> ServerResponse.status(HttpStatus.CREATED)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(saved))
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.status(HttpStatus.CREATED).build()));
+    }
+}
@@ -1,17 +1,27 @@
 package dev.tpcoder.springredisreactive.controller;
 
 import dev.tpcoder.springredisreactive.model.User;
-import dev.tpcoder.springredisreactive.service.RedisService;
+import dev.tpcoder.springredisreactive.service.UserStore;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.CollectionUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @RestController
@@ -19,22 +29,62 @@ import reactor.core.publisher.Mono;
 @RequiredArgsConstructor
 public class UserController {
 
-    private final RedisService redisService;
+    private final UserStore userStore;
 
-    @GetMapping("/{userId}")
-    public Mono<Object> readUser(@PathVariable String userId) {
-        return redisService.get(userId);
+    // The entity body is encoded by its runtime type, so stored JSON passed through as a buffer is written as is
+    @GetMapping(value = "/{userId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Object>> readUser(@PathVariable String userId,
+                                                 @RequestParam(required = false) Set<String> fields) {
+        if (CollectionUtils.isEmpty(fields)) {
+            return body(userStore.findBody(userId));
+        }
+        return body(userStore.find(userId, fields).cast(Object.class))
+                .onErrorMap(IllegalArgumentException.class, UserController::badRequest);
+    }
+
+    @GetMapping(params = "ids")
+    public Mono<Map<String, Object>> readUsers(@RequestParam List<String> ids) {
+        return userStore.findAll(ids)
+                .map(values -> BulkResponses.byId(ids, values));
+    }
+
+    @GetMapping(value = "/_export", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<User> exportUsers(@RequestParam(defaultValue = "*") String match) {
+        return userStore.scan(match);
     }
 
     @PostMapping("/{userId}")
     @ResponseStatus(HttpStatus.CREATED)
     public Mono<Boolean> saveUser(@PathVariable String userId, @RequestBody User body) {
-        return redisService.put(userId, body);
+        return userStore.save(userId, body);
+    }
+
+    @PostMapping("/_bulk")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Boolean> saveUsers(@RequestBody Map<String, User> body) {
+        return userStore.saveAll(body);
+    }
+
+    @PatchMapping("/{userId}")
+    public Mono<User> patchUser(@PathVariable String userId, @RequestBody Map<String, Object> changes) {
+        return userStore.patch(userId, changes)
+                .onErrorMap(IllegalArgumentException.class, UserController::badRequest)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User " + userId + " not found")));
     }
 
     @DeleteMapping("/{userId}")
     public Mono<Void> deleteUser(@PathVariable String userId) {
-        return redisService.delete(userId).then();
+        return userStore.delete(userId);
+    }
+
+    // Nothing found stays an empty 200
+    private static Mono<ResponseEntity<Object>> body(Mono<Object> value) {
+        return value.map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.ok().build());
+    }
+
+    private static ResponseStatusException badRequest(IllegalArgumentException e) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
     }
 
 }
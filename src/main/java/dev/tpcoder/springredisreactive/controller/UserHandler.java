@@ -0,0 +1,49 @@
+package dev.tpcoder.springredisreactive.controller;
+
+import dev.tpcoder.springredisreactive.model.User;
+import dev.tpcoder.springredisreactive.service.UserStore;
+import java.util.List;
+import org.springframework.http.codec.HttpMessageReader;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Functional version of the single user routes of {@link UserController}, same paths and responses. Reads with
+ * {@code fields}, bulk and export requests do not match and are still served by the controller.
+ */
+public class UserHandler {
+
+    private final UserStore userStore;
+    private final JsonBodyReader<User> userReader;
+
+    public UserHandler(UserStore userStore, List<HttpMessageReader<?>> readers) {
+        this.userStore = userStore;
+        this.userReader = new JsonBodyReader<>(User.class, readers);
+    }
+
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .GET("/users/{userId}", Routes.SINGLE_ID.and(Routes.ACCEPTS_JSON)
+                        .and(request -> request.queryParam("fields").isEmpty()), this::readUser)
+                .POST("/users/{userId}", Routes.SINGLE_ID, this::saveUser)
+                .DELETE("/users/{userId}", Routes.SINGLE_ID, this::deleteUser)
+                .build();
+    }
+
+    Mono<ServerResponse> readUser(ServerRequest request) {
+        return Routes.json(userStore.findBody(request.pathVariable("userId")));
+    }
+
+    Mono<ServerResponse> saveUser(ServerRequest request) {
+        String userId = request.pathVariable("userId");
+        return Routes.created(userReader.read(request).flatMap(user -> userStore.save(userId, user)));
+    }
+
+    Mono<ServerResponse> deleteUser(ServerRequest request) {
+        return userStore.delete(request.pathVariable("userId"))
+                .then(ServerResponse.ok().build());
+    }
+}
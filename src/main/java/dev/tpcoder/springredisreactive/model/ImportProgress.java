@@ -0,0 +1,26 @@
+package dev.tpcoder.springredisreactive.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class ImportProgress {
+
+    private long batch;
+    private long written;
+    private long failed;
+    private long totalWritten;
+    private long totalFailed;
+    private List<ImportError> errors = new ArrayList<>();
+
+    @Data
+    @Accessors(chain = true)
+    public static class ImportError {
+        private long line;
+        private String id;
+        private String message;
+    }
+}
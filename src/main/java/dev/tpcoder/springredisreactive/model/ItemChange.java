@@ -0,0 +1,13 @@
+package dev.tpcoder.springredisreactive.model;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class ItemChange {
+
+    private String id;
+    // Null once the item was deleted or expired
+    private Long amount;
+}
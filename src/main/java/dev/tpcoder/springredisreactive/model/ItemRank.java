@@ -0,0 +1,14 @@
+package dev.tpcoder.springredisreactive.model;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class ItemRank {
+
+    private String id;
+    // 1 for the item with the highest amount
+    private long rank;
+    private long amount;
+}
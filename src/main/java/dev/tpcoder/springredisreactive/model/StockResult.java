@@ -0,0 +1,13 @@
+package dev.tpcoder.springredisreactive.model;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class StockResult {
+
+    // False when the operation was rejected, amount is then the unchanged current amount
+    private boolean applied;
+    private long amount;
+}
@@ -0,0 +1,88 @@
+package dev.tpcoder.springredisreactive.serializer;
+
+import java.util.Map;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Compresses serialized values above a size threshold and writes {@code [MARKER][codec id][length][body]}.
+ * Anything without the marker is handed to the wrapped serializer untouched, so compressed and plain
+ * values can be stored side by side and the threshold can change at any time. Compressed values are read
+ * back even when new writes are no longer compressed, so compression can be switched off again.
+ */
+public class CompressingValueSerializer implements RedisSerializer<Object> {
+
+    // Distinct from VersionedValueSerializer.MAGIC, JSON and decimal numbers
+    public static final byte MARKER = (byte) 0xC7;
+    public static final int HEADER_LENGTH = 6;
+
+    private final RedisSerializer<Object> delegate;
+    private final CompressionCodec codec;
+    private final boolean compressWrites;
+    private final int minSize;
+    private final Map<Class<?>, Integer> typeMinSize;
+    private final CompressionStats stats;
+
+    public CompressingValueSerializer(RedisSerializer<Object> delegate, CompressionCodec codec, boolean compressWrites,
+                                      int minSize, Map<Class<?>, Integer> typeMinSize, CompressionStats stats) {
+        this.delegate = delegate;
+        this.codec = codec;
+        this.compressWrites = compressWrites;
+        this.minSize = minSize;
+        this.typeMinSize = Map.copyOf(typeMinSize);
+        this.stats = stats;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        byte[] bytes = delegate.serialize(value);
+        if (!compressWrites || value == null || bytes == null
+                || bytes.length < typeMinSize.getOrDefault(value.getClass(), minSize)) {
+            return bytes;
+        }
+        long start = System.nanoTime();
+        byte[] body = codec.compress(bytes);
+        if (body.length + HEADER_LENGTH >= bytes.length) {
+            stats.recordSkipped();
+            return bytes;
+        }
+        byte[] result = new byte[HEADER_LENGTH + body.length];
+        result[0] = MARKER;
+        result[1] = codec.id();
+        writeInt(result, 2, bytes.length);
+        System.arraycopy(body, 0, result, HEADER_LENGTH, body.length);
+        stats.recordCompressed(bytes.length, result.length, System.nanoTime() - start);
+        return result;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0 || bytes[0] != MARKER) {
+            return delegate.deserialize(bytes);
+        }
+        if (bytes.length < HEADER_LENGTH) {
+            throw new SerializationException("Truncated compression header");
+        }
+        if (bytes[1] != codec.id()) {
+            throw new SerializationException("Unknown compression codec " + bytes[1]);
+        }
+        long start = System.nanoTime();
+        byte[] plain = codec.decompress(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH, readInt(bytes, 2));
+        stats.recordDecompressed(System.nanoTime() - start);
+        return delegate.deserialize(plain);
+    }
+
+    private static void writeInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) << 24
+                | (bytes[offset + 1] & 0xFF) << 16
+                | (bytes[offset + 2] & 0xFF) << 8
+                | (bytes[offset + 3] & 0xFF);
+    }
+}
@@ -0,0 +1,13 @@
+package dev.tpcoder.springredisreactive.serializer;
+
+/**
+ * Compresses whole serialized values. The id is stored next to the compressed bytes.
+ */
+public interface CompressionCodec {
+
+    byte id();
+
+    byte[] compress(byte[] bytes);
+
+    byte[] decompress(byte[] bytes, int offset, int length, int originalLength);
+}
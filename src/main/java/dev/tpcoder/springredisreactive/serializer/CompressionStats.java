@@ -0,0 +1,59 @@
+package dev.tpcoder.springredisreactive.serializer;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals of the compression stage, used to tune the thresholds.
+ */
+public class CompressionStats {
+
+    private final LongAdder compressed = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder bytesBefore = new LongAdder();
+    private final LongAdder bytesAfter = new LongAdder();
+    private final LongAdder compressNanos = new LongAdder();
+    private final LongAdder decompressed = new LongAdder();
+    private final LongAdder decompressNanos = new LongAdder();
+
+    void recordCompressed(int before, int after, long nanos) {
+        compressed.increment();
+        bytesBefore.add(before);
+        bytesAfter.add(after);
+        compressNanos.add(nanos);
+    }
+
+    void recordSkipped() {
+        skipped.increment();
+    }
+
+    void recordDecompressed(long nanos) {
+        decompressed.increment();
+        decompressNanos.add(nanos);
+    }
+
+    public long getCompressedCount() {
+        return compressed.sum();
+    }
+
+    public long getSkippedCount() {
+        return skipped.sum();
+    }
+
+    public long getDecompressedCount() {
+        return decompressed.sum();
+    }
+
+    public long getCompressNanos() {
+        return compressNanos.sum();
+    }
+
+    public long getDecompressNanos() {
+        return decompressNanos.sum();
+    }
+
+    // Compressed size over original size of every compressed value, 1.0 until something was compressed
+    public double getRatio() {
+        long before = bytesBefore.sum();
+        return before == 0 ? 1.0 : (double) bytesAfter.sum() / before;
+    }
+}
@@ -0,0 +1,75 @@
+package dev.tpcoder.springredisreactive.serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.springframework.data.redis.serializer.SerializationException;
+
+public class DeflateCompressionCodec implements CompressionCodec {
+
+    public static final byte ID = 1;
+
+    // Redis strings hold at most 512 MB
+    static final int MAX_LENGTH = 512 * 1024 * 1024;
+
+    // Deflate cannot expand data by more than about 1032 to 1
+    private static final int MAX_RATIO = 1032;
+
+    private final int level;
+
+    public DeflateCompressionCodec(int level) {
+        this.level = level;
+    }
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public byte[] compress(byte[] bytes) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 16);
+            byte[] buffer = new byte[Math.min(bytes.length + 64, 8192)];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public byte[] decompress(byte[] bytes, int offset, int length, int originalLength) {
+        // The length comes from the stored header, check it before allocating
+        if (originalLength < 0 || originalLength > MAX_LENGTH || originalLength > (long) length * MAX_RATIO) {
+            throw new SerializationException("Compressed value has an invalid length " + originalLength);
+        }
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(bytes, offset, length);
+            byte[] result = new byte[originalLength];
+            int read = 0;
+            while (read < originalLength && !inflater.finished()) {
+                int n = inflater.inflate(result, read, originalLength - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != originalLength) {
+                throw new SerializationException("Compressed value is truncated");
+            }
+            return result;
+        } catch (DataFormatException e) {
+            throw new SerializationException("Compressed value is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package dev.tpcoder.springredisreactive.serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileParser;
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class JacksonValueCodec implements ValueCodec {
+
+    public static final byte SMILE = 1;
+    public static final byte JSON = 2;
+
+    private final byte id;
+    private final ObjectMapper objectMapper;
+
+    // Binary JSON, the 4 byte Smile header is dropped because our own header already identifies the format
+    public static JacksonValueCodec smile() {
+        SmileFactory factory = SmileFactory.builder()
+                .disable(SmileGenerator.Feature.WRITE_HEADER)
+                .disable(SmileParser.Feature.REQUIRE_HEADER)
+                .build();
+        return new JacksonValueCodec(SMILE, new ObjectMapper(factory));
+    }
+
+    public static JacksonValueCodec json() {
+        return new JacksonValueCodec(JSON, new ObjectMapper());
+    }
+
+    @Override
+    public byte id() {
+        return id;
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        return objectMapper.writeValueAsBytes(value);
+    }
+
+    @Override
+    public <T> T decode(byte[] bytes, int offset, int length, Class<T> type) throws IOException {
+        return objectMapper.readValue(bytes, offset, length, type);
+    }
+}
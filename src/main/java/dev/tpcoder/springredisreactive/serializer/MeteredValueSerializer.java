@@ -0,0 +1,59 @@
+package dev.tpcoder.springredisreactive.serializer;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Records the size of every value sent to or read from Redis as {@code redis.payload.size},
+ * tagged with the direction and the registered type name.
+ */
+public class MeteredValueSerializer implements RedisSerializer<Object> {
+
+    static final String SUMMARY = "redis.payload.size";
+
+    private final RedisSerializer<Object> delegate;
+    private final MeterRegistry registry;
+    private final Map<Class<?>, String> typeNames = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public MeteredValueSerializer(RedisSerializer<Object> delegate, MeterRegistry registry, TypeRegistry typeRegistry) {
+        this.delegate = delegate;
+        this.registry = registry;
+        typeRegistry.types().forEach(type -> typeNames.put(type, type.getSimpleName()));
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        byte[] bytes = delegate.serialize(value);
+        if (value != null && bytes != null) {
+            summary("write", value).record(bytes.length);
+        }
+        return bytes;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        Object value = delegate.deserialize(bytes);
+        if (value != null) {
+            summary("read", value).record(bytes.length);
+        }
+        return value;
+    }
+
+    private DistributionSummary summary(String direction, Object value) {
+        String type = value instanceof Number ? "number" : typeNames.getOrDefault(value.getClass(), "other");
+        return summaries.computeIfAbsent(direction + '|' + type, id -> DistributionSummary.builder(SUMMARY)
+                .baseUnit("bytes")
+                .tag("direction", direction)
+                .tag("type", type)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(1024.0 * 1024.0)
+                .register(registry));
+    }
+}
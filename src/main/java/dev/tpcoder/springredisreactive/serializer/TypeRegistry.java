@@ -0,0 +1,43 @@
+package dev.tpcoder.springredisreactive.serializer;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps stored types to the one byte id written in the value header. Ids are persisted in Redis,
+ * so an id must never be reused for another type.
+ */
+public class TypeRegistry {
+
+    // Values whose type is not registered, they are read back as maps, lists and scalars
+    public static final byte UNTYPED = 0;
+
+    private final Map<Class<?>, Byte> ids = new HashMap<>();
+    private final Map<Byte, Class<?>> types = new HashMap<>();
+
+    public TypeRegistry register(int id, Class<?> type) {
+        if (id <= UNTYPED || id > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Type id must be between 1 and " + Byte.MAX_VALUE + ": " + id);
+        }
+        if (types.containsKey((byte) id) || ids.containsKey(type)) {
+            throw new IllegalArgumentException("Type " + type.getName() + " or id " + id + " is already registered");
+        }
+        ids.put(type, (byte) id);
+        types.put((byte) id, type);
+        return this;
+    }
+
+    public byte idOf(Class<?> type) {
+        return ids.getOrDefault(type, UNTYPED);
+    }
+
+    public Collection<Class<?>> types() {
+        return Collections.unmodifiableCollection(types.values());
+    }
+
+    public Class<?> typeOf(byte id) {
+        return id == UNTYPED ? Object.class : types.get(id);
+    }
+}
@@ -0,0 +1,16 @@
+package dev.tpcoder.springredisreactive.serializer;
+
+import java.io.IOException;
+
+/**
+ * Encodes the body of a stored value. The id is written into the value header so a value can always
+ * be decoded by the codec that wrote it, even after the configured codec changed.
+ */
+public interface ValueCodec {
+
+    byte id();
+
+    byte[] encode(Object value) throws IOException;
+
+    <T> T decode(byte[] bytes, int offset, int length, Class<T> type) throws IOException;
+}
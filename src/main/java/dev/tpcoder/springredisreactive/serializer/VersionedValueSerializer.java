@@ -0,0 +1,114 @@
+package dev.tpcoder.springredisreactive.serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Value serializer writing {@code [MAGIC][codec id][type id][body]}.
+ * <p>
+ * Integral numbers are stored as plain decimal text so INCRBY/DECRBY keep working on them.
+ * Values without the magic byte were written by the former JSON serializer and are still readable,
+ * which lets old and new values live side by side during a migration.
+ */
+public class VersionedValueSerializer implements RedisSerializer<Object> {
+
+    // Never the first byte of a JSON document or of a decimal number
+    public static final byte MAGIC = (byte) 0xB5;
+    public static final int HEADER_LENGTH = 3;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final TypeRegistry typeRegistry;
+    private final ValueCodec writeCodec;
+    private final Map<Byte, ValueCodec> readCodecs = new HashMap<>();
+    private final ObjectMapper legacyMapper;
+
+    public VersionedValueSerializer(TypeRegistry typeRegistry, ValueCodec writeCodec,
+                                    List<ValueCodec> readCodecs, ObjectMapper legacyMapper) {
+        this.typeRegistry = typeRegistry;
+        this.writeCodec = writeCodec;
+        this.legacyMapper = legacyMapper;
+        this.readCodecs.put(writeCodec.id(), writeCodec);
+        readCodecs.forEach(codec -> this.readCodecs.put(codec.id(), codec));
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return EMPTY;
+        }
+        if (isIntegral(value)) {
+            return String.valueOf(((Number) value).longValue()).getBytes(StandardCharsets.US_ASCII);
+        }
+        try {
+            byte[] body = writeCodec.encode(value);
+            byte[] bytes = new byte[HEADER_LENGTH + body.length];
+            bytes[0] = MAGIC;
+            bytes[1] = writeCodec.id();
+            bytes[2] = typeRegistry.idOf(value.getClass());
+            System.arraycopy(body, 0, bytes, HEADER_LENGTH, body.length);
+            return bytes;
+        } catch (IOException e) {
+            throw new SerializationException("Could not write " + value.getClass().getName(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            if (bytes[0] != MAGIC) {
+                return deserializeLegacy(bytes);
+            }
+            if (bytes.length < HEADER_LENGTH) {
+                throw new SerializationException("Truncated value header");
+            }
+            ValueCodec codec = readCodecs.get(bytes[1]);
+            if (codec == null) {
+                throw new SerializationException("Unknown value codec " + bytes[1]);
+            }
+            Class<?> type = typeRegistry.typeOf(bytes[2]);
+            if (type == null) {
+                throw new SerializationException("Unknown value type " + bytes[2]);
+            }
+            return codec.decode(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH, type);
+        } catch (IOException e) {
+            throw new SerializationException("Could not read value", e);
+        }
+    }
+
+    private Object deserializeLegacy(byte[] bytes) throws IOException {
+        Long number = parseLong(bytes);
+        return number != null ? number : legacyMapper.readValue(bytes, Object.class);
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+
+    // Counters are read back as Long whatever their magnitude, Jackson would pick Integer for small ones
+    private static Long parseLong(byte[] bytes) {
+        int start = bytes[0] == '-' ? 1 : 0;
+        if (start == bytes.length || bytes.length > 20) {
+            return null;
+        }
+        for (int i = start; i < bytes.length; i++) {
+            if (bytes[i] < '0' || bytes[i] > '9') {
+                return null;
+            }
+        }
+        try {
+            return Long.parseLong(new String(bytes, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
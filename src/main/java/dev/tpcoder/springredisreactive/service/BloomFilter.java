@@ -0,0 +1,179 @@
+package dev.tpcoder.springredisreactive.service;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed size Bloom filter over string keys, safe for concurrent use. Bits are numbered the way Redis numbers
+ * the bits of a string, bit 0 being the most significant bit of the first byte, so offsets can be sent with
+ * SETBIT and a bitmap read with GET can be merged in as is.
+ */
+class BloomFilter {
+
+    // Largest bitmap Redis can hold in one string
+    static final long MAX_BITS = 1L << 32;
+
+    private static final double LN2 = Math.log(2);
+
+    private final long bitSize;
+    private final int hashCount;
+    private final AtomicLongArray words;
+
+    BloomFilter(long bitSize, int hashCount) {
+        if (bitSize < Long.SIZE || bitSize > MAX_BITS || bitSize % Long.SIZE != 0) {
+            throw new IllegalArgumentException("Bit size must be a multiple of 64 up to 2^32: " + bitSize);
+        }
+        if (hashCount < 1) {
+            throw new IllegalArgumentException("Hash count must be positive: " + hashCount);
+        }
+        this.bitSize = bitSize;
+        this.hashCount = hashCount;
+        this.words = new AtomicLongArray((int) (bitSize / Long.SIZE));
+    }
+
+    // Smallest filter that stays at the false positive rate for the expected number of keys
+    static BloomFilter forKeys(long expectedKeys, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be in (0, 1): " + falsePositiveRate);
+        }
+        long keys = Math.max(1, expectedKeys);
+        double optimal = Math.ceil(-keys * Math.log(falsePositiveRate) / (LN2 * LN2));
+        long bits = Math.min(MAX_BITS, Math.max(Long.SIZE, ((long) optimal + Long.SIZE - 1) / Long.SIZE * Long.SIZE));
+        int hashes = (int) Math.max(1, Math.min(30, Math.round((double) bits / keys * LN2)));
+        return new BloomFilter(bits, hashes);
+    }
+
+    void put(String key) {
+        long[] hash = hash(key);
+        for (int i = 0; i < hashCount; i++) {
+            long offset = offset(hash, i);
+            long mask = Long.MIN_VALUE >>> (offset & 63);
+            words.accumulateAndGet((int) (offset >>> 6), mask, (word, bit) -> word | bit);
+        }
+    }
+
+    boolean mightContain(String key) {
+        long[] hash = hash(key);
+        for (int i = 0; i < hashCount; i++) {
+            long offset = offset(hash, i);
+            if ((words.get((int) (offset >>> 6)) & (Long.MIN_VALUE >>> (offset & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Bit offsets of the key, the ones SETBIT has to set in a shared bitmap
+    long[] offsets(String key) {
+        long[] hash = hash(key);
+        long[] offsets = new long[hashCount];
+        for (int i = 0; i < hashCount; i++) {
+            offsets[i] = offset(hash, i);
+        }
+        return offsets;
+    }
+
+    // ORs a Redis bitmap into this filter. Redis stores a bitmap only up to its highest set bit, so it may be shorter
+    void merge(ByteBuffer bitmap) {
+        ByteBuffer bytes = bitmap.duplicate();
+        int word = 0;
+        while (word < words.length() && bytes.hasRemaining()) {
+            long value = 0;
+            for (int shift = 56; shift >= 0 && bytes.hasRemaining(); shift -= 8) {
+                value |= (bytes.get() & 0xFFL) << shift;
+            }
+            if (value != 0) {
+                words.accumulateAndGet(word, value, (current, bits) -> current | bits);
+            }
+            word++;
+        }
+    }
+
+    long bitSize() {
+        return bitSize;
+    }
+
+    int hashCount() {
+        return hashCount;
+    }
+
+    long memoryBytes() {
+        return bitSize / Byte.SIZE;
+    }
+
+    // Estimate from the share of set bits, close to the distinct keys put until the filter fills up
+    long approximateKeys() {
+        long set = 0;
+        for (int i = 0; i < words.length(); i++) {
+            set += Long.bitCount(words.get(i));
+        }
+        if (set == bitSize) {
+            return Long.MAX_VALUE;
+        }
+        return Math.round(-(double) bitSize / hashCount * Math.log(1 - (double) set / bitSize));
+    }
+
+    // Kirsch-Mitzenmacher: the i-th offset is h1 + i * h2, both halves of one 128-bit hash
+    private long offset(long[] hash, int i) {
+        return Math.floorMod(hash[0] + i * hash[1], bitSize);
+    }
+
+    private static long[] hash(String key) {
+        return murmur3x64(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // MurmurHash3 x64 128-bit with seed 0
+    private static long[] murmur3x64(byte[] data) {
+        final long c1 = 0x87c37b91114253d5L;
+        final long c2 = 0x4cf5ad432745937fL;
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        long h1 = 0;
+        long h2 = 0;
+        int blocks = data.length / 16;
+        for (int i = 0; i < blocks; i++) {
+            long k1 = buffer.getLong(i * 16);
+            long k2 = buffer.getLong(i * 16 + 8);
+            h1 ^= Long.rotateLeft(k1 * c1, 31) * c2;
+            h1 = (Long.rotateLeft(h1, 27) + h2) * 5 + 0x52dce729;
+            h2 ^= Long.rotateLeft(k2 * c2, 33) * c1;
+            h2 = (Long.rotateLeft(h2, 31) + h1) * 5 + 0x38495ab5;
+        }
+        long k1 = 0;
+        long k2 = 0;
+        int tail = blocks * 16;
+        for (int i = data.length - 1; i >= tail; i--) {
+            long b = data[i] & 0xFFL;
+            if (i - tail >= 8) {
+                k2 ^= b << ((i - tail - 8) * 8);
+            } else {
+                k1 ^= b << ((i - tail) * 8);
+            }
+        }
+        if (k2 != 0) {
+            h2 ^= Long.rotateLeft(k2 * c2, 33) * c1;
+        }
+        if (k1 != 0) {
+            h1 ^= Long.rotateLeft(k1 * c1, 31) * c2;
+        }
+        h1 ^= data.length;
+        h2 ^= data.length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+        return new long[]{h1, h2};
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb93e53fe1a85L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,201 @@
+package dev.tpcoder.springredisreactive.service;
+
+import dev.tpcoder.springredisreactive.model.StockResult;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.springframework.core.ParameterizedTypeReference;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Answers reads of keys the {@link BloomFilters} have never seen with nothing, without a round trip to Redis.
+ * Every write that can create a key adds it to the filter when the write is sent, so a key is never reported
+ * absent after this instance wrote it.
+ */
+public class BloomFilterRedisService extends ForwardingRedisService {
+
+    private final BloomFilters filters;
+    private final int batchSize;
+
+    public BloomFilterRedisService(RedisService delegate, BloomFilters filters, int batchSize) {
+        super(delegate);
+        this.filters = filters;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public Mono<Object> get(String key) {
+        return filtered(key, () -> delegate.get(key));
+    }
+
+    @Override
+    public Mono<ByteBuffer> getRaw(String key) {
+        return filtered(key, () -> delegate.getRaw(key));
+    }
+
+    @Override
+    public <T> Mono<T> get(String key, ParameterizedTypeReference<T> type) {
+        return filtered(key, () -> delegate.get(key, type));
+    }
+
+    @Override
+    public <T> Mono<T> get(String key, Class<T> type) {
+        return filtered(key, () -> delegate.get(key, type));
+    }
+
+    @Override
+    public Mono<Boolean> hasKey(String key) {
+        return Mono.defer(() -> filters.mightContain(key) ? delegate.hasKey(key) : Mono.just(false));
+    }
+
+    @Override
+    public Mono<List<Object>> multiGet(List<String> keyList) {
+        return Mono.defer(() -> {
+            List<Integer> fetchIndexes = new ArrayList<>();
+            for (int i = 0; i < keyList.size(); i++) {
+                if (filters.mightContain(keyList.get(i))) {
+                    fetchIndexes.add(i);
+                }
+            }
+            if (fetchIndexes.size() == keyList.size()) {
+                return delegate.multiGet(keyList);
+            }
+            List<Object> values = new ArrayList<>(Collections.nCopies(keyList.size(), null));
+            if (fetchIndexes.isEmpty()) {
+                return Mono.just(values);
+            }
+            List<String> fetchKeys = fetchIndexes.stream().map(keyList::get).collect(Collectors.toList());
+            return delegate.multiGet(fetchKeys)
+                    .map(loaded -> {
+                        for (int i = 0; i < fetchIndexes.size(); i++) {
+                            values.set(fetchIndexes.get(i), loaded.get(i));
+                        }
+                        return values;
+                    });
+        });
+    }
+
+    // Same as the plain scan, minus the shared bitmaps, which are strings but not values this service can read
+    @Override
+    public Flux<Map.Entry<String, Object>> scanEntries(String pattern) {
+        if (!filters.isShared()) {
+            return delegate.scanEntries(pattern);
+        }
+        return delegate.scan(pattern)
+                .filter(key -> !filters.isBitmapKey(key))
+                .buffer(batchSize)
+                .concatMap(keyList -> delegate.multiGet(keyList)
+                        .flatMapIterable(values -> entries(keyList, values)), 1);
+    }
+
+    @Override
+    public Mono<Boolean> put(String key, Object data) {
+        return delegate.put(key, data).doFirst(() -> filters.add(key));
+    }
+
+    @Override
+    public Mono<Boolean> put(String key, Object data, Duration timeout) {
+        return delegate.put(key, data, timeout).doFirst(() -> filters.add(key));
+    }
+
+    @Override
+    public Mono<Object> getAndSet(String key, Object data) {
+        return delegate.getAndSet(key, data).doFirst(() -> filters.add(key));
+    }
+
+    @Override
+    public <T> Mono<T> getAndSet(String key, Object data, ParameterizedTypeReference<T> type) {
+        return delegate.getAndSet(key, data, type).doFirst(() -> filters.add(key));
+    }
+
+    @Override
+    public <T> Mono<T> getAndSet(String key, Object data, Class<T> type) {
+        return delegate.getAndSet(key, data, type).doFirst(() -> filters.add(key));
+    }
+
+    @Override
+    public Mono<Boolean> multiSet(Map<String, Object> entries) {
+        return delegate.multiSet(entries).doFirst(() -> filters.addAll(entries.keySet()));
+    }
+
+    @Override
+    public Mono<Boolean> multiSet(Map<String, Object> entries, Duration timeout) {
+        return delegate.multiSet(entries, timeout).doFirst(() -> filters.addAll(entries.keySet()));
+    }
+
+    @Override
+    public Mono<List<Object>> executeBatch(RedisBatch batch) {
+        return delegate.executeBatch(batch).doFirst(() -> batch.commands().stream()
+                .filter(command -> command.getType() == RedisBatch.Type.SET
+                        || command.getType() == RedisBatch.Type.INCREMENT)
+                .forEach(command -> filters.add(command.getKey())));
+    }
+
+    @Override
+    public Mono<Long> increment(String key) {
+        return delegate.increment(key).doFirst(() -> filters.add(key));
+    }
+
+    @Override
+    public Mono<Long> increment(String key, long time) {
+        return delegate.increment(key, time).doFirst(() -> filters.add(key));
+    }
+
+    @Override
+    public Mono<Long> decrement(String key) {
+        return delegate.decrement(key).doFirst(() -> filters.add(key));
+    }
+
+    @Override
+    public Mono<Long> decrement(String key, long time) {
+        return delegate.decrement(key, time).doFirst(() -> filters.add(key));
+    }
+
+    @Override
+    public Mono<StockResult> decrementWithFloor(String key, long delta, long floor) {
+        return delegate.decrementWithFloor(key, delta, floor).doFirst(() -> filters.add(key));
+    }
+
+    @Override
+    public Mono<StockResult> incrementWithCap(String key, long delta, long cap) {
+        return delegate.incrementWithCap(key, delta, cap).doFirst(() -> filters.add(key));
+    }
+
+    @Override
+    public Mono<StockResult> reserve(String key, String reservationId, long quantity) {
+        return delegate.reserve(key, reservationId, quantity).doFirst(() -> {
+            filters.add(key);
+            filters.add(StockScripts.reservationKey(key, reservationId));
+        });
+    }
+
+    private <T> Mono<T> filtered(String key, Supplier<Mono<T>> read) {
+        return Mono.defer(() -> {
+            if (!filters.mightContain(key)) {
+                return Mono.empty();
+            }
+            return read.get().doOnSuccess(value -> {
+                if (value == null) {
+                    filters.falsePositive(key);
+                }
+            });
+        });
+    }
+
+    private static List<Map.Entry<String, Object>> entries(List<String> keyList, List<Object> values) {
+        List<Map.Entry<String, Object>> entries = new ArrayList<>(keyList.size());
+        for (int i = 0; i < keyList.size(); i++) {
+            if (values.get(i) != null) {
+                entries.add(new AbstractMap.SimpleImmutableEntry<>(keyList.get(i), values.get(i)));
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,370 @@
+package dev.tpcoder.springredisreactive.service;
+
+import dev.tpcoder.springredisreactive.config.BloomFilterProperties;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.ReactiveRedisConnection;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.ReactiveStringCommands;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * One {@link BloomFilter} per configured key namespace, answering whether a key can exist without asking Redis.
+ * Filters are built from a SCAN at startup and rebuilt on an interval so deleted and expired keys drop out;
+ * keys written through {@link BloomFilterRedisService} are added as the write goes out. Until the first build
+ * of a namespace completes every key of it counts as possibly present.
+ * <p>
+ * Keys written by other instances or by anything else than this service are only seen after the next rebuild.
+ * With sharing on, every instance also sets the bits of the keys it adds in a Redis bitmap per namespace and
+ * time window, and merges the bitmaps of the current and the previous window into its filters every sync
+ * interval. Each merge reads both bitmaps whole, about {@code expectedKeys * 1.2} bytes each at a 1% false
+ * positive rate.
+ */
+@Slf4j
+public class BloomFilters {
+
+    // Lets writes that were under way when a rebuild starts reach Redis before the scan does
+    static final Duration SCAN_GRACE = Duration.ofSeconds(1);
+
+    private static final int SETBIT_BATCH = 1000;
+    private static final int BUILD_RETRIES = 3;
+
+    private final Map<String, Namespace> namespaces = new LinkedHashMap<>();
+    private final KeyNamespaces keyNamespaces;
+    private final RedisService scanSource;
+    private final ReactiveRedisConnectionFactory connectionFactory;
+    private final BloomFilterProperties properties;
+    private final BloomFilterProperties.Shared shared;
+    private final Duration scanGrace;
+    private final Disposable.Composite tasks = Disposables.composite();
+
+    // connectionFactory holds the shared bitmaps, it is not used unless sharing is on
+    public BloomFilters(RedisService scanSource, ReactiveRedisConnectionFactory connectionFactory,
+                        BloomFilterProperties properties) {
+        this(scanSource, connectionFactory, properties, SCAN_GRACE);
+    }
+
+    BloomFilters(RedisService scanSource, ReactiveRedisConnectionFactory connectionFactory,
+                 BloomFilterProperties properties, Duration scanGrace) {
+        for (String name : properties.getNamespaces()) {
+            if (KeyNamespaces.OTHER.equals(name) || KeyNamespaces.MIXED.equals(name)) {
+                throw new IllegalArgumentException("Reserved namespace name: " + name);
+            }
+            namespaces.put(name, new Namespace(name,
+                    BloomFilter.forKeys(properties.getExpectedKeys(), properties.getFalsePositiveRate())));
+        }
+        this.keyNamespaces = new KeyNamespaces(properties.getNamespaces());
+        this.scanSource = scanSource;
+        this.connectionFactory = connectionFactory;
+        this.properties = properties;
+        this.shared = properties.getShared().isEnabled() ? properties.getShared() : null;
+        this.scanGrace = scanGrace;
+    }
+
+    public void start() {
+        Duration interval = properties.getRebuildInterval();
+        Flux<Long> rebuilds = interval.isZero() ? Flux.just(0L) : Flux.interval(Duration.ZERO, interval);
+        tasks.add(rebuilds
+                .onBackpressureDrop()
+                .concatMap(tick -> rebuild(), 1)
+                .subscribe());
+        if (shared != null) {
+            tasks.add(Flux.interval(shared.getSyncInterval())
+                    .onBackpressureDrop()
+                    .concatMap(tick -> sync(), 1)
+                    .subscribe());
+        }
+    }
+
+    public void stop() {
+        tasks.dispose();
+    }
+
+    // False only when the key was never written, as far as this instance knows
+    public boolean mightContain(String key) {
+        Namespace namespace = namespaces.get(keyNamespaces.of(key));
+        if (namespace == null) {
+            return true;
+        }
+        BloomFilter filter = namespace.current;
+        if (filter == null) {
+            return true;
+        }
+        if (filter.mightContain(key)) {
+            namespace.passed.increment();
+            return true;
+        }
+        namespace.skipped.increment();
+        return false;
+    }
+
+    // A key the filter let through turned out not to exist
+    public void falsePositive(String key) {
+        Namespace namespace = namespaces.get(keyNamespaces.of(key));
+        if (namespace != null && namespace.current != null) {
+            namespace.falsePositives.increment();
+        }
+    }
+
+    public void add(String key) {
+        Namespace namespace = namespaces.get(keyNamespaces.of(key));
+        if (namespace == null) {
+            return;
+        }
+        namespace.add(key);
+        if (shared != null) {
+            namespace.queue(key, shared.getMaxPendingKeys());
+        }
+    }
+
+    public void addAll(Collection<String> keys) {
+        keys.forEach(this::add);
+    }
+
+    public Collection<Namespace> getNamespaces() {
+        return namespaces.values();
+    }
+
+    public boolean isShared() {
+        return shared != null;
+    }
+
+    // The shared bitmaps are strings in the same keyspace, readers of all keys have to skip them
+    public boolean isBitmapKey(String key) {
+        return shared != null && key.startsWith(shared.getKeyPrefix());
+    }
+
+    Mono<Void> rebuild() {
+        return Flux.fromIterable(namespaces.values())
+                .concatMap(this::rebuild)
+                .then();
+    }
+
+    private Mono<Void> rebuild(Namespace namespace) {
+        return Mono.defer(() -> {
+            long started = System.nanoTime();
+            BloomFilter fresh = new BloomFilter(namespace.sizing.bitSize(), namespace.sizing.hashCount());
+            namespace.startBuilding(fresh);
+            return Mono.delay(scanGrace)
+                    .thenMany(scanSource.scan(namespace.pattern(), properties.getScanCount()))
+                    .filter(key -> namespace.covers(key) && !isBitmapKey(key))
+                    .doOnNext(fresh::put)
+                    .count()
+                    // Keys already put by a failed attempt are kept, they only cost false positives
+                    .retryWhen(Retry.backoff(BUILD_RETRIES, Duration.ofSeconds(1)))
+                    .doOnNext(keys -> {
+                        namespace.finishBuilding(keys);
+                        log.info("Bloom filter of namespace {} built from {} keys in {} ms", namespace.name, keys,
+                                (System.nanoTime() - started) / 1_000_000);
+                        if (keys > properties.getExpectedKeys()) {
+                            log.warn("Namespace {} has {} keys, more than the {} its Bloom filter is sized for",
+                                    namespace.name, keys, properties.getExpectedKeys());
+                        }
+                    })
+                    .doOnCancel(namespace::abortBuilding)
+                    .onErrorResume(e -> {
+                        namespace.abortBuilding();
+                        log.warn("Could not build the Bloom filter of namespace {}", namespace.name, e);
+                        return Mono.empty();
+                    })
+                    .then();
+        });
+    }
+
+    Mono<Void> sync() {
+        long window = shared.getWindow().toMillis();
+        long epoch = System.currentTimeMillis() / window;
+        return Mono.usingWhen(Mono.fromSupplier(connectionFactory::getReactiveConnection),
+                        connection -> Flux.fromIterable(namespaces.values())
+                                .concatMap(namespace -> sync(connection, namespace, epoch))
+                                .then(),
+                        ReactiveRedisConnection::closeLater)
+                .onErrorResume(e -> {
+                    log.debug("Could not sync the shared Bloom filter bitmaps", e);
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> sync(ReactiveRedisConnection connection, Namespace namespace, long epoch) {
+        List<String> added = namespace.drain();
+        Mono<Void> push = added.isEmpty() ? Mono.empty() : push(connection, namespace, bitmapKey(namespace, epoch), added)
+                .onErrorResume(e -> {
+                    // Sent again with the next sync
+                    added.forEach(key -> namespace.queue(key, shared.getMaxPendingKeys()));
+                    return Mono.error(e);
+                });
+        return push.thenMany(Flux.just(epoch - 1, epoch))
+                .concatMap(window -> connection.stringCommands().get(raw(bitmapKey(namespace, window))))
+                .doOnNext(namespace::merge)
+                .then();
+    }
+
+    private Mono<Void> push(ReactiveRedisConnection connection, Namespace namespace, String bitmapKey,
+                            List<String> added) {
+        ByteBuffer rawKey = raw(bitmapKey);
+        return Flux.fromIterable(added)
+                .flatMapIterable(key -> boxed(namespace.sizing.offsets(key)))
+                .map(offset -> ReactiveStringCommands.SetBitCommand.bit(rawKey.duplicate()).atOffset(offset).to(true))
+                .buffer(SETBIT_BATCH)
+                .concatMap(commands -> connection.stringCommands().setBit(Flux.fromIterable(commands)).then(), 1)
+                .then(connection.keyCommands().pExpire(rawKey.duplicate(), shared.getWindow().multipliedBy(2)))
+                .then();
+    }
+
+    // The bit size and hash count are part of the key, instances configured differently do not mix their bits
+    private String bitmapKey(Namespace namespace, long epoch) {
+        return shared.getKeyPrefix() + namespace.name + ':' + namespace.sizing.bitSize() + ':'
+                + namespace.sizing.hashCount() + ':' + epoch;
+    }
+
+    private static ByteBuffer raw(String key) {
+        return ByteBuffer.wrap(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<Long> boxed(long[] offsets) {
+        List<Long> boxed = new ArrayList<>(offsets.length);
+        for (long offset : offsets) {
+            boxed.add(offset);
+        }
+        return boxed;
+    }
+
+    /**
+     * Filter state of one namespace. Additions and merges go to the filter in use and to the one being built,
+     * under the same lock the switch to the new filter takes, so none of them is lost in between.
+     */
+    public static final class Namespace {
+
+        private final String name;
+        private final BloomFilter sizing;
+        private final LongAdder skipped = new LongAdder();
+        private final LongAdder passed = new LongAdder();
+        private final LongAdder falsePositives = new LongAdder();
+        private final Queue<String> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final LongAdder dropped = new LongAdder();
+        private volatile BloomFilter current;
+        private volatile BloomFilter building;
+        private volatile long scannedKeys;
+
+        private Namespace(String name, BloomFilter sizing) {
+            this.name = name;
+            this.sizing = sizing;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        // Both filters while a rebuild runs
+        public long getMemoryBytes() {
+            BloomFilter filter = current;
+            BloomFilter next = building;
+            return (filter == null ? 0 : filter.memoryBytes()) + (next == null ? 0 : next.memoryBytes());
+        }
+
+        public long getApproximateKeys() {
+            BloomFilter filter = current;
+            return filter == null ? 0 : filter.approximateKeys();
+        }
+
+        public long getScannedKeys() {
+            return scannedKeys;
+        }
+
+        public long getSkipped() {
+            return skipped.sum();
+        }
+
+        public long getPassed() {
+            return passed.sum();
+        }
+
+        public long getFalsePositives() {
+            return falsePositives.sum();
+        }
+
+        public long getDropped() {
+            return dropped.sum();
+        }
+
+        String pattern() {
+            return KeyNamespaces.NONE.equals(name) ? "*" : name + ":*";
+        }
+
+        boolean covers(String key) {
+            int index = key.indexOf(':');
+            return KeyNamespaces.NONE.equals(name) ? index < 0 : index == name.length() && key.startsWith(name);
+        }
+
+        synchronized void add(String key) {
+            put(current, key);
+            put(building, key);
+        }
+
+        synchronized void merge(ByteBuffer bitmap) {
+            if (current != null) {
+                current.merge(bitmap);
+            }
+            if (building != null) {
+                building.merge(bitmap);
+            }
+        }
+
+        synchronized void startBuilding(BloomFilter filter) {
+            building = filter;
+        }
+
+        synchronized void finishBuilding(long keys) {
+            if (building != null) {
+                current = building;
+                building = null;
+                scannedKeys = keys;
+            }
+        }
+
+        synchronized void abortBuilding() {
+            building = null;
+        }
+
+        void queue(String key, int maxPending) {
+            if (pendingCount.incrementAndGet() > maxPending) {
+                pendingCount.decrementAndGet();
+                dropped.increment();
+                return;
+            }
+            pending.add(key);
+        }
+
+        List<String> drain() {
+            List<String> drained = new ArrayList<>();
+            String key;
+            while ((key = pending.poll()) != null) {
+                pendingCount.decrementAndGet();
+                drained.add(key);
+            }
+            return drained;
+        }
+
+        private static void put(BloomFilter filter, String key) {
+            if (filter != null) {
+                filter.put(key);
+            }
+        }
+    }
+}
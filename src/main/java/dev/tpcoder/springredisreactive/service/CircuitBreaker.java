@@ -0,0 +1,138 @@
+package dev.tpcoder.springredisreactive.service;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Count based circuit breaker over the outcome of the last {@code windowSize} calls. It opens once at least
+ * {@code minimumCalls} were seen and the share of failures reaches the threshold, rejects calls for
+ * {@code openDuration}, then lets {@code halfOpenCalls} trial calls through: the circuit closes when all of
+ * them succeed and opens again on the first failure.
+ */
+@Slf4j
+class CircuitBreaker {
+
+    // Ordinals are the values of the state gauge
+    enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private final int failureRateThreshold;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoClock;
+
+    // Ring of the last outcomes, true for a failure
+    private final boolean[] window;
+    private int next;
+    private int calls;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int trialsStarted;
+    private int trialsSucceeded;
+    private long openedCount;
+
+    CircuitBreaker(int failureRateThreshold, int windowSize, int minimumCalls, Duration openDuration,
+                   int halfOpenCalls) {
+        this(failureRateThreshold, windowSize, minimumCalls, openDuration, halfOpenCalls, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureRateThreshold, int windowSize, int minimumCalls, Duration openDuration,
+                   int halfOpenCalls, LongSupplier nanoClock) {
+        if (windowSize < 1 || halfOpenCalls < 1) {
+            throw new IllegalArgumentException("Window size and half-open calls must be positive");
+        }
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls = Math.min(Math.max(1, minimumCalls), windowSize);
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.nanoClock = nanoClock;
+        this.window = new boolean[windowSize];
+    }
+
+    // False when the call must be rejected, every permitted call has to report exactly one outcome
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialsStarted = 0;
+            trialsSucceeded = 0;
+            log.info("Redis circuit half-open, letting {} trial calls through", halfOpenCalls);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= halfOpenCalls) {
+                return false;
+            }
+            trialsStarted++;
+        }
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.CLOSED) {
+            record(false);
+        } else if (state == State.HALF_OPEN && ++trialsSucceeded >= halfOpenCalls) {
+            state = State.CLOSED;
+            next = 0;
+            calls = 0;
+            failures = 0;
+            log.info("Redis circuit closed");
+        }
+    }
+
+    synchronized void onFailure() {
+        if (state == State.CLOSED) {
+            record(true);
+            if (calls >= minimumCalls && failures * 100L >= (long) failureRateThreshold * calls) {
+                open();
+            }
+        } else if (state == State.HALF_OPEN) {
+            open();
+        }
+    }
+
+    // A cancelled call says nothing about Redis, a trial slot it held is given back
+    synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && trialsStarted > trialsSucceeded) {
+            trialsStarted--;
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    synchronized long getOpenedCount() {
+        return openedCount;
+    }
+
+    private void record(boolean failure) {
+        if (calls == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+        window[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoClock.getAsLong();
+        openedCount++;
+        log.warn("Redis circuit opened, rejecting calls for {} ms", openNanos / 1_000_000);
+    }
+}
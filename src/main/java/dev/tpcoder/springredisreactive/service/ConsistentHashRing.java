@@ -0,0 +1,73 @@
+package dev.tpcoder.springredisreactive.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consistent hash ring with virtual nodes. Every node is placed on the ring {@code virtualNodes} times at
+ * positions derived from its name only, so adding a node moves only the keys that now fall on its
+ * positions, about {@code 1 / (nodes + 1)} of them, and removing one moves only its own keys.
+ * The ring is immutable, a topology change builds a new one.
+ */
+public class ConsistentHashRing<N> {
+
+    private final Map<String, N> nodes;
+    private final long[] positions;
+    private final List<N> owners;
+
+    public ConsistentHashRing(Map<String, N> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("A hash ring needs at least one node");
+        }
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("Virtual nodes must be positive: " + virtualNodes);
+        }
+        this.nodes = Collections.unmodifiableMap(new LinkedHashMap<>(nodes));
+        List<Map.Entry<Long, String>> points = new ArrayList<>(nodes.size() * virtualNodes);
+        for (String name : nodes.keySet()) {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.add(Map.entry(hash(name + "#" + i), name));
+            }
+        }
+        // Ties are broken by name so every instance builds the same ring
+        points.sort(Map.Entry.<Long, String>comparingByKey().thenComparing(Map.Entry.comparingByValue()));
+        positions = new long[points.size()];
+        owners = new ArrayList<>(points.size());
+        for (int i = 0; i < points.size(); i++) {
+            positions[i] = points.get(i).getKey();
+            owners.add(nodes.get(points.get(i).getValue()));
+        }
+    }
+
+    public N nodeFor(String key) {
+        int index = Arrays.binarySearch(positions, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners.get(index == positions.length ? 0 : index);
+    }
+
+    public Map<String, N> nodes() {
+        return nodes;
+    }
+
+    // 64-bit FNV-1a with the murmur3 finalizer, spreads short similar keys over the whole ring
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
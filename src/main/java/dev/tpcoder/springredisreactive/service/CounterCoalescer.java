@@ -0,0 +1,139 @@
+package dev.tpcoder.springredisreactive.service;
+
+import dev.tpcoder.springredisreactive.config.CounterCoalescingProperties;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Adds up counter increments in memory and writes them to Redis as one INCRBY per key and flush.
+ * Deltas live in {@link LongAdder}s so concurrent writers on a hot key never contend on a lock.
+ * When coalescing is disabled every call goes straight to {@link RedisService#increment(String, long)}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CounterCoalescer {
+
+    private final RedisService redisService;
+    private final CounterCoalescingProperties properties;
+
+    private final ConcurrentMap<String, LongAdder> pending = new ConcurrentHashMap<>();
+    private final AtomicLong pendingWrites = new AtomicLong();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final Sinks.Many<Long> flushRequests = Sinks.many().unicast().onBackpressureBuffer();
+    private final Sinks.Empty<Void> stopRequested = Sinks.empty();
+    private Mono<Void> flusher;
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        // Timer and threshold flushes go through one sequential pipeline so two flushes never overlap.
+        // Stopping ends the ticks but lets a running flush finish, a cancelled one would lose its deltas
+        flusher = Flux.merge(Flux.interval(properties.getFlushInterval()), flushRequests.asFlux())
+                .takeUntilOther(stopRequested.asMono())
+                .onBackpressureDrop()
+                .concatMap(tick -> flush(), 1)
+                .then()
+                .cache();
+        flusher.subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        Mono<Void> running = Mono.empty();
+        if (flusher != null) {
+            stopRequested.tryEmitEmpty();
+            running = flusher.onErrorResume(e -> Mono.empty());
+        }
+        running.then(Mono.defer(this::flush)).block(properties.getShutdownTimeout());
+    }
+
+    /**
+     * Adds {@code delta} to the counter at {@code key}. READ_YOUR_WRITE emits the new value once Redis
+     * has it, EVENTUAL buffers the delta and completes empty.
+     */
+    public Mono<Long> increment(String key, long delta, WriteConsistency consistency) {
+        if (!properties.isEnabled()) {
+            return redisService.increment(key, delta);
+        }
+        WriteConsistency mode = consistency == null ? properties.getDefaultConsistency() : consistency;
+        if (mode == WriteConsistency.EVENTUAL) {
+            add(key, delta);
+            // One request per flush, the flag is cleared when the flush starts
+            if (pendingWrites.incrementAndGet() >= properties.getMaxPendingWrites()
+                    && flushRequested.compareAndSet(false, true)) {
+                flushRequests.emitNext(0L, (signal, result) -> result == Sinks.EmitResult.FAIL_NON_SERIALIZED);
+            }
+            return Mono.empty();
+        }
+        // Take whatever is buffered for the key along, so the returned value includes earlier eventual writes
+        LongAdder adder = pending.get(key);
+        long carried = adder == null ? 0L : adder.sumThenReset();
+        return redisService.increment(key, delta + carried)
+                .doOnError(e -> restore(key, carried));
+    }
+
+    /**
+     * Writes every buffered delta. The commands are issued together so the connection pipelines them.
+     */
+    public Mono<Void> flush() {
+        pendingWrites.set(0);
+        flushRequested.set(false);
+        return Flux.fromIterable(pending.entrySet())
+                .flatMap(this::flushEntry)
+                .then();
+    }
+
+    private Mono<Long> flushEntry(Map.Entry<String, LongAdder> entry) {
+        LongAdder adder = entry.getValue();
+        long delta = adder.sumThenReset();
+        if (delta == 0L) {
+            // Idle keys are dropped so a flush only walks keys written since the last one. A delta added
+            // while the adder was being dropped is moved to the key's new adder
+            if (pending.remove(entry.getKey(), adder)) {
+                restore(entry.getKey(), adder.sumThenReset());
+            }
+            return Mono.empty();
+        }
+        return redisService.increment(entry.getKey(), delta)
+                .onErrorResume(e -> {
+                    log.warn("Could not flush {} to counter {}, keeping it for the next flush", delta, entry.getKey(), e);
+                    restore(entry.getKey(), delta);
+                    return Mono.empty();
+                });
+    }
+
+    // Keys holding an adder, written since the last flush or not yet dropped by one
+    int pendingKeys() {
+        return pending.size();
+    }
+
+    private void restore(String key, long delta) {
+        if (delta != 0L) {
+            add(key, delta);
+        }
+    }
+
+    private void add(String key, long delta) {
+        LongAdder adder = pending.computeIfAbsent(key, k -> new LongAdder());
+        adder.add(delta);
+        // A flush dropped the adder as idle in the meantime, whatever it still holds moves to the current one
+        if (pending.get(key) != adder) {
+            restore(key, adder.sumThenReset());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package dev.tpcoder.springredisreactive.service;
+
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.ReactiveRedisConnection;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keys the server expired or evicted so far, read from {@code INFO stats} on an interval. Expiry happens
+ * inside Redis, this is the only place the application can see it. With sharding only the node of the
+ * default connection is read.
+ */
+@Slf4j
+public class ExpirationStats {
+
+    private final ReactiveRedisConnectionFactory connectionFactory;
+    private final Duration interval;
+    private final AtomicLong expiredKeys = new AtomicLong();
+    private final AtomicLong evictedKeys = new AtomicLong();
+    private Disposable poller;
+
+    public ExpirationStats(ReactiveRedisConnectionFactory connectionFactory, Duration interval) {
+        this.connectionFactory = connectionFactory;
+        this.interval = interval;
+    }
+
+    public void start() {
+        poller = Flux.interval(Duration.ZERO, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> poll(), 1)
+                .subscribe();
+    }
+
+    public void stop() {
+        if (poller != null) {
+            poller.dispose();
+        }
+    }
+
+    public long getExpiredKeys() {
+        return expiredKeys.get();
+    }
+
+    public long getEvictedKeys() {
+        return evictedKeys.get();
+    }
+
+    Mono<Void> poll() {
+        return Mono.usingWhen(Mono.fromSupplier(connectionFactory::getReactiveConnection),
+                        connection -> connection.serverCommands().info("stats"),
+                        ReactiveRedisConnection::closeLater)
+                .doOnNext(this::update)
+                .onErrorResume(e -> {
+                    log.debug("Could not read INFO stats", e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    void update(Properties stats) {
+        expiredKeys.set(parse(stats.getProperty("expired_keys"), expiredKeys.get()));
+        evictedKeys.set(parse(stats.getProperty("evicted_keys"), evictedKeys.get()));
+    }
+
+    private static long parse(String value, long fallback) {
+        try {
+            return value == null ? fallback : Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package dev.tpcoder.springredisreactive.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.core.ParameterizedTypeReference;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Writes keys with the TTL of their {@link TtlPolicy} instead of none. Calls that already pass a timeout
+ * keep it, and counters created by INCRBY are left alone. With a {@link SlidingExpiration} every hit also
+ * queues the key for a TTL refresh. The applied TTLs are recorded as the {@code redis.ttl.applied}
+ * summary per key namespace.
+ */
+public class ExpiringRedisService extends ForwardingRedisService {
+
+    static final String APPLIED = "redis.ttl.applied";
+
+    private final TtlPolicy policy;
+    private final SlidingExpiration sliding;
+    private final MeterRegistry registry;
+    private final KeyNamespaces namespaces;
+    private final boolean percentileHistogram;
+    private final ConcurrentMap<String, DistributionSummary> applied = new ConcurrentHashMap<>();
+
+    public ExpiringRedisService(RedisService delegate, TtlPolicy policy, SlidingExpiration sliding,
+                                MeterRegistry registry, KeyNamespaces namespaces, boolean percentileHistogram) {
+        super(delegate);
+        this.policy = policy;
+        this.sliding = sliding;
+        this.registry = registry;
+        this.namespaces = namespaces;
+        this.percentileHistogram = percentileHistogram;
+    }
+
+    @Override
+    public Mono<Boolean> put(String key, Object data) {
+        Duration ttl = ttlFor(key);
+        return ttl == null ? delegate.put(key, data) : delegate.put(key, data, ttl);
+    }
+
+    @Override
+    public Mono<Object> get(String key) {
+        return touched(key, delegate.get(key));
+    }
+
+    @Override
+    public <T> Mono<T> get(String key, ParameterizedTypeReference<T> type) {
+        return touched(key, delegate.get(key, type));
+    }
+
+    @Override
+    public Mono<ByteBuffer> getRaw(String key) {
+        return touched(key, delegate.getRaw(key));
+    }
+
+    @Override
+    public <T> Mono<T> get(String key, Class<T> type) {
+        return touched(key, delegate.get(key, type));
+    }
+
+    // GETSET drops the TTL of the key, so it is set again afterwards
+    @Override
+    public Mono<Object> getAndSet(String key, Object data) {
+        return expiring(key, delegate.getAndSet(key, data));
+    }
+
+    @Override
+    public <T> Mono<T> getAndSet(String key, Object data, ParameterizedTypeReference<T> type) {
+        return expiring(key, delegate.getAndSet(key, data, type));
+    }
+
+    @Override
+    public <T> Mono<T> getAndSet(String key, Object data, Class<T> type) {
+        return expiring(key, delegate.getAndSet(key, data, type));
+    }
+
+    @Override
+    public Mono<List<Object>> multiGet(List<String> keyList) {
+        if (sliding == null) {
+            return delegate.multiGet(keyList);
+        }
+        return delegate.multiGet(keyList)
+                .doOnNext(values -> {
+                    for (int i = 0; i < values.size(); i++) {
+                        if (values.get(i) != null) {
+                            touch(keyList.get(i));
+                        }
+                    }
+                });
+    }
+
+    @Override
+    public Mono<Boolean> multiSet(Map<String, Object> entries) {
+        // MSET cannot carry a TTL, so keys with one are written as SET PX each, every key with its own jitter
+        Map<String, Object> withoutTtl = new LinkedHashMap<>();
+        Map<String, Duration> ttls = new LinkedHashMap<>();
+        entries.forEach((key, value) -> {
+            Duration ttl = ttlFor(key);
+            if (ttl == null) {
+                withoutTtl.put(key, value);
+            } else {
+                ttls.put(key, ttl);
+            }
+        });
+        if (ttls.isEmpty()) {
+            return delegate.multiSet(entries);
+        }
+        Flux<Boolean> expiring = Flux.fromIterable(ttls.entrySet())
+                .flatMap(entry -> delegate.put(entry.getKey(), entries.get(entry.getKey()), entry.getValue()));
+        return (withoutTtl.isEmpty() ? expiring : expiring.concatWith(delegate.multiSet(withoutTtl)))
+                .all(Boolean::booleanValue);
+    }
+
+    private Duration ttlFor(String key) {
+        Duration ttl = policy.ttlFor(key);
+        if (ttl != null) {
+            applied.computeIfAbsent(namespaces.of(key), this::summary).record(ttl.toMillis() / 1000.0);
+        }
+        return ttl;
+    }
+
+    private <T> Mono<T> expiring(String key, Mono<T> write) {
+        Duration ttl = ttlFor(key);
+        if (ttl == null) {
+            return write;
+        }
+        return write.map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(previous -> delegate.expire(key, ttl).then(Mono.justOrEmpty(previous)));
+    }
+
+    private <T> Mono<T> touched(String key, Mono<T> read) {
+        return sliding == null ? read : read.doOnNext(value -> touch(key));
+    }
+
+    private void touch(String key) {
+        if (policy.baseTtl(key) != null) {
+            sliding.touch(key);
+        }
+    }
+
+    private DistributionSummary summary(String namespace) {
+        return DistributionSummary.builder(APPLIED)
+                .description("TTL keys were written with, jitter included")
+                .baseUnit("seconds")
+                .tag("namespace", namespace)
+                .publishPercentileHistogram(percentileHistogram)
+                .register(registry);
+    }
+}
@@ -0,0 +1,182 @@
+package dev.tpcoder.springredisreactive.service;
+
+import dev.tpcoder.springredisreactive.model.StockResult;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.ParameterizedTypeReference;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Base class for {@link RedisService} decorators, forwards every call to the wrapped service.
+ * Subclasses override only the operations they care about.
+ */
+@RequiredArgsConstructor
+public abstract class ForwardingRedisService implements RedisService {
+
+    protected final RedisService delegate;
+
+    @Override
+    public Mono<Boolean> put(String key, Object data) {
+        return delegate.put(key, data);
+    }
+
+    @Override
+    public Mono<Boolean> put(String key, Object data, Duration timeout) {
+        return delegate.put(key, data, timeout);
+    }
+
+    @Override
+    public Mono<Object> get(String key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public Mono<ByteBuffer> getRaw(String key) {
+        return delegate.getRaw(key);
+    }
+
+    @Override
+    public <T> Mono<T> get(String key, ParameterizedTypeReference<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public <T> Mono<T> get(String key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public Mono<Object> getAndSet(String key, Object data) {
+        return delegate.getAndSet(key, data);
+    }
+
+    @Override
+    public <T> Mono<T> getAndSet(String key, Object data, ParameterizedTypeReference<T> type) {
+        return delegate.getAndSet(key, data, type);
+    }
+
+    @Override
+    public <T> Mono<T> getAndSet(String key, Object data, Class<T> type) {
+        return delegate.getAndSet(key, data, type);
+    }
+
+    @Override
+    public Mono<Void> delete(String key) {
+        return delegate.delete(key);
+    }
+
+    @Override
+    public Mono<Void> delete(List<String> keyList) {
+        return delegate.delete(keyList);
+    }
+
+    @Override
+    public Mono<List<Object>> multiGet(List<String> keyList) {
+        return delegate.multiGet(keyList);
+    }
+
+    @Override
+    public Mono<Boolean> multiSet(Map<String, Object> entries) {
+        return delegate.multiSet(entries);
+    }
+
+    @Override
+    public Mono<Boolean> multiSet(Map<String, Object> entries, Duration timeout) {
+        return delegate.multiSet(entries, timeout);
+    }
+
+    @Override
+    public Mono<List<Object>> executeBatch(RedisBatch batch) {
+        return delegate.executeBatch(batch);
+    }
+
+    @Override
+    public Flux<String> scan(String pattern) {
+        return delegate.scan(pattern);
+    }
+
+    @Override
+    public Flux<String> scan(String pattern, long count) {
+        return delegate.scan(pattern, count);
+    }
+
+    @Override
+    public Flux<Map.Entry<String, Object>> scanEntries(String pattern) {
+        return delegate.scanEntries(pattern);
+    }
+
+    @Override
+    public Mono<Duration> getExpire(String key) {
+        return delegate.getExpire(key);
+    }
+
+    @Override
+    public Mono<Boolean> expire(String key, Duration timeout) {
+        return delegate.expire(key, timeout);
+    }
+
+    @Override
+    public Mono<Boolean> expireAt(String key, Instant instant) {
+        return delegate.expireAt(key, instant);
+    }
+
+    @Override
+    public Mono<Boolean> persist(String key) {
+        return delegate.persist(key);
+    }
+
+    @Override
+    public Mono<Long> increment(String key) {
+        return delegate.increment(key);
+    }
+
+    @Override
+    public Mono<Long> increment(String key, long time) {
+        return delegate.increment(key, time);
+    }
+
+    @Override
+    public Mono<Long> decrement(String key) {
+        return delegate.decrement(key);
+    }
+
+    @Override
+    public Mono<Long> decrement(String key, long time) {
+        return delegate.decrement(key, time);
+    }
+
+    @Override
+    public Mono<StockResult> decrementWithFloor(String key, long delta, long floor) {
+        return delegate.decrementWithFloor(key, delta, floor);
+    }
+
+    @Override
+    public Mono<StockResult> incrementWithCap(String key, long delta, long cap) {
+        return delegate.incrementWithCap(key, delta, cap);
+    }
+
+    @Override
+    public Mono<StockResult> reserve(String key, String reservationId, long quantity) {
+        return delegate.reserve(key, reservationId, quantity);
+    }
+
+    @Override
+    public Mono<StockResult> release(String key, String reservationId) {
+        return delegate.release(key, reservationId);
+    }
+
+    @Override
+    public Mono<Boolean> hasKey(String key) {
+        return delegate.hasKey(key);
+    }
+
+    @Override
+    public Mono<Long> size(String key) {
+        return delegate.size(key);
+    }
+}
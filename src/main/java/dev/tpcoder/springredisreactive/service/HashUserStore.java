@@ -0,0 +1,168 @@
+package dev.tpcoder.springredisreactive.service;
+
+import dev.tpcoder.springredisreactive.model.User;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.DataType;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps every user as a Redis hash with one plain string field per property. Projections are HMGET of
+ * the requested fields and a patch touches only the changed fields. Saves and patches set and remove their
+ * fields in one script call, so they apply as a whole like the SET of value storage. Small hashes use the
+ * listpack encoding, so a user usually takes less memory than the serialized value.
+ * <p>
+ * Hash commands go straight to the {@link ReactiveStringRedisTemplate}, not through {@link RedisService},
+ * so users stored this way skip its decorators: no metrics, resilience, near cache or TTL policy, and
+ * sharding is refused at startup.
+ * A user written as a value is a string key, reading or writing it here is rejected with
+ * {@link UserStorageMismatchException}.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.user", name = "storage", havingValue = "hash")
+public class HashUserStore implements UserStore {
+
+    static final RedisScript<Long> SAVE = RedisScript.of(new ClassPathResource("scripts/save-user.lua"), Long.class);
+
+    private final ReactiveStringRedisTemplate stringRedisTemplate;
+    private final RedisService redisService;
+    private final UserFields userFields;
+
+    @Override
+    public Mono<User> find(String userId) {
+        return hashOnly(userId, hashOps().entries(userId)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue, LinkedHashMap::new)
+                .filter(hash -> !hash.isEmpty())
+                .map(hash -> userFields.fromHash(userId, hash)));
+    }
+
+    // A hash has no stored JSON to pass through
+    @Override
+    public Mono<Object> findBody(String userId) {
+        return find(userId).cast(Object.class);
+    }
+
+    @Override
+    public Mono<Map<String, Object>> find(String userId, Set<String> fields) {
+        return Mono.fromSupplier(() -> userFields.validate(fields))
+                .flatMap(valid -> {
+                    List<String> stored = new ArrayList<>(valid);
+                    stored.remove(UserFields.ID);
+                    Mono<List<String>> values = stored.isEmpty()
+                            ? stringRedisTemplate.hasKey(userId).filter(Boolean::booleanValue).map(exists -> List.of())
+                            : hashOps().multiGet(userId, stored).filter(list -> list.stream().anyMatch(v -> v != null));
+                    return values.map(list -> {
+                        Map<String, String> hash = new LinkedHashMap<>();
+                        for (int i = 0; i < list.size(); i++) {
+                            hash.put(stored.get(i), list.get(i));
+                        }
+                        return userFields.project(userFields.fromHash(userId, hash), valid);
+                    });
+                })
+                .transform(command -> hashOnly(userId, command));
+    }
+
+    @Override
+    public Mono<List<User>> findAll(List<String> userIds) {
+        // Commands share the Lettuce connection and are pipelined, order follows userIds
+        return Flux.fromIterable(userIds)
+                .flatMapSequential(userId -> find(userId)
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty()))
+                .collect(ArrayList<User>::new, (users, found) -> users.add(found.orElse(null)));
+    }
+
+    @Override
+    public Flux<User> scan(String pattern) {
+        // Items are plain string counters in the same keyspace, only hashes are users
+        return redisService.scan(pattern)
+                .flatMapSequential(key -> stringRedisTemplate.type(key)
+                        .filter(DataType.HASH::equals)
+                        .flatMap(type -> find(key)));
+    }
+
+    @Override
+    public Mono<Boolean> save(String userId, User user) {
+        return hashOnly(userId, write(userId, false, userFields.toHash(user), userFields.clearedFields(user)));
+    }
+
+    @Override
+    public Mono<Boolean> saveAll(Map<String, User> users) {
+        return Flux.fromIterable(users.entrySet())
+                .flatMap(entry -> save(entry.getKey(), entry.getValue()))
+                .all(Boolean::booleanValue);
+    }
+
+    @Override
+    public Mono<User> patch(String userId, Map<String, Object> changes) {
+        return Mono.fromSupplier(() -> userFields.validatePatch(changes))
+                .flatMap(valid -> {
+                    Map<String, String> set = new LinkedHashMap<>();
+                    List<String> removed = new ArrayList<>();
+                    changes.forEach((field, value) -> {
+                        if (value == null) {
+                            removed.add(field);
+                        } else {
+                            set.put(field, String.valueOf(value));
+                        }
+                    });
+                    // A patch never creates a user, the script only writes to an existing hash
+                    return write(userId, true, set, removed);
+                })
+                .filter(Boolean::booleanValue)
+                .flatMap(saved -> find(userId))
+                .transform(command -> hashOnly(userId, command));
+    }
+
+    @Override
+    public Mono<Void> delete(String userId) {
+        return stringRedisTemplate.delete(Mono.just(userId)).then();
+    }
+
+    // One script call, so the set and the removed fields land together and a failed save changes nothing
+    private Mono<Boolean> write(String userId, boolean existingOnly, Map<String, String> set,
+                                Collection<String> removed) {
+        List<String> args = new ArrayList<>(2 + 2 * set.size() + removed.size());
+        args.add(existingOnly ? "1" : "0");
+        args.add(String.valueOf(set.size()));
+        set.forEach((field, value) -> {
+            args.add(field);
+            args.add(value);
+        });
+        args.addAll(removed);
+        return stringRedisTemplate.execute(SAVE, List.of(userId), args)
+                .next()
+                .map(saved -> saved == 1L);
+    }
+
+    // A key saved in value mode is a string, hash commands on it fail with WRONGTYPE
+    private static <T> Mono<T> hashOnly(String userId, Mono<T> command) {
+        return command.onErrorMap(HashUserStore::isWrongType, e -> new UserStorageMismatchException(
+                "User " + userId + " is not stored as a hash, it was written with another app.user.storage", e));
+    }
+
+    private static boolean isWrongType(Throwable e) {
+        String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        return e instanceof RedisSystemException && message != null && message.contains("WRONGTYPE");
+    }
+
+    private ReactiveHashOperations<String, String, String> hashOps() {
+        return stringRedisTemplate.opsForHash();
+    }
+}
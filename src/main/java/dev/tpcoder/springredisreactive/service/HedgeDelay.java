@@ -0,0 +1,67 @@
+package dev.tpcoder.springredisreactive.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * How long a GET may run before it is hedged: a percentile of the latencies of the last GETs, kept in a ring
+ * and recomputed every {@link #REFRESH_SAMPLES} samples, between a lower and an upper bound. Until enough GETs
+ * were seen the upper bound is used.
+ */
+class HedgeDelay {
+
+    static final int WINDOW = 1024;
+    static final int MIN_SAMPLES = 100;
+    static final int REFRESH_SAMPLES = 128;
+
+    private final double percentile;
+    private final long minNanos;
+    private final long maxNanos;
+    // Racy on purpose, a sample that is lost or read while being written only nudges the percentile
+    private final long[] samples = new long[WINDOW];
+    private final AtomicLong count = new AtomicLong();
+    private volatile long delayNanos;
+    private volatile long computedAt = -REFRESH_SAMPLES;
+
+    HedgeDelay(double percentile, Duration minDelay, Duration maxDelay) {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in (0, 100]: " + percentile);
+        }
+        if (minDelay.compareTo(maxDelay) > 0) {
+            throw new IllegalArgumentException("minDelay must not exceed maxDelay");
+        }
+        this.percentile = percentile;
+        this.minNanos = minDelay.toNanos();
+        this.maxNanos = maxDelay.toNanos();
+        this.delayNanos = maxNanos;
+    }
+
+    void record(long latencyNanos) {
+        samples[(int) (count.getAndIncrement() % WINDOW)] = latencyNanos;
+    }
+
+    long currentNanos() {
+        long seen = count.get();
+        if (seen >= MIN_SAMPLES && seen - computedAt >= REFRESH_SAMPLES) {
+            recompute(seen);
+        }
+        return delayNanos;
+    }
+
+    Duration current() {
+        return Duration.ofNanos(currentNanos());
+    }
+
+    private synchronized void recompute(long seen) {
+        if (seen - computedAt < REFRESH_SAMPLES) {
+            return;
+        }
+        int n = (int) Math.min(seen, WINDOW);
+        long[] sorted = Arrays.copyOf(samples, n);
+        Arrays.sort(sorted);
+        int index = Math.max(0, (int) Math.ceil(percentile / 100 * n) - 1);
+        delayNanos = Math.max(minNanos, Math.min(maxNanos, sorted[index]));
+        computedAt = seen;
+    }
+}
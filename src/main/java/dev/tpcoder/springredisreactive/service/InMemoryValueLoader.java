@@ -0,0 +1,38 @@
+package dev.tpcoder.springredisreactive.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import reactor.core.publisher.Mono;
+
+/**
+ * Stand-in system of record kept in a map, for tests and for running without a real source behind the
+ * cache. Counts the loads so tests can tell a cache hit from a load.
+ */
+public class InMemoryValueLoader implements ValueLoader {
+
+    private final Map<String, Object> values = new ConcurrentHashMap<>();
+    private final AtomicLong loads = new AtomicLong();
+
+    public InMemoryValueLoader put(String key, Object value) {
+        values.put(key, value);
+        return this;
+    }
+
+    public InMemoryValueLoader remove(String key) {
+        values.remove(key);
+        return this;
+    }
+
+    public long loadCount() {
+        return loads.get();
+    }
+
+    @Override
+    public Mono<Object> load(String key) {
+        return Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return values.get(key);
+        });
+    }
+}
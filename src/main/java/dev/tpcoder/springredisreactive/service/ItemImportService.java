@@ -0,0 +1,106 @@
+package dev.tpcoder.springredisreactive.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.tpcoder.springredisreactive.config.ImportProperties;
+import dev.tpcoder.springredisreactive.model.ImportProgress;
+import dev.tpcoder.springredisreactive.model.Item;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Streams NDJSON item amounts into Redis. Lines are parsed one by one so a bad record is reported and
+ * skipped instead of failing the upload, valid records are written in MSET batches with a bounded number
+ * of batches in flight. Nothing is read from the upload faster than the batches complete.
+ */
+@Service
+@RequiredArgsConstructor
+public class ItemImportService {
+
+    private final RedisService redisService;
+    private final ObjectMapper objectMapper;
+    private final ImportProperties properties;
+
+    public Flux<ImportProgress> importItems(Flux<String> lines) {
+        return Flux.defer(() -> {
+            AtomicLong batches = new AtomicLong();
+            AtomicLong totalWritten = new AtomicLong();
+            AtomicLong totalFailed = new AtomicLong();
+            return lines.index((index, line) -> new Record(index + 1, line))
+                    .filter(record -> StringUtils.hasText(record.line))
+                    .buffer(properties.getBatchSize())
+                    .flatMapSequential(this::write, properties.getConcurrency(), 1)
+                    .map(progress -> progress
+                            .setBatch(batches.incrementAndGet())
+                            .setTotalWritten(totalWritten.addAndGet(progress.getWritten()))
+                            .setTotalFailed(totalFailed.addAndGet(progress.getFailed())));
+        });
+    }
+
+    private Mono<ImportProgress> write(List<Record> records) {
+        ImportProgress progress = new ImportProgress();
+        Map<String, Object> amounts = new LinkedHashMap<>();
+        // Keyed by line, a repeated id is written once with its last amount but still counts as a record
+        Map<Long, String> ids = new LinkedHashMap<>();
+        for (Record record : records) {
+            Item item = parse(record, progress);
+            if (item != null) {
+                amounts.put(item.getId(), item.getAmount() == null ? 0L : item.getAmount());
+                ids.put(record.number, item.getId());
+            }
+        }
+        int rejected = progress.getErrors().size();
+        if (amounts.isEmpty()) {
+            return Mono.just(progress.setFailed(rejected));
+        }
+        return redisService.multiSet(amounts)
+                .thenReturn(progress.setWritten(ids.size()).setFailed(rejected))
+                .onErrorResume(e -> {
+                    // A failed batch fails every record in it, the rest of the upload still goes on
+                    ids.forEach((line, id) -> progress.getErrors().add(new ImportProgress.ImportError()
+                            .setLine(line)
+                            .setId(id)
+                            .setMessage("write failed: " + e.getMessage())));
+                    return Mono.just(progress.setWritten(0).setFailed(rejected + ids.size()));
+                });
+    }
+
+    private Item parse(Record record, ImportProgress progress) {
+        Item item;
+        try {
+            item = objectMapper.readValue(record.line, Item.class);
+        } catch (JsonProcessingException e) {
+            progress.getErrors().add(error(record, "invalid JSON: " + e.getOriginalMessage()));
+            return null;
+        }
+        if (!StringUtils.hasText(item.getId())) {
+            progress.getErrors().add(error(record, "missing id"));
+            return null;
+        }
+        return item;
+    }
+
+    private static ImportProgress.ImportError error(Record record, String message) {
+        return new ImportProgress.ImportError()
+                .setLine(record.number)
+                .setMessage(message);
+    }
+
+    private static final class Record {
+
+        private final long number;
+        private final String line;
+
+        private Record(long number, String line) {
+            this.number = number;
+            this.line = line;
+        }
+    }
+}
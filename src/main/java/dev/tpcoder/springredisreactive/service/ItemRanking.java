@@ -0,0 +1,156 @@
+package dev.tpcoder.springredisreactive.service;
+
+import dev.tpcoder.springredisreactive.config.RankingProperties;
+import dev.tpcoder.springredisreactive.model.ItemRank;
+import dev.tpcoder.springredisreactive.model.StockResult;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Sorted set of item ids scored by amount. Counter and stock writes that go through here update the
+ * counter and the sorted set in one script, so their ranking always matches the counter. Bulk writes and
+ * batches are ranked by {@link #index(Map)} after the write: two concurrent bulk writes of the same item can
+ * leave the older amount as its score until the item is written again. Top-N and score range queries are
+ * O(log N + M) instead of a scan over every item.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.items.ranking", name = "enabled", havingValue = "true")
+public class ItemRanking {
+
+    private static final RedisScript<Long> PUT = script("put-ranked");
+    private static final RedisScript<Long> INCREMENT = script("increment-ranked");
+    private static final RedisScript<Long> DELETE = script("delete-ranked");
+
+    private final ReactiveStringRedisTemplate stringRedisTemplate;
+    private final RankingProperties properties;
+
+    public Mono<Boolean> put(String key, long amount) {
+        return stringRedisTemplate.execute(PUT, List.of(key, properties.getKey()), List.of(String.valueOf(amount), key))
+                .next()
+                .map(result -> result == 1L);
+    }
+
+    // The sorted set entry outlives the counter when it expires, until the item is deleted or written again
+    public Mono<Boolean> put(String key, long amount, Duration timeout) {
+        return stringRedisTemplate.execute(PUT, List.of(key, properties.getKey()),
+                        List.of(String.valueOf(amount), key, String.valueOf(timeout.toMillis())))
+                .next()
+                .map(result -> result == 1L);
+    }
+
+    public Mono<Long> increment(String key, long delta) {
+        return stringRedisTemplate.execute(INCREMENT, List.of(key, properties.getKey()), List.of(String.valueOf(delta), key))
+                .next();
+    }
+
+    public Mono<StockResult> decrementWithFloor(String key, long delta, long floor) {
+        return stock(StockScripts.DECREMENT_FLOOR, List.of(key, properties.getKey()), delta, floor);
+    }
+
+    public Mono<StockResult> incrementWithCap(String key, long delta, long cap) {
+        return stock(StockScripts.INCREMENT_CAP, List.of(key, properties.getKey()), delta, cap);
+    }
+
+    public Mono<StockResult> reserve(String key, String reservationId, long quantity) {
+        return stock(StockScripts.RESERVE,
+                List.of(key, StockScripts.reservationKey(key, reservationId), properties.getKey()), quantity);
+    }
+
+    public Mono<StockResult> release(String key, String reservationId) {
+        return stock(StockScripts.RELEASE,
+                List.of(key, StockScripts.reservationKey(key, reservationId), properties.getKey()));
+    }
+
+    public Mono<Long> delete(String key) {
+        return stringRedisTemplate.execute(DELETE, List.of(key, properties.getKey()), List.of(key))
+                .next();
+    }
+
+    // For writes that already happened elsewhere, such as bulk writes and batches
+    public Mono<Long> index(Map<String, Long> amounts) {
+        if (amounts.isEmpty()) {
+            return Mono.just(0L);
+        }
+        Set<ZSetOperations.TypedTuple<String>> tuples = amounts.entrySet().stream()
+                .map(entry -> ZSetOperations.TypedTuple.of(entry.getKey(), entry.getValue().doubleValue()))
+                .collect(Collectors.toSet());
+        return stringRedisTemplate.opsForZSet().addAll(properties.getKey(), tuples);
+    }
+
+    public Mono<Long> remove(Collection<String> keys) {
+        return keys.isEmpty() ? Mono.just(0L) : stringRedisTemplate.opsForZSet().remove(properties.getKey(), keys.toArray());
+    }
+
+    public Flux<ItemRank> top(int n) {
+        AtomicLong rank = new AtomicLong();
+        return stringRedisTemplate.opsForZSet()
+                .reverseRangeWithScores(properties.getKey(), Range.closed(0L, (long) n - 1))
+                .map(tuple -> toRank(tuple, rank.incrementAndGet()));
+    }
+
+    public Mono<ItemRank> rank(String id) {
+        return Mono.zip(stringRedisTemplate.opsForZSet().reverseRank(properties.getKey(), id),
+                        stringRedisTemplate.opsForZSet().score(properties.getKey(), id))
+                .map(found -> new ItemRank()
+                        .setId(id)
+                        .setRank(found.getT1() + 1)
+                        .setAmount(found.getT2().longValue()));
+    }
+
+    // Items with an amount between min and max, highest first
+    public Flux<ItemRank> range(long min, long max, long offset, int count) {
+        return stringRedisTemplate.opsForZSet()
+                .reverseRangeByScoreWithScores(properties.getKey(), Range.closed((double) min, (double) max),
+                        RedisZSetCommands.Limit.limit().offset((int) offset).count(count))
+                .collectList()
+                .flatMapMany(page -> page.isEmpty() ? Flux.empty() : stringRedisTemplate.opsForZSet()
+                        // Ranks of a page are consecutive, only the first one is looked up
+                        .reverseRank(properties.getKey(), page.get(0).getValue())
+                        .flatMapMany(first -> {
+                            AtomicLong rank = new AtomicLong(first);
+                            return Flux.fromIterable(page).map(tuple -> toRank(tuple, rank.incrementAndGet()));
+                        }));
+    }
+
+    public int maxResults() {
+        return properties.getMaxResults();
+    }
+
+    private static ItemRank toRank(ZSetOperations.TypedTuple<String> tuple, long rank) {
+        return new ItemRank()
+                .setId(tuple.getValue())
+                .setRank(rank)
+                .setAmount(tuple.getScore() == null ? 0L : tuple.getScore().longValue());
+    }
+
+    // The stock scripts rank the counter themselves when the sorted set is passed as their last key
+    @SuppressWarnings("rawtypes")
+    private Mono<StockResult> stock(RedisScript<List> script, List<String> keys, long... args) {
+        List<String> values = Arrays.stream(args).mapToObj(String::valueOf).collect(Collectors.toList());
+        return stringRedisTemplate.execute(script, keys, values)
+                .collectList()
+                .map(StockScripts::toResult);
+    }
+
+    private static RedisScript<Long> script(String name) {
+        return RedisScript.of(new ClassPathResource("scripts/" + name + ".lua"), Long.class);
+    }
+}
@@ -0,0 +1,166 @@
+package dev.tpcoder.springredisreactive.service;
+
+import dev.tpcoder.springredisreactive.config.WatchProperties;
+import dev.tpcoder.springredisreactive.model.ItemChange;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+/**
+ * Pushes item amount changes to any number of watchers from one keyspace notification subscription per
+ * instance. A notification only carries the key and the command, so the new amount is read with one GET,
+ * and only for keys somebody watches. The GET goes to the primary on the string template, past the near
+ * cache and replicas, which may not have seen the change yet. The result goes through a multicast sink to
+ * every watcher; each watcher has a bounded buffer of its own, so a slow client never holds up the others
+ * and is handled by the {@link WatchProperties.SlowConsumerPolicy}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemWatcher {
+
+    private static final Set<String> REMOVED = Set.of("del", "expired", "evicted");
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final ReactiveRedisConnectionFactory connectionFactory;
+    private final WatchProperties properties;
+
+    private final Sinks.Many<ItemChange> changes = Sinks.many().multicast().directBestEffort();
+    private final ConcurrentMap<String, AtomicInteger> watched = new ConcurrentHashMap<>();
+    private final AtomicInteger watchers = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+    private Disposable subscription;
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        String prefix = "__keyspace@" + database() + "__:";
+        // Deferred so a Redis that is down at startup goes through the retry instead of failing the context
+        subscription = Flux.defer(() -> redisTemplate.listenToPattern(prefix + "*"))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofMillis(100)).maxBackoff(Duration.ofSeconds(5)))
+                .flatMap(message -> onEvent(message.getChannel().substring(prefix.length()), message.getMessage()),
+                        properties.getFetchConcurrency())
+                .subscribe(changes::tryEmitNext, e -> log.error("Item watch listener stopped", e));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+        changes.tryEmitComplete();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public Duration getHeartbeat() {
+        return properties.getHeartbeat();
+    }
+
+    public int getMaxIds() {
+        return properties.getMaxIds();
+    }
+
+    public int getWatchers() {
+        return watchers.get();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * The current amount of every item, then each change as it happens. A change racing the initial read
+     * can arrive before it, the last event for an item is always its latest amount.
+     */
+    public Flux<ItemChange> watch(Set<String> ids) {
+        return Flux.using(() -> register(ids),
+                        registered -> Flux.merge(
+                                changes.asFlux().filter(change -> ids.contains(change.getId())),
+                                Flux.fromIterable(ids).flatMap(this::current)),
+                        this::unregister)
+                .transform(this::buffered);
+    }
+
+    Mono<ItemChange> onEvent(String key, String event) {
+        if (!watched.containsKey(key)) {
+            return Mono.empty();
+        }
+        if (REMOVED.contains(event)) {
+            return Mono.just(new ItemChange().setId(key));
+        }
+        return current(key)
+                .onErrorResume(e -> {
+                    log.warn("Could not read changed item {}", key, e);
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<ItemChange> current(String id) {
+        return redisTemplate.opsForValue().get(id)
+                .map(value -> new ItemChange().setId(id).setAmount(amount(value)))
+                .defaultIfEmpty(new ItemChange().setId(id));
+    }
+
+    // Counters are stored as decimal text, anything else sharing the keyspace is not an item amount
+    private static Long amount(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Flux<ItemChange> buffered(Flux<ItemChange> stream) {
+        switch (properties.getSlowConsumer()) {
+            case DROP_LATEST:
+                return stream.onBackpressureBuffer(properties.getBufferSize(), change -> dropped.increment(),
+                        BufferOverflowStrategy.DROP_LATEST);
+            case DISCONNECT:
+                return stream.onBackpressureBuffer(properties.getBufferSize(), change -> dropped.increment())
+                        .onErrorResume(Exceptions::isOverflow, e -> Flux.empty());
+            default:
+                return stream.onBackpressureBuffer(properties.getBufferSize(), change -> dropped.increment(),
+                        BufferOverflowStrategy.DROP_OLDEST);
+        }
+    }
+
+    private Set<String> register(Set<String> ids) {
+        watchers.incrementAndGet();
+        ids.forEach(id -> watched.computeIfAbsent(id, k -> new AtomicInteger()).incrementAndGet());
+        return ids;
+    }
+
+    private void unregister(Set<String> ids) {
+        watchers.decrementAndGet();
+        ids.forEach(id -> watched.computeIfPresent(id, (k, count) -> count.decrementAndGet() == 0 ? null : count));
+    }
+
+    private int database() {
+        return connectionFactory instanceof LettuceConnectionFactory
+                ? ((LettuceConnectionFactory) connectionFactory).getDatabase()
+                : 0;
+    }
+}
@@ -0,0 +1,42 @@
+package dev.tpcoder.springredisreactive.service;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Maps keys to a bounded set of namespaces, the part of the key before the first ':'.
+ * Only known namespaces are returned as they are so raw keys never end up in metric tags.
+ */
+public class KeyNamespaces {
+
+    public static final String NONE = "none";
+    public static final String OTHER = "other";
+    public static final String MIXED = "mixed";
+
+    private final Set<String> known;
+
+    public KeyNamespaces(Set<String> known) {
+        this.known = Set.copyOf(known);
+    }
+
+    public String of(String key) {
+        int index = key.indexOf(':');
+        if (index < 0) {
+            return NONE;
+        }
+        String namespace = key.substring(0, index);
+        return known.contains(namespace) ? namespace : OTHER;
+    }
+
+    public String of(Collection<String> keys) {
+        String namespace = null;
+        for (String key : keys) {
+            String current = of(key);
+            if (namespace != null && !namespace.equals(current)) {
+                return MIXED;
+            }
+            namespace = current;
+        }
+        return namespace == null ? NONE : namespace;
+    }
+}
@@ -0,0 +1,91 @@
+package dev.tpcoder.springredisreactive.service;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caps how many loads run at the same time without blocking a thread. Loads over the cap wait in a
+ * bounded queue and start when a running one terminates; once the queue is full they fail.
+ */
+class LoadLimiter {
+
+    private final int maxConcurrent;
+    private final int maxPending;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+
+    LoadLimiter(int maxConcurrent, int maxPending) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be positive: " + maxConcurrent);
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.maxPending = maxPending;
+    }
+
+    // Runs the load once a slot is free
+    <T> Mono<T> submit(Mono<T> load) {
+        return Mono.create(sink -> {
+            AtomicBoolean cancelled = new AtomicBoolean();
+            Runnable start = () -> {
+                if (cancelled.get()) {
+                    release();
+                    return;
+                }
+                sink.onDispose(load.doFinally(signal -> release())
+                        .subscribe(sink::success, sink::error, sink::success));
+            };
+            sink.onCancel(() -> cancelled.set(true));
+            if (tryAcquire()) {
+                start.run();
+            } else if (pendingCount.incrementAndGet() > maxPending) {
+                pendingCount.decrementAndGet();
+                sink.error(new IllegalStateException("Too many pending loads: " + maxPending));
+            } else {
+                pending.add(start);
+                drain();
+            }
+        });
+    }
+
+    // Runs the load only if a slot is free right now, otherwise completes empty without running it
+    <T> Mono<T> trySubmit(Mono<T> load) {
+        return Mono.defer(() -> tryAcquire() ? load.doFinally(signal -> release()) : Mono.empty());
+    }
+
+    int activeCount() {
+        return active.get();
+    }
+
+    private boolean tryAcquire() {
+        int current;
+        do {
+            current = active.get();
+            if (current >= maxConcurrent) {
+                return false;
+            }
+        } while (!active.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void release() {
+        active.decrementAndGet();
+        drain();
+    }
+
+    // Both the enqueuing and the releasing side drain, so a queued load cannot miss a freed slot
+    private void drain() {
+        while (!pending.isEmpty() && tryAcquire()) {
+            Runnable next = pending.poll();
+            if (next == null) {
+                active.decrementAndGet();
+                return;
+            }
+            pendingCount.decrementAndGet();
+            next.run();
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package dev.tpcoder.springredisreactive.service;
+
+import dev.tpcoder.springredisreactive.model.StockResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.core.ParameterizedTypeReference;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Records every {@link RedisService} call as {@code redis.commands} timer tagged with the operation, the key
+ * namespace and the outcome (success, empty, error or cancelled), plus a {@code redis.commands.active} gauge
+ * of calls in flight per operation.
+ */
+public class MeteredRedisService extends ForwardingRedisService {
+
+    static final String TIMER = "redis.commands";
+    static final String ACTIVE = "redis.commands.active";
+
+    private final MeterRegistry registry;
+    private final KeyNamespaces namespaces;
+    private final boolean percentileHistogram;
+    private final ConcurrentMap<String, ConcurrentMap<String, Meters>> meters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicInteger> active = new ConcurrentHashMap<>();
+
+    public MeteredRedisService(RedisService delegate, MeterRegistry registry, KeyNamespaces namespaces,
+                               boolean percentileHistogram) {
+        super(delegate);
+        this.registry = registry;
+        this.namespaces = namespaces;
+        this.percentileHistogram = percentileHistogram;
+    }
+
+    @Override
+    public Mono<Boolean> put(String key, Object data) {
+        return timed("put", namespaces.of(key), delegate.put(key, data));
+    }
+
+    @Override
+    public Mono<Boolean> put(String key, Object data, Duration timeout) {
+        return timed("put", namespaces.of(key), delegate.put(key, data, timeout));
+    }
+
+    @Override
+    public Mono<Object> get(String key) {
+        return timed("get", namespaces.of(key), delegate.get(key));
+    }
+
+    @Override
+    public Mono<ByteBuffer> getRaw(String key) {
+        return timed("getRaw", namespaces.of(key), delegate.getRaw(key));
+    }
+
+    @Override
+    public <T> Mono<T> get(String key, ParameterizedTypeReference<T> type) {
+        return timed("get", namespaces.of(key), delegate.get(key, type));
+    }
+
+    @Override
+    public <T> Mono<T> get(String key, Class<T> type) {
+        return timed("get", namespaces.of(key), delegate.get(key, type));
+    }
+
+    @Override
+    public Mono<Object> getAndSet(String key, Object data) {
+        return timed("getAndSet", namespaces.of(key), delegate.getAndSet(key, data));
+    }
+
+    @Override
+    public <T> Mono<T> getAndSet(String key, Object data, ParameterizedTypeReference<T> type) {
+        return timed("getAndSet", namespaces.of(key), delegate.getAndSet(key, data, type));
+    }
+
+    @Override
+    public <T> Mono<T> getAndSet(String key, Object data, Class<T> type) {
+        return timed("getAndSet", namespaces.of(key), delegate.getAndSet(key, data, type));
+    }
+
+    @Override
+    public Mono<Void> delete(String key) {
+        return timed("delete", namespaces.of(key), delegate.delete(key));
+    }
+
+    @Override
+    public Mono<Void> delete(List<String> keyList) {
+        return timed("delete", namespaces.of(keyList), delegate.delete(keyList));
+    }
+
+    @Override
+    public Mono<List<Object>> multiGet(List<String> keyList) {
+        return timed("multiGet", namespaces.of(keyList), delegate.multiGet(keyList));
+    }
+
+    @Override
+    public Mono<Boolean> multiSet(Map<String, Object> entries) {
+        return timed("multiSet", namespaces.of(entries.keySet()), delegate.multiSet(entries));
+    }
+
+    @Override
+    public Mono<Boolean> multiSet(Map<String, Object> entries, Duration timeout) {
+        return timed("multiSet", namespaces.of(entries.keySet()), delegate.multiSet(entries, timeout));
+    }
+
+    @Override
+    public Mono<List<Object>> executeBatch(RedisBatch batch) {
+        return timed("batch", namespaces.of(batch.keys()), delegate.executeBatch(batch));
+    }
+
+    @Override
+    public Flux<String> scan(String pattern) {
+        return timed("scan", namespaces.of(pattern), delegate.scan(pattern));
+    }
+
+    @Override
+    public Flux<String> scan(String pattern, long count) {
+        return timed("scan", namespaces.of(pattern), delegate.scan(pattern, count));
+    }
+
+    @Override
+    public Flux<Map.Entry<String, Object>> scanEntries(String pattern) {
+        return timed("scanEntries", namespaces.of(pattern), delegate.scanEntries(pattern));
+    }
+
+    @Override
+    public Mono<Duration> getExpire(String key) {
+        return timed("getExpire", namespaces.of(key), delegate.getExpire(key));
+    }
+
+    @Override
+    public Mono<Boolean> expire(String key, Duration timeout) {
+        return timed("expire", namespaces.of(key), delegate.expire(key, timeout));
+    }
+
+    @Override
+    public Mono<Boolean> expireAt(String key, Instant instant) {
+        return timed("expireAt", namespaces.of(key), delegate.expireAt(key, instant));
+    }
+
+    @Override
+    public Mono<Boolean> persist(String key) {
+        return timed("persist", namespaces.of(key), delegate.persist(key));
+    }
+
+    @Override
+    public Mono<Long> increment(String key) {
+        return timed("increment", namespaces.of(key), delegate.increment(key));
+    }
+
+    @Override
+    public Mono<Long> increment(String key, long time) {
+        return timed("increment", namespaces.of(key), delegate.increment(key, time));
+    }
+
+    @Override
+    public Mono<Long> decrement(String key) {
+        return timed("decrement", namespaces.of(key), delegate.decrement(key));
+    }
+
+    @Override
+    public Mono<Long> decrement(String key, long time) {
+        return timed("decrement", namespaces.of(key), delegate.decrement(key, time));
+    }
+
+    @Override
+    public Mono<StockResult> decrementWithFloor(String key, long delta, long floor) {
+        return timed("decrementWithFloor", namespaces.of(key), delegate.decrementWithFloor(key, delta, floor));
+    }
+
+    @Override
+    public Mono<StockResult> incrementWithCap(String key, long delta, long cap) {
+        return timed("incrementWithCap", namespaces.of(key), delegate.incrementWithCap(key, delta, cap));
+    }
+
+    @Override
+    public Mono<StockResult> reserve(String key, String reservationId, long quantity) {
+        return timed("reserve", namespaces.of(key), delegate.reserve(key, reservationId, quantity));
+    }
+
+    @Override
+    public Mono<StockResult> release(String key, String reservationId) {
+        return timed("release", namespaces.of(key), delegate.release(key, reservationId));
+    }
+
+    @Override
+    public Mono<Boolean> hasKey(String key) {
+        return timed("hasKey", namespaces.of(key), delegate.hasKey(key));
+    }
+
+    @Override
+    public Mono<Long> size(String key) {
+        return timed("size", namespaces.of(key), delegate.size(key));
+    }
+
+    private <T> Mono<T> timed(String operation, String namespace, Mono<T> call) {
+        return Mono.defer(() -> {
+            Call timing = new Call(meters(operation, namespace));
+            return call.doOnNext(value -> timing.emitted = true)
+                    .doFinally(timing::stop);
+        });
+    }
+
+    private <T> Flux<T> timed(String operation, String namespace, Flux<T> call) {
+        return Flux.defer(() -> {
+            Call timing = new Call(meters(operation, namespace));
+            return call.doOnNext(value -> timing.emitted = true)
+                    .doFinally(timing::stop);
+        });
+    }
+
+    private Meters meters(String operation, String namespace) {
+        return meters.computeIfAbsent(operation, op -> new ConcurrentHashMap<>())
+                .computeIfAbsent(namespace, ns -> new Meters(operation, ns));
+    }
+
+    // Meters of one operation and namespace, resolved once so the hot path does no registry lookups
+    private final class Meters {
+
+        private final AtomicInteger inFlight;
+        private final Timer success;
+        private final Timer empty;
+        private final Timer error;
+        private final Timer cancelled;
+
+        private Meters(String operation, String namespace) {
+            inFlight = active.computeIfAbsent(operation,
+                    op -> registry.gauge(ACTIVE, Tags.of("operation", op), new AtomicInteger()));
+            success = timer(operation, namespace, "success");
+            empty = timer(operation, namespace, "empty");
+            error = timer(operation, namespace, "error");
+            cancelled = timer(operation, namespace, "cancelled");
+        }
+
+        private Timer timer(String operation, String namespace, String outcome) {
+            return Timer.builder(TIMER)
+                    .tag("operation", operation)
+                    .tag("namespace", namespace)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram(percentileHistogram)
+                    .minimumExpectedValue(Duration.ofNanos(100_000))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(registry);
+        }
+    }
+
+    private static final class Call {
+
+        private final Meters meters;
+        private final long startNanos = System.nanoTime();
+        private volatile boolean emitted;
+
+        private Call(Meters meters) {
+            this.meters = meters;
+            meters.inFlight.incrementAndGet();
+        }
+
+        private void stop(SignalType signal) {
+            meters.inFlight.decrementAndGet();
+            Timer timer;
+            if (signal == SignalType.ON_ERROR) {
+                timer = meters.error;
+            } else if (signal == SignalType.CANCEL) {
+                timer = meters.cancelled;
+            } else {
+                timer = emitted ? meters.success : meters.empty;
+            }
+            timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
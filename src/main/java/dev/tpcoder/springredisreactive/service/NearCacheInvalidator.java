@@ -0,0 +1,86 @@
+package dev.tpcoder.springredisreactive.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Keeps the near cache of every running instance coherent.
+ * Local entries are dropped right away, then the key is published on a Redis channel so the other
+ * instances can drop theirs. Messages carry the sender id so an instance skips its own broadcasts.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class NearCacheInvalidator {
+
+    private static final char SEPARATOR = '|';
+
+    @Getter
+    private final Cache<String, Object> cache;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final String channel;
+
+    @Getter
+    private final AtomicLong generation = new AtomicLong();
+    private final String instanceId = UUID.randomUUID().toString();
+    private Disposable subscription;
+
+    public void start() {
+        subscription = redisTemplate.listenToChannel(channel)
+                // Messages sent while we were not listening are lost, start from a clean cache instead
+                .doOnSubscribe(s -> invalidateLocal())
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofMillis(100)).maxBackoff(Duration.ofSeconds(5)))
+                .subscribe(message -> onMessage(message.getMessage()),
+                        e -> log.error("Near cache invalidation listener stopped", e));
+    }
+
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    public Mono<Void> invalidate(String key) {
+        invalidateLocal(key);
+        return redisTemplate.convertAndSend(channel, instanceId + SEPARATOR + key)
+                .onErrorResume(e -> {
+                    log.warn("Could not broadcast near cache invalidation for {}", key, e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    public Mono<Void> invalidate(List<String> keyList) {
+        return Flux.fromIterable(keyList)
+                .flatMap(this::invalidate)
+                .then();
+    }
+
+    void onMessage(String message) {
+        int index = message.indexOf(SEPARATOR);
+        if (index < 0 || message.substring(0, index).equals(instanceId)) {
+            return;
+        }
+        invalidateLocal(message.substring(index + 1));
+    }
+
+    private void invalidateLocal(String key) {
+        generation.incrementAndGet();
+        cache.invalidate(key);
+    }
+
+    private void invalidateLocal() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+}
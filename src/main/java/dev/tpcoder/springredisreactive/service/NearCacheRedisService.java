@@ -0,0 +1,177 @@
+package dev.tpcoder.springredisreactive.service;
+
+import dev.tpcoder.springredisreactive.model.StockResult;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.springframework.core.ParameterizedTypeReference;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-process L1 cache in front of another {@link RedisService}.
+ * Only plain {@link #get(String)} reads are served from memory, every write drops the local entry
+ * and tells the other instances to do the same through {@link NearCacheInvalidator}.
+ */
+public class NearCacheRedisService extends ForwardingRedisService {
+
+    private final NearCacheInvalidator invalidator;
+
+    public NearCacheRedisService(RedisService delegate, NearCacheInvalidator invalidator) {
+        super(delegate);
+        this.invalidator = invalidator;
+    }
+
+    @Override
+    public Mono<Object> get(String key) {
+        Object cached = invalidator.getCache().getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        // A write that lands while the GET is in flight must win, so only cache when nothing was invalidated meanwhile
+        AtomicLong generation = invalidator.getGeneration();
+        long observed = generation.get();
+        return delegate.get(key)
+                .doOnNext(value -> {
+                    if (generation.get() == observed) {
+                        invalidator.getCache().put(key, value);
+                    }
+                });
+    }
+
+    @Override
+    public Mono<List<Object>> multiGet(List<String> keyList) {
+        List<Object> values = new ArrayList<>(keyList.size());
+        List<Integer> missIndexes = new ArrayList<>();
+        for (String key : keyList) {
+            Object cached = invalidator.getCache().getIfPresent(key);
+            if (cached == null) {
+                missIndexes.add(values.size());
+            }
+            values.add(cached);
+        }
+        if (missIndexes.isEmpty()) {
+            return Mono.just(values);
+        }
+        AtomicLong generation = invalidator.getGeneration();
+        long observed = generation.get();
+        List<String> missKeys = missIndexes.stream().map(keyList::get).collect(Collectors.toList());
+        return delegate.multiGet(missKeys)
+                .map(loaded -> {
+                    boolean cacheable = generation.get() == observed;
+                    for (int i = 0; i < missIndexes.size(); i++) {
+                        Object value = loaded.get(i);
+                        values.set(missIndexes.get(i), value);
+                        if (cacheable && value != null) {
+                            invalidator.getCache().put(missKeys.get(i), value);
+                        }
+                    }
+                    return values;
+                });
+    }
+
+    @Override
+    public Mono<Boolean> multiSet(Map<String, Object> entries) {
+        return invalidateAfter(new ArrayList<>(entries.keySet()), delegate.multiSet(entries));
+    }
+
+    @Override
+    public Mono<Boolean> multiSet(Map<String, Object> entries, Duration timeout) {
+        return invalidateAfter(new ArrayList<>(entries.keySet()), delegate.multiSet(entries, timeout));
+    }
+
+    @Override
+    public Mono<List<Object>> executeBatch(RedisBatch batch) {
+        List<String> written = batch.writtenKeys();
+        return written.isEmpty() ? delegate.executeBatch(batch) : invalidateAfter(written, delegate.executeBatch(batch));
+    }
+
+    @Override
+    public Mono<StockResult> decrementWithFloor(String key, long delta, long floor) {
+        return invalidateAfter(key, delegate.decrementWithFloor(key, delta, floor));
+    }
+
+    @Override
+    public Mono<StockResult> incrementWithCap(String key, long delta, long cap) {
+        return invalidateAfter(key, delegate.incrementWithCap(key, delta, cap));
+    }
+
+    @Override
+    public Mono<StockResult> reserve(String key, String reservationId, long quantity) {
+        return invalidateAfter(List.of(key, StockScripts.reservationKey(key, reservationId)),
+                delegate.reserve(key, reservationId, quantity));
+    }
+
+    @Override
+    public Mono<StockResult> release(String key, String reservationId) {
+        return invalidateAfter(List.of(key, StockScripts.reservationKey(key, reservationId)),
+                delegate.release(key, reservationId));
+    }
+
+    @Override
+    public Mono<Boolean> put(String key, Object data) {
+        return invalidateAfter(key, delegate.put(key, data));
+    }
+
+    @Override
+    public Mono<Boolean> put(String key, Object data, Duration timeout) {
+        return invalidateAfter(key, delegate.put(key, data, timeout));
+    }
+
+    @Override
+    public Mono<Object> getAndSet(String key, Object data) {
+        return invalidateAfter(key, delegate.getAndSet(key, data));
+    }
+
+    @Override
+    public <T> Mono<T> getAndSet(String key, Object data, ParameterizedTypeReference<T> type) {
+        return invalidateAfter(key, delegate.getAndSet(key, data, type));
+    }
+
+    @Override
+    public <T> Mono<T> getAndSet(String key, Object data, Class<T> type) {
+        return invalidateAfter(key, delegate.getAndSet(key, data, type));
+    }
+
+    @Override
+    public Mono<Void> delete(String key) {
+        return invalidateAfter(key, delegate.delete(key));
+    }
+
+    @Override
+    public Mono<Void> delete(List<String> keyList) {
+        return invalidateAfter(keyList, delegate.delete(keyList));
+    }
+
+    @Override
+    public Mono<Long> increment(String key) {
+        return invalidateAfter(key, delegate.increment(key));
+    }
+
+    @Override
+    public Mono<Long> increment(String key, long time) {
+        return invalidateAfter(key, delegate.increment(key, time));
+    }
+
+    @Override
+    public Mono<Long> decrement(String key) {
+        return invalidateAfter(key, delegate.decrement(key));
+    }
+
+    @Override
+    public Mono<Long> decrement(String key, long time) {
+        return invalidateAfter(key, delegate.decrement(key, time));
+    }
+
+    private <T> Mono<T> invalidateAfter(String key, Mono<T> write) {
+        return invalidateAfter(List.of(key), write);
+    }
+
+    private <T> Mono<T> invalidateAfter(List<String> keyList, Mono<T> write) {
+        return write.materialize()
+                .flatMap(signal -> invalidator.invalidate(keyList).thenReturn(signal))
+                .dematerialize();
+    }
+}
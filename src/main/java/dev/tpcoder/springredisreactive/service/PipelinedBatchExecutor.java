@@ -0,0 +1,119 @@
+package dev.tpcoder.springredisreactive.service;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.util.ByteUtils;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs a {@link RedisBatch} on its own Lettuce connection with auto flush turned off. Every command of
+ * the batch is written to the connection buffer and the buffer is flushed once, or every
+ * {@code maxCommands} commands for large batches, so a batch costs one socket write instead of one per
+ * command. The connection is opened without blocking on first use and shared by all batches; writing a
+ * batch is a short synchronized step, the results are awaited without holding the lock.
+ */
+public class PipelinedBatchExecutor implements AutoCloseable {
+
+    private final RedisSerializationContext<String, Object> serializationContext;
+    private final int maxCommands;
+    private final AtomicReference<StatefulRedisConnection<byte[], byte[]>> opened = new AtomicReference<>();
+    private final Mono<StatefulRedisConnection<byte[], byte[]>> connection;
+
+    public PipelinedBatchExecutor(Supplier<? extends CompletionStage<StatefulRedisConnection<byte[], byte[]>>> connector,
+                                  RedisSerializationContext<String, Object> serializationContext,
+                                  int maxCommands) {
+        this.serializationContext = serializationContext;
+        this.maxCommands = maxCommands;
+        // A failed connect is not cached, the next batch tries again
+        this.connection = Mono.fromCompletionStage(connector)
+                .doOnNext(connected -> {
+                    connected.setAutoFlushCommands(false);
+                    opened.set(connected);
+                })
+                .cache(connected -> Duration.ofMillis(Long.MAX_VALUE), e -> Duration.ZERO, () -> Duration.ZERO);
+    }
+
+    public Mono<List<Object>> execute(RedisBatch batch) {
+        if (batch.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        return connection.flatMap(connected -> {
+            List<RedisFuture<?>> futures = write(connected, batch.commands());
+            return Mono.fromFuture(CompletableFuture.allOf(futures.stream()
+                            .map(RedisFuture::toCompletableFuture)
+                            .toArray(CompletableFuture[]::new)))
+                    .then(Mono.fromCallable(() -> results(batch.commands(), futures)));
+        });
+    }
+
+    @Override
+    public void close() {
+        StatefulRedisConnection<byte[], byte[]> connection = opened.getAndSet(null);
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    private synchronized List<RedisFuture<?>> write(StatefulRedisConnection<byte[], byte[]> connection,
+                                                    List<RedisBatch.Command> commands) {
+        RedisAsyncCommands<byte[], byte[]> async = connection.async();
+        List<RedisFuture<?>> futures = new ArrayList<>(commands.size());
+        for (RedisBatch.Command command : commands) {
+            futures.add(dispatch(async, command));
+            if (futures.size() % maxCommands == 0) {
+                connection.flushCommands();
+            }
+        }
+        connection.flushCommands();
+        return futures;
+    }
+
+    private RedisFuture<?> dispatch(RedisAsyncCommands<byte[], byte[]> async, RedisBatch.Command command) {
+        byte[] key = ByteUtils.getBytes(serializationContext.getKeySerializationPair().write(command.getKey()));
+        switch (command.getType()) {
+            case GET:
+                return async.get(key);
+            case SET:
+                byte[] value = ByteUtils.getBytes(serializationContext.getValueSerializationPair().write(command.getValue()));
+                return command.getTimeout() == null
+                        ? async.set(key, value)
+                        : async.set(key, value, SetArgs.Builder.px(command.getTimeout().toMillis()));
+            case INCREMENT:
+                return async.incrby(key, command.getDelta());
+            case EXPIRE:
+                return async.pexpire(key, command.getTimeout().toMillis());
+            case DELETE:
+                return async.del(key);
+            default:
+                throw new IllegalArgumentException("Unsupported command " + command.getType());
+        }
+    }
+
+    private List<Object> results(List<RedisBatch.Command> commands, List<RedisFuture<?>> futures) {
+        List<Object> results = new ArrayList<>(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            Object result = futures.get(i).toCompletableFuture().join();
+            RedisBatch.Command command = commands.get(i);
+            if (command.getType() == RedisBatch.Type.GET) {
+                results.add(result == null ? null
+                        : serializationContext.getValueSerializationPair().read(ByteBuffer.wrap((byte[]) result)));
+            } else if (command.getType() == RedisBatch.Type.SET) {
+                results.add("OK".equals(result));
+            } else {
+                results.add(result);
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,34 @@
+package dev.tpcoder.springredisreactive.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import reactor.core.publisher.Mono;
+
+/**
+ * Sends batches and per-key fan-out writes through a {@link PipelinedBatchExecutor}, so they leave in one
+ * flush instead of one socket write per command. Single key commands keep using the shared connection.
+ */
+public class PipelinedRedisService extends ForwardingRedisService {
+
+    private final PipelinedBatchExecutor executor;
+
+    public PipelinedRedisService(RedisService delegate, PipelinedBatchExecutor executor) {
+        super(delegate);
+        this.executor = executor;
+    }
+
+    @Override
+    public Mono<List<Object>> executeBatch(RedisBatch batch) {
+        return executor.execute(batch);
+    }
+
+    @Override
+    public Mono<Boolean> multiSet(Map<String, Object> entries, Duration timeout) {
+        // MSET has no expiry option, one SET ... PX per key flushed together
+        RedisBatch batch = new RedisBatch();
+        entries.forEach((key, value) -> batch.set(key, value, timeout));
+        return executor.execute(batch)
+                .map(results -> results.stream().allMatch(Boolean.TRUE::equals));
+    }
+}
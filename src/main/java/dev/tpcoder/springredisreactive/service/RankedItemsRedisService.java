@@ -0,0 +1,134 @@
+package dev.tpcoder.springredisreactive.service;
+
+import dev.tpcoder.springredisreactive.model.StockResult;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps the {@link ItemRanking} in step with item counters. Item amounts are the integral values in the
+ * keyspace, so writes of integral values, counter commands and stock operations go through the ranking
+ * scripts, which write the counter and its rank together. Bulk writes and batches write first and rank after.
+ */
+public class RankedItemsRedisService extends ForwardingRedisService {
+
+    private final ItemRanking ranking;
+
+    public RankedItemsRedisService(RedisService delegate, ItemRanking ranking) {
+        super(delegate);
+        this.ranking = ranking;
+    }
+
+    @Override
+    public Mono<Boolean> put(String key, Object data) {
+        return isAmount(data) ? ranking.put(key, ((Number) data).longValue()) : delegate.put(key, data);
+    }
+
+    @Override
+    public Mono<Boolean> put(String key, Object data, Duration timeout) {
+        return isAmount(data) ? ranking.put(key, ((Number) data).longValue(), timeout) : delegate.put(key, data, timeout);
+    }
+
+    @Override
+    public Mono<Void> delete(String key) {
+        return ranking.delete(key).then();
+    }
+
+    @Override
+    public Mono<Void> delete(List<String> keyList) {
+        return delegate.delete(keyList).then(ranking.remove(keyList)).then();
+    }
+
+    @Override
+    public Mono<Boolean> multiSet(Map<String, Object> entries) {
+        return delegate.multiSet(entries).flatMap(ok -> ranking.index(amounts(entries)).thenReturn(ok));
+    }
+
+    @Override
+    public Mono<Boolean> multiSet(Map<String, Object> entries, Duration timeout) {
+        return delegate.multiSet(entries, timeout).flatMap(ok -> ranking.index(amounts(entries)).thenReturn(ok));
+    }
+
+    @Override
+    public Mono<List<Object>> executeBatch(RedisBatch batch) {
+        return delegate.executeBatch(batch).flatMap(results -> {
+            // Later commands on the same key win, like they do in Redis
+            Map<String, Long> amounts = new LinkedHashMap<>();
+            Set<String> removed = new LinkedHashSet<>();
+            List<RedisBatch.Command> commands = batch.commands();
+            for (int i = 0; i < commands.size(); i++) {
+                RedisBatch.Command command = commands.get(i);
+                String key = command.getKey();
+                if (command.getType() == RedisBatch.Type.SET && isAmount(command.getValue())) {
+                    amounts.put(key, ((Number) command.getValue()).longValue());
+                    removed.remove(key);
+                } else if (command.getType() == RedisBatch.Type.INCREMENT && results.get(i) instanceof Number) {
+                    amounts.put(key, ((Number) results.get(i)).longValue());
+                    removed.remove(key);
+                } else if (command.getType() == RedisBatch.Type.DELETE) {
+                    amounts.remove(key);
+                    removed.add(key);
+                }
+            }
+            return ranking.index(amounts).then(ranking.remove(removed)).thenReturn(results);
+        });
+    }
+
+    @Override
+    public Mono<Long> increment(String key) {
+        return ranking.increment(key, 1L);
+    }
+
+    @Override
+    public Mono<Long> increment(String key, long time) {
+        return ranking.increment(key, time);
+    }
+
+    @Override
+    public Mono<Long> decrement(String key) {
+        return ranking.increment(key, -1L);
+    }
+
+    @Override
+    public Mono<Long> decrement(String key, long time) {
+        return ranking.increment(key, -time);
+    }
+
+    @Override
+    public Mono<StockResult> decrementWithFloor(String key, long delta, long floor) {
+        return ranking.decrementWithFloor(key, delta, floor);
+    }
+
+    @Override
+    public Mono<StockResult> incrementWithCap(String key, long delta, long cap) {
+        return ranking.incrementWithCap(key, delta, cap);
+    }
+
+    @Override
+    public Mono<StockResult> reserve(String key, String reservationId, long quantity) {
+        return ranking.reserve(key, reservationId, quantity);
+    }
+
+    @Override
+    public Mono<StockResult> release(String key, String reservationId) {
+        return ranking.release(key, reservationId);
+    }
+
+    private static Map<String, Long> amounts(Map<String, Object> entries) {
+        Map<String, Long> amounts = new LinkedHashMap<>();
+        entries.forEach((key, value) -> {
+            if (isAmount(value)) {
+                amounts.put(key, ((Number) value).longValue());
+            }
+        });
+        return amounts;
+    }
+
+    private static boolean isAmount(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+}
@@ -0,0 +1,72 @@
+package dev.tpcoder.springredisreactive.service;
+
+import dev.tpcoder.springredisreactive.config.RawReadProperties;
+import dev.tpcoder.springredisreactive.serializer.JacksonValueCodec;
+import dev.tpcoder.springredisreactive.serializer.TypeRegistry;
+import dev.tpcoder.springredisreactive.serializer.VersionedValueSerializer;
+import java.nio.ByteBuffer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns bytes from {@link RedisService#getRaw(String)} into a response body. A value that already is JSON
+ * is wrapped as a {@link DataBuffer} and written to the response as it is:
+ * <ul>
+ *     <li>values of the JSON codec, the header is sliced off without copying</li>
+ *     <li>values written before the versioned format, plain JSON</li>
+ *     <li>counters, their decimal text is a JSON number</li>
+ * </ul>
+ * Anything else, Smile or compressed values, is decoded by the value serializer as a normal read would.
+ */
+@Component
+@RequiredArgsConstructor
+public class RawValues {
+
+    private final RedisSerializer<Object> redisValueSerializer;
+    private final TypeRegistry typeRegistry;
+    private final RawReadProperties properties;
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    // The JSON body for the stored value, or the decoded value when it is not stored as JSON
+    public Object toBody(ByteBuffer stored) {
+        DataBuffer json = json(stored, null);
+        return json != null ? json : decode(stored);
+    }
+
+    // The stored JSON when it holds a value of the given type (null for any type), otherwise null
+    public DataBuffer json(ByteBuffer stored, Class<?> type) {
+        int start = stored.position();
+        if (!stored.hasRemaining()) {
+            return null;
+        }
+        byte first = stored.get(start);
+        if (first == VersionedValueSerializer.MAGIC) {
+            if (stored.remaining() < VersionedValueSerializer.HEADER_LENGTH
+                    || stored.get(start + 1) != JacksonValueCodec.JSON
+                    || (type != null && stored.get(start + 2) != typeRegistry.idOf(type))) {
+                return null;
+            }
+            ByteBuffer body = stored.duplicate();
+            body.position(start + VersionedValueSerializer.HEADER_LENGTH);
+            return DefaultDataBufferFactory.sharedInstance.wrap(body.slice());
+        }
+        // Legacy values are JSON, counters are decimal text, a typed read only accepts a JSON object
+        boolean legacy = first == '{' || first == '[' || first == '"' || first == '-' || (first >= '0' && first <= '9');
+        if (!legacy || (type != null && first != '{')) {
+            return null;
+        }
+        return DefaultDataBufferFactory.sharedInstance.wrap(stored.slice());
+    }
+
+    public Object decode(ByteBuffer stored) {
+        byte[] bytes = new byte[stored.remaining()];
+        stored.duplicate().get(bytes);
+        return redisValueSerializer.deserialize(bytes);
+    }
+}
@@ -0,0 +1,106 @@
+package dev.tpcoder.springredisreactive.service;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Turns {@link #get(String)} into a read-through cache over a {@link ValueLoader}. Loaded values are
+ * written with an expiry of ttl plus the stale window, so the remaining TTL tells how old an entry is:
+ * <ul>
+ *     <li>more than staleWindow + refreshAhead left: fresh, served as is</li>
+ *     <li>less than that: served, and reloaded in the background</li>
+ *     <li>gone: loaded before the caller gets an answer</li>
+ * </ul>
+ * Callers only wait for the loader on a real miss, so popular keys never all expire at once. Concurrent
+ * loads of one key share a single loader call, and the number of loader calls is capped by a
+ * {@link LoadLimiter}. Background reloads are skipped while the limiter is full, the next read retries.
+ * Keys without an expiry were not written by this class and are never reloaded.
+ */
+@Slf4j
+public class ReadThroughRedisService extends ForwardingRedisService {
+
+    private final ValueLoader loader;
+    private final Duration expiry;
+    private final Duration refreshThreshold;
+    private final LoadLimiter limiter;
+    private final ConcurrentMap<String, Mono<Object>> loads = new ConcurrentHashMap<>();
+
+    public ReadThroughRedisService(RedisService delegate, ValueLoader loader, Duration ttl, Duration refreshAhead,
+                                   Duration staleWindow, int maxConcurrentLoads, int maxPendingLoads) {
+        super(delegate);
+        this.loader = loader;
+        this.expiry = ttl.plus(staleWindow);
+        this.refreshThreshold = staleWindow.plus(refreshAhead);
+        this.limiter = new LoadLimiter(maxConcurrentLoads, maxPendingLoads);
+    }
+
+    @Override
+    public Mono<Object> get(String key) {
+        return readThrough(key, delegate.get(key), Mono::just);
+    }
+
+    // A miss is loaded like for get, then the freshly written bytes are read back
+    @Override
+    public Mono<ByteBuffer> getRaw(String key) {
+        return readThrough(key, delegate.getRaw(key), loaded -> delegate.getRaw(key));
+    }
+
+    int inFlightCount() {
+        return loads.size();
+    }
+
+    private <T> Mono<T> readThrough(String key, Mono<T> read, Function<Object, Mono<T>> onLoaded) {
+        // GET and PTTL are sent together, a hit costs one round trip
+        return Mono.zip(read.map(Optional::of).defaultIfEmpty(Optional.empty()),
+                        delegate.getExpire(key).defaultIfEmpty(Duration.ZERO))
+                .flatMap(found -> {
+                    if (found.getT1().isEmpty()) {
+                        return load(key, false).flatMap(onLoaded);
+                    }
+                    Duration remaining = found.getT2();
+                    if (!remaining.isZero() && !remaining.isNegative() && remaining.compareTo(refreshThreshold) <= 0) {
+                        refresh(key);
+                    }
+                    return Mono.just(found.getT1().get());
+                });
+    }
+
+    private void refresh(String key) {
+        load(key, true).subscribe(
+                value -> log.debug("Refreshed {}", key),
+                e -> log.warn("Could not refresh {}, serving the cached value until it expires", key, e));
+    }
+
+    private Mono<Object> load(String key, boolean background) {
+        return Mono.defer(() -> {
+            Mono<Object> running = loads.get(key);
+            if (running != null) {
+                // A background refresh has nothing to add to a load that is already running
+                return background ? Mono.empty() : running;
+            }
+            return loads.computeIfAbsent(key, k -> shared(k, background));
+        });
+    }
+
+    private Mono<Object> shared(String key, boolean background) {
+        Mono<Object> write = loader.load(key)
+                .flatMap(value -> delegate.multiSet(Map.of(key, value), expiry).thenReturn(value));
+        AtomicReference<Mono<Object>> self = new AtomicReference<>();
+        Mono<Object> shared = (background ? limiter.trySubmit(write) : limiter.submit(write))
+                .doFinally(signal -> loads.remove(key, self.get()))
+                .flux()
+                .publish()
+                .refCount()
+                .singleOrEmpty();
+        self.set(shared);
+        return shared;
+    }
+}
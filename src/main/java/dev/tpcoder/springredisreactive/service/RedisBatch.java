@@ -0,0 +1,95 @@
+package dev.tpcoder.springredisreactive.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Commands sent together by {@link RedisService#executeBatch(RedisBatch)}. The batch is only a list of
+ * commands, how they reach Redis depends on the service: with pipelining enabled they are written to a
+ * dedicated connection and flushed once, otherwise they are issued together on the shared connection.
+ */
+public class RedisBatch {
+
+    public enum Type {
+        GET, SET, INCREMENT, EXPIRE, DELETE
+    }
+
+    @Getter
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static final class Command {
+        private final Type type;
+        private final String key;
+        private final Object value;
+        private final Duration timeout;
+        private final long delta;
+    }
+
+    private final List<Command> commands = new ArrayList<>();
+
+    public RedisBatch get(String key) {
+        return add(new Command(Type.GET, key, null, null, 0));
+    }
+
+    public RedisBatch set(String key, Object value) {
+        return add(new Command(Type.SET, key, value, null, 0));
+    }
+
+    public RedisBatch set(String key, Object value, Duration timeout) {
+        return add(new Command(Type.SET, key, value, timeout, 0));
+    }
+
+    public RedisBatch increment(String key, long delta) {
+        return add(new Command(Type.INCREMENT, key, null, null, delta));
+    }
+
+    public RedisBatch expire(String key, Duration timeout) {
+        return add(new Command(Type.EXPIRE, key, null, timeout, 0));
+    }
+
+    public RedisBatch delete(String key) {
+        return add(new Command(Type.DELETE, key, null, null, 0));
+    }
+
+    public List<Command> commands() {
+        return Collections.unmodifiableList(commands);
+    }
+
+    public List<String> keys() {
+        return List.copyOf(keys(false));
+    }
+
+    // Keys changed by the batch, the ones a cache in front of Redis has to forget
+    public List<String> writtenKeys() {
+        return List.copyOf(keys(true));
+    }
+
+    public boolean isEmpty() {
+        return commands.isEmpty();
+    }
+
+    public int size() {
+        return commands.size();
+    }
+
+    private Set<String> keys(boolean writesOnly) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (Command command : commands) {
+            if (!writesOnly || command.getType() != Type.GET) {
+                keys.add(command.getKey());
+            }
+        }
+        return keys;
+    }
+
+    RedisBatch add(Command command) {
+        commands.add(command);
+        return this;
+    }
+}
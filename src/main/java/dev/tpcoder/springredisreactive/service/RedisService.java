@@ -1,9 +1,13 @@
 package dev.tpcoder.springredisreactive.service;
 
+import dev.tpcoder.springredisreactive.model.StockResult;
+import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import org.springframework.core.ParameterizedTypeReference;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface RedisService {
@@ -11,12 +15,17 @@ public interface RedisService {
     // CRUD on Redis
     Mono<Boolean> put(String key, Object data);
 
+    Mono<Boolean> put(String key, Object data, Duration timeout);
+
     Mono<Object> get(String key);
 
     <T> Mono<T> get(String key, ParameterizedTypeReference<T> type);
 
     <T> Mono<T> get(String key, Class<T> type);
 
+    // The stored bytes as they are, without running the value serializer
+    Mono<ByteBuffer> getRaw(String key);
+
     Mono<Object> getAndSet(String key, Object data);
 
     <T> Mono<T> getAndSet(String key, Object data, ParameterizedTypeReference<T> type);
@@ -27,6 +36,24 @@ public interface RedisService {
 
     Mono<Void> delete(List<String> keyList);
 
+    // Bulk operations, the result of multiGet is aligned with keyList and holds null for missing keys
+    Mono<List<Object>> multiGet(List<String> keyList);
+
+    Mono<Boolean> multiSet(Map<String, Object> entries);
+
+    Mono<Boolean> multiSet(Map<String, Object> entries, Duration timeout);
+
+    // Several commands sent together, results are in command order and null for missing GET keys
+    Mono<List<Object>> executeBatch(RedisBatch batch);
+
+    // Cursor based key lookup, never use KEYS on a shared server
+    Flux<String> scan(String pattern);
+
+    Flux<String> scan(String pattern, long count);
+
+    // Every key matching the pattern with its value, fetched in MGET batches as the subscriber requests them
+    Flux<Map.Entry<String, Object>> scanEntries(String pattern);
+
     // Expired operation
     Mono<Duration> getExpire(String key);
 
@@ -48,6 +75,17 @@ public interface RedisService {
 
     Mono<Long> decrement(String key, long time);
 
+    // Atomic stock operations on counters, one EVALSHA round trip each. A rejected operation changes nothing
+    Mono<StockResult> decrementWithFloor(String key, long delta, long floor);
+
+    Mono<StockResult> incrementWithCap(String key, long delta, long cap);
+
+    // Reservations never expire, an expired key would drop the quantity instead of giving it back,
+    // so every reservation has to be released or the stock it holds stays taken
+    Mono<StockResult> reserve(String key, String reservationId, long quantity);
+
+    Mono<StockResult> release(String key, String reservationId);
+
     Mono<Boolean> hasKey(String key);
 
     Mono<Long> size(String key);
@@ -1,11 +1,22 @@
 package dev.tpcoder.springredisreactive.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.tpcoder.springredisreactive.config.RedisServiceProperties;
+import dev.tpcoder.springredisreactive.model.StockResult;
+import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.data.redis.core.ReactiveRedisOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -15,49 +26,104 @@ import reactor.core.publisher.Mono;
 public class RedisServiceImpl implements RedisService {
 
     private final ReactiveRedisOperations<String, Object> redisOperations;
+    private final RedisServiceProperties properties;
+    private final ObjectMapper objectMapper;
 
-    @SuppressWarnings("unchecked")
     @Override
     public <T> Mono<T> get(String key, ParameterizedTypeReference<T> type) {
-        Flux<String> keys = redisOperations.keys(key);
-        return Mono.from(keys.flatMap(redisOperations.opsForValue()::get)
-                .flatMap(d -> Mono.just((T) d)));
+        return redisOperations.opsForValue().get(key)
+                .map(d -> convert(d, type));
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public <T> Mono<T> get(String key, Class<T> type) {
-        Flux<String> keys = redisOperations.keys(key);
-        return Mono.from(keys.flatMap(redisOperations.opsForValue()::get)
-                .flatMap(d -> Mono.just((T) d)));
+        return redisOperations.opsForValue().get(key)
+                .map(d -> convert(d, type));
     }
 
     @Override
     public Mono<Object> get(String key) {
-        Flux<String> keys = redisOperations.keys(key);
-        return Mono.from(keys.flatMap(redisOperations.opsForValue()::get));
+        return redisOperations.opsForValue().get(key);
+    }
+
+    @Override
+    public Mono<ByteBuffer> getRaw(String key) {
+        // Straight on the connection, the template would run the value serializer
+        ByteBuffer rawKey = redisOperations.getSerializationContext().getKeySerializationPair().write(key);
+        return redisOperations.execute(connection -> connection.stringCommands().get(rawKey)).next();
     }
 
     @Override
     public Mono<Object> getAndSet(String key, Object data) {
-        Flux<String> keys = redisOperations.keys(key);
-        return Mono.from(keys.flatMap(k -> redisOperations.opsForValue().getAndSet(k, data)));
+        return redisOperations.opsForValue().getAndSet(key, data);
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public <T> Mono<T> getAndSet(String key, Object data, ParameterizedTypeReference<T> type) {
-        Flux<String> keys = redisOperations.keys(key);
-        return Mono.from(keys.flatMap(k -> redisOperations.opsForValue().getAndSet(k, data)))
-                .flatMap(d -> Mono.just((T) d));
+        return redisOperations.opsForValue().getAndSet(key, data)
+                .map(d -> convert(d, type));
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public <T> Mono<T> getAndSet(String key, Object data, Class<T> type) {
-        Flux<String> keys = redisOperations.keys(key);
-        return Mono.from(keys.flatMap(k -> redisOperations.opsForValue().getAndSet(k, data)))
-                .flatMap(d -> Mono.just((T) d));
+        return redisOperations.opsForValue().getAndSet(key, data)
+                .map(d -> convert(d, type));
+    }
+
+    @Override
+    public Mono<List<Object>> multiGet(List<String> keyList) {
+        return Flux.fromIterable(partition(keyList, properties.getBatchSize()))
+                .flatMapSequential(redisOperations.opsForValue()::multiGet)
+                .<List<Object>>collect(() -> new ArrayList<>(keyList.size()), List::addAll);
+    }
+
+    @Override
+    public Mono<Boolean> multiSet(Map<String, Object> entries) {
+        return Flux.fromIterable(partition(new ArrayList<>(entries.entrySet()), properties.getBatchSize()))
+                .flatMap(chunk -> redisOperations.opsForValue().multiSet(toMap(chunk)))
+                .all(Boolean::booleanValue);
+    }
+
+    @Override
+    public Mono<Boolean> multiSet(Map<String, Object> entries, Duration timeout) {
+        // MSET has no expiry option, SET ... PX commands issued together are pipelined by the shared connection
+        return Flux.fromIterable(entries.entrySet())
+                .flatMap(e -> redisOperations.opsForValue().set(e.getKey(), e.getValue(), timeout),
+                        properties.getBatchSize())
+                .all(Boolean::booleanValue);
+    }
+
+    @Override
+    public Mono<List<Object>> executeBatch(RedisBatch batch) {
+        // Issued together on the shared connection, which pipelines them but flushes each command
+        return Flux.fromIterable(batch.commands())
+                .flatMapSequential(command -> execute(command)
+                        .map(result -> Optional.<Object>of(result))
+                        .defaultIfEmpty(Optional.empty()))
+                .collect(() -> new ArrayList<>(batch.size()), (results, result) -> results.add(result.orElse(null)));
+    }
+
+    @Override
+    public Flux<String> scan(String pattern) {
+        return scan(pattern, properties.getScanCount());
+    }
+
+    @Override
+    public Flux<String> scan(String pattern, long count) {
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(pattern)
+                .count(count)
+                .build();
+        return redisOperations.scan(options);
+    }
+
+    @Override
+    public Flux<Map.Entry<String, Object>> scanEntries(String pattern) {
+        // concatMap keeps a single MGET in flight, so memory stays at about one batch whatever the keyspace size
+        return scan(pattern)
+                .buffer(properties.getBatchSize())
+                .concatMap(keyList -> redisOperations.opsForValue().multiGet(keyList)
+                        .flatMapIterable(values -> entries(keyList, values)), 1);
     }
 
     @Override
@@ -65,6 +131,11 @@ public class RedisServiceImpl implements RedisService {
         return redisOperations.opsForValue().set(key, data);
     }
 
+    @Override
+    public Mono<Boolean> put(String key, Object data, Duration timeout) {
+        return redisOperations.opsForValue().set(key, data, timeout);
+    }
+
     @Override
     public Mono<Void> delete(String key) {
         return redisOperations.delete(key).then();
@@ -75,6 +146,26 @@ public class RedisServiceImpl implements RedisService {
         return redisOperations.delete(Flux.fromIterable(keyList)).then();
     }
 
+    @Override
+    public Mono<StockResult> decrementWithFloor(String key, long delta, long floor) {
+        return stock(StockScripts.DECREMENT_FLOOR, List.of(key), List.of(delta, floor));
+    }
+
+    @Override
+    public Mono<StockResult> incrementWithCap(String key, long delta, long cap) {
+        return stock(StockScripts.INCREMENT_CAP, List.of(key), List.of(delta, cap));
+    }
+
+    @Override
+    public Mono<StockResult> reserve(String key, String reservationId, long quantity) {
+        return stock(StockScripts.RESERVE, List.of(key, StockScripts.reservationKey(key, reservationId)), List.of(quantity));
+    }
+
+    @Override
+    public Mono<StockResult> release(String key, String reservationId) {
+        return stock(StockScripts.RELEASE, List.of(key, StockScripts.reservationKey(key, reservationId)), List.of());
+    }
+
     @Override
     public Mono<Boolean> hasKey(String key) {
         return redisOperations.hasKey(key);
@@ -124,4 +215,65 @@ public class RedisServiceImpl implements RedisService {
     public Mono<Long> decrement(String key, long time) {
         return redisOperations.opsForValue().decrement(key, time);
     }
+
+    // Arguments go through the value serializer, which writes numbers as plain decimals like INCRBY does
+    @SuppressWarnings("rawtypes")
+    private Mono<StockResult> stock(RedisScript<List> script, List<String> keys, List<Object> args) {
+        return redisOperations.execute(script, keys, args)
+                .collectList()
+                .map(StockScripts::toResult);
+    }
+
+    private Mono<?> execute(RedisBatch.Command command) {
+        switch (command.getType()) {
+            case GET:
+                return redisOperations.opsForValue().get(command.getKey());
+            case SET:
+                return command.getTimeout() == null
+                        ? redisOperations.opsForValue().set(command.getKey(), command.getValue())
+                        : redisOperations.opsForValue().set(command.getKey(), command.getValue(), command.getTimeout());
+            case INCREMENT:
+                return redisOperations.opsForValue().increment(command.getKey(), command.getDelta());
+            case EXPIRE:
+                return redisOperations.expire(command.getKey(), command.getTimeout());
+            case DELETE:
+                return redisOperations.delete(command.getKey());
+            default:
+                return Mono.error(new IllegalArgumentException("Unsupported command " + command.getType()));
+        }
+    }
+
+    // Registered types come back typed already, values stored untyped or by the legacy serializer are mapped here
+    private <T> T convert(Object value, Class<T> type) {
+        return type.isInstance(value) ? type.cast(value) : objectMapper.convertValue(value, type);
+    }
+
+    private <T> T convert(Object value, ParameterizedTypeReference<T> type) {
+        return objectMapper.convertValue(value, objectMapper.constructType(type.getType()));
+    }
+
+    private static <T> List<List<T>> partition(List<T> list, int size) {
+        List<List<T>> chunks = new ArrayList<>((list.size() + size - 1) / size);
+        for (int i = 0; i < list.size(); i += size) {
+            chunks.add(list.subList(i, Math.min(i + size, list.size())));
+        }
+        return chunks;
+    }
+
+    // Keys deleted between SCAN and MGET come back as null and are skipped
+    private static List<Map.Entry<String, Object>> entries(List<String> keyList, List<Object> values) {
+        List<Map.Entry<String, Object>> entries = new ArrayList<>(keyList.size());
+        for (int i = 0; i < keyList.size(); i++) {
+            if (values.get(i) != null) {
+                entries.add(new AbstractMap.SimpleImmutableEntry<>(keyList.get(i), values.get(i)));
+            }
+        }
+        return entries;
+    }
+
+    private static Map<String, Object> toMap(List<Map.Entry<String, Object>> entries) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        entries.forEach(e -> map.put(e.getKey(), e.getValue()));
+        return map;
+    }
 }
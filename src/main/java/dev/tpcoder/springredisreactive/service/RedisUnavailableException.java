@@ -0,0 +1,21 @@
+package dev.tpcoder.springredisreactive.service;
+
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A Redis call that timed out or was rejected because the circuit is open. Retrying later can succeed,
+ * so requests failing with it are answered with 503.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class RedisUnavailableException extends TransientDataAccessResourceException {
+
+    public RedisUnavailableException(String message) {
+        super(message);
+    }
+
+    public RedisUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,246 @@
+package dev.tpcoder.springredisreactive.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import dev.tpcoder.springredisreactive.model.StockResult;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.springframework.core.ParameterizedTypeReference;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Sends read commands to replicas and everything else to the primary. A read that fails on the replicas
+ * is retried on the primary. Keys this instance wrote within the read-your-writes window are read from
+ * the primary so a caller never sees its own write go missing because of replication lag; other
+ * instances can still read the old value for as long as the lag lasts.
+ */
+public class ReplicaRoutingRedisService extends ForwardingRedisService {
+
+    private final RedisService replicas;
+    private final Cache<String, Boolean> recentWrites;
+
+    // recentWrites is null when the read-your-writes window is off
+    public ReplicaRoutingRedisService(RedisService primary, RedisService replicas, Cache<String, Boolean> recentWrites) {
+        super(primary);
+        this.replicas = replicas;
+        this.recentWrites = recentWrites;
+    }
+
+    @Override
+    public Mono<Object> get(String key) {
+        return read(key, node -> node.get(key));
+    }
+
+    @Override
+    public Mono<ByteBuffer> getRaw(String key) {
+        return read(key, node -> node.getRaw(key));
+    }
+
+    @Override
+    public <T> Mono<T> get(String key, ParameterizedTypeReference<T> type) {
+        return read(key, node -> node.get(key, type));
+    }
+
+    @Override
+    public <T> Mono<T> get(String key, Class<T> type) {
+        return read(key, node -> node.get(key, type));
+    }
+
+    @Override
+    public Mono<List<Object>> multiGet(List<String> keyList) {
+        return Mono.defer(() -> {
+            if (anyRecentlyWritten(keyList)) {
+                return delegate.multiGet(keyList);
+            }
+            return replicas.multiGet(keyList)
+                    .onErrorResume(e -> delegate.multiGet(keyList));
+        });
+    }
+
+    @Override
+    public Flux<String> scan(String pattern) {
+        return replicas.scan(pattern);
+    }
+
+    @Override
+    public Flux<String> scan(String pattern, long count) {
+        return replicas.scan(pattern, count);
+    }
+
+    @Override
+    public Flux<Map.Entry<String, Object>> scanEntries(String pattern) {
+        return replicas.scanEntries(pattern);
+    }
+
+    @Override
+    public Mono<Duration> getExpire(String key) {
+        return read(key, node -> node.getExpire(key));
+    }
+
+    @Override
+    public Mono<Boolean> hasKey(String key) {
+        return read(key, node -> node.hasKey(key));
+    }
+
+    @Override
+    public Mono<Long> size(String key) {
+        return read(key, node -> node.size(key));
+    }
+
+    @Override
+    public Mono<Boolean> put(String key, Object data) {
+        return written(key, delegate.put(key, data));
+    }
+
+    @Override
+    public Mono<Boolean> put(String key, Object data, Duration timeout) {
+        return written(key, delegate.put(key, data, timeout));
+    }
+
+    @Override
+    public Mono<Object> getAndSet(String key, Object data) {
+        return written(key, delegate.getAndSet(key, data));
+    }
+
+    @Override
+    public <T> Mono<T> getAndSet(String key, Object data, ParameterizedTypeReference<T> type) {
+        return written(key, delegate.getAndSet(key, data, type));
+    }
+
+    @Override
+    public <T> Mono<T> getAndSet(String key, Object data, Class<T> type) {
+        return written(key, delegate.getAndSet(key, data, type));
+    }
+
+    @Override
+    public Mono<Void> delete(String key) {
+        return written(key, delegate.delete(key));
+    }
+
+    @Override
+    public Mono<Void> delete(List<String> keyList) {
+        return written(keyList, delegate.delete(keyList));
+    }
+
+    @Override
+    public Mono<Boolean> multiSet(Map<String, Object> entries) {
+        return written(entries.keySet(), delegate.multiSet(entries));
+    }
+
+    @Override
+    public Mono<Boolean> multiSet(Map<String, Object> entries, Duration timeout) {
+        return written(entries.keySet(), delegate.multiSet(entries, timeout));
+    }
+
+    @Override
+    public Mono<List<Object>> executeBatch(RedisBatch batch) {
+        // Batches usually write, they always run on the primary
+        return written(batch.writtenKeys(), delegate.executeBatch(batch));
+    }
+
+    @Override
+    public Mono<Boolean> expire(String key, Duration timeout) {
+        return written(key, delegate.expire(key, timeout));
+    }
+
+    @Override
+    public Mono<Boolean> expireAt(String key, Instant instant) {
+        return written(key, delegate.expireAt(key, instant));
+    }
+
+    @Override
+    public Mono<Boolean> persist(String key) {
+        return written(key, delegate.persist(key));
+    }
+
+    @Override
+    public Mono<Long> increment(String key) {
+        return written(key, delegate.increment(key));
+    }
+
+    @Override
+    public Mono<Long> increment(String key, long time) {
+        return written(key, delegate.increment(key, time));
+    }
+
+    @Override
+    public Mono<Long> decrement(String key) {
+        return written(key, delegate.decrement(key));
+    }
+
+    @Override
+    public Mono<Long> decrement(String key, long time) {
+        return written(key, delegate.decrement(key, time));
+    }
+
+    @Override
+    public Mono<StockResult> decrementWithFloor(String key, long delta, long floor) {
+        return written(key, delegate.decrementWithFloor(key, delta, floor));
+    }
+
+    @Override
+    public Mono<StockResult> incrementWithCap(String key, long delta, long cap) {
+        return written(key, delegate.incrementWithCap(key, delta, cap));
+    }
+
+    @Override
+    public Mono<StockResult> reserve(String key, String reservationId, long quantity) {
+        return written(List.of(key, StockScripts.reservationKey(key, reservationId)),
+                delegate.reserve(key, reservationId, quantity));
+    }
+
+    @Override
+    public Mono<StockResult> release(String key, String reservationId) {
+        return written(List.of(key, StockScripts.reservationKey(key, reservationId)),
+                delegate.release(key, reservationId));
+    }
+
+    // Routed on subscription, so a read composed after a write sees the key the write pinned
+    private <T> Mono<T> read(String key, Function<RedisService, Mono<T>> command) {
+        return Mono.defer(() -> {
+            if (isPinned(key)) {
+                return command.apply(delegate);
+            }
+            return command.apply(replicas)
+                    .onErrorResume(e -> command.apply(delegate));
+        });
+    }
+
+    // True while reads of the key go to the primary only, because this instance wrote it within the window
+    public boolean isPinned(String key) {
+        return recentWrites != null && recentWrites.getIfPresent(key) != null;
+    }
+
+    private boolean anyRecentlyWritten(Collection<String> keys) {
+        if (recentWrites == null) {
+            return false;
+        }
+        for (String key : keys) {
+            if (isPinned(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private <T> Mono<T> written(String key, Mono<T> write) {
+        return written(List.of(key), write);
+    }
+
+    // The key is marked before the write so concurrent reads already go to the primary, and again when
+    // the write completes so the window starts from the moment the primary has the value
+    private <T> Mono<T> written(Collection<String> keys, Mono<T> write) {
+        if (recentWrites == null) {
+            return write;
+        }
+        return Mono.defer(() -> {
+            keys.forEach(key -> recentWrites.put(key, Boolean.TRUE));
+            return write.doFinally(signal -> keys.forEach(key -> recentWrites.put(key, Boolean.TRUE)));
+        });
+    }
+}
@@ -0,0 +1,490 @@
+package dev.tpcoder.springredisreactive.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.tpcoder.springredisreactive.config.ResilienceProperties;
+import dev.tpcoder.springredisreactive.model.StockResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Bounds every call by a timeout per operation type, optionally hedges slow single key GETs sent to the replicas
+ * to the primary and stops calling Redis for a while once too many calls time out or fail to connect. A call over its timeout
+ * or rejected by the open circuit fails with {@link RedisUnavailableException}; in local fallback mode
+ * {@link #get(String)} and {@link #multiGet(List)} answer from the last values this instance read or wrote
+ * instead.
+ */
+public class ResilientRedisService extends ForwardingRedisService {
+
+    enum OperationType {
+        READ,
+        WRITE,
+        SCRIPT,
+        SCAN
+    }
+
+    private final Map<OperationType, Duration> timeouts = new EnumMap<>(OperationType.class);
+    private final Map<OperationType, Counter> timeoutCounters = new EnumMap<>(OperationType.class);
+    private final RedisService hedgeTarget;
+    private final Predicate<String> pinned;
+    private final HedgeDelay hedgeDelay;
+    private final int maxHedges;
+    private final AtomicInteger hedgesInFlight = new AtomicInteger();
+    private final CircuitBreaker breaker;
+    private final Cache<String, Object> fallback;
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+    private final Counter hedgesSkipped;
+    private final Counter rejected;
+    private final Counter fallbacks;
+
+    // hedgeTarget is where hedged GETs go, null when hedging is off. It must be another node than the delegate
+    // reads from, the primary behind replica routing. Keys matching pinned are read from the primary already,
+    // so they are never hedged
+    public ResilientRedisService(RedisService delegate, RedisService hedgeTarget, Predicate<String> pinned,
+                                 ResilienceProperties properties, MeterRegistry registry) {
+        super(delegate);
+        ResilienceProperties.Timeouts t = properties.getTimeouts();
+        timeouts.put(OperationType.READ, t.getRead());
+        timeouts.put(OperationType.WRITE, t.getWrite());
+        timeouts.put(OperationType.SCRIPT, t.getScript());
+        timeouts.put(OperationType.SCAN, t.getScan());
+        for (OperationType type : OperationType.values()) {
+            timeoutCounters.put(type, Counter.builder("redis.resilience.timeouts")
+                    .description("Redis calls that ran over their timeout")
+                    .tag("type", tag(type))
+                    .register(registry));
+        }
+
+        this.hedgeTarget = hedgeTarget;
+        this.pinned = pinned;
+        ResilienceProperties.Hedge hedge = properties.getHedge();
+        this.hedgeDelay = hedgeTarget == null ? null
+                : new HedgeDelay(hedge.getPercentile(), hedge.getMinDelay(), hedge.getMaxDelay());
+        this.maxHedges = hedge.getMaxInFlight();
+        this.hedgesSent = hedgeCounter(registry, "sent");
+        this.hedgesWon = hedgeCounter(registry, "won");
+        this.hedgesSkipped = hedgeCounter(registry, "skipped");
+        if (hedgeDelay != null) {
+            TimeGauge.builder("redis.resilience.hedge.delay", hedgeDelay, TimeUnit.NANOSECONDS, HedgeDelay::currentNanos)
+                    .description("Delay after which a GET is hedged")
+                    .register(registry);
+        }
+
+        ResilienceProperties.CircuitBreaker cb = properties.getCircuitBreaker();
+        this.breaker = !cb.isEnabled() ? null : new CircuitBreaker(cb.getFailureRateThreshold(),
+                cb.getSlidingWindowSize(), cb.getMinimumCalls(), cb.getOpenDuration(), cb.getHalfOpenCalls());
+        this.rejected = Counter.builder("redis.resilience.rejected")
+                .description("Redis calls rejected because the circuit was open")
+                .register(registry);
+        if (breaker != null) {
+            Gauge.builder("redis.resilience.circuit.state", breaker, b -> b.getState().ordinal())
+                    .description("0 closed, 1 half-open, 2 open")
+                    .register(registry);
+            FunctionCounter.builder("redis.resilience.circuit.opened", breaker, CircuitBreaker::getOpenedCount)
+                    .description("Times the circuit opened")
+                    .register(registry);
+        }
+
+        ResilienceProperties.Fallback fb = properties.getFallback();
+        this.fallback = fb.getMode() != ResilienceProperties.Mode.LOCAL ? null : Caffeine.newBuilder()
+                .maximumSize(fb.getMaxSize())
+                .expireAfterWrite(fb.getMaxStaleness())
+                .build();
+        this.fallbacks = Counter.builder("redis.resilience.fallbacks")
+                .description("Reads answered from the local fallback")
+                .register(registry);
+        if (fallback != null) {
+            Gauge.builder("redis.resilience.fallback.size", fallback, Cache::estimatedSize)
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public Mono<Object> get(String key) {
+        Mono<Object> call = read(key, node -> node.get(key));
+        if (fallback == null) {
+            return guarded(OperationType.READ, call);
+        }
+        return guarded(OperationType.READ, call)
+                .doOnSuccess(value -> remember(key, value))
+                .onErrorResume(this::isRedisDown, e -> {
+                    Object stale = fallback.getIfPresent(key);
+                    if (stale == null) {
+                        return Mono.error(e);
+                    }
+                    fallbacks.increment();
+                    return Mono.just(stale);
+                });
+    }
+
+    @Override
+    public Mono<ByteBuffer> getRaw(String key) {
+        Mono<ByteBuffer> call = read(key, node -> node.getRaw(key));
+        return guarded(OperationType.READ, call);
+    }
+
+    @Override
+    public <T> Mono<T> get(String key, ParameterizedTypeReference<T> type) {
+        Mono<T> call = read(key, node -> node.get(key, type));
+        return guarded(OperationType.READ, call);
+    }
+
+    @Override
+    public <T> Mono<T> get(String key, Class<T> type) {
+        Mono<T> call = read(key, node -> node.get(key, type));
+        return guarded(OperationType.READ, call);
+    }
+
+    @Override
+    public Mono<List<Object>> multiGet(List<String> keyList) {
+        Mono<List<Object>> call = guarded(OperationType.READ, delegate.multiGet(keyList));
+        if (fallback == null) {
+            return call;
+        }
+        return call
+                .doOnNext(values -> {
+                    for (int i = 0; i < values.size(); i++) {
+                        remember(keyList.get(i), values.get(i));
+                    }
+                })
+                // Only all keys at once, a null in the list would read as a missing key
+                .onErrorResume(this::isRedisDown, e -> {
+                    List<Object> stale = new ArrayList<>(keyList.size());
+                    for (String key : keyList) {
+                        Object value = fallback.getIfPresent(key);
+                        if (value == null) {
+                            return Mono.error(e);
+                        }
+                        stale.add(value);
+                    }
+                    fallbacks.increment();
+                    return Mono.just(stale);
+                });
+    }
+
+    @Override
+    public Mono<Boolean> put(String key, Object data) {
+        return remembered(key, data, guarded(OperationType.WRITE, delegate.put(key, data)));
+    }
+
+    @Override
+    public Mono<Boolean> put(String key, Object data, Duration timeout) {
+        return remembered(key, data, guarded(OperationType.WRITE, delegate.put(key, data, timeout)));
+    }
+
+    @Override
+    public Mono<Object> getAndSet(String key, Object data) {
+        return remembered(key, data, guarded(OperationType.WRITE, delegate.getAndSet(key, data)));
+    }
+
+    @Override
+    public <T> Mono<T> getAndSet(String key, Object data, ParameterizedTypeReference<T> type) {
+        return remembered(key, data, guarded(OperationType.WRITE, delegate.getAndSet(key, data, type)));
+    }
+
+    @Override
+    public <T> Mono<T> getAndSet(String key, Object data, Class<T> type) {
+        return remembered(key, data, guarded(OperationType.WRITE, delegate.getAndSet(key, data, type)));
+    }
+
+    @Override
+    public Mono<Void> delete(String key) {
+        return forgetting(List.of(key), guarded(OperationType.WRITE, delegate.delete(key)));
+    }
+
+    @Override
+    public Mono<Void> delete(List<String> keyList) {
+        return forgetting(keyList, guarded(OperationType.WRITE, delegate.delete(keyList)));
+    }
+
+    @Override
+    public Mono<Boolean> multiSet(Map<String, Object> entries) {
+        return rememberedAll(entries, guarded(OperationType.WRITE, delegate.multiSet(entries)));
+    }
+
+    @Override
+    public Mono<Boolean> multiSet(Map<String, Object> entries, Duration timeout) {
+        return rememberedAll(entries, guarded(OperationType.WRITE, delegate.multiSet(entries, timeout)));
+    }
+
+    @Override
+    public Mono<List<Object>> executeBatch(RedisBatch batch) {
+        return forgetting(batch.writtenKeys(), guarded(OperationType.WRITE, delegate.executeBatch(batch)));
+    }
+
+    @Override
+    public Flux<String> scan(String pattern) {
+        return guarded(delegate.scan(pattern));
+    }
+
+    @Override
+    public Flux<String> scan(String pattern, long count) {
+        return guarded(delegate.scan(pattern, count));
+    }
+
+    @Override
+    public Flux<Map.Entry<String, Object>> scanEntries(String pattern) {
+        return guarded(delegate.scanEntries(pattern));
+    }
+
+    @Override
+    public Mono<Duration> getExpire(String key) {
+        return guarded(OperationType.READ, delegate.getExpire(key));
+    }
+
+    @Override
+    public Mono<Boolean> expire(String key, Duration timeout) {
+        return guarded(OperationType.WRITE, delegate.expire(key, timeout));
+    }
+
+    @Override
+    public Mono<Boolean> expireAt(String key, Instant instant) {
+        return guarded(OperationType.WRITE, delegate.expireAt(key, instant));
+    }
+
+    @Override
+    public Mono<Boolean> persist(String key) {
+        return guarded(OperationType.WRITE, delegate.persist(key));
+    }
+
+    @Override
+    public Mono<Long> increment(String key) {
+        return counted(key, delegate.increment(key));
+    }
+
+    @Override
+    public Mono<Long> increment(String key, long time) {
+        return counted(key, delegate.increment(key, time));
+    }
+
+    @Override
+    public Mono<Long> decrement(String key) {
+        return counted(key, delegate.decrement(key));
+    }
+
+    @Override
+    public Mono<Long> decrement(String key, long time) {
+        return counted(key, delegate.decrement(key, time));
+    }
+
+    @Override
+    public Mono<StockResult> decrementWithFloor(String key, long delta, long floor) {
+        return forgetting(List.of(key), guarded(OperationType.SCRIPT, delegate.decrementWithFloor(key, delta, floor)));
+    }
+
+    @Override
+    public Mono<StockResult> incrementWithCap(String key, long delta, long cap) {
+        return forgetting(List.of(key), guarded(OperationType.SCRIPT, delegate.incrementWithCap(key, delta, cap)));
+    }
+
+    @Override
+    public Mono<StockResult> reserve(String key, String reservationId, long quantity) {
+        return forgetting(List.of(key), guarded(OperationType.SCRIPT, delegate.reserve(key, reservationId, quantity)));
+    }
+
+    @Override
+    public Mono<StockResult> release(String key, String reservationId) {
+        return forgetting(List.of(key), guarded(OperationType.SCRIPT, delegate.release(key, reservationId)));
+    }
+
+    @Override
+    public Mono<Boolean> hasKey(String key) {
+        return guarded(OperationType.READ, delegate.hasKey(key));
+    }
+
+    @Override
+    public Mono<Long> size(String key) {
+        return guarded(OperationType.READ, delegate.size(key));
+    }
+
+    CircuitBreaker.State circuitState() {
+        return breaker == null ? CircuitBreaker.State.CLOSED : breaker.getState();
+    }
+
+    private <T> Mono<T> guarded(OperationType type, Mono<T> call) {
+        Duration timeout = timeouts.get(type);
+        Mono<T> bounded = timeout.isZero() ? call
+                : call.timeout(timeout, Mono.defer(() -> Mono.error(timedOut(type, timeout))));
+        if (breaker == null) {
+            return bounded;
+        }
+        return Mono.defer(() -> {
+            if (!breaker.tryAcquire()) {
+                rejected.increment();
+                return Mono.error(new RedisUnavailableException("Redis circuit is open"));
+            }
+            return bounded
+                    .doOnSuccess(value -> breaker.onSuccess())
+                    .doOnError(this::report)
+                    .doOnCancel(breaker::onIgnored);
+        });
+    }
+
+    // The scan timeout bounds the wait for each element, a long scan that keeps making progress is fine
+    private <T> Flux<T> guarded(Flux<T> call) {
+        Duration timeout = timeouts.get(OperationType.SCAN);
+        Flux<T> bounded = timeout.isZero() ? call
+                : call.timeout(timeout, Flux.defer(() -> Flux.error(timedOut(OperationType.SCAN, timeout))));
+        if (breaker == null) {
+            return bounded;
+        }
+        return Flux.defer(() -> {
+            if (!breaker.tryAcquire()) {
+                rejected.increment();
+                return Flux.error(new RedisUnavailableException("Redis circuit is open"));
+            }
+            return bounded
+                    .doOnComplete(breaker::onSuccess)
+                    .doOnError(this::report)
+                    .doOnCancel(breaker::onIgnored);
+        });
+    }
+
+    // Sends the call to the hedge target as well once the first read has taken longer than the hedge delay,
+    // whichever answers first wins and the other is cancelled. A failing hedge leaves the first read to answer
+    // Decided on subscription, a write subscribed to just before the read pins the key in time
+    private <T> Mono<T> read(String key, Function<RedisService, Mono<T>> command) {
+        if (hedgeTarget == null) {
+            return command.apply(delegate);
+        }
+        return Mono.defer(() -> pinned.test(key) ? command.apply(delegate)
+                : hedged(command.apply(delegate), Mono.defer(() -> command.apply(hedgeTarget))));
+    }
+
+    private <T> Mono<T> hedged(Mono<T> primary, Mono<T> hedge) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            Mono<Optional<T>> first = primary.map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    // Not on cancel, that time is only how long the hedge took to win
+                    .doOnSuccess(value -> hedgeDelay.record(System.nanoTime() - start));
+            Mono<Optional<T>> second = Mono.delay(hedgeDelay.current())
+                    .flatMap(tick -> {
+                        if (hedgesInFlight.incrementAndGet() > maxHedges) {
+                            hedgesInFlight.decrementAndGet();
+                            hedgesSkipped.increment();
+                            return Mono.never();
+                        }
+                        hedgesSent.increment();
+                        return hedge.map(Optional::of)
+                                .defaultIfEmpty(Optional.empty())
+                                .doOnNext(value -> hedgesWon.increment())
+                                .doFinally(signal -> hedgesInFlight.decrementAndGet());
+                    })
+                    .onErrorResume(e -> Mono.never());
+            return Mono.firstWithSignal(first, second).flatMap(Mono::justOrEmpty);
+        });
+    }
+
+    private Mono<Long> counted(String key, Mono<Long> call) {
+        Mono<Long> guarded = guarded(OperationType.WRITE, call);
+        return fallback == null ? guarded : guarded.doOnNext(value -> remember(key, value));
+    }
+
+    // The written value becomes the fallback once the write went through, a failed write drops the old one
+    private <T> Mono<T> remembered(String key, Object data, Mono<T> write) {
+        if (fallback == null) {
+            return write;
+        }
+        return write
+                .doOnSuccess(result -> remember(key, data))
+                .doOnError(e -> forget(key));
+    }
+
+    // Part of the keys may be written when a bulk write fails, so the old values are dropped up front and the
+    // new ones only kept once Redis confirmed all of them
+    private Mono<Boolean> rememberedAll(Map<String, Object> entries, Mono<Boolean> write) {
+        if (fallback == null) {
+            return write;
+        }
+        return write
+                .doFirst(() -> entries.keySet().forEach(this::forget))
+                .doOnSuccess(saved -> {
+                    if (Boolean.TRUE.equals(saved)) {
+                        entries.forEach(this::remember);
+                    }
+                })
+                .doOnError(e -> entries.keySet().forEach(this::forget));
+    }
+
+    // Dropped when the write starts and again once it ended, so a read racing with it cannot put the old value back
+    private <T> Mono<T> forgetting(List<String> keys, Mono<T> write) {
+        if (fallback == null) {
+            return write;
+        }
+        return write
+                .doFirst(() -> keys.forEach(this::forget))
+                .doFinally(signal -> keys.forEach(this::forget));
+    }
+
+    private void remember(String key, Object value) {
+        if (fallback == null) {
+            return;
+        }
+        if (value == null) {
+            fallback.invalidate(key);
+        } else {
+            fallback.put(key, value);
+        }
+    }
+
+    private void forget(String key) {
+        if (fallback != null) {
+            fallback.invalidate(key);
+        }
+    }
+
+    // Only failures that say Redis is slow or unreachable count against the circuit, a WRONGTYPE or a
+    // serialization error still means Redis answered
+    private void report(Throwable e) {
+        if (isRedisDown(e)) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+    }
+
+    private boolean isRedisDown(Throwable e) {
+        return e instanceof RedisUnavailableException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof QueryTimeoutException;
+    }
+
+    private RedisUnavailableException timedOut(OperationType type, Duration timeout) {
+        timeoutCounters.get(type).increment();
+        return new RedisUnavailableException("Redis " + tag(type) + " timed out after " + timeout.toMillis() + " ms");
+    }
+
+    private static Counter hedgeCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("redis.resilience.hedges")
+                .description("Hedged GETs by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static String tag(OperationType type) {
+        return type.name().toLowerCase(Locale.ROOT);
+    }
+}
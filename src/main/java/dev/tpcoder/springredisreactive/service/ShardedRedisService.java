@@ -0,0 +1,242 @@
+package dev.tpcoder.springredisreactive.service;
+
+import dev.tpcoder.springredisreactive.model.StockResult;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import org.springframework.core.ParameterizedTypeReference;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Spreads the keyspace over several Redis nodes. Single key commands go to the node owning the key on a
+ * {@link ConsistentHashRing}, multi-key commands are split into one call per node, run in parallel and
+ * put back together in the order of the request. Scans visit every node.
+ */
+public class ShardedRedisService implements RedisService {
+
+    private final ConsistentHashRing<RedisService> ring;
+
+    public ShardedRedisService(ConsistentHashRing<RedisService> ring) {
+        this.ring = ring;
+    }
+
+    @Override
+    public Mono<Boolean> put(String key, Object data) {
+        return ring.nodeFor(key).put(key, data);
+    }
+
+    @Override
+    public Mono<Boolean> put(String key, Object data, Duration timeout) {
+        return ring.nodeFor(key).put(key, data, timeout);
+    }
+
+    @Override
+    public Mono<Object> get(String key) {
+        return ring.nodeFor(key).get(key);
+    }
+
+    @Override
+    public Mono<ByteBuffer> getRaw(String key) {
+        return ring.nodeFor(key).getRaw(key);
+    }
+
+    @Override
+    public <T> Mono<T> get(String key, ParameterizedTypeReference<T> type) {
+        return ring.nodeFor(key).get(key, type);
+    }
+
+    @Override
+    public <T> Mono<T> get(String key, Class<T> type) {
+        return ring.nodeFor(key).get(key, type);
+    }
+
+    @Override
+    public Mono<Object> getAndSet(String key, Object data) {
+        return ring.nodeFor(key).getAndSet(key, data);
+    }
+
+    @Override
+    public <T> Mono<T> getAndSet(String key, Object data, ParameterizedTypeReference<T> type) {
+        return ring.nodeFor(key).getAndSet(key, data, type);
+    }
+
+    @Override
+    public <T> Mono<T> getAndSet(String key, Object data, Class<T> type) {
+        return ring.nodeFor(key).getAndSet(key, data, type);
+    }
+
+    @Override
+    public Mono<Void> delete(String key) {
+        return ring.nodeFor(key).delete(key);
+    }
+
+    @Override
+    public Mono<Void> delete(List<String> keyList) {
+        return Flux.fromIterable(byNode(keyList).entrySet())
+                .flatMap(shard -> shard.getKey().delete(keysAt(keyList, shard.getValue())))
+                .then();
+    }
+
+    @Override
+    public Mono<List<Object>> multiGet(List<String> keyList) {
+        return gather(keyList, keyList.size(), (node, indexes) -> node.multiGet(keysAt(keyList, indexes)));
+    }
+
+    @Override
+    public Mono<Boolean> multiSet(Map<String, Object> entries) {
+        return Flux.fromIterable(entriesByNode(entries).entrySet())
+                .flatMap(shard -> shard.getKey().multiSet(shard.getValue()))
+                .all(Boolean::booleanValue);
+    }
+
+    @Override
+    public Mono<Boolean> multiSet(Map<String, Object> entries, Duration timeout) {
+        return Flux.fromIterable(entriesByNode(entries).entrySet())
+                .flatMap(shard -> shard.getKey().multiSet(shard.getValue(), timeout))
+                .all(Boolean::booleanValue);
+    }
+
+    @Override
+    public Mono<List<Object>> executeBatch(RedisBatch batch) {
+        List<RedisBatch.Command> commands = batch.commands();
+        List<String> keys = new ArrayList<>(commands.size());
+        commands.forEach(command -> keys.add(command.getKey()));
+        return gather(keys, commands.size(), (node, indexes) -> {
+            RedisBatch shardBatch = new RedisBatch();
+            indexes.forEach(index -> shardBatch.add(commands.get(index)));
+            return node.executeBatch(shardBatch);
+        });
+    }
+
+    @Override
+    public Flux<String> scan(String pattern) {
+        return Flux.fromIterable(ring.nodes().values())
+                .flatMap(node -> node.scan(pattern));
+    }
+
+    @Override
+    public Flux<String> scan(String pattern, long count) {
+        return Flux.fromIterable(ring.nodes().values())
+                .flatMap(node -> node.scan(pattern, count));
+    }
+
+    @Override
+    public Flux<Map.Entry<String, Object>> scanEntries(String pattern) {
+        return Flux.fromIterable(ring.nodes().values())
+                .flatMap(node -> node.scanEntries(pattern));
+    }
+
+    @Override
+    public Mono<Duration> getExpire(String key) {
+        return ring.nodeFor(key).getExpire(key);
+    }
+
+    @Override
+    public Mono<Boolean> expire(String key, Duration timeout) {
+        return ring.nodeFor(key).expire(key, timeout);
+    }
+
+    @Override
+    public Mono<Boolean> expireAt(String key, Instant instant) {
+        return ring.nodeFor(key).expireAt(key, instant);
+    }
+
+    @Override
+    public Mono<Boolean> persist(String key) {
+        return ring.nodeFor(key).persist(key);
+    }
+
+    @Override
+    public Mono<Long> increment(String key) {
+        return ring.nodeFor(key).increment(key);
+    }
+
+    @Override
+    public Mono<Long> increment(String key, long time) {
+        return ring.nodeFor(key).increment(key, time);
+    }
+
+    @Override
+    public Mono<Long> decrement(String key) {
+        return ring.nodeFor(key).decrement(key);
+    }
+
+    @Override
+    public Mono<Long> decrement(String key, long time) {
+        return ring.nodeFor(key).decrement(key, time);
+    }
+
+    // A reservation lives on the node of its item, so both keys of the script are on one node
+    @Override
+    public Mono<StockResult> decrementWithFloor(String key, long delta, long floor) {
+        return ring.nodeFor(key).decrementWithFloor(key, delta, floor);
+    }
+
+    @Override
+    public Mono<StockResult> incrementWithCap(String key, long delta, long cap) {
+        return ring.nodeFor(key).incrementWithCap(key, delta, cap);
+    }
+
+    @Override
+    public Mono<StockResult> reserve(String key, String reservationId, long quantity) {
+        return ring.nodeFor(key).reserve(key, reservationId, quantity);
+    }
+
+    @Override
+    public Mono<StockResult> release(String key, String reservationId) {
+        return ring.nodeFor(key).release(key, reservationId);
+    }
+
+    @Override
+    public Mono<Boolean> hasKey(String key) {
+        return ring.nodeFor(key).hasKey(key);
+    }
+
+    @Override
+    public Mono<Long> size(String key) {
+        return ring.nodeFor(key).size(key);
+    }
+
+    // Runs one call per node with the positions of its keys and writes the results back to those positions
+    private Mono<List<Object>> gather(List<String> keys, int size,
+                                      BiFunction<RedisService, List<Integer>, Mono<List<Object>>> call) {
+        Object[] results = new Object[size];
+        return Flux.fromIterable(byNode(keys).entrySet())
+                .flatMap(shard -> call.apply(shard.getKey(), shard.getValue())
+                        .doOnNext(values -> {
+                            List<Integer> indexes = shard.getValue();
+                            for (int i = 0; i < indexes.size(); i++) {
+                                results[indexes.get(i)] = values.get(i);
+                            }
+                        }))
+                .then(Mono.fromSupplier(() -> Arrays.asList(results)));
+    }
+
+    private Map<RedisService, List<Integer>> byNode(List<String> keys) {
+        Map<RedisService, List<Integer>> shards = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            shards.computeIfAbsent(ring.nodeFor(keys.get(i)), node -> new ArrayList<>()).add(i);
+        }
+        return shards;
+    }
+
+    private Map<RedisService, Map<String, Object>> entriesByNode(Map<String, Object> entries) {
+        Map<RedisService, Map<String, Object>> shards = new LinkedHashMap<>();
+        entries.forEach((key, value) -> shards.computeIfAbsent(ring.nodeFor(key), node -> new LinkedHashMap<>())
+                .put(key, value));
+        return shards;
+    }
+
+    private static List<String> keysAt(List<String> keys, List<Integer> indexes) {
+        List<String> selected = new ArrayList<>(indexes.size());
+        indexes.forEach(index -> selected.add(keys.get(index)));
+        return selected;
+    }
+}
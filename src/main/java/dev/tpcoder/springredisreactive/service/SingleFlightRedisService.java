@@ -0,0 +1,43 @@
+package dev.tpcoder.springredisreactive.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import reactor.core.publisher.Mono;
+
+/**
+ * Lets concurrent {@link #get(String)} calls for the same key share one Redis GET.
+ * The shared call is dropped from the map as soon as it terminates, so a later read always goes to Redis
+ * and never sees an older value than a plain GET would. Errors reach every waiting subscriber, and the
+ * GET is only cancelled once all of them have cancelled.
+ */
+public class SingleFlightRedisService extends ForwardingRedisService {
+
+    private final ConcurrentMap<String, Mono<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public SingleFlightRedisService(RedisService delegate) {
+        super(delegate);
+    }
+
+    @Override
+    public Mono<Object> get(String key) {
+        return Mono.defer(() -> inFlight.computeIfAbsent(key, this::load));
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private Mono<Object> load(String key) {
+        AtomicReference<Mono<Object>> self = new AtomicReference<>();
+        // publish().refCount() rather than share(), the latter keeps the GET running once every caller left
+        Mono<Object> shared = delegate.get(key)
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .flux()
+                .publish()
+                .refCount()
+                .singleOrEmpty();
+        self.set(shared);
+        return shared;
+    }
+}
@@ -0,0 +1,111 @@
+package dev.tpcoder.springredisreactive.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Collects keys that were read and refreshes their TTL as one {@link RedisBatch} of EXPIRE commands per
+ * flush, instead of one EXPIRE per read. A key read a thousand times between two flushes costs one
+ * command. Refreshing is best effort: a failed flush is logged and its keys wait for their next read.
+ */
+@Slf4j
+public class SlidingExpiration {
+
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(5);
+
+    private final TtlPolicy policy;
+    private final Duration flushInterval;
+    private final int maxPendingKeys;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Counter refreshed;
+    private final Counter dropped;
+    private volatile RedisService target;
+    private Disposable flusher;
+
+    public SlidingExpiration(TtlPolicy policy, Duration flushInterval, int maxPendingKeys, MeterRegistry registry) {
+        this.policy = policy;
+        this.flushInterval = flushInterval;
+        this.maxPendingKeys = maxPendingKeys;
+        this.refreshed = Counter.builder("redis.ttl.sliding.refreshes")
+                .description("EXPIRE commands sent to slide the TTL of keys that were read")
+                .register(registry);
+        this.dropped = Counter.builder("redis.ttl.sliding.dropped")
+                .description("Reads that did not refresh the TTL because too many keys were pending")
+                .register(registry);
+        Gauge.builder("redis.ttl.sliding.pending", pending, Set::size)
+                .register(registry);
+    }
+
+    // The service the EXPIRE batches are sent through, set once the service chain is assembled
+    public void bind(RedisService target) {
+        this.target = target;
+    }
+
+    public void start() {
+        flusher = Flux.interval(flushInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> flush(), 1)
+                .subscribe();
+    }
+
+    public void stop() {
+        if (flusher != null) {
+            flusher.dispose();
+        }
+        try {
+            flush().block(SHUTDOWN_TIMEOUT);
+        } catch (IllegalStateException e) {
+            log.warn("Could not refresh {} TTLs before shutdown", pending.size(), e);
+        }
+    }
+
+    public void touch(String key) {
+        if (pending.contains(key)) {
+            return;
+        }
+        if (pending.size() >= maxPendingKeys) {
+            dropped.increment();
+            return;
+        }
+        pending.add(key);
+    }
+
+    Mono<Void> flush() {
+        RedisService service = target;
+        if (service == null || pending.isEmpty()) {
+            return Mono.empty();
+        }
+        RedisBatch batch = new RedisBatch();
+        for (Iterator<String> keys = pending.iterator(); keys.hasNext(); ) {
+            String key = keys.next();
+            keys.remove();
+            Duration ttl = policy.ttlFor(key);
+            if (ttl != null) {
+                batch.expire(key, ttl);
+            }
+        }
+        if (batch.isEmpty()) {
+            return Mono.empty();
+        }
+        return service.executeBatch(batch)
+                .doOnSuccess(results -> refreshed.increment(batch.size()))
+                .onErrorResume(e -> {
+                    log.warn("Could not refresh the TTL of {} keys", batch.size(), e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+}
@@ -0,0 +1,46 @@
+package dev.tpcoder.springredisreactive.service;
+
+import dev.tpcoder.springredisreactive.model.StockResult;
+import java.util.List;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * Lua scripts of the atomic stock operations. {@link RedisScript} keeps the SHA1 of every script, so
+ * they are sent as EVALSHA and the script body only goes over the wire once per server, on NOSCRIPT.
+ * Every script answers {status, amount}.
+ */
+public final class StockScripts {
+
+    // Reservations are plain counters too, kept under their own prefix so exports can leave them out
+    public static final String RESERVATION_PREFIX = "reservation:";
+
+    @SuppressWarnings("rawtypes")
+    static final RedisScript<List> DECREMENT_FLOOR = script("decrement-floor");
+    @SuppressWarnings("rawtypes")
+    static final RedisScript<List> INCREMENT_CAP = script("increment-cap");
+    @SuppressWarnings("rawtypes")
+    static final RedisScript<List> RESERVE = script("reserve");
+    @SuppressWarnings("rawtypes")
+    static final RedisScript<List> RELEASE = script("release");
+
+    private StockScripts() {
+    }
+
+    public static String reservationKey(String key, String reservationId) {
+        return RESERVATION_PREFIX + key + ":" + reservationId;
+    }
+
+    // The reactive executor emits the reply elements one by one, older drivers emit the list itself
+    static StockResult toResult(List<?> reply) {
+        List<?> values = reply.size() == 1 && reply.get(0) instanceof List ? (List<?>) reply.get(0) : reply;
+        return new StockResult()
+                .setApplied(((Number) values.get(0)).longValue() > 0)
+                .setAmount(((Number) values.get(1)).longValue());
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static RedisScript<List> script(String name) {
+        return RedisScript.of(new ClassPathResource("scripts/" + name + ".lua"), List.class);
+    }
+}
@@ -0,0 +1,46 @@
+package dev.tpcoder.springredisreactive.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * TTLs by key namespace, the part of the key before the first ':'. Every TTL handed out gets a random
+ * extra of up to {@code jitter} times the TTL, so a batch of keys written together expires spread out
+ * instead of causing a burst of misses all at once.
+ */
+public class TtlPolicy {
+
+    private final Duration defaultTtl;
+    private final Map<String, Duration> namespaces;
+    private final double jitter;
+
+    public TtlPolicy(Duration defaultTtl, Map<String, Duration> namespaces, double jitter) {
+        if (jitter < 0) {
+            throw new IllegalArgumentException("jitter must not be negative: " + jitter);
+        }
+        this.defaultTtl = defaultTtl;
+        this.namespaces = Map.copyOf(namespaces);
+        this.jitter = jitter;
+    }
+
+    // TTL configured for the key without jitter, null when the key does not expire
+    public Duration baseTtl(String key) {
+        int index = key.indexOf(':');
+        Duration ttl = index < 0 ? null : namespaces.get(key.substring(0, index));
+        if (ttl == null) {
+            ttl = defaultTtl;
+        }
+        return ttl == null || ttl.isZero() || ttl.isNegative() ? null : ttl;
+    }
+
+    // TTL to write the key with, null when the key does not expire
+    public Duration ttlFor(String key) {
+        Duration ttl = baseTtl(key);
+        if (ttl == null || jitter == 0) {
+            return ttl;
+        }
+        long millis = ttl.toMillis();
+        return Duration.ofMillis(millis + (long) (millis * jitter * ThreadLocalRandom.current().nextDouble()));
+    }
+}
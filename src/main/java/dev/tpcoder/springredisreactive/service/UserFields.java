@@ -0,0 +1,104 @@
+package dev.tpcoder.springredisreactive.service;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import dev.tpcoder.springredisreactive.model.User;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.stereotype.Component;
+
+/**
+ * Field level view of {@link User} shared by the user stores: the property names, conversion to and from
+ * a flat string map for hash storage, projections and merge patches. The id is the Redis key and is never
+ * stored as a field or patched.
+ */
+@Component
+class UserFields {
+
+    static final String ID = "id";
+
+    private final ObjectMapper objectMapper;
+    private final Set<String> names = new LinkedHashSet<>();
+
+    UserFields(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        BeanDescription description = objectMapper.getSerializationConfig()
+                .introspect(objectMapper.constructType(User.class));
+        for (BeanPropertyDefinition property : description.findProperties()) {
+            names.add(property.getName());
+        }
+    }
+
+    Set<String> names() {
+        return names;
+    }
+
+    Set<String> validate(Collection<String> fields) {
+        for (String field : fields) {
+            if (!names.contains(field)) {
+                throw new IllegalArgumentException("Unknown user field: " + field);
+            }
+        }
+        return new LinkedHashSet<>(fields);
+    }
+
+    // Non-null properties as strings, the id is left out because it is the key
+    Map<String, String> toHash(User user) {
+        Map<String, String> hash = new LinkedHashMap<>();
+        toMap(user).forEach((name, value) -> {
+            if (value != null && !ID.equals(name)) {
+                hash.put(name, String.valueOf(value));
+            }
+        });
+        return hash;
+    }
+
+    // Stored fields the user no longer has, removed on save so the hash does not keep stale values
+    Set<String> clearedFields(User user) {
+        Set<String> cleared = new LinkedHashSet<>();
+        toMap(user).forEach((name, value) -> {
+            if (value == null && !ID.equals(name)) {
+                cleared.add(name);
+            }
+        });
+        return cleared;
+    }
+
+    User fromHash(String userId, Map<String, String> hash) {
+        return objectMapper.convertValue(hash, User.class).setId(userId);
+    }
+
+    User fromMap(Map<?, ?> values) {
+        return objectMapper.convertValue(values, User.class);
+    }
+
+    Map<String, Object> project(User user, Set<String> fields) {
+        Map<String, Object> all = toMap(user);
+        Map<String, Object> projection = new LinkedHashMap<>();
+        fields.forEach(field -> projection.put(field, all.get(field)));
+        return projection;
+    }
+
+    User merge(User user, Map<String, Object> changes) {
+        Map<String, Object> merged = toMap(user);
+        merged.putAll(changes);
+        return objectMapper.convertValue(merged, User.class);
+    }
+
+    Map<String, Object> validatePatch(Map<String, Object> changes) {
+        if (changes.containsKey(ID)) {
+            throw new IllegalArgumentException("The user id cannot be patched");
+        }
+        validate(changes.keySet());
+        return changes;
+    }
+
+    private Map<String, Object> toMap(User user) {
+        return objectMapper.convertValue(user, objectMapper.getTypeFactory()
+                .constructMapType(LinkedHashMap.class, String.class, Object.class));
+    }
+}
@@ -0,0 +1,18 @@
+package dev.tpcoder.springredisreactive.service;
+
+import org.springframework.dao.InvalidDataAccessResourceUsageException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A user key holds another Redis type than the configured storage writes, typically a user saved as a
+ * value and read after switching to hash storage. The key has to be rewritten or deleted, so requests
+ * failing with it are answered with 409.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class UserStorageMismatchException extends InvalidDataAccessResourceUsageException {
+
+    public UserStorageMismatchException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
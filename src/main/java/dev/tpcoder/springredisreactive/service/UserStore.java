@@ -0,0 +1,39 @@
+package dev.tpcoder.springredisreactive.service;
+
+import dev.tpcoder.springredisreactive.model.User;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Storage of {@link User} values. The layout is chosen with {@code app.user.storage}: {@code value} keeps
+ * each user as one serialized value, {@code hash} keeps one Redis hash field per property so single fields
+ * can be read and updated without rewriting the whole user.
+ */
+public interface UserStore {
+
+    Mono<User> find(String userId);
+
+    // The user as a response body, stored JSON is passed through as it is when raw reads are enabled
+    Mono<Object> findBody(String userId);
+
+    // Only the requested fields, unknown field names fail with IllegalArgumentException
+    Mono<Map<String, Object>> find(String userId, Set<String> fields);
+
+    // Aligned with userIds and holds null for missing users
+    Mono<List<User>> findAll(List<String> userIds);
+
+    Flux<User> scan(String pattern);
+
+    Mono<Boolean> save(String userId, User user);
+
+    Mono<Boolean> saveAll(Map<String, User> users);
+
+    // Merge patch, a null value clears the field. Empty when the user does not exist
+    Mono<User> patch(String userId, Map<String, Object> changes);
+
+    // Goes to the same node the user is written to
+    Mono<Void> delete(String userId);
+}
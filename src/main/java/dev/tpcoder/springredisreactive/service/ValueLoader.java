@@ -0,0 +1,12 @@
+package dev.tpcoder.springredisreactive.service;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * The system of record behind the cache. Used by {@link ReadThroughRedisService} on a miss and to
+ * refresh entries before they expire. Completes empty when the key does not exist there either.
+ */
+public interface ValueLoader {
+
+    Mono<Object> load(String key);
+}
@@ -0,0 +1,104 @@
+package dev.tpcoder.springredisreactive.service;
+
+import dev.tpcoder.springredisreactive.model.User;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps every user as one serialized value. Projections are cut from the full value and a patch is a
+ * read-merge-write, so concurrent patches of the same user can overwrite each other.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.user", name = "storage", havingValue = "value", matchIfMissing = true)
+public class ValueUserStore implements UserStore {
+
+    private final RedisService redisService;
+    private final UserFields userFields;
+    private final RawValues rawValues;
+
+    @Override
+    public Mono<User> find(String userId) {
+        return redisService.get(userId)
+                .mapNotNull(this::toUser);
+    }
+
+    @Override
+    public Mono<Object> findBody(String userId) {
+        if (!rawValues.isEnabled()) {
+            return find(userId).cast(Object.class);
+        }
+        return redisService.getRaw(userId)
+                .mapNotNull(stored -> {
+                    Object json = rawValues.json(stored, User.class);
+                    return json != null ? json : toUser(rawValues.decode(stored));
+                });
+    }
+
+    @Override
+    public Mono<Map<String, Object>> find(String userId, Set<String> fields) {
+        return Mono.fromSupplier(() -> userFields.validate(fields))
+                .flatMap(valid -> find(userId)
+                        .map(user -> userFields.project(user.getId() == null ? user.setId(userId) : user, valid)));
+    }
+
+    @Override
+    public Mono<List<User>> findAll(List<String> userIds) {
+        return redisService.multiGet(userIds)
+                .map(values -> {
+                    List<User> users = new ArrayList<>(values.size());
+                    values.forEach(value -> users.add(toUser(value)));
+                    return users;
+                });
+    }
+
+    @Override
+    public Flux<User> scan(String pattern) {
+        // Users and items share the keyspace, the stored type tells them apart
+        return redisService.scanEntries(pattern)
+                .filter(entry -> entry.getValue() instanceof User)
+                .map(entry -> {
+                    User user = (User) entry.getValue();
+                    return user.getId() == null ? user.setId(entry.getKey()) : user;
+                });
+    }
+
+    @Override
+    public Mono<Boolean> save(String userId, User user) {
+        return redisService.put(userId, user);
+    }
+
+    @Override
+    public Mono<Boolean> saveAll(Map<String, User> users) {
+        return redisService.multiSet(new LinkedHashMap<>(users));
+    }
+
+    @Override
+    public Mono<User> patch(String userId, Map<String, Object> changes) {
+        return Mono.fromSupplier(() -> userFields.validatePatch(changes))
+                .flatMap(valid -> find(userId))
+                .map(user -> userFields.merge(user, changes))
+                .flatMap(merged -> redisService.put(userId, merged).thenReturn(merged));
+    }
+
+    @Override
+    public Mono<Void> delete(String userId) {
+        return redisService.delete(userId);
+    }
+
+    private User toUser(Object value) {
+        if (value instanceof User) {
+            return (User) value;
+        }
+        // Values written before the type header are read back as plain maps
+        return value instanceof Map ? userFields.fromMap((Map<?, ?>) value) : null;
+    }
+}
@@ -0,0 +1,8 @@
+package dev.tpcoder.springredisreactive.service;
+
+public enum WriteConsistency {
+    // Redis is updated before the call completes and the new value is returned
+    READ_YOUR_WRITE,
+    // The delta is buffered in memory and written with the next flush, nothing is returned
+    EVENTUAL
+}
@@ -0,0 +1,16 @@
+-- Decrements KEYS[1] by ARGV[1] unless the result would drop below ARGV[2].
+-- Returns {1, new amount} when applied, {0, current amount} when rejected.
+-- KEYS[2], when given, is the ranking sorted set, KEYS[1] is ranked there with the new amount.
+local current = tonumber(redis.call('GET', KEYS[1]) or '0')
+if current == nil then
+    return redis.error_reply('ERR value is not an integer')
+end
+local delta = tonumber(ARGV[1])
+if current - delta < tonumber(ARGV[2]) then
+    return {0, current}
+end
+local amount = redis.call('DECRBY', KEYS[1], delta)
+if KEYS[2] then
+    redis.call('ZADD', KEYS[2], amount, KEYS[1])
+end
+return {1, amount}
@@ -0,0 +1,3 @@
+-- Deletes the counter KEYS[1] and removes member ARGV[1] from the ranking KEYS[2].
+redis.call('ZREM', KEYS[2], ARGV[1])
+return redis.call('DEL', KEYS[1])
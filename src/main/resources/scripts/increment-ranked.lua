@@ -0,0 +1,4 @@
+-- Increments the counter KEYS[1] by ARGV[1] and ranks member ARGV[2] with the new amount in KEYS[2].
+local amount = redis.call('INCRBY', KEYS[1], ARGV[1])
+redis.call('ZADD', KEYS[2], amount, ARGV[2])
+return amount
@@ -0,0 +1,9 @@
+-- Sets the counter KEYS[1] to ARGV[1] and ranks member ARGV[2] with that amount in the sorted set KEYS[2].
+-- ARGV[3], when given, is the expiry of the counter in milliseconds.
+if ARGV[3] then
+    redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[3])
+else
+    redis.call('SET', KEYS[1], ARGV[1])
+end
+redis.call('ZADD', KEYS[2], ARGV[1], ARGV[2])
+return 1
@@ -0,0 +1,13 @@
+-- Gives the quantity held by the reservation key KEYS[2] back to the stock in KEYS[1].
+-- Returns {1, new amount} when released, {0, current amount} when there is no such reservation.
+-- KEYS[3], when given, is the ranking sorted set, KEYS[1] is ranked there with the new amount.
+local quantity = redis.call('GET', KEYS[2])
+if not quantity then
+    return {0, tonumber(redis.call('GET', KEYS[1]) or '0')}
+end
+redis.call('DEL', KEYS[2])
+local amount = redis.call('INCRBY', KEYS[1], quantity)
+if KEYS[3] then
+    redis.call('ZADD', KEYS[3], amount, KEYS[1])
+end
+return {1, amount}
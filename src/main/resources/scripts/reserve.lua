@@ -0,0 +1,22 @@
+-- Takes ARGV[1] from the stock in KEYS[1] and records it under the reservation key KEYS[2].
+-- Returns {1, new amount} when reserved, {0, current amount} when the stock is too low and
+-- {2, current amount} when the reservation already exists, so a retried request takes stock only once.
+-- The reservation key has no TTL on purpose: only release.lua gives the quantity back, so it must be called.
+-- KEYS[3], when given, is the ranking sorted set, KEYS[1] is ranked there with the new amount.
+local current = tonumber(redis.call('GET', KEYS[1]) or '0')
+if current == nil then
+    return redis.error_reply('ERR value is not an integer')
+end
+if redis.call('EXISTS', KEYS[2]) == 1 then
+    return {2, current}
+end
+local quantity = tonumber(ARGV[1])
+if current < quantity then
+    return {0, current}
+end
+redis.call('SET', KEYS[2], quantity)
+local amount = redis.call('DECRBY', KEYS[1], quantity)
+if KEYS[3] then
+    redis.call('ZADD', KEYS[3], amount, KEYS[1])
+end
+return {1, amount}
@@ -0,0 +1,15 @@
+-- Sets and removes fields of the user hash KEYS[1] in one step, so no reader sees half a save.
+-- ARGV[1] is 1 when only an existing user may be changed, ARGV[2] the number of field/value pairs that follow,
+-- the arguments after the pairs are the fields to remove.
+-- Returns 1 when saved and 0 when the user had to exist and did not.
+if ARGV[1] == '1' and redis.call('EXISTS', KEYS[1]) == 0 then
+    return 0
+end
+local last = 2 + 2 * tonumber(ARGV[2])
+if last > 2 then
+    redis.call('HSET', KEYS[1], unpack(ARGV, 3, last))
+end
+if #ARGV > last then
+    redis.call('HDEL', KEYS[1], unpack(ARGV, last + 1))
+end
+return 1
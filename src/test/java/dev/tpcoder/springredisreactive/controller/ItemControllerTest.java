@@ -1,10 +1,26 @@
 package dev.tpcoder.springredisreactive.controller;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 
+import dev.tpcoder.springredisreactive.model.ImportProgress;
 import dev.tpcoder.springredisreactive.model.Item;
+import dev.tpcoder.springredisreactive.model.ItemRank;
+import dev.tpcoder.springredisreactive.model.StockResult;
+import dev.tpcoder.springredisreactive.service.CounterCoalescer;
+import dev.tpcoder.springredisreactive.service.ItemImportService;
+import dev.tpcoder.springredisreactive.service.ItemRanking;
+import dev.tpcoder.springredisreactive.service.ItemWatcher;
+import dev.tpcoder.springredisreactive.service.RawValues;
 import dev.tpcoder.springredisreactive.service.RedisService;
+import dev.tpcoder.springredisreactive.service.WriteConsistency;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,6 +29,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
@@ -25,6 +49,24 @@ class ItemControllerTest {
     @Mock
     private RedisService redisService;
 
+    @Mock
+    private CounterCoalescer counterCoalescer;
+
+    @Mock
+    private ItemImportService itemImportService;
+
+    @Mock
+    private ObjectProvider<ItemRanking> itemRanking;
+
+    @Mock
+    private ItemRanking ranking;
+
+    @Mock
+    private RawValues rawValues;
+
+    @Mock
+    private ItemWatcher itemWatcher;
+
     private Item item;
 
     @BeforeEach
@@ -40,10 +82,11 @@ class ItemControllerTest {
         Mockito.when(redisService.get(anyString()))
                 .thenReturn(Mono.just(item));
         StepVerifier.create(itemController.readItem("1"))
-                .assertNext(data -> {
-                    Assertions.assertEquals(item.getId(), ((Item) data).getId());
-                    Assertions.assertEquals(item.getName(), ((Item) data).getName());
-                    Assertions.assertEquals(item.getAmount(), ((Item) data).getAmount());
+                .assertNext(response -> {
+                    Item data = (Item) response.getBody();
+                    Assertions.assertEquals(item.getId(), data.getId());
+                    Assertions.assertEquals(item.getName(), data.getName());
+                    Assertions.assertEquals(item.getAmount(), data.getAmount());
                 })
                 .verifyComplete();
     }
@@ -69,20 +112,45 @@ class ItemControllerTest {
 
     @Test
     void updateItem_success() {
-        Mockito.when(redisService.increment(anyString(), anyLong()))
+        Mockito.when(counterCoalescer.increment(anyString(), anyLong(), any()))
                 .thenReturn(Mono.just(10L));
-        StepVerifier.create(itemController.updateItem("1", item))
-                .expectNext(10L)
+        StepVerifier.create(itemController.updateItem("1", item, null))
+                .assertNext(response -> {
+                    Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+                    Assertions.assertEquals(10L, response.getBody());
+                })
                 .verifyComplete();
     }
 
     @Test
     void updateItem_withNullAmount_success() {
-        Mockito.when(redisService.increment(anyString(), anyLong()))
+        Mockito.when(counterCoalescer.increment(anyString(), anyLong(), any()))
                 .thenReturn(Mono.just(10L));
         item.setAmount(null);
-        StepVerifier.create(itemController.updateItem("1", item))
-                .expectNext(10L)
+        StepVerifier.create(itemController.updateItem("1", item, null))
+                .assertNext(response -> Assertions.assertEquals(10L, response.getBody()))
+                .verifyComplete();
+    }
+
+    @Test
+    void updateItem_withLargeAmount_shouldNotTruncate() {
+        Mockito.when(counterCoalescer.increment("1", 5_000_000_000L, WriteConsistency.READ_YOUR_WRITE))
+                .thenReturn(Mono.just(5_000_000_000L));
+        item.setAmount(5_000_000_000L);
+        StepVerifier.create(itemController.updateItem("1", item, WriteConsistency.READ_YOUR_WRITE))
+                .assertNext(response -> Assertions.assertEquals(5_000_000_000L, response.getBody()))
+                .verifyComplete();
+    }
+
+    @Test
+    void updateItem_whenEventual_shouldReturnAccepted() {
+        Mockito.when(counterCoalescer.increment("1", 10L, WriteConsistency.EVENTUAL))
+                .thenReturn(Mono.empty());
+        StepVerifier.create(itemController.updateItem("1", item, WriteConsistency.EVENTUAL))
+                .assertNext(response -> {
+                    Assertions.assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+                    Assertions.assertNull(response.getBody());
+                })
                 .verifyComplete();
     }
 
@@ -93,4 +161,166 @@ class ItemControllerTest {
         StepVerifier.create(itemController.deleteItem("1"))
                 .verifyComplete();
     }
+
+    @Test
+    void readItems_success() {
+        Mockito.when(redisService.multiGet(List.of("1", "2")))
+                .thenReturn(Mono.just(Arrays.asList(10L, null)));
+        StepVerifier.create(itemController.readItems(List.of("1", "2")))
+                .assertNext(data -> {
+                    Assertions.assertEquals(10L, data.get("1"));
+                    Assertions.assertTrue(data.containsKey("2"));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void saveItemAmounts_withNullAmount_shouldStoreZero() {
+        Mockito.when(redisService.multiSet(Map.of("1", 10L, "2", 0L)))
+                .thenReturn(Mono.just(Boolean.TRUE));
+        Item empty = new Item();
+        Map<String, Item> body = new LinkedHashMap<>();
+        body.put("1", item);
+        body.put("2", empty);
+        StepVerifier.create(itemController.saveItemAmounts(body))
+                .expectNext(Boolean.TRUE)
+                .verifyComplete();
+    }
+
+    @Test
+    void exportItems_shouldOnlyEmitCounters() {
+        Mockito.when(redisService.scanEntries("*"))
+                .thenReturn(Flux.just(Map.entry("1", 10L), Map.entry("user1", new Object())));
+        StepVerifier.create(itemController.exportItems("*"))
+                .assertNext(data -> {
+                    Assertions.assertEquals("1", data.getId());
+                    Assertions.assertEquals(10L, data.getAmount());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void importItems_shouldStreamProgress() {
+        Flux<String> lines = Flux.just("{\"id\":\"1\",\"amount\":10}");
+        Mockito.when(itemImportService.importItems(lines))
+                .thenReturn(Flux.just(new ImportProgress().setBatch(1).setWritten(1).setTotalWritten(1)));
+        StepVerifier.create(itemController.importItems(lines))
+                .assertNext(progress -> Assertions.assertEquals(1, progress.getTotalWritten()))
+                .verifyComplete();
+    }
+
+    @Test
+    void decrementItem_whenApplied_shouldReturnNewAmount() {
+        Mockito.when(redisService.decrementWithFloor("1", 3L, 0L))
+                .thenReturn(Mono.just(new StockResult().setApplied(true).setAmount(7L)));
+        StepVerifier.create(itemController.decrementItem("1", 3L, 0L))
+                .assertNext(response -> {
+                    Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+                    Assertions.assertEquals(7L, response.getBody().getAmount());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void decrementItem_whenBelowFloor_shouldConflictWithCurrentAmount() {
+        Mockito.when(redisService.decrementWithFloor("1", 30L, 0L))
+                .thenReturn(Mono.just(new StockResult().setApplied(false).setAmount(10L)));
+        StepVerifier.create(itemController.decrementItem("1", 30L, 0L))
+                .assertNext(response -> {
+                    Assertions.assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+                    Assertions.assertEquals(10L, response.getBody().getAmount());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void incrementItem_withNonPositiveAmount_shouldBeBadRequest() {
+        StepVerifier.create(itemController.incrementItem("1", 0L, 100L))
+                .expectErrorSatisfies(e -> Assertions.assertEquals(HttpStatus.BAD_REQUEST,
+                        ((ResponseStatusException) e).getStatus()))
+                .verify();
+        Mockito.verifyNoInteractions(redisService);
+    }
+
+    @Test
+    void releaseItem_whenUnknownReservation_shouldBeNotFound() {
+        Mockito.when(redisService.release("1", "r1"))
+                .thenReturn(Mono.just(new StockResult().setApplied(false).setAmount(10L)));
+        StepVerifier.create(itemController.releaseItem("1", "r1"))
+                .assertNext(response -> Assertions.assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode()))
+                .verifyComplete();
+    }
+
+    @Test
+    void exportItems_shouldSkipReservations() {
+        Mockito.when(redisService.scanEntries("*"))
+                .thenReturn(Flux.just(Map.entry("1", 10L), Map.entry("reservation:1:r1", 2L)));
+        StepVerifier.create(itemController.exportItems("*"))
+                .assertNext(data -> Assertions.assertEquals("1", data.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void topItems_shouldReturnRanking() {
+        ItemRank first = new ItemRank().setId("1").setRank(1L).setAmount(30L);
+        Mockito.when(itemRanking.getIfAvailable()).thenReturn(ranking);
+        Mockito.when(ranking.maxResults()).thenReturn(1000);
+        Mockito.when(ranking.top(5)).thenReturn(Flux.just(first));
+        StepVerifier.create(itemController.topItems(5))
+                .expectNext(first)
+                .verifyComplete();
+    }
+
+    @Test
+    void topItems_whenTooMany_shouldBeBadRequest() {
+        Mockito.when(itemRanking.getIfAvailable()).thenReturn(ranking);
+        Mockito.when(ranking.maxResults()).thenReturn(1000);
+        StepVerifier.create(itemController.topItems(1001))
+                .expectErrorMatches(e -> e instanceof ResponseStatusException
+                        && ((ResponseStatusException) e).getStatus() == HttpStatus.BAD_REQUEST)
+                .verify();
+    }
+
+    @Test
+    void itemRank_whenRankingDisabled_shouldBeNotFound() {
+        Mockito.when(itemRanking.getIfAvailable()).thenReturn(null);
+        StepVerifier.create(itemController.itemRank("1"))
+                .expectErrorMatches(e -> e instanceof ResponseStatusException
+                        && ((ResponseStatusException) e).getStatus() == HttpStatus.NOT_FOUND)
+                .verify();
+    }
+
+    @Test
+    void readItem_whenRawReads_shouldReturnStoredBody() {
+        ByteBuffer stored = ByteBuffer.wrap("10".getBytes(StandardCharsets.US_ASCII));
+        DataBuffer body = DefaultDataBufferFactory.sharedInstance.wrap(stored);
+        Mockito.when(rawValues.isEnabled()).thenReturn(true);
+        Mockito.when(redisService.getRaw("1")).thenReturn(Mono.just(stored));
+        Mockito.when(rawValues.toBody(stored)).thenReturn(body);
+        WebTestClient.bindToController(itemController).build()
+                .get().uri("/items/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody(String.class).isEqualTo("10");
+        Mockito.verify(redisService, Mockito.never()).get(anyString());
+    }
+
+    @Test
+    void watchItem_whenWatchDisabled_shouldBeNotFound() {
+        StepVerifier.create(itemController.watchItem("1"))
+                .expectErrorMatches(e -> e instanceof ResponseStatusException
+                        && ((ResponseStatusException) e).getStatus() == HttpStatus.NOT_FOUND)
+                .verify();
+    }
+
+    @Test
+    void watchItems_whenTooManyIds_shouldBeBadRequest() {
+        Mockito.when(itemWatcher.isEnabled()).thenReturn(true);
+        Mockito.when(itemWatcher.getMaxIds()).thenReturn(1);
+        StepVerifier.create(itemController.watchItems(List.of("1", "2")))
+                .expectErrorMatches(e -> e instanceof ResponseStatusException
+                        && ((ResponseStatusException) e).getStatus() == HttpStatus.BAD_REQUEST)
+                .verify();
+    }
 }
@@ -0,0 +1,106 @@
+package dev.tpcoder.springredisreactive.controller;
+
+import dev.tpcoder.springredisreactive.service.RawValues;
+import dev.tpcoder.springredisreactive.service.RedisService;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+class ItemHandlerTest {
+
+    @Mock
+    private RedisService redisService;
+
+    @Mock
+    private RawValues rawValues;
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void initTest() {
+        ItemHandler itemHandler = new ItemHandler(redisService, rawValues, ServerCodecConfigurer.create().getReaders());
+        client = WebTestClient.bindToRouterFunction(itemHandler.routes()).build();
+    }
+
+    @Test
+    void readItem_shouldReturnAmount() {
+        Mockito.when(redisService.get("item1")).thenReturn(Mono.just(5L));
+        client.get().uri("/items/item1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody(Long.class).isEqualTo(5L);
+    }
+
+    @Test
+    void readItem_whenRawReadsEnabled_shouldWriteStoredJson() {
+        ByteBuffer stored = ByteBuffer.wrap("5".getBytes(StandardCharsets.UTF_8));
+        DataBuffer body = DefaultDataBufferFactory.sharedInstance.wrap(stored.duplicate());
+        Mockito.when(rawValues.isEnabled()).thenReturn(true);
+        Mockito.when(redisService.getRaw("item1")).thenReturn(Mono.just(stored));
+        Mockito.when(rawValues.toBody(stored)).thenReturn(body);
+        client.get().uri("/items/item1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody(String.class).isEqualTo("5");
+        Mockito.verify(redisService, Mockito.never()).get(Mockito.anyString());
+    }
+
+    @Test
+    void readItem_whenNotAcceptingJson_shouldNotMatch() {
+        client.get().uri("/items/item1")
+                .accept(MediaType.TEXT_PLAIN)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void saveItemAmount_whenAmountMissing_shouldStoreZero() {
+        Mockito.when(redisService.put("item1", 0L)).thenReturn(Mono.just(Boolean.TRUE));
+        client.post().uri("/items/item1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"item\"}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Boolean.class).isEqualTo(Boolean.TRUE);
+    }
+
+    @Test
+    void saveItemAmount_shouldStoreAmount() {
+        Mockito.when(redisService.put("item1", 7L)).thenReturn(Mono.just(Boolean.TRUE));
+        client.post().uri("/items/item1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"amount\":7}")
+                .exchange()
+                .expectStatus().isCreated();
+        Mockito.verify(redisService).put("item1", 7L);
+    }
+
+    @Test
+    void deleteItem_shouldReturnOk() {
+        Mockito.when(redisService.delete("item1")).thenReturn(Mono.empty());
+        client.delete().uri("/items/item1")
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void routes_shouldLeaveActionsToTheController() {
+        client.get().uri("/items/_top").exchange().expectStatus().isNotFound();
+        client.post().uri("/items/item1/_increment?amount=1").exchange().expectStatus().isNotFound();
+        Mockito.verifyNoInteractions(redisService);
+    }
+}
@@ -1,10 +1,17 @@
 package dev.tpcoder.springredisreactive.controller;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 
 import dev.tpcoder.springredisreactive.model.User;
-import dev.tpcoder.springredisreactive.service.RedisService;
+import dev.tpcoder.springredisreactive.service.UserStorageMismatchException;
+import dev.tpcoder.springredisreactive.service.UserStore;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,6 +20,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
@@ -23,7 +36,7 @@ class UserControllerTest {
     private UserController userController;
 
     @Mock
-    private RedisService redisService;
+    private UserStore userStore;
 
     private User user;
 
@@ -36,20 +49,54 @@ class UserControllerTest {
     }
     @Test
     void readUser_success() {
-        Mockito.when(redisService.get(anyString()))
+        Mockito.when(userStore.findBody(anyString()))
                 .thenReturn(Mono.just(user));
-        StepVerifier.create(userController.readUser("1"))
-                .assertNext(data -> {
-                    Assertions.assertEquals(user.getId(), ((User) data).getId());
-                    Assertions.assertEquals(user.getFirstName(), ((User) data).getFirstName());
-                    Assertions.assertEquals(user.getLastName(), ((User) data).getLastName());
+        StepVerifier.create(userController.readUser("1", null))
+                .assertNext(response -> {
+                    User data = (User) response.getBody();
+                    Assertions.assertEquals(user.getId(), data.getId());
+                    Assertions.assertEquals(user.getFirstName(), data.getFirstName());
+                    Assertions.assertEquals(user.getLastName(), data.getLastName());
                 })
                 .verifyComplete();
     }
 
+    @Test
+    void readUser_whenRawReads_shouldWriteStoredJson() {
+        byte[] stored = "{\"id\":\"1\",\"firstName\":\"firstName\"}".getBytes(StandardCharsets.UTF_8);
+        Mockito.when(userStore.findBody("1"))
+                .thenReturn(Mono.just(DefaultDataBufferFactory.sharedInstance.wrap(stored)));
+        WebTestClient.bindToController(userController).build()
+                .get().uri("/users/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json("{\"id\":\"1\",\"firstName\":\"firstName\"}");
+    }
+
+    @Test
+    void readUser_whenMissing_shouldReturnEmptyOk() {
+        Mockito.when(userStore.findBody("1")).thenReturn(Mono.empty());
+        WebTestClient.bindToController(userController).build()
+                .get().uri("/users/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void readUser_whenStoredInOtherMode_shouldBeConflict() {
+        Mockito.when(userStore.findBody("1"))
+                .thenReturn(Mono.error(new UserStorageMismatchException("User 1 is not stored as a hash", null)));
+        WebTestClient.bindToController(userController).build()
+                .get().uri("/users/1")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+    }
+
     @Test
     void saveUser_success() {
-        Mockito.when(redisService.put(anyString(), any(User.class)))
+        Mockito.when(userStore.save(anyString(), any(User.class)))
                 .thenReturn(Mono.just(Boolean.TRUE));
         StepVerifier.create(userController.saveUser("1", user))
                 .expectNext(Boolean.TRUE)
@@ -58,9 +105,79 @@ class UserControllerTest {
 
     @Test
     void deleteUser_success() {
-        Mockito.when(redisService.delete(anyString()))
+        Mockito.when(userStore.delete(anyString()))
                 .thenReturn(Mono.empty());
         StepVerifier.create(userController.deleteUser("1"))
                 .verifyComplete();
     }
+
+    @Test
+    void readUsers_whenSomeMissing_shouldReturnExplicitNull() {
+        Mockito.when(userStore.findAll(List.of("1", "2")))
+                .thenReturn(Mono.just(Arrays.asList(user, null)));
+        StepVerifier.create(userController.readUsers(List.of("1", "2")))
+                .assertNext(data -> {
+                    Assertions.assertEquals(List.of("1", "2"), List.copyOf(data.keySet()));
+                    Assertions.assertEquals(user, data.get("1"));
+                    Assertions.assertTrue(data.containsKey("2"));
+                    Assertions.assertNull(data.get("2"));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void saveUsers_success() {
+        Mockito.when(userStore.saveAll(anyMap()))
+                .thenReturn(Mono.just(Boolean.TRUE));
+        StepVerifier.create(userController.saveUsers(Map.of("1", user)))
+                .expectNext(Boolean.TRUE)
+                .verifyComplete();
+    }
+
+    @Test
+    void exportUsers_shouldStreamStoredUsers() {
+        Mockito.when(userStore.scan("*"))
+                .thenReturn(Flux.just(user));
+        StepVerifier.create(userController.exportUsers("*"))
+                .expectNext(user)
+                .verifyComplete();
+    }
+
+    @Test
+    void readUser_withFields_shouldReturnProjection() {
+        Mockito.when(userStore.find("1", Set.of("lastName")))
+                .thenReturn(Mono.just(Map.of("lastName", "lastName")));
+        StepVerifier.create(userController.readUser("1", Set.of("lastName")))
+                .assertNext(response -> Assertions.assertEquals(Map.of("lastName", "lastName"), response.getBody()))
+                .verifyComplete();
+    }
+
+    @Test
+    void readUser_withUnknownField_shouldBeBadRequest() {
+        Mockito.when(userStore.find("1", Set.of("age")))
+                .thenReturn(Mono.error(new IllegalArgumentException("Unknown user field: age")));
+        StepVerifier.create(userController.readUser("1", Set.of("age")))
+                .expectErrorSatisfies(e -> Assertions.assertEquals(HttpStatus.BAD_REQUEST,
+                        ((ResponseStatusException) e).getStatus()))
+                .verify();
+    }
+
+    @Test
+    void patchUser_success() {
+        Mockito.when(userStore.patch("1", Map.of("lastName", "changed")))
+                .thenReturn(Mono.just(user.setLastName("changed")));
+        StepVerifier.create(userController.patchUser("1", Map.of("lastName", "changed")))
+                .assertNext(data -> Assertions.assertEquals("changed", data.getLastName()))
+                .verifyComplete();
+    }
+
+    @Test
+    void patchUser_whenMissing_shouldBeNotFound() {
+        Mockito.when(userStore.patch("1", Map.of("lastName", "changed")))
+                .thenReturn(Mono.empty());
+        StepVerifier.create(userController.patchUser("1", Map.of("lastName", "changed")))
+                .expectErrorSatisfies(e -> Assertions.assertEquals(HttpStatus.NOT_FOUND,
+                        ((ResponseStatusException) e).getStatus()))
+                .verify();
+    }
 }
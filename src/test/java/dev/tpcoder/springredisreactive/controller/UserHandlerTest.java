@@ -0,0 +1,110 @@
+package dev.tpcoder.springredisreactive.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+import dev.tpcoder.springredisreactive.model.User;
+import dev.tpcoder.springredisreactive.service.UserStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+class UserHandlerTest {
+
+    @Mock
+    private UserStore userStore;
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void initTest() {
+        UserHandler userHandler = new UserHandler(userStore, ServerCodecConfigurer.create().getReaders());
+        client = WebTestClient.bindToRouterFunction(userHandler.routes()).build();
+    }
+
+    @Test
+    void readUser_shouldReturnJson() {
+        Mockito.when(userStore.findBody("1"))
+                .thenReturn(Mono.just(new User().setId("1").setFirstName("firstName").setLastName("lastName")));
+        client.get().uri("/users/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json("{\"id\":\"1\",\"firstName\":\"firstName\",\"lastName\":\"lastName\"}");
+    }
+
+    @Test
+    void readUser_whenMissing_shouldReturnEmptyOk() {
+        Mockito.when(userStore.findBody("1")).thenReturn(Mono.empty());
+        client.get().uri("/users/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void routes_shouldLeaveFieldsAndActionsToTheController() {
+        client.get().uri("/users/1?fields=firstName").exchange().expectStatus().isNotFound();
+        client.get().uri("/users/_export").exchange().expectStatus().isNotFound();
+        client.post().uri("/users/_bulk").contentType(MediaType.APPLICATION_JSON).bodyValue("{}")
+                .exchange().expectStatus().isNotFound();
+        Mockito.verifyNoInteractions(userStore);
+    }
+
+    @Test
+    void saveUser_shouldDecodeBodyAndReturnCreated() {
+        Mockito.when(userStore.save(anyString(), any(User.class))).thenReturn(Mono.just(Boolean.TRUE));
+        client.post().uri("/users/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"id\":\"1\",\"firstName\":\"firstName\",\"lastName\":\"lastName\"}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Boolean.class).isEqualTo(Boolean.TRUE);
+        Mockito.verify(userStore).save("1", new User().setId("1").setFirstName("firstName").setLastName("lastName"));
+    }
+
+    @Test
+    void saveUser_whenBodyIsMalformed_shouldReturnBadRequest() {
+        client.post().uri("/users/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"id\":")
+                .exchange()
+                .expectStatus().isBadRequest();
+        Mockito.verifyNoInteractions(userStore);
+    }
+
+    @Test
+    void saveUser_whenBodyIsMissing_shouldReturnBadRequest() {
+        client.post().uri("/users/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void saveUser_whenNotJson_shouldReturnUnsupportedMediaType() {
+        client.post().uri("/users/1")
+                .contentType(MediaType.APPLICATION_XML)
+                .bodyValue("<user/>")
+                .exchange()
+                .expectStatus().isEqualTo(415);
+    }
+
+    @Test
+    void deleteUser_shouldReturnOk() {
+        Mockito.when(userStore.delete("1")).thenReturn(Mono.empty());
+        client.delete().uri("/users/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().isEmpty();
+        Mockito.verify(userStore).delete("1");
+    }
+}
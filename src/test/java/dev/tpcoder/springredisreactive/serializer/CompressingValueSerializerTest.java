@@ -0,0 +1,91 @@
+package dev.tpcoder.springredisreactive.serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.tpcoder.springredisreactive.model.Item;
+import dev.tpcoder.springredisreactive.model.User;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+class CompressingValueSerializerTest {
+
+    private VersionedValueSerializer plain;
+    private CompressionStats stats;
+    private CompressingValueSerializer serializer;
+
+    @BeforeEach
+    void initTest() {
+        plain = new VersionedValueSerializer(new TypeRegistry().register(1, User.class).register(2, Item.class),
+                JacksonValueCodec.smile(), List.of(), new ObjectMapper());
+        stats = new CompressionStats();
+        serializer = new CompressingValueSerializer(plain, new DeflateCompressionCodec(Deflater.BEST_SPEED),
+                true, 256, Map.of(Item.class, 32), stats);
+    }
+
+    @Test
+    void serialize_whenAboveThreshold_shouldCompressAndReadBack() {
+        User user = new User();
+        user.setId("user1").setFirstName("a".repeat(2000)).setLastName("b".repeat(2000));
+        byte[] bytes = serializer.serialize(user);
+        Assertions.assertEquals(CompressingValueSerializer.MARKER, bytes[0]);
+        Assertions.assertTrue(bytes.length < plain.serialize(user).length);
+        Assertions.assertEquals(user, serializer.deserialize(bytes));
+        Assertions.assertEquals(1, stats.getCompressedCount());
+        Assertions.assertEquals(1, stats.getDecompressedCount());
+        Assertions.assertTrue(stats.getRatio() < 0.1);
+    }
+
+    @Test
+    void serialize_whenBelowThreshold_shouldStorePlain() {
+        User user = new User();
+        user.setId("user1").setFirstName("firstName").setLastName("lastName");
+        byte[] bytes = serializer.serialize(user);
+        Assertions.assertArrayEquals(plain.serialize(user), bytes);
+        Assertions.assertEquals(user, serializer.deserialize(bytes));
+        Assertions.assertEquals(0, stats.getCompressedCount());
+    }
+
+    @Test
+    void serialize_whenTypeHasOwnThreshold_shouldUseIt() {
+        Item item = new Item();
+        item.setId("item1").setName("n".repeat(100)).setAmount(1L);
+        Assertions.assertEquals(CompressingValueSerializer.MARKER, serializer.serialize(item)[0]);
+    }
+
+    @Test
+    void serialize_whenIncompressible_shouldStorePlain() {
+        Item item = new Item();
+        item.setId("item1").setName("x1y2z3").setAmount(1L);
+        Assertions.assertArrayEquals(plain.serialize(item), serializer.serialize(item));
+        Assertions.assertEquals(1, stats.getSkippedCount());
+    }
+
+    @Test
+    void deserialize_whenCompressionSwitchedOff_shouldStillReadCompressedValues() {
+        User user = new User();
+        user.setId("user1").setFirstName("a".repeat(2000));
+        byte[] compressed = serializer.serialize(user);
+        CompressingValueSerializer off = new CompressingValueSerializer(plain,
+                new DeflateCompressionCodec(Deflater.BEST_SPEED), false, 256, Map.of(), stats);
+        Assertions.assertEquals(user, off.deserialize(compressed));
+        Assertions.assertArrayEquals(plain.serialize(user), off.serialize(user));
+    }
+
+    @Test
+    void deserialize_whenHeaderLengthIsTooLarge_shouldFailBeforeAllocating() {
+        byte[] bytes = {CompressingValueSerializer.MARKER, DeflateCompressionCodec.ID, 0x7F, -1, -1, -1, 1, 2, 3};
+        SerializationException e = Assertions.assertThrows(SerializationException.class,
+                () -> serializer.deserialize(bytes));
+        Assertions.assertTrue(e.getMessage().contains("invalid length"));
+    }
+
+    @Test
+    void deserialize_whenCorrupt_shouldFail() {
+        byte[] bytes = {CompressingValueSerializer.MARKER, DeflateCompressionCodec.ID, 0, 0, 0, 10, 1, 2, 3};
+        Assertions.assertThrows(SerializationException.class, () -> serializer.deserialize(bytes));
+    }
+}
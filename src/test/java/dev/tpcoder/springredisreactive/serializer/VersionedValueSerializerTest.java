@@ -0,0 +1,84 @@
+package dev.tpcoder.springredisreactive.serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.tpcoder.springredisreactive.model.Item;
+import dev.tpcoder.springredisreactive.model.User;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+class VersionedValueSerializerTest {
+
+    private TypeRegistry typeRegistry;
+    private VersionedValueSerializer serializer;
+    private User user;
+
+    @BeforeEach
+    void initTest() {
+        typeRegistry = new TypeRegistry()
+                .register(1, User.class)
+                .register(2, Item.class);
+        serializer = new VersionedValueSerializer(typeRegistry, JacksonValueCodec.smile(),
+                List.of(JacksonValueCodec.json()), new ObjectMapper());
+        user = new User();
+        user.setId("user1").setFirstName("firstName").setLastName("lastName");
+    }
+
+    @Test
+    void serialize_whenRegisteredType_shouldReadBackSameType() {
+        byte[] bytes = serializer.serialize(user);
+        Assertions.assertEquals(VersionedValueSerializer.MAGIC, bytes[0]);
+        Assertions.assertEquals(JacksonValueCodec.SMILE, bytes[1]);
+        Assertions.assertEquals(1, bytes[2]);
+        Assertions.assertEquals(user, serializer.deserialize(bytes));
+    }
+
+    @Test
+    void serialize_whenSmile_shouldBeSmallerThanJson() {
+        byte[] json = new Jackson2JsonRedisSerializer<>(Object.class).serialize(user);
+        Assertions.assertTrue(serializer.serialize(user).length < json.length);
+    }
+
+    @Test
+    void serialize_whenIntegral_shouldWriteDecimalTextForIncrBy() {
+        Assertions.assertEquals("42", new String(serializer.serialize(42L), StandardCharsets.US_ASCII));
+        Assertions.assertEquals("-7", new String(serializer.serialize(-7), StandardCharsets.US_ASCII));
+        Assertions.assertEquals(42L, serializer.deserialize("42".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    void deserialize_whenLegacyJson_shouldStillBeReadable() {
+        byte[] legacy = new Jackson2JsonRedisSerializer<>(Object.class).serialize(user);
+        Object value = serializer.deserialize(legacy);
+        Assertions.assertTrue(value instanceof Map);
+        Assertions.assertEquals("firstName", ((Map<?, ?>) value).get("firstName"));
+    }
+
+    @Test
+    void deserialize_whenWrittenWithOtherKnownCodec_shouldBeReadable() {
+        VersionedValueSerializer jsonWriter = new VersionedValueSerializer(typeRegistry, JacksonValueCodec.json(),
+                List.of(), new ObjectMapper());
+        Assertions.assertEquals(user, serializer.deserialize(jsonWriter.serialize(user)));
+    }
+
+    @Test
+    void deserialize_whenUnknownCodec_shouldFail() {
+        byte[] bytes = {VersionedValueSerializer.MAGIC, 99, 1, 0};
+        Assertions.assertThrows(SerializationException.class, () -> serializer.deserialize(bytes));
+    }
+
+    @Test
+    void serialize_whenNull_shouldRoundTripToNull() {
+        Assertions.assertNull(serializer.deserialize(serializer.serialize(null)));
+    }
+
+    @Test
+    void register_whenIdReused_shouldFail() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> typeRegistry.register(1, String.class));
+    }
+}
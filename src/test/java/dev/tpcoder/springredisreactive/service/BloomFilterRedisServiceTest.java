@@ -0,0 +1,140 @@
+package dev.tpcoder.springredisreactive.service;
+
+import dev.tpcoder.springredisreactive.config.BloomFilterProperties;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class BloomFilterRedisServiceTest {
+
+    @Mock
+    private RedisService redisService;
+
+    private BloomFilters filters;
+
+    private BloomFilterRedisService service;
+
+    @BeforeEach
+    void initTest() {
+        BloomFilterProperties properties = new BloomFilterProperties();
+        properties.setNamespaces(Set.of("none", "item"));
+        properties.setExpectedKeys(1000);
+        filters = new BloomFilters(redisService, null, properties, Duration.ZERO);
+        service = new BloomFilterRedisService(redisService, filters, 100);
+    }
+
+    @Test
+    void get_beforeFirstBuild_shouldAskRedis() {
+        Mockito.when(redisService.get("user1"))
+                .thenReturn(Mono.just("value"));
+        StepVerifier.create(service.get("user1"))
+                .expectNext("value")
+                .verifyComplete();
+    }
+
+    @Test
+    void get_forKeyNotFoundByScan_shouldNotAskRedis() {
+        build("user1");
+        Mockito.when(redisService.get("user1"))
+                .thenReturn(Mono.just("value"));
+        StepVerifier.create(service.get("user1"))
+                .expectNext("value")
+                .verifyComplete();
+        StepVerifier.create(service.get("user2"))
+                .verifyComplete();
+        StepVerifier.create(service.hasKey("user2"))
+                .expectNext(false)
+                .verifyComplete();
+        Mockito.verify(redisService, Mockito.never()).get("user2");
+        Mockito.verify(redisService, Mockito.never()).hasKey("user2");
+        BloomFilters.Namespace none = namespace("none");
+        Assertions.assertEquals(2, none.getSkipped());
+        Assertions.assertEquals(1, none.getPassed());
+    }
+
+    @Test
+    void get_forKeyOfNamespaceWithoutFilter_shouldAskRedis() {
+        build();
+        Mockito.when(redisService.get("session:1"))
+                .thenReturn(Mono.empty());
+        StepVerifier.create(service.get("session:1"))
+                .verifyComplete();
+        Mockito.verify(redisService).get("session:1");
+    }
+
+    @Test
+    void put_shouldMakeKeyVisibleRightAway() {
+        build();
+        Mockito.when(redisService.put("user3", "value"))
+                .thenReturn(Mono.just(true));
+        Mockito.when(redisService.get("user3"))
+                .thenReturn(Mono.just("value"));
+        StepVerifier.create(service.put("user3", "value").then(service.get("user3")))
+                .expectNext("value")
+                .verifyComplete();
+    }
+
+    @Test
+    void put_whileRebuilding_shouldBeKeptInNewFilter() {
+        Mockito.when(redisService.put("user9", "value"))
+                .thenReturn(Mono.just(true));
+        Mockito.when(redisService.scan(ArgumentMatchers.anyString(), ArgumentMatchers.anyLong()))
+                .thenReturn(Flux.just("user1").doOnSubscribe(s -> service.put("user9", "value").subscribe()));
+        StepVerifier.create(filters.rebuild())
+                .verifyComplete();
+        Assertions.assertTrue(filters.mightContain("user9"));
+        Assertions.assertTrue(filters.mightContain("user1"));
+    }
+
+    @Test
+    void rebuild_shouldDropDeletedKeys() {
+        build("user1", "item:1");
+        Assertions.assertTrue(filters.mightContain("item:1"));
+        build("user1");
+        Assertions.assertFalse(filters.mightContain("item:1"));
+        Assertions.assertEquals(1, namespace("none").getScannedKeys());
+    }
+
+    @Test
+    void multiGet_shouldOnlyFetchKeysThatMayExist() {
+        build("user1", "item:1");
+        Mockito.when(redisService.multiGet(List.of("user1", "item:1")))
+                .thenReturn(Mono.just(Arrays.asList("value", 5L)));
+        StepVerifier.create(service.multiGet(List.of("user1", "user2", "item:1", "item:2")))
+                .expectNext(Arrays.asList("value", null, 5L, null))
+                .verifyComplete();
+    }
+
+    @Test
+    void getMemoryBytes_shouldReportFilterSize() {
+        build();
+        Assertions.assertEquals(BloomFilter.forKeys(1000, 0.01).memoryBytes(), namespace("item").getMemoryBytes());
+    }
+
+    private void build(String... keys) {
+        Mockito.when(redisService.scan(ArgumentMatchers.anyString(), ArgumentMatchers.anyLong()))
+                .thenReturn(Flux.just(keys));
+        StepVerifier.create(filters.rebuild())
+                .verifyComplete();
+    }
+
+    private BloomFilters.Namespace namespace(String name) {
+        return filters.getNamespaces().stream()
+                .filter(namespace -> namespace.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+}
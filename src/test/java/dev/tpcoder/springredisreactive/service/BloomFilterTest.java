@@ -0,0 +1,59 @@
+package dev.tpcoder.springredisreactive.service;
+
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    @Test
+    void forKeys_shouldSizeForFalsePositiveRate() {
+        BloomFilter filter = BloomFilter.forKeys(1_000_000, 0.01);
+        // About 9.6 bits and 7 hashes per key at 1%
+        Assertions.assertEquals(9_585_088, filter.bitSize());
+        Assertions.assertEquals(7, filter.hashCount());
+        Assertions.assertEquals(1_198_136, filter.memoryBytes());
+    }
+
+    @Test
+    void mightContain_shouldNeverMissAddedKeysAndStayNearFalsePositiveRate() {
+        BloomFilter filter = BloomFilter.forKeys(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            Assertions.assertTrue(filter.mightContain("user" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("missing" + i)) {
+                falsePositives++;
+            }
+        }
+        Assertions.assertTrue(falsePositives < 1500, "false positives: " + falsePositives);
+        long keys = filter.approximateKeys();
+        Assertions.assertTrue(keys > 9_500 && keys < 10_500, "approximate keys: " + keys);
+    }
+
+    @Test
+    void offsets_shouldFollowRedisBitOrder() {
+        BloomFilter filter = new BloomFilter(128, 3);
+        long[] offsets = filter.offsets("item1");
+        // What GET returns after SETBIT item1-offsets 1
+        byte[] bitmap = new byte[16];
+        for (long offset : offsets) {
+            bitmap[(int) (offset >>> 3)] |= (byte) (0x80 >>> (offset & 7));
+        }
+        BloomFilter merged = new BloomFilter(128, 3);
+        merged.merge(ByteBuffer.wrap(bitmap));
+        Assertions.assertTrue(merged.mightContain("item1"));
+    }
+
+    @Test
+    void merge_shouldAcceptBitmapShorterThanFilter() {
+        BloomFilter filter = new BloomFilter(256, 2);
+        // Redis returns a bitmap only up to its highest set bit, here bits 0 and 23
+        filter.merge(ByteBuffer.wrap(new byte[]{(byte) 0x80, 0, 0x01}));
+        Assertions.assertEquals(1, filter.approximateKeys());
+    }
+}
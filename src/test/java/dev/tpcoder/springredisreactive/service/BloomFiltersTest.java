@@ -0,0 +1,113 @@
+package dev.tpcoder.springredisreactive.service;
+
+import dev.tpcoder.springredisreactive.config.BloomFilterProperties;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Publisher;
+import org.springframework.data.redis.connection.ReactiveKeyCommands;
+import org.springframework.data.redis.connection.ReactiveRedisConnection;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.ReactiveStringCommands;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class BloomFiltersTest {
+
+    @Mock
+    private RedisService redisService;
+
+    @Mock
+    private ReactiveRedisConnectionFactory connectionFactory;
+
+    @Mock
+    private ReactiveRedisConnection connection;
+
+    @Mock
+    private ReactiveStringCommands stringCommands;
+
+    @Mock
+    private ReactiveKeyCommands keyCommands;
+
+    private final BloomFilterProperties properties = new BloomFilterProperties();
+
+    // The shared bitmap as Redis would hold it after the SETBITs
+    private final byte[] bitmap = new byte[1024];
+
+    @BeforeEach
+    void initTest() {
+        properties.setExpectedKeys(100);
+        properties.getShared().setEnabled(true);
+        Mockito.when(redisService.scan(ArgumentMatchers.anyString(), ArgumentMatchers.anyLong()))
+                .thenReturn(Flux.empty());
+        Mockito.when(connectionFactory.getReactiveConnection()).thenReturn(connection);
+        Mockito.when(connection.stringCommands()).thenReturn(stringCommands);
+        Mockito.when(connection.closeLater()).thenReturn(Mono.empty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sync_shouldShareAddedKeysWithOtherInstances() {
+        Mockito.when(connection.keyCommands()).thenReturn(keyCommands);
+        List<ByteBuffer> keys = new ArrayList<>();
+        Mockito.when(stringCommands.setBit(ArgumentMatchers.<Publisher<ReactiveStringCommands.SetBitCommand>>any()))
+                .thenAnswer(invocation -> Flux.from((Publisher<ReactiveStringCommands.SetBitCommand>) invocation.getArgument(0))
+                        .doOnNext(command -> {
+                            keys.add(command.getKey());
+                            long offset = command.getOffset();
+                            bitmap[(int) (offset >>> 3)] |= (byte) (0x80 >>> (offset & 7));
+                        })
+                        .thenMany(Flux.empty()));
+        Mockito.when(keyCommands.pExpire(ArgumentMatchers.any(ByteBuffer.class), ArgumentMatchers.eq(Duration.ofMinutes(30))))
+                .thenReturn(Mono.just(true));
+        Mockito.when(stringCommands.get(ArgumentMatchers.any(ByteBuffer.class)))
+                .thenAnswer(invocation -> Mono.just(ByteBuffer.wrap(bitmap)));
+
+        BloomFilters writer = built();
+        BloomFilters reader = built();
+        writer.add("user1");
+        Assertions.assertFalse(reader.mightContain("user1"));
+
+        StepVerifier.create(writer.sync()).verifyComplete();
+        StepVerifier.create(reader.sync()).verifyComplete();
+        Assertions.assertTrue(reader.mightContain("user1"));
+        Assertions.assertFalse(keys.isEmpty());
+        Assertions.assertTrue(writer.isBitmapKey(new String(keys.get(0).array())));
+    }
+
+    @Test
+    void sync_whenPushFails_shouldSendKeysAgainNextTime() {
+        Mockito.when(stringCommands.setBit(ArgumentMatchers.<Publisher<ReactiveStringCommands.SetBitCommand>>any()))
+                .thenReturn(Flux.error(new IllegalStateException("down")))
+                .thenReturn(Flux.empty());
+        Mockito.when(connection.keyCommands()).thenReturn(keyCommands);
+        Mockito.when(keyCommands.pExpire(ArgumentMatchers.any(ByteBuffer.class), ArgumentMatchers.any(Duration.class)))
+                .thenReturn(Mono.just(true));
+        Mockito.when(stringCommands.get(ArgumentMatchers.any(ByteBuffer.class)))
+                .thenReturn(Mono.empty());
+
+        BloomFilters filters = built();
+        filters.add("user1");
+        StepVerifier.create(filters.sync()).verifyComplete();
+        StepVerifier.create(filters.sync()).verifyComplete();
+        Mockito.verify(stringCommands, Mockito.times(2))
+                .setBit(ArgumentMatchers.<Publisher<ReactiveStringCommands.SetBitCommand>>any());
+    }
+
+    private BloomFilters built() {
+        BloomFilters filters = new BloomFilters(redisService, connectionFactory, properties, Duration.ZERO);
+        StepVerifier.create(filters.rebuild()).verifyComplete();
+        return filters;
+    }
+}
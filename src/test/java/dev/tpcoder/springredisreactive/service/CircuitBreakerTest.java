@@ -0,0 +1,92 @@
+package dev.tpcoder.springredisreactive.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void initTest() {
+        breaker = new CircuitBreaker(50, 10, 4, Duration.ofSeconds(1), 2, clock::get);
+    }
+
+    @Test
+    void onFailure_beforeMinimumCalls_shouldStayClosed() {
+        fail(3);
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        Assertions.assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void onFailure_atFailureRate_shouldOpenAndReject() {
+        succeed(2);
+        fail(2);
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        Assertions.assertFalse(breaker.tryAcquire());
+        Assertions.assertEquals(1, breaker.getOpenedCount());
+    }
+
+    @Test
+    void onSuccess_shouldPushOldFailuresOutOfTheWindow() {
+        fail(1);
+        succeed(10);
+        fail(3);
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void tryAcquire_afterOpenDuration_shouldLetTrialsThroughAndClose() {
+        fail(4);
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        Assertions.assertTrue(breaker.tryAcquire());
+        Assertions.assertTrue(breaker.tryAcquire());
+        Assertions.assertFalse(breaker.tryAcquire());
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onSuccess();
+        breaker.onSuccess();
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        Assertions.assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void onFailure_whenHalfOpen_shouldOpenAgain() {
+        fail(4);
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        Assertions.assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        Assertions.assertFalse(breaker.tryAcquire());
+        Assertions.assertEquals(2, breaker.getOpenedCount());
+    }
+
+    @Test
+    void onIgnored_whenHalfOpen_shouldGiveTheTrialBack() {
+        fail(4);
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        Assertions.assertTrue(breaker.tryAcquire());
+        Assertions.assertTrue(breaker.tryAcquire());
+        breaker.onIgnored();
+        Assertions.assertTrue(breaker.tryAcquire());
+    }
+
+    private void succeed(int calls) {
+        for (int i = 0; i < calls; i++) {
+            Assertions.assertTrue(breaker.tryAcquire());
+            breaker.onSuccess();
+        }
+    }
+
+    private void fail(int calls) {
+        for (int i = 0; i < calls; i++) {
+            Assertions.assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package dev.tpcoder.springredisreactive.service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 20_000;
+
+    @Test
+    void nodeFor_shouldSpreadKeysEvenly() {
+        ConsistentHashRing<String> ring = ring(4);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.nodeFor("user" + i), 1, Integer::sum);
+        }
+        Assertions.assertEquals(4, counts.size());
+        // 160 virtual nodes keep every node within about 20% of its fair share
+        counts.values().forEach(count -> Assertions.assertTrue(Math.abs(count - KEYS / 4) < KEYS / 4 * 0.2,
+                "Uneven spread " + counts));
+    }
+
+    @Test
+    void addingNode_shouldOnlyMoveKeysToTheNewNode() {
+        ConsistentHashRing<String> before = ring(4);
+        ConsistentHashRing<String> after = ring(5);
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String key = "user" + i;
+            String owner = after.nodeFor(key);
+            if (!owner.equals(before.nodeFor(key))) {
+                moved++;
+                Assertions.assertEquals("redis://node4:6379", owner);
+            }
+        }
+        // About 1/5 of the keys belong to the new node, nothing else moves
+        Assertions.assertTrue(moved > KEYS * 0.15 && moved < KEYS * 0.25, "Moved " + moved);
+    }
+
+    @Test
+    void removingNode_shouldOnlyMoveItsOwnKeys() {
+        ConsistentHashRing<String> before = ring(5);
+        ConsistentHashRing<String> after = ring(4);
+        for (int i = 0; i < KEYS; i++) {
+            String key = "user" + i;
+            String owner = before.nodeFor(key);
+            if (!owner.equals("redis://node4:6379")) {
+                Assertions.assertEquals(owner, after.nodeFor(key));
+            }
+        }
+    }
+
+    @Test
+    void nodeFor_shouldNotDependOnNodeOrder() {
+        Map<String, String> reversed = new LinkedHashMap<>();
+        for (int i = 3; i >= 0; i--) {
+            reversed.put("redis://node" + i + ":6379", "redis://node" + i + ":6379");
+        }
+        ConsistentHashRing<String> ring = ring(4);
+        ConsistentHashRing<String> other = new ConsistentHashRing<>(reversed, 160);
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertEquals(ring.nodeFor("item" + i), other.nodeFor("item" + i));
+        }
+    }
+
+    @Test
+    void constructor_withoutNodes_shouldFail() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing<>(Map.of(), 160));
+    }
+
+    private static ConsistentHashRing<String> ring(int size) {
+        Map<String, String> nodes = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            nodes.put("redis://node" + i + ":6379", "redis://node" + i + ":6379");
+        }
+        return new ConsistentHashRing<>(nodes, 160);
+    }
+}
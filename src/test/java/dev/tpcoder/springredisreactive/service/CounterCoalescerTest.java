@@ -0,0 +1,150 @@
+package dev.tpcoder.springredisreactive.service;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+
+import dev.tpcoder.springredisreactive.config.CounterCoalescingProperties;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class CounterCoalescerTest {
+
+    @InjectMocks
+    private CounterCoalescer counterCoalescer;
+
+    @Mock
+    private RedisService redisService;
+
+    @Spy
+    private CounterCoalescingProperties properties = new CounterCoalescingProperties();
+
+    @BeforeEach
+    void initTest() {
+        properties.setEnabled(true);
+    }
+
+    @Test
+    void increment_whenDisabled_shouldIncrementDirectly() {
+        properties.setEnabled(false);
+        Mockito.when(redisService.increment("item1", 5L))
+                .thenReturn(Mono.just(5L));
+        StepVerifier.create(counterCoalescer.increment("item1", 5L, WriteConsistency.EVENTUAL))
+                .expectNext(5L)
+                .verifyComplete();
+    }
+
+    @Test
+    void increment_whenEventual_shouldBufferUntilFlush() {
+        StepVerifier.create(counterCoalescer.increment("item1", 5L, WriteConsistency.EVENTUAL))
+                .verifyComplete();
+        StepVerifier.create(counterCoalescer.increment("item1", 7L, WriteConsistency.EVENTUAL))
+                .verifyComplete();
+        Mockito.verify(redisService, Mockito.never()).increment(anyString(), anyLong());
+
+        Mockito.when(redisService.increment("item1", 12L))
+                .thenReturn(Mono.just(12L));
+        StepVerifier.create(counterCoalescer.flush())
+                .verifyComplete();
+        Mockito.verify(redisService).increment("item1", 12L);
+    }
+
+    @Test
+    void increment_whenReadYourWrite_shouldCarryBufferedDelta() {
+        counterCoalescer.increment("item1", 5L, WriteConsistency.EVENTUAL).block();
+        Mockito.when(redisService.increment("item1", 8L))
+                .thenReturn(Mono.just(8L));
+        StepVerifier.create(counterCoalescer.increment("item1", 3L, WriteConsistency.READ_YOUR_WRITE))
+                .expectNext(8L)
+                .verifyComplete();
+        StepVerifier.create(counterCoalescer.flush())
+                .verifyComplete();
+        Mockito.verify(redisService, Mockito.times(1)).increment(anyString(), anyLong());
+    }
+
+    @Test
+    void increment_whenNoConsistencyGiven_shouldUseDefault() {
+        properties.setDefaultConsistency(WriteConsistency.EVENTUAL);
+        StepVerifier.create(counterCoalescer.increment("item1", 5L, null))
+                .verifyComplete();
+        Mockito.verify(redisService, Mockito.never()).increment(anyString(), anyLong());
+    }
+
+    @Test
+    void flush_whenRedisFails_shouldKeepDeltaForNextFlush() {
+        counterCoalescer.increment("item1", 5L, WriteConsistency.EVENTUAL).block();
+        Mockito.when(redisService.increment("item1", 5L))
+                .thenReturn(Mono.error(new IllegalStateException("boom")))
+                .thenReturn(Mono.just(5L));
+        StepVerifier.create(counterCoalescer.flush())
+                .verifyComplete();
+        StepVerifier.create(counterCoalescer.flush())
+                .verifyComplete();
+        Mockito.verify(redisService, Mockito.times(2)).increment("item1", 5L);
+    }
+
+    @Test
+    void flush_shouldDropIdleKeys() {
+        counterCoalescer.increment("item1", 5L, WriteConsistency.EVENTUAL).block();
+        Mockito.when(redisService.increment("item1", 5L))
+                .thenReturn(Mono.just(5L));
+        counterCoalescer.flush().block();
+        Assertions.assertEquals(1, counterCoalescer.pendingKeys());
+        counterCoalescer.flush().block();
+        Assertions.assertEquals(0, counterCoalescer.pendingKeys());
+        counterCoalescer.increment("item1", 5L, WriteConsistency.EVENTUAL).block();
+        counterCoalescer.flush().block();
+        Mockito.verify(redisService, Mockito.times(2)).increment("item1", 5L);
+    }
+
+    @Test
+    void increment_overThreshold_shouldStartFlush() {
+        properties.setFlushInterval(Duration.ofHours(1));
+        properties.setMaxPendingWrites(2);
+        Mockito.when(redisService.increment("item1", 2L))
+                .thenReturn(Mono.just(2L));
+        counterCoalescer.start();
+        counterCoalescer.increment("item1", 1L, WriteConsistency.EVENTUAL).block();
+        counterCoalescer.increment("item1", 1L, WriteConsistency.EVENTUAL).block();
+        Mockito.verify(redisService, Mockito.timeout(5000)).increment("item1", 2L);
+        counterCoalescer.stop();
+    }
+
+    @Test
+    void stop_shouldLetRunningFlushFinish() {
+        properties.setFlushInterval(Duration.ofHours(1));
+        properties.setMaxPendingWrites(1);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        AtomicBoolean written = new AtomicBoolean();
+        Mockito.when(redisService.increment("item1", 5L))
+                .thenReturn(Mono.just(5L).delayElement(Duration.ofMillis(200))
+                        .doOnNext(value -> written.set(true))
+                        .doOnCancel(() -> cancelled.set(true)));
+        counterCoalescer.start();
+        counterCoalescer.increment("item1", 5L, WriteConsistency.EVENTUAL).block();
+        Mockito.verify(redisService, Mockito.timeout(5000)).increment("item1", 5L);
+        counterCoalescer.stop();
+        Assertions.assertTrue(written.get());
+        Assertions.assertFalse(cancelled.get());
+    }
+
+    @Test
+    void stop_shouldFlushBufferedDeltas() {
+        counterCoalescer.increment("item1", 5_000_000_000L, WriteConsistency.EVENTUAL).block();
+        Mockito.when(redisService.increment("item1", 5_000_000_000L))
+                .thenReturn(Mono.just(5_000_000_000L));
+        counterCoalescer.stop();
+        Mockito.verify(redisService).increment("item1", 5_000_000_000L);
+    }
+}
@@ -0,0 +1,131 @@
+package dev.tpcoder.springredisreactive.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class ExpiringRedisServiceTest {
+
+    private static final Duration SESSION_TTL = Duration.ofMinutes(30);
+
+    @Mock
+    private RedisService delegate;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final TtlPolicy policy = new TtlPolicy(null, Map.of("session", SESSION_TTL), 0);
+    private SlidingExpiration sliding;
+    private ExpiringRedisService expiring;
+
+    @BeforeEach
+    void initTest() {
+        sliding = new SlidingExpiration(policy, Duration.ofSeconds(1), 10, registry);
+        sliding.bind(delegate);
+        expiring = new ExpiringRedisService(delegate, policy, sliding, registry,
+                new KeyNamespaces(Set.of("session")), false);
+    }
+
+    @Test
+    void put_whenPolicy_shouldWriteWithTtlAndRecordIt() {
+        Mockito.when(delegate.put("session:1", "value", SESSION_TTL))
+                .thenReturn(Mono.just(true));
+        StepVerifier.create(expiring.put("session:1", "value"))
+                .expectNext(true)
+                .verifyComplete();
+        Assertions.assertEquals(1, registry.get(ExpiringRedisService.APPLIED).tag("namespace", "session")
+                .summary().count());
+    }
+
+    @Test
+    void put_whenNoPolicy_shouldWriteWithoutTtl() {
+        Mockito.when(delegate.put("user1", "value"))
+                .thenReturn(Mono.just(true));
+        StepVerifier.create(expiring.put("user1", "value"))
+                .expectNext(true)
+                .verifyComplete();
+        Mockito.verify(delegate, Mockito.never()).put(anyString(), any(), any(Duration.class));
+    }
+
+    @Test
+    void getAndSet_shouldRestoreTtl() {
+        Mockito.when(delegate.getAndSet("session:1", "new"))
+                .thenReturn(Mono.just("old"));
+        Mockito.when(delegate.expire("session:1", SESSION_TTL))
+                .thenReturn(Mono.just(true));
+        StepVerifier.create(expiring.getAndSet("session:1", "new"))
+                .expectNext("old")
+                .verifyComplete();
+        Mockito.verify(delegate).expire("session:1", SESSION_TTL);
+    }
+
+    @Test
+    void multiSet_shouldSplitByTtl() {
+        Map<String, Object> entries = new LinkedHashMap<>();
+        entries.put("session:1", "a");
+        entries.put("user1", "b");
+        Mockito.when(delegate.put("session:1", "a", SESSION_TTL))
+                .thenReturn(Mono.just(true));
+        Mockito.when(delegate.multiSet(Map.of("user1", "b")))
+                .thenReturn(Mono.just(true));
+        StepVerifier.create(expiring.multiSet(entries))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    void get_shouldBatchTtlRefreshesOfHits() {
+        Mockito.when(delegate.get("session:1"))
+                .thenReturn(Mono.just("value"));
+        Mockito.when(delegate.executeBatch(any()))
+                .thenReturn(Mono.just(List.of(true)));
+        StepVerifier.create(expiring.get("session:1").then(expiring.get("session:1")))
+                .expectNext("value")
+                .verifyComplete();
+        Assertions.assertEquals(1, sliding.pendingCount());
+        StepVerifier.create(sliding.flush())
+                .verifyComplete();
+        Mockito.verify(delegate).executeBatch(Mockito.argThat(batch -> batch.size() == 1
+                && batch.commands().get(0).getType() == RedisBatch.Type.EXPIRE
+                && batch.commands().get(0).getTimeout().equals(SESSION_TTL)));
+        Assertions.assertEquals(0, sliding.pendingCount());
+        Assertions.assertEquals(1.0, registry.get("redis.ttl.sliding.refreshes").counter().count());
+    }
+
+    @Test
+    void multiGet_shouldOnlyTouchHitsWithPolicy() {
+        List<String> keys = List.of("session:1", "session:2", "user1");
+        Mockito.when(delegate.multiGet(keys))
+                .thenReturn(Mono.just(Arrays.asList("a", null, "c")));
+        StepVerifier.create(expiring.multiGet(keys))
+                .expectNextCount(1)
+                .verifyComplete();
+        Assertions.assertEquals(1, sliding.pendingCount());
+    }
+
+    @Test
+    void touch_whenTooManyPending_shouldDrop() {
+        for (int i = 0; i < 11; i++) {
+            sliding.touch("session:" + i);
+        }
+        Assertions.assertEquals(10, sliding.pendingCount());
+        Assertions.assertEquals(1.0, registry.get("redis.ttl.sliding.dropped").counter().count());
+        Mockito.verify(delegate, Mockito.never()).expire(anyString(), eq(SESSION_TTL));
+    }
+}
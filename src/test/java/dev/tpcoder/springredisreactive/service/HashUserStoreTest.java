@@ -0,0 +1,181 @@
+package dev.tpcoder.springredisreactive.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.tpcoder.springredisreactive.model.User;
+import io.lettuce.core.RedisCommandExecutionException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Publisher;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.DataType;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class HashUserStoreTest {
+
+    @Mock
+    private ReactiveStringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ReactiveHashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private RedisService redisService;
+
+    private HashUserStore userStore;
+
+    @BeforeEach
+    void initTest() {
+        Mockito.lenient().when(stringRedisTemplate.opsForHash()).thenReturn(hashOperations);
+        userStore = new HashUserStore(stringRedisTemplate, redisService, new UserFields(new ObjectMapper()));
+    }
+
+    @Test
+    void find_shouldReadAllFieldsAndTakeIdFromKey() {
+        Mockito.when(hashOperations.entries("1"))
+                .thenReturn(Flux.just(Map.entry("firstName", "firstName"), Map.entry("lastName", "lastName")));
+        StepVerifier.create(userStore.find("1"))
+                .expectNext(new User().setId("1").setFirstName("firstName").setLastName("lastName"))
+                .verifyComplete();
+    }
+
+    @Test
+    void find_whenMissing_shouldBeEmpty() {
+        Mockito.when(hashOperations.entries("1"))
+                .thenReturn(Flux.empty());
+        StepVerifier.create(userStore.find("1"))
+                .verifyComplete();
+    }
+
+    @Test
+    void find_whenStoredAsValue_shouldFailWithStorageMismatch() {
+        Mockito.when(hashOperations.entries("1"))
+                .thenReturn(Flux.error(new RedisSystemException("Error in execution", new RedisCommandExecutionException(
+                        "WRONGTYPE Operation against a key holding the wrong kind of value"))));
+        StepVerifier.create(userStore.find("1"))
+                .verifyError(UserStorageMismatchException.class);
+    }
+
+    @Test
+    void find_withFields_shouldOnlyReadRequestedFields() {
+        Mockito.when(hashOperations.multiGet("1", List.of("lastName")))
+                .thenReturn(Mono.just(List.of("lastName")));
+        StepVerifier.create(userStore.find("1", Set.of("lastName")))
+                .expectNext(Map.of("lastName", "lastName"))
+                .verifyComplete();
+    }
+
+    @Test
+    void save_shouldSetPresentFieldsAndRemoveClearedOnesInOneScript() {
+        Mockito.when(stringRedisTemplate.execute(Mockito.<RedisScript<Long>>any(), Mockito.eq(List.of("1")),
+                        Mockito.eq(List.of("0", "1", "firstName", "firstName", "lastName"))))
+                .thenReturn(Flux.just(1L));
+        StepVerifier.create(userStore.save("1", new User().setId("1").setFirstName("firstName")))
+                .expectNext(true)
+                .verifyComplete();
+        Mockito.verifyNoInteractions(hashOperations);
+    }
+
+    @Test
+    void save_whenStoredAsValue_shouldFailWithStorageMismatch() {
+        Mockito.when(stringRedisTemplate.execute(Mockito.<RedisScript<Long>>any(), Mockito.anyList(), Mockito.anyList()))
+                .thenReturn(Flux.error(new RedisSystemException("Error in execution", new RedisCommandExecutionException(
+                        "ERR Error running script: @user_script:9: WRONGTYPE Operation against a key holding "
+                                + "the wrong kind of value"))));
+        StepVerifier.create(userStore.save("1", new User().setId("1").setFirstName("firstName")))
+                .verifyError(UserStorageMismatchException.class);
+    }
+
+    @Test
+    void patch_shouldOnlyTouchChangedFields() {
+        Mockito.when(stringRedisTemplate.execute(Mockito.<RedisScript<Long>>any(), Mockito.eq(List.of("1")),
+                        Mockito.eq(List.of("1", "1", "lastName", "changed"))))
+                .thenReturn(Flux.just(1L));
+        Mockito.when(hashOperations.entries("1"))
+                .thenReturn(Flux.just(Map.entry("firstName", "firstName"), Map.entry("lastName", "changed")));
+        StepVerifier.create(userStore.patch("1", Map.of("lastName", "changed")))
+                .assertNext(user -> Assertions.assertEquals("changed", user.getLastName()))
+                .verifyComplete();
+    }
+
+    @Test
+    void patch_whenMissing_shouldNotCreateUser() {
+        Mockito.when(stringRedisTemplate.execute(Mockito.<RedisScript<Long>>any(), Mockito.eq(List.of("1")),
+                        Mockito.anyList()))
+                .thenReturn(Flux.just(0L));
+        StepVerifier.create(userStore.patch("1", Map.of("lastName", "changed")))
+                .verifyComplete();
+        Mockito.verifyNoInteractions(hashOperations);
+    }
+
+    @Test
+    void saveScript_shouldSetAndRemoveFieldsTogether() {
+        LuaScriptRunner redis = new LuaScriptRunner();
+        redis.hashes.put("1", new LinkedHashMap<>(Map.of("firstName", "old", "lastName", "old")));
+
+        redis.run(HashUserStore.SAVE, List.of("1"), "0", "1", "firstName", "new", "lastName");
+
+        Assertions.assertEquals(Map.of("firstName", "new"), redis.hashes.get("1"));
+    }
+
+    @Test
+    void saveScript_forExistingOnly_shouldNotCreateUser() {
+        LuaScriptRunner redis = new LuaScriptRunner();
+
+        Assertions.assertEquals(0, redis.run(HashUserStore.SAVE, List.of("1"), "1", "1", "lastName", "new").toint());
+        Assertions.assertEquals(1, redis.run(HashUserStore.SAVE, List.of("1"), "0", "1", "lastName", "new").toint());
+        Assertions.assertEquals(Map.of("lastName", "new"), redis.hashes.get("1"));
+    }
+
+    @Test
+    void scan_shouldSkipKeysThatAreNotHashes() {
+        Mockito.when(redisService.scan("*"))
+                .thenReturn(Flux.just("1", "item1"));
+        Mockito.when(stringRedisTemplate.type("1"))
+                .thenReturn(Mono.just(DataType.HASH));
+        Mockito.when(stringRedisTemplate.type("item1"))
+                .thenReturn(Mono.just(DataType.STRING));
+        Mockito.when(hashOperations.entries("1"))
+                .thenReturn(Flux.just(Map.entry("firstName", "firstName")));
+        StepVerifier.create(userStore.scan("*"))
+                .assertNext(user -> Assertions.assertEquals("1", user.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void delete_shouldRemoveTheHashWhereItWasWritten() {
+        Mockito.when(stringRedisTemplate.delete(Mockito.<Publisher<String>>any()))
+                .thenAnswer(invocation -> Flux.from(invocation.<Publisher<String>>getArgument(0)).count());
+        StepVerifier.create(userStore.delete("1"))
+                .verifyComplete();
+        Mockito.verify(stringRedisTemplate).delete(Mockito.<Publisher<String>>any());
+        Mockito.verifyNoInteractions(redisService);
+    }
+
+    @Test
+    void findAll_shouldKeepNullsForMissingUsers() {
+        Mockito.when(hashOperations.entries("1"))
+                .thenReturn(Flux.just(Map.entry("firstName", "firstName")));
+        Mockito.when(hashOperations.entries("2"))
+                .thenReturn(Flux.empty());
+        StepVerifier.create(userStore.findAll(List.of("1", "2")))
+                .assertNext(users -> Assertions.assertEquals(Arrays.asList(
+                        new User().setId("1").setFirstName("firstName"), null), users))
+                .verifyComplete();
+    }
+}
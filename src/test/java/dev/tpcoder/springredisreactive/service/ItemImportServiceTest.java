@@ -0,0 +1,122 @@
+package dev.tpcoder.springredisreactive.service;
+
+import static org.mockito.ArgumentMatchers.anyMap;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.tpcoder.springredisreactive.config.ImportProperties;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class ItemImportServiceTest {
+
+    @InjectMocks
+    private ItemImportService itemImportService;
+
+    @Mock
+    private RedisService redisService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private ImportProperties properties = new ImportProperties();
+
+    @BeforeEach
+    void initTest() {
+        properties.setBatchSize(2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importItems_shouldWriteBatchesAndReportProgress() {
+        Mockito.when(redisService.multiSet(anyMap()))
+                .thenReturn(Mono.just(true));
+        Flux<String> lines = Flux.just(
+                "{\"id\":\"1\",\"amount\":10}",
+                "{\"id\":\"2\"}",
+                "{\"id\":\"3\",\"amount\":3}");
+        StepVerifier.create(itemImportService.importItems(lines))
+                .assertNext(progress -> {
+                    Assertions.assertEquals(1, progress.getBatch());
+                    Assertions.assertEquals(2, progress.getWritten());
+                    Assertions.assertEquals(2, progress.getTotalWritten());
+                })
+                .assertNext(progress -> {
+                    Assertions.assertEquals(2, progress.getBatch());
+                    Assertions.assertEquals(3, progress.getTotalWritten());
+                    Assertions.assertEquals(0, progress.getTotalFailed());
+                })
+                .verifyComplete();
+        ArgumentCaptor<Map<String, Object>> captor = ArgumentCaptor.forClass(Map.class);
+        Mockito.verify(redisService, Mockito.times(2)).multiSet(captor.capture());
+        Assertions.assertEquals(Map.of("1", 10L, "2", 0L), captor.getAllValues().get(0));
+    }
+
+    @Test
+    void importItems_shouldReportBadRecordsAndKeepGoing() {
+        Mockito.when(redisService.multiSet(anyMap()))
+                .thenReturn(Mono.just(true));
+        Flux<String> lines = Flux.just("{\"id\":\"1\",\"amount\":1}", "not json", "", "{\"amount\":5}");
+        StepVerifier.create(itemImportService.importItems(lines))
+                .assertNext(progress -> {
+                    Assertions.assertEquals(1, progress.getWritten());
+                    Assertions.assertEquals(1, progress.getFailed());
+                    Assertions.assertEquals(2, progress.getErrors().get(0).getLine());
+                })
+                .assertNext(progress -> {
+                    Assertions.assertEquals(0, progress.getWritten());
+                    Assertions.assertEquals("missing id", progress.getErrors().get(0).getMessage());
+                    Assertions.assertEquals(4, progress.getErrors().get(0).getLine());
+                    Assertions.assertEquals(2, progress.getTotalFailed());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importItems_whenIdRepeatsInBatch_shouldWriteLastAmountAndCountEveryRecord() {
+        Mockito.when(redisService.multiSet(anyMap()))
+                .thenReturn(Mono.just(true));
+        Flux<String> lines = Flux.just("{\"id\":\"1\",\"amount\":1}", "{\"id\":\"1\",\"amount\":2}");
+        StepVerifier.create(itemImportService.importItems(lines))
+                .assertNext(progress -> {
+                    Assertions.assertEquals(2, progress.getWritten());
+                    Assertions.assertEquals(2, progress.getTotalWritten());
+                })
+                .verifyComplete();
+        ArgumentCaptor<Map<String, Object>> captor = ArgumentCaptor.forClass(Map.class);
+        Mockito.verify(redisService).multiSet(captor.capture());
+        Assertions.assertEquals(Map.of("1", 2L), captor.getValue());
+    }
+
+    @Test
+    void importItems_whenBatchWriteFails_shouldFailItsRecordsOnly() {
+        Mockito.when(redisService.multiSet(anyMap()))
+                .thenReturn(Mono.error(new IllegalStateException("down")))
+                .thenReturn(Mono.just(true));
+        Flux<String> lines = Flux.just("{\"id\":\"1\"}", "{\"id\":\"2\"}", "{\"id\":\"3\"}");
+        StepVerifier.create(itemImportService.importItems(lines))
+                .assertNext(progress -> {
+                    Assertions.assertEquals(2, progress.getFailed());
+                    Assertions.assertEquals("1", progress.getErrors().get(0).getId());
+                })
+                .assertNext(progress -> {
+                    Assertions.assertEquals(1, progress.getTotalWritten());
+                    Assertions.assertEquals(2, progress.getTotalFailed());
+                })
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,135 @@
+package dev.tpcoder.springredisreactive.service;
+
+import static org.mockito.ArgumentMatchers.anyString;
+
+import dev.tpcoder.springredisreactive.config.WatchProperties;
+import dev.tpcoder.springredisreactive.model.ItemChange;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class ItemWatcherTest {
+
+    private static final String PATTERN = "__keyspace@0__:*";
+
+    @Mock
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    @Mock
+    private ReactiveValueOperations<String, String> valueOperations;
+
+    @Mock
+    private ReactiveRedisConnectionFactory connectionFactory;
+
+    private final Sinks.Many<ReactiveSubscription.PatternMessage<String, String, String>> notifications
+            = Sinks.many().multicast().directBestEffort();
+    private final WatchProperties properties = new WatchProperties();
+    private ItemWatcher watcher;
+
+    @BeforeEach
+    void initTest() {
+        properties.setEnabled(true);
+        Mockito.lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.doReturn(notifications.asFlux()).when(redisTemplate).listenToPattern(PATTERN);
+        watcher = new ItemWatcher(redisTemplate, connectionFactory, properties);
+        watcher.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        watcher.stop();
+    }
+
+    @Test
+    void watch_shouldSendCurrentAmountThenChanges() {
+        Mockito.when(valueOperations.get("item1"))
+                .thenReturn(Mono.just("10"))
+                .thenReturn(Mono.just("9"));
+        StepVerifier.create(watcher.watch(Set.of("item1")))
+                .expectNext(change("item1", 10L))
+                .then(() -> notify("item1", "decrby"))
+                .expectNext(change("item1", 9L))
+                .then(() -> notify("item1", "del"))
+                .expectNext(change("item1", null))
+                .thenCancel()
+                .verify();
+        Assertions.assertEquals(0, watcher.getWatchers());
+    }
+
+    @Test
+    void watch_shouldIgnoreKeysNobodyWatches() {
+        Mockito.when(valueOperations.get("item1"))
+                .thenReturn(Mono.just("10"));
+        StepVerifier.create(watcher.watch(Set.of("item1")))
+                .expectNext(change("item1", 10L))
+                .then(() -> notify("item2", "incrby"))
+                .thenCancel()
+                .verify();
+        Mockito.verify(valueOperations, Mockito.never()).get("item2");
+    }
+
+    @Test
+    void watch_whenNotACounter_shouldSendNoAmount() {
+        Mockito.when(valueOperations.get("user1"))
+                .thenReturn(Mono.just("µ\u0001\u0001"));
+        StepVerifier.create(watcher.watch(Set.of("user1")))
+                .expectNext(change("user1", null))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void watch_whenSlowAndDropOldest_shouldKeepLatest() {
+        properties.setBufferSize(1);
+        Mockito.when(valueOperations.get(anyString()))
+                .thenReturn(Mono.just("1"))
+                .thenReturn(Mono.just("2"))
+                .thenReturn(Mono.just("3"));
+        StepVerifier.create(watcher.watch(Set.of("item1")), 0)
+                .then(() -> {
+                    notify("item1", "incrby");
+                    notify("item1", "incrby");
+                })
+                .thenRequest(1)
+                .expectNext(change("item1", 3L))
+                .thenCancel()
+                .verify();
+        Assertions.assertEquals(2, watcher.getDropped());
+    }
+
+    @Test
+    void watch_whenSlowAndDisconnect_shouldComplete() {
+        properties.setBufferSize(1);
+        properties.setSlowConsumer(WatchProperties.SlowConsumerPolicy.DISCONNECT);
+        Mockito.when(valueOperations.get(anyString()))
+                .thenReturn(Mono.just("1"))
+                .thenReturn(Mono.just("2"));
+        StepVerifier.create(watcher.watch(Set.of("item1")), 0)
+                .then(() -> notify("item1", "incrby"))
+                .thenRequest(1)
+                .expectNext(change("item1", 1L))
+                .verifyComplete();
+    }
+
+    private void notify(String key, String event) {
+        notifications.tryEmitNext(new ReactiveSubscription.PatternMessage<>(PATTERN, "__keyspace@0__:" + key, event));
+    }
+
+    private static ItemChange change(String id, Long amount) {
+        return new ItemChange().setId(id).setAmount(amount);
+    }
+}
@@ -0,0 +1,58 @@
+package dev.tpcoder.springredisreactive.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class LoadLimiterTest {
+
+    @Test
+    void submit_whenFull_shouldWaitForFreeSlot() {
+        LoadLimiter limiter = new LoadLimiter(1, 10);
+        Sinks.One<String> first = Sinks.one();
+        Sinks.One<String> second = Sinks.one();
+        StepVerifier.create(Mono.zip(limiter.submit(first.asMono()), limiter.submit(second.asMono())))
+                .then(() -> {
+                    Assertions.assertEquals(1, limiter.activeCount());
+                    second.tryEmitValue("second");
+                    first.tryEmitValue("first");
+                })
+                .expectNextMatches(both -> both.getT1().equals("first") && both.getT2().equals("second"))
+                .verifyComplete();
+        Assertions.assertEquals(0, limiter.activeCount());
+    }
+
+    @Test
+    void submit_whenQueueFull_shouldFail() {
+        LoadLimiter limiter = new LoadLimiter(1, 0);
+        Sinks.One<String> running = Sinks.one();
+        limiter.submit(running.asMono()).subscribe();
+        StepVerifier.create(limiter.submit(Mono.just("rejected")))
+                .expectError(IllegalStateException.class)
+                .verify();
+        running.tryEmitValue("done");
+        Assertions.assertEquals(0, limiter.activeCount());
+    }
+
+    @Test
+    void trySubmit_whenFull_shouldSkip() {
+        LoadLimiter limiter = new LoadLimiter(1, 10);
+        Sinks.One<String> running = Sinks.one();
+        limiter.submit(running.asMono()).subscribe();
+        StepVerifier.create(limiter.trySubmit(Mono.just("skipped")))
+                .verifyComplete();
+        running.tryEmitValue("done");
+        StepVerifier.create(limiter.trySubmit(Mono.just("ran")))
+                .expectNext("ran")
+                .verifyComplete();
+    }
+
+    @Test
+    void submit_whenCancelled_shouldFreeSlot() {
+        LoadLimiter limiter = new LoadLimiter(1, 10);
+        limiter.submit(Mono.never()).subscribe().dispose();
+        Assertions.assertEquals(0, limiter.activeCount());
+    }
+}
@@ -0,0 +1,104 @@
+package dev.tpcoder.springredisreactive.service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.luaj.vm2.Globals;
+import org.luaj.vm2.LuaTable;
+import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.Varargs;
+import org.luaj.vm2.lib.OneArgFunction;
+import org.luaj.vm2.lib.VarArgFunction;
+import org.luaj.vm2.lib.jse.JsePlatform;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * Runs the Lua scripts themselves against an in-memory stand-in of the few Redis commands they call.
+ */
+class LuaScriptRunner {
+
+    final Map<String, String> strings = new HashMap<>();
+
+    final Map<String, Map<String, String>> hashes = new HashMap<>();
+
+    final Map<String, Map<String, Double>> sortedSets = new HashMap<>();
+
+    LuaValue run(RedisScript<?> script, List<String> keys, String... args) {
+        Globals globals = JsePlatform.standardGlobals();
+        // Redis runs Lua 5.1, where unpack is still global
+        globals.set("unpack", globals.get("table").get("unpack"));
+        LuaTable redis = new LuaTable();
+        redis.set("call", new VarArgFunction() {
+            @Override
+            public Varargs invoke(Varargs args) {
+                return command(args);
+            }
+        });
+        redis.set("error_reply", new OneArgFunction() {
+            @Override
+            public LuaValue call(LuaValue message) {
+                return LuaValue.tableOf(new LuaValue[]{LuaValue.valueOf("err"), message});
+            }
+        });
+        globals.set("redis", redis);
+        globals.set("KEYS", LuaValue.listOf(keys.stream().map(LuaValue::valueOf).toArray(LuaValue[]::new)));
+        LuaValue[] argv = new LuaValue[args.length];
+        for (int i = 0; i < args.length; i++) {
+            argv[i] = LuaValue.valueOf(args[i]);
+        }
+        globals.set("ARGV", LuaValue.listOf(argv));
+        return globals.load(script.getScriptAsString()).call();
+    }
+
+    // The commands the scripts use, with the replies Redis converts to Lua values
+    private LuaValue command(Varargs args) {
+        String key = args.arg(2).tojstring();
+        switch (args.arg1().tojstring().toUpperCase()) {
+            case "GET":
+                return strings.containsKey(key) ? LuaValue.valueOf(strings.get(key)) : LuaValue.FALSE;
+            case "SET":
+                strings.put(key, args.arg(3).tojstring());
+                return LuaValue.tableOf(new LuaValue[]{LuaValue.valueOf("ok"), LuaValue.valueOf("OK")});
+            case "EXISTS":
+                return LuaValue.valueOf(strings.containsKey(key) || hashes.containsKey(key) ? 1 : 0);
+            case "DEL":
+                return LuaValue.valueOf(strings.remove(key) != null || hashes.remove(key) != null ? 1 : 0);
+            case "INCRBY":
+                return add(key, args.arg(3).tolong());
+            case "DECRBY":
+                return add(key, -args.arg(3).tolong());
+            case "HSET": {
+                Map<String, String> hash = hashes.computeIfAbsent(key, k -> new LinkedHashMap<>());
+                int added = 0;
+                for (int i = 3; i < args.narg(); i += 2) {
+                    added += hash.put(args.arg(i).tojstring(), args.arg(i + 1).tojstring()) == null ? 1 : 0;
+                }
+                return LuaValue.valueOf(added);
+            }
+            case "HDEL": {
+                Map<String, String> hash = hashes.getOrDefault(key, new HashMap<>());
+                int removed = 0;
+                for (int i = 3; i <= args.narg(); i++) {
+                    removed += hash.remove(args.arg(i).tojstring()) != null ? 1 : 0;
+                }
+                if (hash.isEmpty()) {
+                    hashes.remove(key);
+                }
+                return LuaValue.valueOf(removed);
+            }
+            case "ZADD":
+                sortedSets.computeIfAbsent(key, k -> new HashMap<>())
+                        .put(args.arg(4).tojstring(), args.arg(3).todouble());
+                return LuaValue.valueOf(1);
+            default:
+                throw new UnsupportedOperationException(args.arg1().tojstring());
+        }
+    }
+
+    private LuaValue add(String key, long delta) {
+        long amount = Long.parseLong(strings.getOrDefault(key, "0")) + delta;
+        strings.put(key, Long.toString(amount));
+        return LuaValue.valueOf(amount);
+    }
+}
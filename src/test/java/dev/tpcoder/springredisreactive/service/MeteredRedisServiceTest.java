@@ -0,0 +1,83 @@
+package dev.tpcoder.springredisreactive.service;
+
+import dev.tpcoder.springredisreactive.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class MeteredRedisServiceTest {
+
+    @Mock
+    private RedisService delegate;
+
+    private SimpleMeterRegistry registry;
+    private MeteredRedisService redisService;
+
+    @BeforeEach
+    void initTest() {
+        registry = new SimpleMeterRegistry();
+        redisService = new MeteredRedisService(delegate, registry, new KeyNamespaces(Set.of("user")), true);
+    }
+
+    @Test
+    void get_shouldRecordOutcomePerCall() {
+        Mockito.when(delegate.get("user:1"))
+                .thenReturn(Mono.just(new User()));
+        Mockito.when(delegate.get("user:2"))
+                .thenReturn(Mono.empty());
+        Mockito.when(delegate.get("session:3"))
+                .thenReturn(Mono.error(new IllegalStateException("boom")));
+        StepVerifier.create(redisService.get("user:1")).expectNextCount(1).verifyComplete();
+        StepVerifier.create(redisService.get("user:2")).verifyComplete();
+        StepVerifier.create(redisService.get("session:3")).verifyError(IllegalStateException.class);
+
+        Assertions.assertEquals(1, count("get", "user", "success"));
+        Assertions.assertEquals(1, count("get", "user", "empty"));
+        Assertions.assertEquals(1, count("get", KeyNamespaces.OTHER, "error"));
+        Assertions.assertEquals(0, registry.get(MeteredRedisService.ACTIVE).tag("operation", "get").gauge().value());
+    }
+
+    @Test
+    void get_whenNotSubscribed_shouldNotRecord() {
+        Mockito.when(delegate.get("1"))
+                .thenReturn(Mono.just(new User()));
+        redisService.get("1");
+        Assertions.assertNull(registry.find(MeteredRedisService.TIMER).timer());
+    }
+
+    @Test
+    void scan_shouldRecordWholeStream() {
+        Mockito.when(delegate.scan("user:*"))
+                .thenReturn(Flux.just("user:1", "user:2"));
+        StepVerifier.create(redisService.scan("user:*")).expectNextCount(2).verifyComplete();
+        Assertions.assertEquals(1, count("scan", "user", "success"));
+    }
+
+    @Test
+    void delete_whenKeysFromSeveralNamespaces_shouldTagMixed() {
+        Mockito.when(delegate.delete(List.of("user:1", "2")))
+                .thenReturn(Mono.empty());
+        StepVerifier.create(redisService.delete(List.of("user:1", "2"))).verifyComplete();
+        Assertions.assertEquals(1, count("delete", KeyNamespaces.MIXED, "empty"));
+    }
+
+    private long count(String operation, String namespace, String outcome) {
+        return registry.get(MeteredRedisService.TIMER)
+                .tag("operation", operation)
+                .tag("namespace", namespace)
+                .tag("outcome", outcome)
+                .timer()
+                .count();
+    }
+}
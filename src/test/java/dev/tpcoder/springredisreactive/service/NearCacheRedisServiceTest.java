@@ -0,0 +1,165 @@
+package dev.tpcoder.springredisreactive.service;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.tpcoder.springredisreactive.model.User;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class NearCacheRedisServiceTest {
+
+    @Mock
+    private RedisService delegate;
+
+    @Mock
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    private NearCacheInvalidator invalidator;
+    private NearCacheRedisService nearCache;
+    private User user;
+
+    @BeforeEach
+    void initTest() {
+        user = new User();
+        user.setId("user1").setFirstName("firstName").setLastName("lastName");
+        invalidator = new NearCacheInvalidator(Caffeine.newBuilder()
+                .maximumSize(10)
+                .recordStats()
+                .<String, Object>build(), redisTemplate, "invalidate");
+        nearCache = new NearCacheRedisService(delegate, invalidator);
+        Mockito.when(redisTemplate.convertAndSend(eq("invalidate"), anyString()))
+                .thenReturn(Mono.just(1L));
+    }
+
+    @Test
+    void get_whenCalledTwice_shouldHitRedisOnce() {
+        Mockito.when(delegate.get("user1"))
+                .thenReturn(Mono.just(user));
+        StepVerifier.create(nearCache.get("user1"))
+                .expectNext(user)
+                .verifyComplete();
+        StepVerifier.create(nearCache.get("user1"))
+                .expectNext(user)
+                .verifyComplete();
+        Mockito.verify(delegate, Mockito.times(1)).get("user1");
+        Assertions.assertEquals(1, invalidator.getCache().stats().hitCount());
+        Assertions.assertEquals(1, invalidator.getCache().stats().missCount());
+    }
+
+    @Test
+    void get_whenKeyMissing_shouldNotCache() {
+        Mockito.when(delegate.get("user1"))
+                .thenReturn(Mono.empty());
+        StepVerifier.create(nearCache.get("user1"))
+                .verifyComplete();
+        Assertions.assertNull(invalidator.getCache().getIfPresent("user1"));
+    }
+
+    @Test
+    void get_whenInvalidatedWhileLoading_shouldNotCacheStaleValue() {
+        Sinks.One<Object> pending = Sinks.one();
+        Mockito.when(delegate.get("user1"))
+                .thenReturn(pending.asMono());
+        Mockito.when(delegate.put(anyString(), Mockito.any()))
+                .thenReturn(Mono.just(Boolean.TRUE));
+        StepVerifier.create(nearCache.get("user1"))
+                .then(() -> nearCache.put("user1", user).block())
+                .then(() -> pending.tryEmitValue(user))
+                .expectNext(user)
+                .verifyComplete();
+        Assertions.assertNull(invalidator.getCache().getIfPresent("user1"));
+    }
+
+    @Test
+    void multiGet_shouldOnlyLoadMissingKeys() {
+        invalidator.getCache().put("user1", user);
+        Mockito.when(delegate.multiGet(List.of("user2", "user3")))
+                .thenReturn(Mono.just(Arrays.asList(user, null)));
+        StepVerifier.create(nearCache.multiGet(List.of("user1", "user2", "user3")))
+                .assertNext(data -> Assertions.assertEquals(Arrays.asList(user, user, null), data))
+                .verifyComplete();
+        Assertions.assertNotNull(invalidator.getCache().getIfPresent("user2"));
+    }
+
+    @Test
+    void put_shouldInvalidateLocallyAndBroadcast() {
+        invalidator.getCache().put("user1", user);
+        Mockito.when(delegate.put("user1", user))
+                .thenReturn(Mono.just(Boolean.TRUE));
+        StepVerifier.create(nearCache.put("user1", user))
+                .expectNext(Boolean.TRUE)
+                .verifyComplete();
+        Assertions.assertNull(invalidator.getCache().getIfPresent("user1"));
+        Mockito.verify(redisTemplate).convertAndSend(eq("invalidate"), Mockito.endsWith("|user1"));
+    }
+
+    @Test
+    void increment_whenRedisFails_shouldStillInvalidate() {
+        invalidator.getCache().put("item1", 1L);
+        Mockito.when(delegate.increment("item1", 5L))
+                .thenReturn(Mono.error(new IllegalStateException("boom")));
+        StepVerifier.create(nearCache.increment("item1", 5L))
+                .verifyError(IllegalStateException.class);
+        Assertions.assertNull(invalidator.getCache().getIfPresent("item1"));
+    }
+
+    @Test
+    void delete_whenRedisFails_shouldStillInvalidate() {
+        invalidator.getCache().put("user1", user);
+        Mockito.when(delegate.delete("user1"))
+                .thenReturn(Mono.error(new IllegalStateException("timeout")));
+        StepVerifier.create(nearCache.delete("user1"))
+                .verifyError(IllegalStateException.class);
+        Assertions.assertNull(invalidator.getCache().getIfPresent("user1"));
+        Mockito.verify(redisTemplate).convertAndSend(eq("invalidate"), Mockito.endsWith("|user1"));
+    }
+
+    @Test
+    void delete_whenGivenKeyList_shouldInvalidateEveryKey() {
+        invalidator.getCache().put("user1", user);
+        invalidator.getCache().put("user2", user);
+        Mockito.when(delegate.delete(List.of("user1", "user2")))
+                .thenReturn(Mono.empty());
+        StepVerifier.create(nearCache.delete(List.of("user1", "user2")))
+                .verifyComplete();
+        Assertions.assertEquals(0, invalidator.getCache().estimatedSize());
+    }
+
+    @Test
+    void executeBatch_shouldInvalidateWrittenKeysOnly() {
+        invalidator.getCache().put("user1", user);
+        invalidator.getCache().put("user2", user);
+        RedisBatch batch = new RedisBatch().get("user1").set("user2", user);
+        Mockito.when(delegate.executeBatch(batch))
+                .thenReturn(Mono.just(Arrays.asList(user, Boolean.TRUE)));
+        StepVerifier.create(nearCache.executeBatch(batch))
+                .expectNextCount(1)
+                .verifyComplete();
+        Assertions.assertNotNull(invalidator.getCache().getIfPresent("user1"));
+        Assertions.assertNull(invalidator.getCache().getIfPresent("user2"));
+    }
+
+    @Test
+    void onMessage_fromOtherInstance_shouldInvalidate() {
+        invalidator.getCache().put("user1", user);
+        invalidator.onMessage("other-instance|user1");
+        Assertions.assertNull(invalidator.getCache().getIfPresent("user1"));
+    }
+}
@@ -0,0 +1,110 @@
+package dev.tpcoder.springredisreactive.service;
+
+import static org.mockito.ArgumentMatchers.any;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PipelinedBatchExecutorTest {
+
+    @Mock
+    private StatefulRedisConnection<byte[], byte[]> connection;
+
+    @Mock
+    private RedisAsyncCommands<byte[], byte[]> async;
+
+    private final AtomicInteger connects = new AtomicInteger();
+
+    private PipelinedBatchExecutor executor;
+
+    @BeforeEach
+    void initTest() {
+        Mockito.when(connection.async()).thenReturn(async);
+        Mockito.when(async.get(any())).thenAnswer(invocation -> future(null));
+        Mockito.when(async.get(bytes("user1"))).thenAnswer(invocation -> future(bytes("firstName")));
+        Mockito.when(async.set(any(), any())).thenAnswer(invocation -> future("OK"));
+        Mockito.when(async.set(any(), any(), any(SetArgs.class))).thenAnswer(invocation -> future("OK"));
+        Mockito.when(async.incrby(any(), ArgumentMatchers.anyLong())).thenAnswer(invocation -> future(3L));
+        executor = new PipelinedBatchExecutor(() -> {
+            connects.incrementAndGet();
+            return CompletableFuture.completedFuture(connection);
+        }, RedisSerializationContext.<String, Object>newSerializationContext(RedisSerializer.string())
+                .value(new GenericToStringSerializer<>(Object.class))
+                .build(), 2);
+    }
+
+    @Test
+    void execute_shouldFlushOnceForSmallBatches() {
+        RedisBatch batch = new RedisBatch()
+                .get("user1")
+                .get("missing");
+        StepVerifier.create(executor.execute(batch))
+                .expectNext(Arrays.asList("firstName", null))
+                .verifyComplete();
+        Mockito.verify(connection).setAutoFlushCommands(false);
+        // Two commands hit maxCommands once, then the final flush of the batch
+        Mockito.verify(connection, Mockito.times(2)).flushCommands();
+    }
+
+    @Test
+    void execute_shouldFlushEveryMaxCommands() {
+        RedisBatch batch = new RedisBatch()
+                .set("item1", "1")
+                .set("item2", "2", Duration.ofSeconds(10))
+                .increment("item3", 3L);
+        StepVerifier.create(executor.execute(batch))
+                .expectNext(List.of(true, true, 3L))
+                .verifyComplete();
+        Mockito.verify(connection, Mockito.times(2)).flushCommands();
+    }
+
+    @Test
+    void execute_shouldReuseTheConnection() {
+        executor.execute(new RedisBatch().get("user1")).block();
+        executor.execute(new RedisBatch().get("user1")).block();
+        Assertions.assertEquals(1, connects.get());
+    }
+
+    @Test
+    void execute_whenBatchEmpty_shouldNotConnect() {
+        StepVerifier.create(executor.execute(new RedisBatch()))
+                .expectNext(List.of())
+                .verifyComplete();
+        Assertions.assertEquals(0, connects.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> RedisFuture<T> future(T value) {
+        RedisFuture<T> future = Mockito.mock(RedisFuture.class);
+        Mockito.when(future.toCompletableFuture()).thenReturn(CompletableFuture.completedFuture(value));
+        return future;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,129 @@
+package dev.tpcoder.springredisreactive.service;
+
+import dev.tpcoder.springredisreactive.model.StockResult;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class RankedItemsRedisServiceTest {
+
+    @Mock
+    private RedisService delegate;
+
+    @Mock
+    private ItemRanking ranking;
+
+    private RankedItemsRedisService rankedItems;
+
+    @BeforeEach
+    void initTest() {
+        rankedItems = new RankedItemsRedisService(delegate, ranking);
+    }
+
+    @Test
+    void put_whenAmount_shouldWriteThroughRanking() {
+        Mockito.when(ranking.put("item1", 10L))
+                .thenReturn(Mono.just(true));
+        StepVerifier.create(rankedItems.put("item1", 10L))
+                .expectNext(true)
+                .verifyComplete();
+        Mockito.verifyNoInteractions(delegate);
+    }
+
+    @Test
+    void put_whenNotAmount_shouldWriteThroughDelegate() {
+        Mockito.when(delegate.put("user1", "value"))
+                .thenReturn(Mono.just(true));
+        StepVerifier.create(rankedItems.put("user1", "value"))
+                .expectNext(true)
+                .verifyComplete();
+        Mockito.verifyNoInteractions(ranking);
+    }
+
+    @Test
+    void decrement_shouldIncrementRankingByNegativeDelta() {
+        Mockito.when(ranking.increment("item1", -3L))
+                .thenReturn(Mono.just(7L));
+        StepVerifier.create(rankedItems.decrement("item1", 3L))
+                .expectNext(7L)
+                .verifyComplete();
+    }
+
+    @Test
+    void delete_shouldRemoveFromRanking() {
+        Mockito.when(ranking.delete("item1"))
+                .thenReturn(Mono.just(1L));
+        StepVerifier.create(rankedItems.delete("item1"))
+                .verifyComplete();
+        Mockito.verifyNoInteractions(delegate);
+    }
+
+    @Test
+    void multiSet_shouldIndexOnlyAmounts() {
+        Map<String, Object> entries = new LinkedHashMap<>();
+        entries.put("item1", 5L);
+        entries.put("user1", "value");
+        Mockito.when(delegate.multiSet(entries))
+                .thenReturn(Mono.just(true));
+        Mockito.when(ranking.index(Map.of("item1", 5L)))
+                .thenReturn(Mono.just(1L));
+        StepVerifier.create(rankedItems.multiSet(entries))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    void deleteList_shouldRemoveFromRankingAfterDelete() {
+        List<String> keys = List.of("item1", "item2");
+        Mockito.when(delegate.delete(keys))
+                .thenReturn(Mono.empty());
+        Mockito.when(ranking.remove(keys))
+                .thenReturn(Mono.just(2L));
+        StepVerifier.create(rankedItems.delete(keys))
+                .verifyComplete();
+        Mockito.verify(ranking).remove(keys);
+    }
+
+    @Test
+    void reserve_shouldRankInsideTheStockScript() {
+        Mockito.when(ranking.reserve("item1", "r1", 2L))
+                .thenReturn(Mono.just(new StockResult().setApplied(true).setAmount(8L)));
+        StepVerifier.create(rankedItems.reserve("item1", "r1", 2L))
+                .expectNext(new StockResult().setApplied(true).setAmount(8L))
+                .verifyComplete();
+        Mockito.verifyNoInteractions(delegate);
+        Mockito.verify(ranking, Mockito.never()).index(Mockito.anyMap());
+    }
+
+    @Test
+    void executeBatch_shouldRankLastAmountOfEveryKey() {
+        RedisBatch batch = new RedisBatch()
+                .set("item1", 5L)
+                .increment("item1", 2L)
+                .set("user1", "value")
+                .set("item2", 3L)
+                .delete("item2")
+                .get("item3");
+        List<Object> results = Arrays.asList(true, 7L, true, true, 1L, 4L);
+        Mockito.when(delegate.executeBatch(batch))
+                .thenReturn(Mono.just(results));
+        Mockito.when(ranking.index(Map.of("item1", 7L)))
+                .thenReturn(Mono.just(1L));
+        Mockito.when(ranking.remove(Set.of("item2")))
+                .thenReturn(Mono.just(1L));
+        StepVerifier.create(rankedItems.executeBatch(batch))
+                .expectNext(results)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,85 @@
+package dev.tpcoder.springredisreactive.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.tpcoder.springredisreactive.config.RawReadProperties;
+import dev.tpcoder.springredisreactive.model.Item;
+import dev.tpcoder.springredisreactive.model.User;
+import dev.tpcoder.springredisreactive.serializer.CompressingValueSerializer;
+import dev.tpcoder.springredisreactive.serializer.CompressionStats;
+import dev.tpcoder.springredisreactive.serializer.DeflateCompressionCodec;
+import dev.tpcoder.springredisreactive.serializer.JacksonValueCodec;
+import dev.tpcoder.springredisreactive.serializer.TypeRegistry;
+import dev.tpcoder.springredisreactive.serializer.VersionedValueSerializer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+class RawValuesTest {
+
+    private final TypeRegistry typeRegistry = new TypeRegistry()
+            .register(1, User.class)
+            .register(2, Item.class);
+    private final VersionedValueSerializer json = new VersionedValueSerializer(typeRegistry, JacksonValueCodec.json(),
+            List.of(JacksonValueCodec.smile()), new ObjectMapper());
+    private final VersionedValueSerializer smile = new VersionedValueSerializer(typeRegistry, JacksonValueCodec.smile(),
+            List.of(JacksonValueCodec.json()), new ObjectMapper());
+
+    private RawValues rawValues;
+    private User user;
+
+    @BeforeEach
+    void initTest() {
+        rawValues = new RawValues(json, typeRegistry, new RawReadProperties());
+        user = new User().setId("1").setFirstName("firstName").setLastName("lastName");
+    }
+
+    @Test
+    void json_whenJsonCodec_shouldSliceOffHeader() {
+        ByteBuffer stored = ByteBuffer.wrap(json.serialize(user));
+        DataBuffer body = rawValues.json(stored, User.class);
+        Assertions.assertEquals("{\"id\":\"1\",\"firstName\":\"firstName\",\"lastName\":\"lastName\"}", text(body));
+        // A view of the stored bytes, not a copy
+        Assertions.assertSame(stored.array(), body.asByteBuffer().array());
+    }
+
+    @Test
+    void json_whenOtherType_shouldBeNull() {
+        Assertions.assertNull(rawValues.json(ByteBuffer.wrap(json.serialize(new Item().setId("i"))), User.class));
+    }
+
+    @Test
+    void json_whenSmileOrCompressed_shouldBeNull() {
+        RedisSerializer<Object> compressing = new CompressingValueSerializer(json, new DeflateCompressionCodec(1),
+                true, 0, Map.of(), new CompressionStats());
+        Assertions.assertNull(rawValues.json(ByteBuffer.wrap(smile.serialize(user)), null));
+        User large = new User().setId("1").setFirstName("f".repeat(4096));
+        Assertions.assertNull(rawValues.json(ByteBuffer.wrap(compressing.serialize(large)), null));
+    }
+
+    @Test
+    void toBody_whenCounter_shouldPassDecimalThrough() {
+        Object body = rawValues.toBody(ByteBuffer.wrap(json.serialize(42L)));
+        Assertions.assertEquals("42", text((DataBuffer) body));
+    }
+
+    @Test
+    void toBody_whenLegacyJson_shouldPassThrough() {
+        Object body = rawValues.toBody(ByteBuffer.wrap("{\"name\":\"legacy\"}".getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertEquals("{\"name\":\"legacy\"}", text((DataBuffer) body));
+    }
+
+    @Test
+    void toBody_whenSmile_shouldDecode() {
+        Assertions.assertEquals(user, rawValues.toBody(ByteBuffer.wrap(smile.serialize(user))));
+    }
+
+    private static String text(DataBuffer buffer) {
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,131 @@
+package dev.tpcoder.springredisreactive.service;
+
+import static org.mockito.ArgumentMatchers.any;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class ReadThroughRedisServiceTest {
+
+    private static final Duration TTL = Duration.ofMinutes(5);
+    private static final Duration REFRESH_AHEAD = Duration.ofMinutes(1);
+    private static final Duration STALE_WINDOW = Duration.ofMinutes(1);
+
+    @Mock
+    private RedisService delegate;
+
+    private InMemoryValueLoader loader;
+
+    private ReadThroughRedisService readThrough;
+
+    @BeforeEach
+    void initTest() {
+        loader = new InMemoryValueLoader().put("user1", "loaded");
+        readThrough = readThrough(loader);
+    }
+
+    @Test
+    void get_whenFresh_shouldNotLoad() {
+        cached("user1", "cached", Duration.ofMinutes(4));
+        StepVerifier.create(readThrough.get("user1"))
+                .expectNext("cached")
+                .verifyComplete();
+        Assertions.assertEquals(0, loader.loadCount());
+    }
+
+    @Test
+    void get_whenMissing_shouldLoadAndWriteWithStaleWindow() {
+        missing("user1");
+        Mockito.when(delegate.multiSet(Map.of("user1", "loaded"), TTL.plus(STALE_WINDOW)))
+                .thenReturn(Mono.just(true));
+        StepVerifier.create(readThrough.get("user1"))
+                .expectNext("loaded")
+                .verifyComplete();
+        Assertions.assertEquals(0, readThrough.inFlightCount());
+    }
+
+    @Test
+    void get_whenMissingEverywhere_shouldBeEmpty() {
+        missing("user2");
+        StepVerifier.create(readThrough.get("user2"))
+                .verifyComplete();
+        Mockito.verify(delegate, Mockito.never()).multiSet(any(), any(Duration.class));
+    }
+
+    @Test
+    void get_whenCloseToExpiry_shouldServeCachedAndRefresh() {
+        cached("user1", "cached", Duration.ofSeconds(90));
+        Mockito.when(delegate.multiSet(Map.of("user1", "loaded"), TTL.plus(STALE_WINDOW)))
+                .thenReturn(Mono.just(true));
+        StepVerifier.create(readThrough.get("user1"))
+                .expectNext("cached")
+                .verifyComplete();
+        Mockito.verify(delegate).multiSet(Map.of("user1", "loaded"), TTL.plus(STALE_WINDOW));
+    }
+
+    @Test
+    void get_whenStaleAndRefreshFails_shouldServeStale() {
+        readThrough = readThrough(key -> Mono.error(new IllegalStateException("source down")));
+        cached("user1", "stale", Duration.ofSeconds(10));
+        StepVerifier.create(readThrough.get("user1"))
+                .expectNext("stale")
+                .verifyComplete();
+        Assertions.assertEquals(0, readThrough.inFlightCount());
+    }
+
+    @Test
+    void get_whenNoExpiry_shouldNotRefresh() {
+        cached("user1", "manual", Duration.ZERO);
+        StepVerifier.create(readThrough.get("user1"))
+                .expectNext("manual")
+                .verifyComplete();
+        Assertions.assertEquals(0, loader.loadCount());
+    }
+
+    @Test
+    void get_whenConcurrentMisses_shouldShareOneLoad() {
+        Sinks.One<Object> source = Sinks.one();
+        AtomicInteger calls = new AtomicInteger();
+        readThrough = readThrough(key -> {
+            calls.incrementAndGet();
+            return source.asMono();
+        });
+        missing("user1");
+        Mockito.when(delegate.multiSet(Map.of("user1", "loaded"), TTL.plus(STALE_WINDOW)))
+                .thenReturn(Mono.just(true));
+        StepVerifier.create(Mono.zip(readThrough.get("user1"), readThrough.get("user1")))
+                .then(() -> source.tryEmitValue("loaded"))
+                .assertNext(both -> {
+                    Assertions.assertEquals("loaded", both.getT1());
+                    Assertions.assertEquals("loaded", both.getT2());
+                })
+                .verifyComplete();
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    private ReadThroughRedisService readThrough(ValueLoader valueLoader) {
+        return new ReadThroughRedisService(delegate, valueLoader, TTL, REFRESH_AHEAD, STALE_WINDOW, 4, 10);
+    }
+
+    private void cached(String key, Object value, Duration remaining) {
+        Mockito.when(delegate.get(key)).thenReturn(Mono.just(value));
+        Mockito.when(delegate.getExpire(key)).thenReturn(Mono.just(remaining));
+    }
+
+    private void missing(String key) {
+        Mockito.when(delegate.get(key)).thenReturn(Mono.empty());
+        Mockito.when(delegate.getExpire(key)).thenReturn(Mono.empty());
+    }
+}
@@ -1,27 +1,44 @@
 package dev.tpcoder.springredisreactive.service;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.tpcoder.springredisreactive.config.RedisServiceProperties;
 import dev.tpcoder.springredisreactive.model.Item;
 import dev.tpcoder.springredisreactive.model.User;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.reactivestreams.Publisher;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.redis.core.ReactiveRedisCallback;
 import org.springframework.data.redis.core.ReactiveRedisOperations;
 import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
@@ -39,6 +56,12 @@ class RedisServiceTest {
     @Mock
     private ReactiveValueOperations<String, Object> reactiveValueOperations;
 
+    @Spy
+    private RedisServiceProperties properties = new RedisServiceProperties();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     private User user;
     private Item item;
 
@@ -54,8 +77,6 @@ class RedisServiceTest {
 
     @Test
     void getByKey_shouldReturnExpectedResult() {
-        Mockito.when(reactiveRedisOperations.keys(anyString()))
-                .thenReturn(Flux.just("user1"));
         Mockito.when(reactiveRedisOperations.opsForValue().get(anyString()))
                 .thenReturn(Mono.just(user));
         StepVerifier.create(redisService.get("user1"))
@@ -66,12 +87,42 @@ class RedisServiceTest {
                     Assertions.assertEquals("lastName", data.getLastName());
                 })
                 .verifyComplete();
+        Mockito.verify(reactiveRedisOperations, Mockito.never()).keys(anyString());
+    }
+
+    @Test
+    void putWithTimeout_shouldSetWithExpiry() {
+        Mockito.when(reactiveRedisOperations.opsForValue().set("user1", user, Duration.ofMinutes(5)))
+                .thenReturn(Mono.just(true));
+        StepVerifier.create(redisService.put("user1", user, Duration.ofMinutes(5)))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getRaw_shouldReturnStoredBytes() {
+        ByteBuffer stored = ByteBuffer.wrap("42".getBytes(StandardCharsets.US_ASCII));
+        Mockito.when(reactiveRedisOperations.getSerializationContext())
+                .thenReturn(RedisSerializationContext.<String, Object>newSerializationContext(RedisSerializer.string()).build());
+        Mockito.when(reactiveRedisOperations.execute(any(ReactiveRedisCallback.class)))
+                .thenReturn(Flux.just(stored));
+        StepVerifier.create(redisService.getRaw("item1"))
+                .expectNext(stored)
+                .verifyComplete();
+        Mockito.verify(reactiveValueOperations, Mockito.never()).get(anyString());
+    }
+
+    @Test
+    void getByKey_whenKeyMissing_shouldReturnEmpty() {
+        Mockito.when(reactiveRedisOperations.opsForValue().get(anyString()))
+                .thenReturn(Mono.empty());
+        StepVerifier.create(redisService.get("missing"))
+                .verifyComplete();
     }
 
     @Test
     void getByKey_shouldReturnClassExpectedResult() {
-        Mockito.when(reactiveRedisOperations.keys(anyString()))
-                .thenReturn(Flux.just("user1"));
         Mockito.when(reactiveRedisOperations.opsForValue().get(anyString()))
                 .thenReturn(Mono.just(user));
         StepVerifier.create(redisService.get("user1", User.class))
@@ -83,10 +134,17 @@ class RedisServiceTest {
                 .verifyComplete();
     }
 
+    @Test
+    void getByKey_whenStoredUntyped_shouldConvertToClass() {
+        Mockito.when(reactiveRedisOperations.opsForValue().get(anyString()))
+                .thenReturn(Mono.just(Map.of("id", "user1", "firstName", "firstName", "lastName", "lastName")));
+        StepVerifier.create(redisService.get("user1", User.class))
+                .expectNext(user)
+                .verifyComplete();
+    }
+
     @Test
     void getByKey_shouldReturnItemClassResult() {
-        Mockito.when(reactiveRedisOperations.keys(anyString()))
-                .thenReturn(Flux.just("item1"));
         Mockito.when(reactiveRedisOperations.opsForValue().get(anyString()))
                 .thenReturn(Mono.just(item));
         StepVerifier.create(redisService.get("item1", Item.class))
@@ -101,8 +159,6 @@ class RedisServiceTest {
 
     @Test
     void getByKey_shouldReturnExpectedListResult() {
-        Mockito.when(reactiveRedisOperations.keys(anyString()))
-                .thenReturn(Flux.just("users"));
         Mockito.when(reactiveRedisOperations.opsForValue().get(anyString()))
                 .thenReturn(Mono.just(List.of(user, user)));
         StepVerifier.create(redisService.get("users", new ParameterizedTypeReference<List<User>>() {
@@ -116,8 +172,6 @@ class RedisServiceTest {
 
     @Test
     void getAndSet_shouldReturnExpectedResult() {
-        Mockito.when(reactiveRedisOperations.keys(anyString()))
-                .thenReturn(Flux.just("user1"));
         Mockito.when(reactiveRedisOperations.opsForValue().getAndSet(anyString(), any()))
                 .thenReturn(Mono.just(user));
         User updatedUser = new User();
@@ -136,8 +190,6 @@ class RedisServiceTest {
 
     @Test
     void getAndSet_whenExpectedClass_shouldReturnExpectedClassResult() {
-        Mockito.when(reactiveRedisOperations.keys(anyString()))
-                .thenReturn(Flux.just("user1"));
         Mockito.when(reactiveRedisOperations.opsForValue().getAndSet(anyString(), any()))
                 .thenReturn(Mono.just(user));
         User updatedUser = new User();
@@ -160,8 +212,6 @@ class RedisServiceTest {
                 .setFirstName("firstName")
                 .setLastName("lastName");
         List<User> users = List.of(updatedUser);
-        Mockito.when(reactiveRedisOperations.keys(anyString()))
-                .thenReturn(Flux.just("1"));
         Mockito.when(reactiveRedisOperations.opsForValue().getAndSet(anyString(), any()))
                 .thenReturn(Mono.just(users));
         StepVerifier.create(redisService.getAndSet("1", users, new ParameterizedTypeReference<List<User>>() {
@@ -173,6 +223,95 @@ class RedisServiceTest {
                 .verifyComplete();
     }
 
+    @Test
+    void givenMultiGetOperation_whenKeysExceedBatchSize_shouldSplitAndKeepOrder() {
+        properties.setBatchSize(2);
+        Mockito.when(reactiveValueOperations.multiGet(List.of("user1", "user2")))
+                .thenReturn(Mono.just(Arrays.asList(user, null)));
+        Mockito.when(reactiveValueOperations.multiGet(List.of("item1")))
+                .thenReturn(Mono.just(Collections.singletonList(item)));
+        StepVerifier.create(redisService.multiGet(List.of("user1", "user2", "item1")))
+                .assertNext(data -> Assertions.assertEquals(Arrays.asList(user, null, item), data))
+                .verifyComplete();
+    }
+
+    @Test
+    void givenMultiSetOperation_whenEntriesExceedBatchSize_shouldSplit() {
+        properties.setBatchSize(1);
+        Mockito.when(reactiveValueOperations.multiSet(anyMap()))
+                .thenReturn(Mono.just(Boolean.TRUE));
+        StepVerifier.create(redisService.multiSet(Map.of("user1", user, "item1", item)))
+                .expectNext(Boolean.TRUE)
+                .verifyComplete();
+        Mockito.verify(reactiveValueOperations, Mockito.times(2)).multiSet(anyMap());
+    }
+
+    @Test
+    void givenMultiSetOperation_whenGivenTimeout_shouldSetEveryKeyWithExpiry() {
+        Duration oneHours = Duration.ofHours(1);
+        Mockito.when(reactiveValueOperations.set(anyString(), any(), any(Duration.class)))
+                .thenReturn(Mono.just(Boolean.TRUE));
+        StepVerifier.create(redisService.multiSet(Map.of("user1", user, "item1", item), oneHours))
+                .expectNext(Boolean.TRUE)
+                .verifyComplete();
+        Mockito.verify(reactiveValueOperations).set("user1", user, oneHours);
+        Mockito.verify(reactiveValueOperations).set("item1", item, oneHours);
+    }
+
+    @Test
+    void givenScanOperation_whenGivenPattern_shouldUseConfiguredCount() {
+        Mockito.when(reactiveRedisOperations.scan(any(ScanOptions.class)))
+                .thenReturn(Flux.just("user1", "user2"));
+        StepVerifier.create(redisService.scan("user*"))
+                .expectNext("user1", "user2")
+                .verifyComplete();
+        ArgumentCaptor<ScanOptions> captor = ArgumentCaptor.forClass(ScanOptions.class);
+        Mockito.verify(reactiveRedisOperations).scan(captor.capture());
+        Assertions.assertEquals("user*", captor.getValue().getPattern());
+        Assertions.assertEquals(properties.getScanCount(), captor.getValue().getCount());
+    }
+
+    @Test
+    void givenScanOperation_whenGivenCount_shouldUseGivenCount() {
+        Mockito.when(reactiveRedisOperations.scan(any(ScanOptions.class)))
+                .thenReturn(Flux.just("item1"));
+        StepVerifier.create(redisService.scan("item*", 10L))
+                .expectNext("item1")
+                .verifyComplete();
+        ArgumentCaptor<ScanOptions> captor = ArgumentCaptor.forClass(ScanOptions.class);
+        Mockito.verify(reactiveRedisOperations).scan(captor.capture());
+        Assertions.assertEquals(10L, captor.getValue().getCount());
+    }
+
+    @Test
+    void givenScanEntriesOperation_shouldFetchValuesInBatchesAndSkipDeletedKeys() {
+        properties.setBatchSize(2);
+        Mockito.when(reactiveRedisOperations.scan(any(ScanOptions.class)))
+                .thenReturn(Flux.just("user1", "user2", "item1"));
+        Mockito.when(reactiveValueOperations.multiGet(List.of("user1", "user2")))
+                .thenReturn(Mono.just(Arrays.asList(user, null)));
+        Mockito.when(reactiveValueOperations.multiGet(List.of("item1")))
+                .thenReturn(Mono.just(Collections.singletonList(item)));
+        StepVerifier.create(redisService.scanEntries("*"))
+                .expectNext(Map.entry("user1", user))
+                .expectNext(Map.entry("item1", item))
+                .verifyComplete();
+    }
+
+    @Test
+    void givenScanEntriesOperation_whenSubscriberIsSlow_shouldNotReadAhead() {
+        properties.setBatchSize(2);
+        Mockito.when(reactiveRedisOperations.scan(any(ScanOptions.class)))
+                .thenReturn(Flux.range(0, 1_000_000).map(i -> "user" + i));
+        Mockito.when(reactiveValueOperations.multiGet(any()))
+                .thenReturn(Mono.just(Arrays.asList(user, user)));
+        StepVerifier.create(redisService.scanEntries("*"), 1)
+                .expectNextCount(1)
+                .thenCancel()
+                .verify();
+        Mockito.verify(reactiveValueOperations, Mockito.atMost(2)).multiGet(any());
+    }
+
     @Test
     void givenPutOperation_whenPutData_shouldReturnSuccess() {
         Mockito.when(reactiveRedisOperations.opsForValue().set(anyString(), any()))
@@ -192,7 +331,7 @@ class RedisServiceTest {
 
     @Test
     void givenDeleteOperation_whenGivenKeyList_shouldSuccess() {
-        Mockito.when(reactiveRedisOperations.delete(any(Flux.class)))
+        Mockito.when(reactiveRedisOperations.delete(Mockito.<Publisher<String>>any()))
                 .thenReturn(Mono.just(2L));
         StepVerifier.create(redisService.delete(List.of(user.getId(), user.getId())))
                 .verifyComplete();
@@ -292,4 +431,65 @@ class RedisServiceTest {
                 .expectNext(2L)
                 .verifyComplete();
     }
+
+    @Test
+    void executeBatch_shouldReturnResultsInCommandOrder() {
+        Mockito.when(reactiveValueOperations.get("user1"))
+                .thenReturn(Mono.just(user));
+        Mockito.when(reactiveValueOperations.get("missing"))
+                .thenReturn(Mono.empty());
+        Mockito.when(reactiveValueOperations.set("item1", 5L, Duration.ofSeconds(10)))
+                .thenReturn(Mono.just(true));
+        Mockito.when(reactiveValueOperations.increment("item2", 3L))
+                .thenReturn(Mono.just(3L));
+        Mockito.when(reactiveRedisOperations.delete("user2"))
+                .thenReturn(Mono.just(1L));
+        RedisBatch batch = new RedisBatch()
+                .get("user1")
+                .get("missing")
+                .set("item1", 5L, Duration.ofSeconds(10))
+                .increment("item2", 3L)
+                .delete("user2");
+        StepVerifier.create(redisService.executeBatch(batch))
+                .expectNext(Arrays.asList(user, null, true, 3L, 1L))
+                .verifyComplete();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void decrementWithFloor_shouldRunScriptWithKeyAndArguments() {
+        Mockito.when(reactiveRedisOperations.execute(any(RedisScript.class), anyList(), anyList()))
+                .thenReturn(Flux.just(0L, 2L));
+        StepVerifier.create(redisService.decrementWithFloor("item1", 5L, 0L))
+                .assertNext(result -> {
+                    Assertions.assertFalse(result.isApplied());
+                    Assertions.assertEquals(2L, result.getAmount());
+                })
+                .verifyComplete();
+        Mockito.verify(reactiveRedisOperations).execute(any(RedisScript.class), Mockito.eq(List.of("item1")),
+                Mockito.eq(List.of(5L, 0L)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reserve_shouldPassItemAndReservationKeys() {
+        Mockito.when(reactiveRedisOperations.execute(any(RedisScript.class), anyList(), anyList()))
+                .thenReturn(Flux.just(List.of(1L, 8L)));
+        StepVerifier.create(redisService.reserve("item1", "r1", 2L))
+                .assertNext(result -> {
+                    Assertions.assertTrue(result.isApplied());
+                    Assertions.assertEquals(8L, result.getAmount());
+                })
+                .verifyComplete();
+        Mockito.verify(reactiveRedisOperations).execute(any(RedisScript.class),
+                Mockito.eq(List.of("item1", "reservation:item1:r1")), Mockito.eq(List.of(2L)));
+    }
+
+    @Test
+    void stockScripts_shouldLoadFromClasspath() {
+        for (RedisScript<?> script : List.of(StockScripts.DECREMENT_FLOOR, StockScripts.INCREMENT_CAP,
+                StockScripts.RESERVE, StockScripts.RELEASE)) {
+            Assertions.assertEquals(40, script.getSha1().length());
+        }
+    }
 }
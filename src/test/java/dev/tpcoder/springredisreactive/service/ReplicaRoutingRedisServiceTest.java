@@ -0,0 +1,118 @@
+package dev.tpcoder.springredisreactive.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingRedisServiceTest {
+
+    @Mock
+    private RedisService primary;
+
+    @Mock
+    private RedisService replicas;
+
+    private ReplicaRoutingRedisService routing;
+
+    @BeforeEach
+    void initTest() {
+        routing = new ReplicaRoutingRedisService(primary, replicas, Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(1))
+                .<String, Boolean>build());
+    }
+
+    @Test
+    void get_shouldReadFromReplicas() {
+        Mockito.when(replicas.get("user1"))
+                .thenReturn(Mono.just("replica"));
+        StepVerifier.create(routing.get("user1"))
+                .expectNext("replica")
+                .verifyComplete();
+        Mockito.verifyNoInteractions(primary);
+    }
+
+    @Test
+    void get_whenReplicasFail_shouldFallBackToPrimary() {
+        Mockito.when(replicas.hasKey("user1"))
+                .thenReturn(Mono.error(new IllegalStateException("no replica")));
+        Mockito.when(primary.hasKey("user1"))
+                .thenReturn(Mono.just(true));
+        StepVerifier.create(routing.hasKey("user1"))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    void put_shouldWriteToPrimaryAndReadOwnWriteFromPrimary() {
+        Mockito.when(primary.put("user1", "value"))
+                .thenReturn(Mono.just(true));
+        Mockito.when(primary.get("user1"))
+                .thenReturn(Mono.just("value"));
+        StepVerifier.create(routing.put("user1", "value"))
+                .expectNext(true)
+                .verifyComplete();
+        StepVerifier.create(routing.get("user1"))
+                .expectNext("value")
+                .verifyComplete();
+        Mockito.verifyNoInteractions(replicas);
+    }
+
+    @Test
+    void get_composedAfterPut_shouldReadOwnWriteFromPrimary() {
+        Mockito.when(primary.put("user1", "value"))
+                .thenReturn(Mono.just(true));
+        Mockito.when(primary.get("user1"))
+                .thenReturn(Mono.just("value"));
+        StepVerifier.create(routing.put("user1", "value").then(routing.get("user1")))
+                .expectNext("value")
+                .verifyComplete();
+        Mockito.verifyNoInteractions(replicas);
+    }
+
+    @Test
+    void multiGet_composedAfterWrite_shouldUsePrimary() {
+        Mockito.when(primary.increment("item1", 1L))
+                .thenReturn(Mono.just(1L));
+        Mockito.when(primary.multiGet(List.of("item1", "item2")))
+                .thenReturn(Mono.just(List.of(1L, 2L)));
+        StepVerifier.create(routing.increment("item1", 1L).then(routing.multiGet(List.of("item1", "item2"))))
+                .expectNext(List.of(1L, 2L))
+                .verifyComplete();
+        Mockito.verifyNoInteractions(replicas);
+    }
+
+    @Test
+    void multiGet_withRecentlyWrittenKey_shouldUsePrimary() {
+        Mockito.when(primary.increment("item1", 1L))
+                .thenReturn(Mono.just(1L));
+        Mockito.when(primary.multiGet(List.of("item1", "item2")))
+                .thenReturn(Mono.just(List.of(1L, 2L)));
+        routing.increment("item1", 1L).block();
+        StepVerifier.create(routing.multiGet(List.of("item1", "item2")))
+                .expectNext(List.of(1L, 2L))
+                .verifyComplete();
+        Mockito.verifyNoInteractions(replicas);
+    }
+
+    @Test
+    void get_withoutReadYourWritesWindow_shouldAlwaysUseReplicas() {
+        routing = new ReplicaRoutingRedisService(primary, replicas, null);
+        Mockito.when(primary.put("user1", "value"))
+                .thenReturn(Mono.just(true));
+        Mockito.when(replicas.get("user1"))
+                .thenReturn(Mono.empty());
+        routing.put("user1", "value").block();
+        StepVerifier.create(routing.get("user1"))
+                .verifyComplete();
+        Mockito.verify(primary, Mockito.never()).get("user1");
+    }
+}
@@ -0,0 +1,250 @@
+package dev.tpcoder.springredisreactive.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.tpcoder.springredisreactive.config.ResilienceProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class ResilientRedisServiceTest {
+
+    @Mock
+    private RedisService redisService;
+
+    @Mock
+    private RedisService primary;
+
+    @Mock
+    private RedisService replicas;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private ResilienceProperties properties;
+
+    @BeforeEach
+    void initTest() {
+        properties = new ResilienceProperties();
+        properties.setEnabled(true);
+        properties.getTimeouts().setRead(Duration.ofMillis(50));
+        properties.getCircuitBreaker().setSlidingWindowSize(2);
+        properties.getCircuitBreaker().setMinimumCalls(2);
+    }
+
+    @Test
+    void get_whenSlow_shouldTimeOut() {
+        Mockito.when(redisService.get("user1"))
+                .thenReturn(Mono.never());
+        StepVerifier.create(service().get("user1"))
+                .expectError(RedisUnavailableException.class)
+                .verify(Duration.ofSeconds(5));
+        Assertions.assertEquals(1.0, registry.get("redis.resilience.timeouts").tag("type", "read").counter().count());
+    }
+
+    @Test
+    void get_whenCircuitOpen_shouldFailFastWithoutCallingRedis() {
+        AtomicInteger calls = new AtomicInteger();
+        Mockito.when(redisService.get("user1"))
+                .thenReturn(Mono.defer(() -> {
+                    calls.incrementAndGet();
+                    return Mono.error(new RedisConnectionFailureException("down"));
+                }));
+        ResilientRedisService service = service();
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(service.get("user1"))
+                    .expectError(RedisConnectionFailureException.class)
+                    .verify();
+        }
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, service.circuitState());
+        StepVerifier.create(service.get("user1"))
+                .expectError(RedisUnavailableException.class)
+                .verify();
+        Assertions.assertEquals(2, calls.get());
+        Assertions.assertEquals(1.0, registry.get("redis.resilience.rejected").counter().count());
+    }
+
+    @Test
+    void get_whenRedisAnswersWithAnError_shouldKeepCircuitClosed() {
+        Mockito.when(redisService.get("user1"))
+                .thenReturn(Mono.error(new IllegalStateException("WRONGTYPE")));
+        ResilientRedisService service = service();
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(service.get("user1"))
+                    .expectError(IllegalStateException.class)
+                    .verify();
+        }
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, service.circuitState());
+    }
+
+    @Test
+    void get_withLocalFallback_shouldServeLastValueWhenRedisTimesOut() {
+        properties.getFallback().setMode(ResilienceProperties.Mode.LOCAL);
+        Mockito.when(redisService.get("user1"))
+                .thenReturn(Mono.just("value"))
+                .thenReturn(Mono.never());
+        ResilientRedisService service = service();
+        StepVerifier.create(service.get("user1"))
+                .expectNext("value")
+                .verifyComplete();
+        StepVerifier.create(service.get("user1"))
+                .expectNext("value")
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        Assertions.assertEquals(1.0, registry.get("redis.resilience.fallbacks").counter().count());
+    }
+
+    @Test
+    void delete_withLocalFallback_shouldDropRememberedValue() {
+        properties.getFallback().setMode(ResilienceProperties.Mode.LOCAL);
+        Mockito.when(redisService.put("user1", "value"))
+                .thenReturn(Mono.just(true));
+        Mockito.when(redisService.delete("user1"))
+                .thenReturn(Mono.empty());
+        Mockito.when(redisService.get("user1"))
+                .thenReturn(Mono.never());
+        ResilientRedisService service = service();
+        StepVerifier.create(service.put("user1", "value").then(service.delete("user1")))
+                .verifyComplete();
+        StepVerifier.create(service.get("user1"))
+                .expectError(RedisUnavailableException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void multiSet_withLocalFallback_whenWriteFails_shouldDropRememberedValues() {
+        properties.getFallback().setMode(ResilienceProperties.Mode.LOCAL);
+        Mockito.when(redisService.put("user1", "old"))
+                .thenReturn(Mono.just(true));
+        Mockito.when(redisService.multiSet(Map.of("user1", "new")))
+                .thenReturn(Mono.error(new RedisConnectionFailureException("down")));
+        Mockito.when(redisService.get("user1"))
+                .thenReturn(Mono.never());
+        ResilientRedisService service = service();
+        StepVerifier.create(service.put("user1", "old").then(service.multiSet(Map.of("user1", "new"))))
+                .expectError(RedisConnectionFailureException.class)
+                .verify();
+        StepVerifier.create(service.get("user1"))
+                .expectError(RedisUnavailableException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void multiSet_withLocalFallback_whenNotSaved_shouldNotRememberValues() {
+        properties.getFallback().setMode(ResilienceProperties.Mode.LOCAL);
+        Mockito.when(redisService.multiSet(Map.of("user1", "new")))
+                .thenReturn(Mono.just(false));
+        Mockito.when(redisService.get("user1"))
+                .thenReturn(Mono.never());
+        ResilientRedisService service = service();
+        StepVerifier.create(service.multiSet(Map.of("user1", "new")))
+                .expectNext(false)
+                .verifyComplete();
+        StepVerifier.create(service.get("user1"))
+                .expectError(RedisUnavailableException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void get_whenReadIsSlow_shouldHedgeToPrimary() {
+        properties.getTimeouts().setRead(Duration.ofSeconds(1));
+        properties.getHedge().setEnabled(true);
+        properties.getHedge().setMaxDelay(Duration.ofMillis(10));
+        Mockito.when(redisService.get("user1"))
+                .thenReturn(Mono.never());
+        Mockito.when(primary.get("user1"))
+                .thenReturn(Mono.just("primary"));
+        StepVerifier.create(hedgingService().get("user1"))
+                .expectNext("primary")
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        Assertions.assertEquals(1.0, registry.get("redis.resilience.hedges").tag("outcome", "won").counter().count());
+    }
+
+    @Test
+    void get_whenReadIsFast_shouldNotHedge() {
+        properties.getHedge().setEnabled(true);
+        Mockito.when(redisService.get("user1"))
+                .thenReturn(Mono.just("replica"));
+        StepVerifier.create(hedgingService().get("user1"))
+                .expectNext("replica")
+                .verifyComplete();
+        Mockito.verifyNoInteractions(primary);
+    }
+
+    @Test
+    void get_whenHedgeFails_shouldWaitForFirstRead() {
+        properties.getHedge().setEnabled(true);
+        properties.getHedge().setMaxDelay(Duration.ofMillis(5));
+        Mockito.when(redisService.get("user1"))
+                .thenReturn(Mono.<Object>just("replica").delayElement(Duration.ofMillis(30)));
+        Mockito.when(primary.get("user1"))
+                .thenReturn(Mono.error(new RedisConnectionFailureException("primary down")));
+        StepVerifier.create(hedgingService().get("user1"))
+                .expectNext("replica")
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void get_behindReplicaRouting_shouldHedgeToAnotherNode() {
+        properties.getTimeouts().setRead(Duration.ofSeconds(1));
+        properties.getHedge().setEnabled(true);
+        properties.getHedge().setMaxDelay(Duration.ofMillis(5));
+        ReplicaRoutingRedisService routing = new ReplicaRoutingRedisService(primary, replicas,
+                Caffeine.newBuilder().<String, Boolean>build());
+        // A stalled replica, the hedge must not queue behind it
+        Mockito.when(replicas.get("user1"))
+                .thenReturn(Mono.never());
+        Mockito.when(primary.get("user1"))
+                .thenReturn(Mono.just("primary"));
+        ResilientRedisService service = new ResilientRedisService(routing, primary, routing::isPinned, properties,
+                registry);
+        StepVerifier.create(service.get("user1"))
+                .expectNext("primary")
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        Mockito.verify(replicas).get("user1");
+        Mockito.verify(primary).get("user1");
+    }
+
+    @Test
+    void get_afterOwnWrite_shouldReadPrimaryWithoutHedging() {
+        properties.getTimeouts().setRead(Duration.ofSeconds(1));
+        properties.getHedge().setEnabled(true);
+        properties.getHedge().setMaxDelay(Duration.ofMillis(5));
+        ReplicaRoutingRedisService routing = new ReplicaRoutingRedisService(primary, replicas,
+                Caffeine.newBuilder().<String, Boolean>build());
+        Mockito.when(primary.put("user1", "new"))
+                .thenReturn(Mono.just(true));
+        // A slow primary, hedging would only send the same GET to it again
+        Mockito.when(primary.get("user1"))
+                .thenReturn(Mono.<Object>just("new").delayElement(Duration.ofMillis(50)));
+        ResilientRedisService service = new ResilientRedisService(routing, primary, routing::isPinned, properties,
+                registry);
+        StepVerifier.create(service.put("user1", "new").then(service.get("user1")))
+                .expectNext("new")
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        Mockito.verify(primary).get("user1");
+        Mockito.verifyNoInteractions(replicas);
+    }
+
+    private ResilientRedisService service() {
+        return new ResilientRedisService(redisService, null, null, properties, registry);
+    }
+
+    private ResilientRedisService hedgingService() {
+        return new ResilientRedisService(redisService, primary, key -> false, properties, registry);
+    }
+}
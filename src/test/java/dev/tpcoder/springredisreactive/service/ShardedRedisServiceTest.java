@@ -0,0 +1,129 @@
+package dev.tpcoder.springredisreactive.service;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ShardedRedisServiceTest {
+
+    @Mock
+    private RedisService node0;
+
+    @Mock
+    private RedisService node1;
+
+    private ConsistentHashRing<RedisService> ring;
+
+    private ShardedRedisService shardedRedisService;
+
+    private List<String> keys;
+
+    @BeforeEach
+    void initTest() {
+        Map<String, RedisService> nodes = new LinkedHashMap<>();
+        nodes.put("redis://node0:6379", node0);
+        nodes.put("redis://node1:6379", node1);
+        ring = new ConsistentHashRing<>(nodes, 160);
+        shardedRedisService = new ShardedRedisService(ring);
+        keys = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            keys.add("user" + i);
+        }
+        // Every node answers a multi-key call with the keys themselves, so positions can be checked
+        for (RedisService node : List.of(node0, node1)) {
+            Mockito.when(node.multiGet(anyList()))
+                    .thenAnswer(invocation -> Mono.just(new ArrayList<Object>(invocation.<List<String>>getArgument(0))));
+            Mockito.when(node.delete(anyList()))
+                    .thenReturn(Mono.empty());
+            Mockito.when(node.multiSet(anyMap()))
+                    .thenReturn(Mono.just(true));
+        }
+    }
+
+    @Test
+    void get_shouldGoToTheOwningNode() {
+        RedisService owner = ring.nodeFor("user1");
+        Mockito.when(owner.get("user1"))
+                .thenReturn(Mono.just("value"));
+        StepVerifier.create(shardedRedisService.get("user1"))
+                .expectNext("value")
+                .verifyComplete();
+        Mockito.verify(owner == node0 ? node1 : node0, Mockito.never()).get("user1");
+    }
+
+    @Test
+    void multiGet_shouldSplitPerNodeAndKeepRequestOrder() {
+        StepVerifier.create(shardedRedisService.multiGet(keys))
+                .expectNext(new ArrayList<>(keys))
+                .verifyComplete();
+        Mockito.verify(node0).multiGet(anyList());
+        Mockito.verify(node1).multiGet(anyList());
+    }
+
+    @Test
+    void delete_shouldSendEveryNodeOnlyItsOwnKeys() {
+        StepVerifier.create(shardedRedisService.delete(keys))
+                .verifyComplete();
+        for (RedisService node : List.of(node0, node1)) {
+            Mockito.verify(node).delete(Mockito.<List<String>>argThat(nodeKeys -> !nodeKeys.isEmpty()
+                    && nodeKeys.stream().allMatch(key -> ring.nodeFor(key) == node)));
+        }
+    }
+
+    @Test
+    void multiSet_whenOneNodeFails_shouldReturnFalse() {
+        Mockito.when(node1.multiSet(anyMap()))
+                .thenReturn(Mono.just(false));
+        Map<String, Object> entries = new LinkedHashMap<>();
+        keys.forEach(key -> entries.put(key, 1L));
+        StepVerifier.create(shardedRedisService.multiSet(entries))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void executeBatch_shouldKeepCommandOrder() {
+        for (RedisService node : List.of(node0, node1)) {
+            Mockito.when(node.executeBatch(Mockito.any()))
+                    .thenAnswer(invocation -> {
+                        List<Object> results = new ArrayList<>();
+                        invocation.<RedisBatch>getArgument(0).commands().forEach(command -> results.add(command.getKey()));
+                        return Mono.just(results);
+                    });
+        }
+        RedisBatch batch = new RedisBatch();
+        keys.forEach(batch::get);
+        StepVerifier.create(shardedRedisService.executeBatch(batch))
+                .expectNext(new ArrayList<>(keys))
+                .verifyComplete();
+    }
+
+    @Test
+    void scan_shouldVisitEveryNode() {
+        Mockito.when(node0.scan("*"))
+                .thenReturn(Flux.just("a"));
+        Mockito.when(node1.scan("*"))
+                .thenReturn(Flux.just("b"));
+        StepVerifier.create(shardedRedisService.scan("*").collectList())
+                .assertNext(found -> Assertions.assertEquals(2, found.size()))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,98 @@
+package dev.tpcoder.springredisreactive.service;
+
+import dev.tpcoder.springredisreactive.model.User;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class SingleFlightRedisServiceTest {
+
+    @Mock
+    private RedisService delegate;
+
+    private SingleFlightRedisService redisService;
+    private User user;
+
+    @BeforeEach
+    void initTest() {
+        redisService = new SingleFlightRedisService(delegate);
+        user = new User();
+        user.setId("user1").setFirstName("firstName").setLastName("lastName");
+    }
+
+    @Test
+    void get_whenConcurrent_shouldShareOneCall() {
+        Sinks.One<Object> pending = Sinks.one();
+        Mockito.when(delegate.get("user1"))
+                .thenReturn(pending.asMono());
+        Mono<Object> first = redisService.get("user1");
+        Mono<Object> second = redisService.get("user1");
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> pending.tryEmitValue(user))
+                .assertNext(pair -> {
+                    Assertions.assertSame(user, pair.getT1());
+                    Assertions.assertSame(user, pair.getT2());
+                })
+                .verifyComplete();
+        Mockito.verify(delegate, Mockito.times(1)).get("user1");
+        Assertions.assertEquals(0, redisService.inFlightCount());
+    }
+
+    @Test
+    void get_whenPreviousCallCompleted_shouldGoToRedisAgain() {
+        Mockito.when(delegate.get("user1"))
+                .thenReturn(Mono.just(user));
+        StepVerifier.create(redisService.get("user1")).expectNext(user).verifyComplete();
+        StepVerifier.create(redisService.get("user1")).expectNext(user).verifyComplete();
+        Mockito.verify(delegate, Mockito.times(2)).get("user1");
+    }
+
+    @Test
+    void get_whenRedisFails_shouldFailEveryWaiterAndForget() {
+        Sinks.One<Object> pending = Sinks.one();
+        Mockito.when(delegate.get("user1"))
+                .thenReturn(pending.asMono());
+        StepVerifier.create(Mono.zip(redisService.get("user1"), redisService.get("user1")))
+                .then(() -> pending.tryEmitError(new IllegalStateException("boom")))
+                .verifyError(IllegalStateException.class);
+        Assertions.assertEquals(0, redisService.inFlightCount());
+    }
+
+    @Test
+    void get_whenOneWaiterCancels_shouldKeepCallForOthers() {
+        Sinks.One<Object> pending = Sinks.one();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Mockito.when(delegate.get("user1"))
+                .thenReturn(pending.asMono().doOnCancel(() -> cancelled.set(true)));
+        Disposable first = redisService.get("user1").subscribe();
+        StepVerifier.create(redisService.get("user1"))
+                .then(first::dispose)
+                .then(() -> Assertions.assertFalse(cancelled.get()))
+                .then(() -> pending.tryEmitValue(user))
+                .expectNext(user)
+                .verifyComplete();
+    }
+
+    @Test
+    void get_whenAllWaitersCancel_shouldCancelCallAndForget() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Mockito.when(delegate.get("user1"))
+                .thenReturn(Mono.never().doOnCancel(() -> cancelled.set(true)));
+        Disposable first = redisService.get("user1").subscribe();
+        Disposable second = redisService.get("user1").subscribe();
+        first.dispose();
+        second.dispose();
+        Assertions.assertTrue(cancelled.get());
+        Assertions.assertEquals(0, redisService.inFlightCount());
+    }
+}
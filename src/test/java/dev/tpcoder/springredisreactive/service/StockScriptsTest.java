@@ -0,0 +1,104 @@
+package dev.tpcoder.springredisreactive.service;
+
+import dev.tpcoder.springredisreactive.model.StockResult;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.luaj.vm2.LuaValue;
+import org.springframework.data.redis.core.script.RedisScript;
+
+class StockScriptsTest {
+
+    private final LuaScriptRunner redis = new LuaScriptRunner();
+
+    @Test
+    void decrementFloor_shouldApplyDownToTheFloor() {
+        redis.strings.put("item1", "5");
+
+        assertResult(true, 2, run(StockScripts.DECREMENT_FLOOR, List.of("item1"), 3, 2));
+        assertResult(false, 2, run(StockScripts.DECREMENT_FLOOR, List.of("item1"), 1, 2));
+        Assertions.assertEquals("2", redis.strings.get("item1"));
+    }
+
+    @Test
+    void decrementFloor_whenMissing_shouldStartFromZero() {
+        assertResult(false, 0, run(StockScripts.DECREMENT_FLOOR, List.of("item1"), 1, 0));
+        assertResult(true, -1, run(StockScripts.DECREMENT_FLOOR, List.of("item1"), 1, -1));
+    }
+
+    @Test
+    void decrementFloor_whenNotANumber_shouldFail() {
+        redis.strings.put("item1", "abc");
+
+        LuaValue reply = run(StockScripts.DECREMENT_FLOOR, List.of("item1"), 1, 0);
+
+        Assertions.assertEquals("ERR value is not an integer", reply.get("err").tojstring());
+    }
+
+    @Test
+    void incrementCap_shouldApplyUpToTheCap() {
+        redis.strings.put("item1", "5");
+
+        assertResult(true, 10, run(StockScripts.INCREMENT_CAP, List.of("item1"), 5, 10));
+        assertResult(false, 10, run(StockScripts.INCREMENT_CAP, List.of("item1"), 1, 10));
+        Assertions.assertEquals("10", redis.strings.get("item1"));
+    }
+
+    @Test
+    void incrementCap_withRanking_shouldRankNewAmount() {
+        redis.strings.put("item1", "5");
+
+        run(StockScripts.INCREMENT_CAP, List.of("item1", "ranking"), 2, 10);
+
+        Assertions.assertEquals(Map.of("item1", 7.0), redis.sortedSets.get("ranking"));
+    }
+
+    @Test
+    void reserve_shouldTakeStockOnlyOncePerReservation() {
+        redis.strings.put("item1", "5");
+        List<String> keys = List.of("item1", StockScripts.reservationKey("item1", "r1"));
+
+        assertResult(true, 3, run(StockScripts.RESERVE, keys, 2));
+        assertResult(true, 3, run(StockScripts.RESERVE, keys, 2));
+        Assertions.assertEquals("3", redis.strings.get("item1"));
+        Assertions.assertEquals("2", redis.strings.get("reservation:item1:r1"));
+    }
+
+    @Test
+    void reserve_whenStockTooLow_shouldNotRecordReservation() {
+        redis.strings.put("item1", "1");
+
+        assertResult(false, 1, run(StockScripts.RESERVE, List.of("item1", "reservation:item1:r1"), 2));
+        Assertions.assertFalse(redis.strings.containsKey("reservation:item1:r1"));
+    }
+
+    @Test
+    void release_shouldGiveQuantityBackOnce() {
+        redis.strings.put("item1", "3");
+        redis.strings.put("reservation:item1:r1", "2");
+        List<String> keys = List.of("item1", "reservation:item1:r1", "ranking");
+
+        assertResult(true, 5, run(StockScripts.RELEASE, keys));
+        assertResult(false, 5, run(StockScripts.RELEASE, keys));
+        Assertions.assertFalse(redis.strings.containsKey("reservation:item1:r1"));
+        Assertions.assertEquals(Map.of("item1", 5.0), redis.sortedSets.get("ranking"));
+    }
+
+    @SuppressWarnings("rawtypes")
+    private LuaValue run(RedisScript<List> script, List<String> keys, long... args) {
+        return redis.run(script, keys, Arrays.stream(args).mapToObj(String::valueOf).toArray(String[]::new));
+    }
+
+    private static void assertResult(boolean applied, long amount, LuaValue reply) {
+        List<Long> values = new ArrayList<>();
+        for (int i = 1; i <= reply.length(); i++) {
+            values.add(reply.get(i).tolong());
+        }
+        StockResult result = StockScripts.toResult(values);
+        Assertions.assertEquals(applied, result.isApplied());
+        Assertions.assertEquals(amount, result.getAmount());
+    }
+}
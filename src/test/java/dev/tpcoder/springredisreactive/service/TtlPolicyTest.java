@@ -0,0 +1,44 @@
+package dev.tpcoder.springredisreactive.service;
+
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TtlPolicyTest {
+
+    private final TtlPolicy policy = new TtlPolicy(Duration.ofHours(1),
+            Map.of("session", Duration.ofMinutes(30), "config", Duration.ZERO), 0.1);
+
+    @Test
+    void baseTtl_shouldUseNamespacePolicy() {
+        Assertions.assertEquals(Duration.ofMinutes(30), policy.baseTtl("session:abc"));
+    }
+
+    @Test
+    void baseTtl_whenNoNamespacePolicy_shouldUseDefault() {
+        Assertions.assertEquals(Duration.ofHours(1), policy.baseTtl("user1"));
+        Assertions.assertEquals(Duration.ofHours(1), policy.baseTtl("cart:1"));
+    }
+
+    @Test
+    void baseTtl_whenZero_shouldNotExpire() {
+        Assertions.assertNull(policy.baseTtl("config:flags"));
+    }
+
+    @Test
+    void ttlFor_shouldAddJitterWithinBounds() {
+        for (int i = 0; i < 1000; i++) {
+            Duration ttl = policy.ttlFor("session:abc");
+            Assertions.assertTrue(ttl.compareTo(Duration.ofMinutes(30)) >= 0, ttl::toString);
+            Assertions.assertTrue(ttl.compareTo(Duration.ofMinutes(33)) <= 0, ttl::toString);
+        }
+    }
+
+    @Test
+    void ttlFor_whenNoDefault_shouldNotExpireOtherKeys() {
+        TtlPolicy sessionsOnly = new TtlPolicy(null, Map.of("session", Duration.ofMinutes(30)), 0);
+        Assertions.assertNull(sessionsOnly.ttlFor("user1"));
+        Assertions.assertEquals(Duration.ofMinutes(30), sessionsOnly.ttlFor("session:abc"));
+    }
+}
@@ -0,0 +1,170 @@
+package dev.tpcoder.springredisreactive.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.tpcoder.springredisreactive.config.RawReadProperties;
+import dev.tpcoder.springredisreactive.model.User;
+import dev.tpcoder.springredisreactive.serializer.JacksonValueCodec;
+import dev.tpcoder.springredisreactive.serializer.TypeRegistry;
+import dev.tpcoder.springredisreactive.serializer.ValueCodec;
+import dev.tpcoder.springredisreactive.serializer.VersionedValueSerializer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class ValueUserStoreTest {
+
+    @Mock
+    private RedisService redisService;
+
+    private ValueUserStore userStore;
+
+    private User user;
+
+    @BeforeEach
+    void initTest() {
+        userStore = new ValueUserStore(redisService, new UserFields(new ObjectMapper()), rawValues(false));
+        user = new User().setId("1").setFirstName("firstName").setLastName("lastName");
+    }
+
+    @Test
+    void find_withFields_shouldOnlyReturnRequestedFields() {
+        Mockito.when(redisService.get("1"))
+                .thenReturn(Mono.just(user));
+        StepVerifier.create(userStore.find("1", Set.of("lastName")))
+                .expectNext(Map.of("lastName", "lastName"))
+                .verifyComplete();
+    }
+
+    @Test
+    void findBody_whenRawReadsAndJson_shouldPassStoredJsonThrough() {
+        userStore = new ValueUserStore(redisService, new UserFields(new ObjectMapper()), rawValues(true));
+        Mockito.when(redisService.getRaw("1"))
+                .thenReturn(Mono.just(ByteBuffer.wrap(serializer(JacksonValueCodec.json()).serialize(user))));
+        StepVerifier.create(userStore.findBody("1"))
+                .assertNext(body -> Assertions.assertEquals(
+                        "{\"id\":\"1\",\"firstName\":\"firstName\",\"lastName\":\"lastName\"}",
+                        ((DataBuffer) body).toString(StandardCharsets.UTF_8)))
+                .verifyComplete();
+        Mockito.verify(redisService, Mockito.never()).get(anyString());
+    }
+
+    @Test
+    void findBody_whenRawReadsAndSmile_shouldDecode() {
+        userStore = new ValueUserStore(redisService, new UserFields(new ObjectMapper()), rawValues(true));
+        Mockito.when(redisService.getRaw("1"))
+                .thenReturn(Mono.just(ByteBuffer.wrap(serializer(JacksonValueCodec.smile()).serialize(user))));
+        StepVerifier.create(userStore.findBody("1"))
+                .expectNext(user)
+                .verifyComplete();
+    }
+
+    @Test
+    void findBody_whenRawReadsAndCounter_shouldBeEmpty() {
+        userStore = new ValueUserStore(redisService, new UserFields(new ObjectMapper()), rawValues(true));
+        Mockito.when(redisService.getRaw("item1"))
+                .thenReturn(Mono.just(ByteBuffer.wrap("10".getBytes(StandardCharsets.US_ASCII))));
+        StepVerifier.create(userStore.findBody("item1"))
+                .verifyComplete();
+    }
+
+    @Test
+    void find_withUnknownField_shouldFail() {
+        StepVerifier.create(userStore.find("1", Set.of("age")))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        Mockito.verifyNoInteractions(redisService);
+    }
+
+    @Test
+    void findAll_shouldConvertLegacyMapsAndSkipOtherValues() {
+        Mockito.when(redisService.multiGet(List.of("1", "2", "item1")))
+                .thenReturn(Mono.just(Arrays.asList(user, Map.of("firstName", "legacy"), 10L)));
+        StepVerifier.create(userStore.findAll(List.of("1", "2", "item1")))
+                .assertNext(users -> {
+                    Assertions.assertEquals(user, users.get(0));
+                    Assertions.assertEquals("legacy", users.get(1).getFirstName());
+                    Assertions.assertNull(users.get(2));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void scan_shouldOnlyEmitUsers() {
+        User withoutId = new User().setFirstName("other");
+        Mockito.when(redisService.scanEntries("*"))
+                .thenReturn(Flux.just(Map.entry("1", user), Map.entry("item1", 10L), Map.entry("2", withoutId)));
+        StepVerifier.create(userStore.scan("*"))
+                .expectNext(user)
+                .assertNext(data -> Assertions.assertEquals("2", data.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void patch_shouldMergeAndWriteTheWholeValue() {
+        Mockito.when(redisService.get("1"))
+                .thenReturn(Mono.just(user));
+        Mockito.when(redisService.put(anyString(), any()))
+                .thenReturn(Mono.just(true));
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("lastName", "changed");
+        changes.put("firstName", null);
+        StepVerifier.create(userStore.patch("1", changes))
+                .assertNext(data -> {
+                    Assertions.assertEquals("1", data.getId());
+                    Assertions.assertNull(data.getFirstName());
+                    Assertions.assertEquals("changed", data.getLastName());
+                })
+                .verifyComplete();
+        Mockito.verify(redisService).put("1", new User().setId("1").setLastName("changed"));
+    }
+
+    @Test
+    void patch_whenMissing_shouldBeEmpty() {
+        Mockito.when(redisService.get("1"))
+                .thenReturn(Mono.empty());
+        StepVerifier.create(userStore.patch("1", Map.of("lastName", "changed")))
+                .verifyComplete();
+        Mockito.verify(redisService, Mockito.never()).put(anyString(), any());
+    }
+
+    @Test
+    void patch_ofId_shouldFail() {
+        StepVerifier.create(userStore.patch("1", Map.of("id", "2")))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    private static TypeRegistry typeRegistry() {
+        return new TypeRegistry().register(1, User.class);
+    }
+
+    private static VersionedValueSerializer serializer(ValueCodec writeCodec) {
+        return new VersionedValueSerializer(typeRegistry(), writeCodec,
+                List.of(JacksonValueCodec.smile(), JacksonValueCodec.json()), new ObjectMapper());
+    }
+
+    private static RawValues rawValues(boolean enabled) {
+        RawReadProperties properties = new RawReadProperties();
+        properties.setEnabled(enabled);
+        return new RawValues(serializer(JacksonValueCodec.smile()), typeRegistry(), properties);
+    }
+}